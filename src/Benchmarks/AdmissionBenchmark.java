@@ -0,0 +1,86 @@
+package Benchmarks;
+
+import Helpers.ConcurrencyLimiter;
+import Helpers.RateLimiter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures the overhead admission control adds to each request: ns per RateLimiter.tryAcquire
+ * (allowed and rejected, one key shared by every thread or one key per thread) and ns per
+ * ConcurrencyLimiter tryEnter + exit, from 1 to 16 threads.
+ * Run: java Benchmarks.AdmissionBenchmark [callsPerThread]
+ **/
+public class AdmissionBenchmark {
+    public static void main(String[] args) throws InterruptedException {
+        int callsPerThread = (args.length > 0) ? Integer.parseInt(args[0]) : 2000000;
+
+        // Warm up every path before measuring
+        for (int threads = 1; threads <= 4; threads *= 2)
+            runAll(threads, callsPerThread / 4);
+
+        System.out.println("Threads | Allowed, shared key | Allowed, key per thread | Rejected | Enter + exit (ns/op)");
+
+        for (int threads = 1; threads <= 16; threads *= 2) {
+            double[] results = runAll(threads, callsPerThread);
+            System.out.printf("%7d | %19.1f | %23.1f | %8.1f | %20.1f%n", threads,
+                    results[0], results[1], results[2], results[3]);
+        }
+    }
+
+    private static double[] runAll(int threads, int callsPerThread) throws InterruptedException {
+        // Rate high enough that nothing is rejected
+        RateLimiter allowAll = new RateLimiter(1e9, 1000000);
+        // Empty after the first request
+        RateLimiter rejectAll = new RateLimiter(1e-6, 1);
+        ConcurrencyLimiter concurrency = new ConcurrencyLimiter(threads, 0, 0);
+        String[] keys = new String[threads];
+
+        for (int i = 0; i < threads; i++)
+            keys[i] = "kiosk-" + i;
+
+        return new double[]{
+                run(threads, callsPerThread, thread -> allowAll.tryAcquire("kiosk")),
+                run(threads, callsPerThread, thread -> allowAll.tryAcquire(keys[thread])),
+                run(threads, callsPerThread, thread -> rejectAll.tryAcquire("kiosk")),
+                run(threads, callsPerThread, thread -> {
+                    if (!concurrency.tryEnter())
+                        return false;
+
+                    concurrency.exit();
+                    return true;
+                })
+        };
+    }
+
+    private interface Call {
+        boolean run(int thread);
+    }
+
+    /**
+     * Returns the average ns each thread spent per call
+     **/
+    private static double run(int threads, int callsPerThread, Call call) throws InterruptedException {
+        List<Thread> workers = new ArrayList<>();
+        long[] allowed = new long[threads];
+        long startTime = System.nanoTime();
+
+        for (int i = 0; i < threads; i++) {
+            int thread = i;
+            Thread worker = new Thread(() -> {
+                for (int j = 0; j < callsPerThread; j++) {
+                    if (call.run(thread))
+                        allowed[thread]++;
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+
+        for (Thread worker : workers)
+            worker.join();
+
+        return (double) (System.nanoTime() - startTime) * threads / ((long) threads * callsPerThread);
+    }
+}
@@ -0,0 +1,96 @@
+package Benchmarks;
+
+import Models.*;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Exports a synthetic catalog both as text (one toString line per book/author/user) and as
+ * column files, and reports the time and bytes each takes, plus how long reading the columns back takes.
+ * Run: java Benchmarks.ColumnarExportBenchmark [# books] [# users] [directory]
+ **/
+public class ColumnarExportBenchmark {
+    public static void main(String[] args) throws IOException {
+        int bookCount = (args.length > 0) ? Integer.parseInt(args[0]) : 1000000;
+        int userCount = (args.length > 1) ? Integer.parseInt(args[1]) : 200000;
+        Path directory = (args.length > 2) ? Path.of(args[2]) : Files.createTempDirectory("export");
+
+        Random random = new Random(42);
+        String[] genres = {"Fiction", "Children", "Fantasy", "Mystery", "History", "Science", "Poetry", "Horror"};
+        List<Author> authors = new ArrayList<>();
+        List<Book> books = new ArrayList<>(bookCount);
+        List<User> users = new ArrayList<>(userCount);
+
+        for (int i = 0; i < bookCount / 10; i++)
+            authors.add(new Author("Author " + i, String.format("%02d/%02d/%d", 1 + i % 12, 1 + i % 28, 1900 + i % 100)));
+
+        for (int i = 0; i < bookCount; i++) {
+            books.add(new Book("Title " + i, authors.get(random.nextInt(authors.size())).getName(),
+                    genres[random.nextInt(genres.length)] + ", " + genres[random.nextInt(genres.length)],
+                    1 + random.nextInt(3)));
+        }
+
+        for (int i = 0; i < userCount; i++) {
+            User user = new User("User", "password");
+
+            for (int j = random.nextInt(4); j > 0; j--) {
+                Book book = books.get(random.nextInt(bookCount));
+                String barcode = book.checkOutBook();
+
+                if (barcode != null)
+                    user.checkOutBook(book.getTitle(), barcode);
+            }
+
+            users.add(user);
+        }
+
+        CatalogSnapshot snapshot = CatalogSnapshot.of(books, authors, users);
+        Files.createDirectories(directory);
+        Path textFile = directory.resolve("catalog.txt");
+
+        for (int run = 0; run < 3; run++) {
+            long startTime = System.nanoTime();
+
+            try (BufferedWriter writer = Files.newBufferedWriter(textFile)) {
+                for (Book book : books)
+                    writer.write(book.toString() + "\n");
+
+                for (Author author : authors)
+                    writer.write(author.toString() + "\n");
+
+                for (User user : users)
+                    writer.write(user.toString() + "\n");
+            }
+
+            long textTime = System.nanoTime() - startTime;
+            startTime = System.nanoTime();
+            ColumnarCatalogWriter.write(snapshot, directory.resolve("columns"));
+            long columnTime = System.nanoTime() - startTime;
+            startTime = System.nanoTime();
+            ColumnarCatalogReader.read(directory.resolve("columns"));
+            long readTime = System.nanoTime() - startTime;
+
+            System.out.printf("Text: %d ms, %d KB | Columns: %d ms, %d KB, read back in %d ms%n",
+                    textTime / 1000000, Files.size(textFile) / 1024, columnTime / 1000000,
+                    directorySize(directory.resolve("columns")) / 1024, readTime / 1000000);
+        }
+    }
+
+    private static long directorySize(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            long size = 0;
+
+            for (Path file : (Iterable<Path>) files::iterator)
+                size += Files.size(file);
+
+            return size;
+        }
+    }
+}
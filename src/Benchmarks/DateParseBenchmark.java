@@ -0,0 +1,112 @@
+package Benchmarks;
+
+import Helpers.StringHelpers;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Measures ns per date parsed over a mix of valid and invalid MM/DD/YYYY dates. Compares
+ * StringHelpers.parseDate (hand written parser behind a small cache) with the old scheme
+ * (regex format check, then LocalDate). Runs once with few distinct dates (cache hits) and
+ * once with many (mostly misses).
+ * Run: java Benchmarks.DateParseBenchmark [parsesPerRound]
+ **/
+public class DateParseBenchmark {
+    private static final Pattern oldDateRegex = Pattern
+            .compile("^(0[1-9]|1[0-2])\\/(0[1-9]|[1-2][0-9]|3[0-1])\\/([1-2][0-9]{3})$");
+
+    // Keeps the JIT from removing the parsing
+    private static long sink;
+
+    public static void main(String[] args) {
+        int parsesPerRound = (args.length > 0) ? Integer.parseInt(args[0]) : 2000000;
+
+        System.out.println("Distinct dates | parseDate (ns/op) | Regex + LocalDate (ns/op)");
+
+        for (int distinct : new int[]{64, 100000}) {
+            String[] dates = randomDates(distinct, new Random(42));
+
+            // Warm up both paths before measuring
+            runNew(dates, parsesPerRound);
+            runOld(dates, parsesPerRound);
+
+            double newNs = runNew(dates, parsesPerRound);
+            double oldNs = runOld(dates, parsesPerRound);
+            System.out.printf("%14d | %17.1f | %25.1f%n", distinct, newNs, oldNs);
+        }
+
+        if (sink == 42)
+            System.out.println();
+    }
+
+    private static double runNew(String[] dates, int parses) {
+        long start = System.nanoTime();
+        long total = 0;
+
+        for (int i = 0; i < parses; i++)
+            total += StringHelpers.parseDate(dates[i % dates.length]);
+
+        sink += total;
+        return (double) (System.nanoTime() - start) / parses;
+    }
+
+    private static double runOld(String[] dates, int parses) {
+        long start = System.nanoTime();
+        long total = 0;
+
+        for (int i = 0; i < parses; i++)
+            total += oldParseDate(dates[i % dates.length]);
+
+        sink += total;
+        return (double) (System.nanoTime() - start) / parses;
+    }
+
+    private static int oldParseDate(String date) {
+        if (date == null)
+            return StringHelpers.unknownDate;
+
+        Matcher matcher = oldDateRegex.matcher(date);
+
+        if (!matcher.matches())
+            return StringHelpers.unknownDate;
+
+        try {
+            return (int) LocalDate.of(Integer.parseInt(matcher.group(3)), Integer.parseInt(matcher.group(1)),
+                    Integer.parseInt(matcher.group(2))).toEpochDay();
+        } catch (DateTimeException e) {
+            return StringHelpers.unknownDate;
+        }
+    }
+
+    /**
+     * Roughly 1 in 8 dates is invalid (bad day, bad month or not a date at all)
+     **/
+    private static String[] randomDates(int count, Random random) {
+        String[] dates = new String[count];
+
+        for (int i = 0; i < count; i++) {
+            int month = 1 + random.nextInt(12), day = 1 + random.nextInt(28), year = 1000 + random.nextInt(2000);
+
+            switch (random.nextInt(16)) {
+                case 0:
+                    day = 31;
+                    month = 2;
+                    break;
+                case 1:
+                    month = 13;
+                    break;
+                case 2:
+                    dates[i] = "Unknown";
+                    continue;
+            }
+
+            dates[i] = String.format("%02d/%02d/%04d", month, day, year);
+        }
+
+        return dates;
+    }
+}
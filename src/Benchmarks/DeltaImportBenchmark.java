@@ -0,0 +1,138 @@
+package Benchmarks;
+
+import Models.DeltaImportResult;
+import Models.LibraryManager;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Time to apply a catalog export where a small share of the rows changed (importBookDelta) vs. a full
+ * reload of the export (startUpManager). The delta changes the copies of most of the changed rows,
+ * drops some titles and adds new ones. It's applied twice: right after startup (every row is compared
+ * with its book) and after a first import of the catalog (unchanged rows are skipped by their hash).
+ * Runs in a fresh JVM started in a directory holding the catalog, like StartupBenchmark.
+ * Run: java Benchmarks.DeltaImportBenchmark [# of rows] [% of rows changed]   (Defaults to 1000000 and 1)
+ * JVM options for the run can be passed with -Dimport.jvmOptions="..." (defaults to -Xmx4g)
+ **/
+public class DeltaImportBenchmark {
+    private static final String[] genres = {"Fiction", "Children", "Fantasy", "Mystery", "History", "Science"};
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 1 && args[0].equals("--run")) {
+            run();
+            return;
+        }
+
+        int rows = (args.length > 0) ? Integer.parseInt(args[0]) : 1000000;
+        double percentChanged = (args.length > 1) ? Double.parseDouble(args[1]) : 1;
+        Path directory = Files.createTempDirectory("delta-import");
+        int changed = writeCatalog(directory, rows, percentChanged);
+
+        System.out.printf("%,d rows, %,d changed%n", rows, changed);
+        startJvm(directory);
+    }
+
+    /**
+     * Writes books.txt, authors.txt and books-delta.txt (the export with the changes). Returns the # of changed rows.
+     **/
+    private static int writeCatalog(Path directory, int rows, double percentChanged) throws IOException {
+        int changeEvery = (int) Math.max(1, Math.round(100 / percentChanged));
+        int changed = 0;
+
+        try (PrintWriter books = new PrintWriter(Files.newBufferedWriter(directory.resolve("books.txt")));
+             PrintWriter delta = new PrintWriter(Files.newBufferedWriter(directory.resolve("books-delta.txt")));
+             PrintWriter authors = new PrintWriter(Files.newBufferedWriter(directory.resolve("authors.txt")))) {
+            for (int i = 0; i < rows; i++) {
+                int copies = 1 + i % 3;
+                books.println(line(i, copies));
+
+                if (i % 5 == 0)
+                    authors.printf("Author %06d - %02d/%02d/%d%n", i / 5, 1 + i % 12, 1 + i % 28, 1900 + i % 100);
+
+                if (i % changeEvery != 0) {
+                    delta.println(line(i, copies));
+                    continue;
+                }
+
+                changed++;
+
+                // 8 of 10 changed rows get new copies, 1 is dropped and 1 replaced by a new title
+                switch ((i / changeEvery) % 10) {
+                    case 8:
+                        break;
+                    case 9:
+                        delta.println(line(rows + i, copies));
+                        break;
+                    default:
+                        delta.println(line(i, copies + 1));
+                }
+            }
+        }
+
+        return changed;
+    }
+
+    private static String line(int i, int copies) {
+        return String.format("Title %08d - Author %06d - %s, %s - %d", i, i / 5, genres[i % genres.length],
+                genres[(i / 7) % genres.length], copies);
+    }
+
+    /**
+     * Runs the import in a new JVM in the directory and prints what it printed
+     **/
+    private static void startJvm(Path directory) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+
+        for (String option : System.getProperty("import.jvmOptions", "-Xmx4g").split(" ")) {
+            if (!option.isEmpty())
+                command.add(option);
+        }
+
+        command.addAll(List.of("-cp", System.getProperty("java.class.path"), DeltaImportBenchmark.class.getName(),
+                "--run"));
+        Process process = new ProcessBuilder(command).directory(directory.toFile()).redirectErrorStream(true).start();
+
+        try (BufferedReader out = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+            for (String line = out.readLine(); line != null; line = out.readLine()) {
+                if (line.startsWith("Full") || line.startsWith("Delta") || line.startsWith("Exception"))
+                    System.out.println(line);
+            }
+        }
+
+        process.waitFor();
+    }
+
+    /**
+     * Body of the run (in its own JVM)
+     **/
+    private static void run() throws Exception {
+        LibraryManager manager = LibraryManager.getInstance();
+
+        long startTime = System.nanoTime();
+        manager.startUpManager();
+        long fullMillis = (System.nanoTime() - startTime) / 1000000;
+        System.out.printf("Full reload (startUpManager): %,d ms%n", fullMillis);
+
+        timeImport(manager, "books-delta.txt", "right after startup", fullMillis);
+        // Back to the catalog, so the delta is applied again on top of an import with every row's hash
+        manager.importBookDelta("books.txt");
+        timeImport(manager, "books-delta.txt", "after an import", fullMillis);
+    }
+
+    private static void timeImport(LibraryManager manager, String fileName, String when, long fullMillis)
+            throws IOException {
+        long startTime = System.nanoTime();
+        DeltaImportResult result = manager.importBookDelta(fileName);
+        long millis = (System.nanoTime() - startTime) / 1000000;
+        System.out.printf("Delta %-20s: %,6d ms (%.1f%% of a full reload) | %s%n", when, millis,
+                100.0 * millis / Math.max(1, fullMillis), result);
+    }
+}
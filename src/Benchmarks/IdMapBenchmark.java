@@ -0,0 +1,132 @@
+package Benchmarks;
+
+import Helpers.IntHashSet;
+import Helpers.IntObjectMap;
+import Helpers.NameDictionary;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Random;
+
+/**
+ * Heap and lookup time of the book -> author ids relation (every book has 1 - 3 authors, each author
+ * wrote 5 books) and the title -> id dictionary at catalog scale, kept the boxed way (HashMap<String, Integer>,
+ * HashMap<Integer, HashSet<Integer>>) vs. with NameDictionary, IntObjectMap and IntHashSet.
+ * Each layout is built on its own so only one is on the heap at a time.
+ * Run: java Benchmarks.IdMapBenchmark [# of titles]   (10000000 needs about -Xmx4g)
+ **/
+public class IdMapBenchmark {
+    private static final int lookups = 2000000;
+
+    public static void main(String[] args) {
+        int titles = (args.length > 0) ? Integer.parseInt(args[0]) : 1000000;
+        System.out.printf("%,d titles, %,d authors%n", titles, titles / 5);
+        measure("boxed", titles, true);
+        measure("int ids", titles, false);
+    }
+
+    private static void measure(String layout, int titles, boolean boxed) {
+        long before = usedMemory();
+        long startTime = System.nanoTime();
+        Object[] kept = boxed ? buildBoxed(titles) : buildPrimitive(titles);
+        long buildMillis = (System.nanoTime() - startTime) / 1000000;
+        long heap = usedMemory() - before;
+        long bestNanos = Long.MAX_VALUE;
+        long found = 0;
+
+        for (int run = 0; run < 5; run++) {
+            Random random = new Random(run);
+            startTime = System.nanoTime();
+
+            for (int i = 0; i < lookups; i++) {
+                String title = titleOf(random.nextInt(titles));
+                int author = random.nextInt(titles / 5);
+                found += boxed ? lookupBoxed(kept, title, author) : lookupPrimitive(kept, title, author);
+            }
+
+            bestNanos = Math.min(bestNanos, System.nanoTime() - startTime);
+        }
+
+        System.out.printf("%-8s | heap %,6d MB (%,4d bytes per title) | built in %,6d ms | title -> id + " +
+                        "has author: %,5.0f ns per lookup (%d found)%n", layout, heap >> 20, heap / titles, buildMillis,
+                (double) bestNanos / lookups, found / 5);
+    }
+
+    private static Object[] buildBoxed(int titles) {
+        HashMap<String, Integer> ids = new HashMap<>();
+        HashMap<Integer, HashSet<Integer>> authorsOf = new HashMap<>();
+
+        for (int i = 0; i < titles; i++) {
+            ids.put(titleOf(i), i);
+            HashSet<Integer> authors = new HashSet<>();
+
+            for (int author : authorsOf(i))
+                authors.add(author);
+
+            authorsOf.put(i, authors);
+        }
+
+        return new Object[]{ids, authorsOf};
+    }
+
+    private static Object[] buildPrimitive(int titles) {
+        NameDictionary ids = new NameDictionary();
+        IntObjectMap<IntHashSet> authorsOf = new IntObjectMap<>();
+
+        for (int i = 0; i < titles; i++) {
+            int id = ids.idOf(titleOf(i));
+            IntHashSet authors = new IntHashSet();
+
+            for (int author : authorsOf(i))
+                authors.add(author);
+
+            authorsOf.put(id, authors);
+        }
+
+        return new Object[]{ids, authorsOf};
+    }
+
+    @SuppressWarnings("unchecked")
+    private static int lookupBoxed(Object[] kept, String title, int author) {
+        Integer id = ((HashMap<String, Integer>) kept[0]).get(title);
+        return ((HashMap<Integer, HashSet<Integer>>) kept[1]).get(id).contains(author) ? 1 : 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static int lookupPrimitive(Object[] kept, String title, int author) {
+        int id = ((NameDictionary) kept[0]).lookup(title);
+        return ((IntObjectMap<IntHashSet>) kept[1]).get(id).contains(author) ? 1 : 0;
+    }
+
+    /**
+     * The book's first author wrote it and the 4 books after it, some books have co-authors
+     **/
+    private static int[] authorsOf(int title) {
+        int author = title / 5;
+
+        switch (title % 4) {
+            case 0:
+                return new int[]{author, (author + 1) % 1000};
+            case 1:
+                return new int[]{author, author + 7, author + 13};
+            default:
+                return new int[]{author};
+        }
+    }
+
+    /**
+     * Titles are new strings, not constants, like titles read from a file
+     **/
+    private static String titleOf(int i) {
+        return "Title " + i;
+    }
+
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+
+        for (int i = 0; i < 3; i++)
+            System.gc();
+
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,57 @@
+package Benchmarks;
+
+import Helpers.ChannelWriter;
+import Models.LibraryManager;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Grows the catalog and measures the bytes allocated (GC garbage) by listing every title:
+ * getAllBookTitles (one big string) vs. writeAllBookTitles streamed into a channel. The streamed
+ * listing allocates about the same small amount per batch however big the catalog gets.
+ * Run: java Benchmarks.ListingBenchmark [max # of titles]
+ **/
+public class ListingBenchmark {
+    public static void main(String[] args) throws IOException {
+        int maxTitles = (args.length > 0) ? Integer.parseInt(args[0]) : 2000000;
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        LibraryManager manager = LibraryManager.getInstance();
+        WritableByteChannel discard = Channels.newChannel(OutputStream.nullOutputStream());
+        int titles = 0;
+
+        for (int size = 125000; size <= maxTitles; size *= 2) {
+            for (; titles < size; titles++)
+                manager.addBook(String.format("Title %08d", titles), "Author " + (titles % 5000), "Fiction", 1);
+
+            long allocated = 0, streamedAllocated = 0, time = 0, streamedTime = 0;
+
+            for (int run = 0; run < 5; run++) {
+                long before = threads.getCurrentThreadAllocatedBytes();
+                long startTime = System.nanoTime();
+                String all = manager.getAllBookTitles();
+                time = System.nanoTime() - startTime;
+                allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+                ChannelWriter writer = new ChannelWriter(discard);
+                before = threads.getCurrentThreadAllocatedBytes();
+                startTime = System.nanoTime();
+                manager.writeAllBookTitles(writer);
+                writer.flush();
+                streamedTime = System.nanoTime() - startTime;
+                streamedAllocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+                if (writer.getBytesWritten() != all.length())
+                    throw new IllegalStateException("Listings differ");
+            }
+
+            System.out.printf("%,d titles | String: %d ms, %,d KB allocated | Streamed: %d ms, %,d KB allocated%n",
+                    titles, time / 1000000, allocated / 1024, streamedTime / 1000000, streamedAllocated / 1024);
+        }
+
+        manager.getEventBus().close();
+    }
+}
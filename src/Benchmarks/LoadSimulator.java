@@ -0,0 +1,519 @@
+package Benchmarks;
+
+import Models.*;
+
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Drives a library with many simulated patrons at once, end to end through the LibraryManager API:
+ * logins (isValidUser), title/genre/keyword searches, checkouts of titles picked with Zipf popularity
+ * (a few titles get most of the checkouts), returns and catalog edits. Reports throughput and latency
+ * percentiles per operation, and checks the library's invariants during and after the run.
+ * Every thread has its own patrons and its own Random seeded from the seed, so the operations each thread
+ * makes are the same on every run (with 1 thread the whole run, and the library it leaves, is the same).
+ * Run: java Benchmarks.LoadSimulator [seed] [operations per thread] [thread counts...]
+ * (Defaults to seed 42, 20000 operations per thread and 1, 2, 4 and 8 threads, each on a new library)
+ **/
+public class LoadSimulator {
+    public enum Operation {LOGIN, LOOKUP, GENRE, SEARCH, CHECKOUT, RETURN, EDIT}
+
+    private static final String[] genres = {"Fiction", "Children", "Fantasy", "Mystery", "History", "Science",
+            "Romance", "Poetry"};
+    private static final String[] adjectives = {"Silent", "Hidden", "Broken", "Golden", "Last", "Wild", "Quiet",
+            "Lost", "Crimson", "Northern", "Secret", "Little"};
+    private static final String[] nouns = {"River", "Garden", "Kingdom", "Letter", "Forest", "Harbor", "Winter",
+            "Station", "Island", "Promise", "Mountain", "Lantern"};
+    private static final String password = "password";
+    private static final int maxViolationsKept = 20;
+
+    private final long seed;
+    private final int threads;
+    private final int operationsPerThread;
+    private int titles = 5000;
+    private int patronsPerThread = 50;
+    private double zipfExponent = 1.0;
+    private int[] mix = {5, 25, 5, 10, 25, 20, 10};
+
+    public LoadSimulator(long seed, int threads, int operationsPerThread) {
+        this.seed = seed;
+        this.threads = threads;
+        this.operationsPerThread = operationsPerThread;
+    }
+
+    /**
+     * # of titles the catalog starts with
+     **/
+    public void setTitles(int titles) {
+        this.titles = titles;
+    }
+
+    public void setPatronsPerThread(int patronsPerThread) {
+        this.patronsPerThread = patronsPerThread;
+    }
+
+    /**
+     * How skewed title popularity is, 0 = every title as popular, 1 = the usual Zipf skew
+     **/
+    public void setZipfExponent(double zipfExponent) {
+        this.zipfExponent = zipfExponent;
+    }
+
+    /**
+     * Relative weight of each Operation (in Operation order)
+     **/
+    public void setMix(int login, int lookup, int genre, int search, int checkout, int returns, int edit) {
+        this.mix = new int[]{login, lookup, genre, search, checkout, returns, edit};
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        long seed = (args.length > 0) ? Long.parseLong(args[0]) : 42;
+        int operations = (args.length > 1) ? Integer.parseInt(args[1]) : 20000;
+        List<Integer> threadCounts = new ArrayList<>();
+
+        for (int i = 2; i < args.length; i++)
+            threadCounts.add(Integer.parseInt(args[i]));
+
+        if (threadCounts.isEmpty())
+            threadCounts = List.of(1, 2, 4, 8);
+
+        TenantQuota unlimited = new TenantQuota(1000000, 1000000, 1000000, 1L << 40, 1e9, 1000000000);
+        LibraryTenants tenants = new LibraryTenants();
+
+        for (int threadCount : threadCounts) {
+            LibraryManager library = tenants.getOrCreate("load-" + threadCount, unlimited);
+            System.out.println(new LoadSimulator(seed, threadCount, operations).run(library));
+            tenants.remove("load-" + threadCount);
+        }
+    }
+
+    /**
+     * Adds the catalog and patrons to the (empty) library, runs the simulation and checks the invariants.
+     * Rate limits are lifted for the run so they don't hide the library's own capacity.
+     **/
+    public Report run(LibraryManager library) throws InterruptedException {
+        for (AdmissionControl.Operation operation : AdmissionControl.Operation.values())
+            library.getAdmissionControl().setRateLimit(operation, 1e9, 1000000000);
+
+        library.getAdmissionControl().setTenantRateLimit(1e9, 1000000000);
+        String[] catalog = addCatalog(library);
+        ZipfSampler popularity = new ZipfSampler(catalog.length, zipfExponent);
+        Report report = new Report(threads, operationsPerThread);
+        Patron[][] patrons = new Patron[threads][];
+
+        for (int thread = 0; thread < threads; thread++) {
+            patrons[thread] = new Patron[patronsPerThread];
+
+            for (int i = 0; i < patronsPerThread; i++)
+                patrons[thread][i] = new Patron(library.signUp("Patron " + thread + "-" + i, password));
+        }
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> running = new ArrayList<>();
+        List<Set<String>> newArrivals = new ArrayList<>();
+
+        for (int thread = 0; thread < threads; thread++) {
+            Worker worker = new Worker(library, catalog, popularity, patrons[thread], report, thread);
+            newArrivals.add(worker.newArrivals);
+            Thread t = new Thread(() -> {
+                try {
+                    start.await();
+                    worker.run();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (RuntimeException e) {
+                    report.violation("Thread " + worker.thread + " failed: " + e);
+                }
+            }, "load-" + thread);
+            running.add(t);
+            t.start();
+        }
+
+        long startTime = System.nanoTime();
+        start.countDown();
+
+        for (Thread t : running)
+            t.join();
+
+        report.wallNanos = System.nanoTime() - startTime;
+        checkInvariants(library, catalog, patrons, newArrivals, report);
+        return report;
+    }
+
+    /**
+     * Adds the titles (every author wrote 5 of them) and returns them, most popular first
+     **/
+    private String[] addCatalog(LibraryManager library) {
+        Random random = new Random(seed);
+        String[] catalog = new String[titles];
+
+        for (int i = 0; i < titles; i++) {
+            catalog[i] = adjectives[random.nextInt(adjectives.length)] + " " + nouns[random.nextInt(nouns.length)] +
+                    " " + i;
+            library.addBook(catalog[i], "Author " + (i / 5), genres[random.nextInt(genres.length)], 1 + random.nextInt(3));
+        }
+
+        return catalog;
+    }
+
+    /**
+     * Checks what must hold once every thread is done: copies and loans match, each patron holds exactly
+     * the loans the simulation gave them, and the catalog has exactly the titles it should
+     **/
+    private void checkInvariants(LibraryManager library, String[] catalog, Patron[][] patrons,
+                                 List<Set<String>> newArrivals, Report report) {
+        CatalogSnapshot snapshot = library.takeSnapshot();
+        Map<String, CatalogSnapshot.UserInfo> users = new HashMap<>();
+        Set<String> titlesInLibrary = new HashSet<>();
+        int copiesOut = 0, loans = 0;
+
+        for (CatalogSnapshot.BookInfo book : snapshot.getBooks()) {
+            titlesInLibrary.add(book.getTitle());
+            copiesOut += book.getTotalCopies() - book.getCopiesAvailable();
+
+            if (book.getCopiesAvailable() < 0 || book.getCopiesAvailable() > book.getTotalCopies())
+                report.violation(book.getTitle() + " has " + book.getCopiesAvailable() + " of " +
+                        book.getTotalCopies() + " copies available");
+        }
+
+        for (CatalogSnapshot.UserInfo user : snapshot.getUsers()) {
+            users.put(user.getId(), user);
+            loans += user.getBooksCheckedOut().size();
+
+            if (user.getBooksCheckedOut().size() > user.getCheckOutLimit())
+                report.violation(user.getId() + " has more loans than their limit");
+        }
+
+        if (copiesOut != loans)
+            report.violation(copiesOut + " copies are checked out but patrons hold " + loans + " loans");
+
+        for (Patron[] threadPatrons : patrons) {
+            for (Patron patron : threadPatrons) {
+                CatalogSnapshot.UserInfo user = users.get(patron.user.getId());
+
+                if (user == null || !new HashSet<>(user.getBooksCheckedOut()).equals(patron.loans))
+                    report.violation(patron.user.getId() + " holds " + (user == null ? "nothing" :
+                            user.getBooksCheckedOut()) + " but was given " + patron.loans);
+            }
+        }
+
+        Set<String> expectedTitles = new HashSet<>(Arrays.asList(catalog));
+
+        for (Set<String> arrivals : newArrivals)
+            expectedTitles.addAll(arrivals);
+
+        if (!titlesInLibrary.equals(expectedTitles))
+            report.violation("The library has " + titlesInLibrary.size() + " titles, expected " + expectedTitles.size());
+    }
+
+    /**
+     * A simulated patron and the loans the simulation gave them (only its own thread uses it)
+     **/
+    private static class Patron {
+        final User user;
+        final Set<String> loans;
+
+        Patron(User user) {
+            this.user = user;
+            this.loans = new LinkedHashSet<>();
+        }
+    }
+
+    /**
+     * One thread's patrons and operations
+     **/
+    private class Worker {
+        final LibraryManager library;
+        final String[] catalog;
+        final ZipfSampler popularity;
+        final Patron[] patrons;
+        final Report report;
+        final int thread;
+        final Random random;
+        final int[] cumulativeMix;
+        // Titles this thread added that are still in the library
+        final Set<String> newArrivals;
+        int newArrivalCount;
+
+        Worker(LibraryManager library, String[] catalog, ZipfSampler popularity, Patron[] patrons, Report report,
+               int thread) {
+            this.library = library;
+            this.catalog = catalog;
+            this.popularity = popularity;
+            this.patrons = patrons;
+            this.report = report;
+            this.thread = thread;
+            this.random = new Random(seed * 31 + thread + 1);
+            this.cumulativeMix = new int[mix.length];
+            this.newArrivals = new LinkedHashSet<>();
+
+            for (int i = 0, sum = 0; i < mix.length; i++)
+                cumulativeMix[i] = sum += mix[i];
+        }
+
+        void run() {
+            Operation[] operations = Operation.values();
+
+            for (int i = 0; i < operationsPerThread; i++) {
+                int pick = random.nextInt(cumulativeMix[cumulativeMix.length - 1]);
+                int type = 0;
+
+                while (pick >= cumulativeMix[type])
+                    type++;
+
+                Patron patron = patrons[random.nextInt(patrons.length)];
+                long startTime = System.nanoTime();
+                boolean succeeded = perform(operations[type], patron);
+                report.record(thread, i, operations[type], System.nanoTime() - startTime, succeeded);
+            }
+        }
+
+        /**
+         * Makes one operation as the patron, checking its result against what the simulation expects.
+         * Returns true if the operation succeeded (Ex: the checkout went through).
+         **/
+        boolean perform(Operation operation, Patron patron) {
+            int rank = popularity.sample(random);
+            String title = catalog[rank];
+
+            switch (operation) {
+                case LOGIN:
+                    // Every 4th login has the wrong password
+                    boolean correct = random.nextInt(4) != 0;
+                    boolean valid = library.isValidUser(patron.user.getId(), patron.user.getName(),
+                            correct ? password : "wrong password");
+
+                    if (valid != correct)
+                        report.violation("Login of " + patron.user.getId() + " was " + valid);
+
+                    return valid;
+                case LOOKUP:
+                    if (library.getBookByTitle(title).startsWith("Sorry"))
+                        report.violation(title + " wasn't found");
+
+                    return true;
+                case GENRE:
+                    return !library.findBooksByGenre(genres[random.nextInt(genres.length)]).startsWith("Sorry");
+                case SEARCH:
+                    String[] words = title.split(" ");
+                    return !library.searchBooks(words[random.nextInt(2)], 10).startsWith("Sorry");
+                case CHECKOUT:
+                    return checkOut(patron, title);
+                case RETURN:
+                    // Mostly a book the patron has, sometimes one they don't
+                    if (!patron.loans.isEmpty() && random.nextInt(10) != 0) {
+                        int loan = random.nextInt(patron.loans.size());
+                        title = patron.loans.stream().skip(loan).findFirst().orElse(title);
+                    }
+
+                    return returnBook(patron, title);
+                default:
+                    return edit(rank);
+            }
+        }
+
+        boolean checkOut(Patron patron, String title) {
+            LoanStatus status = library.checkOutBook(patron.user, title);
+            boolean hadIt = patron.loans.contains(title);
+
+            if (status == LoanStatus.SUCCESS && hadIt)
+                report.violation(patron.user.getId() + " checked out " + title + " twice");
+            else if (status == LoanStatus.ALREADY_CHECKED_OUT && !hadIt)
+                report.violation(patron.user.getId() + " was told they already have " + title);
+            else if (status != LoanStatus.SUCCESS && status != LoanStatus.ALREADY_CHECKED_OUT &&
+                    status != LoanStatus.UNAVAILABLE && status != LoanStatus.LIMIT_REACHED)
+                report.violation("Checkout of " + title + " was " + status);
+
+            if (status == LoanStatus.SUCCESS)
+                patron.loans.add(title);
+
+            return status == LoanStatus.SUCCESS;
+        }
+
+        boolean returnBook(Patron patron, String title) {
+            LoanStatus status = library.returnBook(patron.user, title);
+            boolean hadIt = patron.loans.remove(title);
+
+            if (hadIt != (status == LoanStatus.SUCCESS))
+                report.violation("Return of " + title + " by " + patron.user.getId() + " was " + status);
+
+            return status == LoanStatus.SUCCESS;
+        }
+
+        /**
+         * Adds copies of a title, adds a new title, removes a title this thread added or adds an author
+         **/
+        boolean edit(int rank) {
+            int pick = random.nextInt(10);
+
+            if (pick < 4) {
+                library.addBook(catalog[rank], "Author " + (rank / 5), "Fiction", 1);
+            } else if (pick < 7 || newArrivals.isEmpty()) {
+                String newTitle = "New Arrival " + thread + " " + newArrivalCount++;
+                library.addBook(newTitle, "Author " + thread + " " + newArrivalCount, genres[thread % genres.length], 1);
+                newArrivals.add(newTitle);
+            } else if (pick < 9) {
+                String oldTitle = newArrivals.iterator().next();
+                library.removeBook(null, oldTitle);
+                newArrivals.remove(oldTitle);
+            } else {
+                library.addAuthor("Guest Author " + thread + " " + random.nextInt(100),
+                        String.format("%02d/%02d/%d", 1 + random.nextInt(12), 1 + random.nextInt(28), 1900 + random.nextInt(100)));
+            }
+
+            return true;
+        }
+    }
+
+    /**
+     * Picks indexes 0 to n - 1, index i with probability proportional to 1 / (i + 1)^exponent
+     **/
+    static class ZipfSampler {
+        private final double[] cumulative;
+
+        ZipfSampler(int n, double exponent) {
+            cumulative = new double[n];
+            double sum = 0;
+
+            for (int i = 0; i < n; i++)
+                cumulative[i] = sum += 1 / Math.pow(i + 1, exponent);
+
+            for (int i = 0; i < n; i++)
+                cumulative[i] /= sum;
+        }
+
+        int sample(Random random) {
+            int index = Arrays.binarySearch(cumulative, random.nextDouble());
+            return Math.min((index >= 0) ? index : -index - 1, cumulative.length - 1);
+        }
+    }
+
+    /**
+     * Latencies and results of every operation, and any invariant that didn't hold
+     **/
+    public static class Report {
+        private final int threads;
+        private final long[][] latencies;
+        private final byte[][] operations;
+        private final long[][] successes;
+        private final List<String> violations;
+        private int violationCount;
+        private long wallNanos;
+
+        Report(int threads, int operationsPerThread) {
+            this.threads = threads;
+            this.latencies = new long[threads][operationsPerThread];
+            this.operations = new byte[threads][operationsPerThread];
+            this.successes = new long[threads][Operation.values().length];
+            this.violations = new ArrayList<>();
+        }
+
+        /**
+         * Each thread only writes its own row
+         **/
+        void record(int thread, int index, Operation operation, long nanos, boolean succeeded) {
+            latencies[thread][index] = nanos;
+            operations[thread][index] = (byte) operation.ordinal();
+
+            if (succeeded)
+                successes[thread][operation.ordinal()]++;
+        }
+
+        synchronized void violation(String message) {
+            if (violationCount++ < maxViolationsKept)
+                violations.add(message);
+        }
+
+        public synchronized int getViolationCount() {
+            return violationCount;
+        }
+
+        /**
+         * The first few violations found
+         **/
+        public synchronized List<String> getViolations() {
+            return new ArrayList<>(violations);
+        }
+
+        public long getOperationCount() {
+            return (long) threads * latencies[0].length;
+        }
+
+        /**
+         * # of operations of the type that were made, or that succeeded
+         **/
+        public long getCount(Operation operation, boolean succeededOnly) {
+            long count = 0;
+
+            for (int thread = 0; thread < threads; thread++) {
+                if (succeededOnly) {
+                    count += successes[thread][operation.ordinal()];
+                } else {
+                    for (byte type : operations[thread])
+                        count += (type == operation.ordinal()) ? 1 : 0;
+                }
+            }
+
+            return count;
+        }
+
+        public double getThroughput() {
+            return getOperationCount() / (wallNanos / 1e9);
+        }
+
+        /**
+         * Latency in nanoseconds at the percentile (0 - 100) of the operations of the type (null for every operation)
+         **/
+        public long getLatencyPercentile(Operation operation, double percentile) {
+            long[] sorted = latenciesOf(operation);
+
+            if (sorted.length == 0)
+                return 0;
+
+            int rank = (int) Math.ceil(percentile / 100 * sorted.length);
+            return sorted[Math.max(0, Math.min(rank, sorted.length) - 1)];
+        }
+
+        private long[] latenciesOf(Operation operation) {
+            long[] all = new long[(int) getOperationCount()];
+            int count = 0;
+
+            for (int thread = 0; thread < threads; thread++) {
+                for (int i = 0; i < latencies[thread].length; i++) {
+                    if (operation == null || operations[thread][i] == operation.ordinal())
+                        all[count++] = latencies[thread][i];
+                }
+            }
+
+            long[] sorted = Arrays.copyOf(all, count);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format("%d threads: %,d operations in %,d ms, %,.0f operations/s, %d violations%n",
+                    threads, getOperationCount(), wallNanos / 1000000, getThroughput(), getViolationCount()));
+            sb.append(String.format("  %-9s %9s %9s %9s %9s %9s %9s   (latency in us)%n", "operation", "count",
+                    "succeeded", "p50", "p90", "p99", "p99.9"));
+
+            for (Operation operation : Operation.values()) {
+                long[] sorted = latenciesOf(operation);
+
+                if (sorted.length == 0)
+                    continue;
+
+                sb.append(String.format("  %-9s %,9d %,9d %9.1f %9.1f %9.1f %9.1f%n", operation, sorted.length,
+                        getCount(operation, true), getLatencyPercentile(operation, 50) / 1e3,
+                        getLatencyPercentile(operation, 90) / 1e3, getLatencyPercentile(operation, 99) / 1e3,
+                        getLatencyPercentile(operation, 99.9) / 1e3));
+            }
+
+            for (String violation : getViolations())
+                sb.append("  Violation: ").append(violation).append('\n');
+
+            return sb.toString();
+        }
+    }
+}
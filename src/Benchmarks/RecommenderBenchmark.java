@@ -0,0 +1,58 @@
+package Benchmarks;
+
+import Models.CoCheckoutRecommender;
+
+import java.util.Random;
+
+/**
+ * Feeds millions of synthetic loans into the co-checkout model and reports loans recorded per second,
+ * memory used and how long a recommendation takes. Users borrow mostly from a few popular titles.
+ * Run: java Benchmarks.RecommenderBenchmark [# loans] [# users] [# titles]   (the defaults need about -Xmx4g)
+ **/
+public class RecommenderBenchmark {
+    public static void main(String[] args) {
+        int loans = (args.length > 0) ? Integer.parseInt(args[0]) : 5000000;
+        int users = (args.length > 1) ? Integer.parseInt(args[1]) : 200000;
+        int titles = (args.length > 2) ? Integer.parseInt(args[2]) : 20000;
+
+        Random random = new Random(42);
+        String[] userIds = new String[users];
+        String[] titleNames = new String[titles];
+
+        for (int i = 0; i < users; i++)
+            userIds[i] = "user" + i;
+
+        for (int i = 0; i < titles; i++)
+            titleNames[i] = "Title " + i;
+
+        CoCheckoutRecommender recommender = new CoCheckoutRecommender();
+        long memoryBefore = usedMemory();
+        long startTime = System.nanoTime();
+
+        for (int i = 0; i < loans; i++) {
+            // Squaring a uniform number skews picks toward the low (popular) titles
+            double skew = random.nextDouble();
+            int title = (int) (skew * skew * titles);
+            recommender.recordLoan(userIds[random.nextInt(users)], titleNames[title], i);
+        }
+
+        long elapsed = System.nanoTime() - startTime;
+        System.out.printf("Recorded %d loans in %d ms (%.0f loans/s), ~%d MB%n", loans, elapsed / 1000000,
+                loans / (elapsed / 1e9), (usedMemory() - memoryBefore) / (1024 * 1024));
+
+        startTime = System.nanoTime();
+        int lookups = 10000;
+
+        for (int i = 0; i < lookups; i++)
+            recommender.scoreCandidates(userIds[random.nextInt(users)]);
+
+        System.out.printf("Scored candidates for %d users, %.1f us each%n", lookups,
+                (System.nanoTime() - startTime) / 1e3 / lookups);
+    }
+
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
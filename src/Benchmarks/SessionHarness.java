@@ -0,0 +1,98 @@
+package Benchmarks;
+
+import Main.LibrarySession;
+import Main.QueueIO;
+import Main.SessionExecutor;
+import Models.Book;
+import Models.LibraryManager;
+import Models.User;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+
+/**
+ * Starts many scripted library sessions at once to show that idle sessions are cheap.
+ * Every session first sits idle waiting for input, then logs in, searches, checks out,
+ * returns a book and quits.
+ * Run: java Benchmarks.SessionHarness [# sessions]
+ * (Defaults to 100000 sessions on virtual threads, 1000 when only platform threads are available)
+ **/
+public class SessionHarness {
+    public static void main(String[] args) throws Exception {
+        LibraryManager libManager = LibraryManager.getInstance();
+        libManager.addBook("the lorax", "dr. suess", "children, picture", Book.maxCopies);
+        libManager.addBook("holes", "louis sachar", "adventure, fiction", Book.maxCopies);
+
+        try (SessionExecutor executor = new SessionExecutor()) {
+            int sessionCount = (args.length > 0) ? Integer.parseInt(args[0]) :
+                    executor.usesVirtualThreads() ? 100000 : 1000;
+            System.out.println("Virtual threads: " + executor.usesVirtualThreads() + ", Sessions: " + sessionCount);
+            // Every session sends its whole script at once, so let them all queue instead of being turned away
+            libManager.getAdmissionControl().setConcurrencyLimit(
+                    4 * Runtime.getRuntime().availableProcessors(), sessionCount, 60000);
+
+            List<User> users = new ArrayList<>(sessionCount);
+            List<QueueIO> channels = new ArrayList<>(sessionCount);
+            List<LibrarySession> sessions = new ArrayList<>(sessionCount);
+            List<Future<?>> running = new ArrayList<>(sessionCount);
+
+            long memoryBefore = usedMemory();
+            long startTime = System.nanoTime();
+
+            for (int i = 0; i < sessionCount; i++) {
+                users.add(libManager.signUp("Patron", "password"));
+                QueueIO io = new QueueIO(false);
+                LibrarySession session = new LibrarySession(libManager, io);
+                channels.add(io);
+                sessions.add(session);
+                running.add(executor.submit(session));
+            }
+
+            long idleMemory = usedMemory() - memoryBefore;
+            System.out.printf("Started %d idle sessions in %d ms, ~%d bytes per session%n", sessionCount,
+                    (System.nanoTime() - startTime) / 1000000, idleMemory / sessionCount);
+
+            startTime = System.nanoTime();
+
+            for (int i = 0; i < sessionCount; i++)
+                sendScript(channels.get(i), users.get(i));
+
+            for (Future<?> session : running)
+                session.get();
+
+            int finished = 0;
+
+            for (int i = 0; i < sessionCount; i++) {
+                if (sessions.get(i).isDone() && channels.get(i).getOutputLineCount() > 0)
+                    finished++;
+            }
+
+            System.out.printf("Ran %d scripted sessions in %d ms (%d finished correctly)%n", sessionCount,
+                    (System.nanoTime() - startTime) / 1000000, finished);
+            System.out.println(libManager.getBookByTitle("the lorax"));
+        }
+    }
+
+    private static void sendScript(QueueIO io, User user) {
+        String[] script = {
+                "n", user.getName(), user.getId(), "password",
+                "s", "b", "k", "lorax",
+                "c", "the lorax",
+                "i", "b",
+                "r", "the lorax",
+                "q"
+        };
+
+        for (String line : script)
+            io.send(line);
+
+        io.close();
+    }
+
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
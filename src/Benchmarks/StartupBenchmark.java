@@ -0,0 +1,123 @@
+package Benchmarks;
+
+import Models.LibraryManager;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures the time from JVM start to the first successful getBookByTitle, and until every index
+ * is ready, at several catalog sizes. Each run is a fresh JVM started in a directory holding the
+ * catalog (books.txt, authors.txt and a columnar snapshot) for one of these startup modes:
+ * eager (startUpManager), fast (fastStartUpManager from the text files, indexes built in the
+ * background) and snapshot (fastStartUpManager from the snapshot).
+ * Run: java Benchmarks.StartupBenchmark [catalog sizes...]
+ * JVM options for the runs (Ex: -Xmx4g -XX:SharedArchiveFile=library.jsa) can be passed with -Dstartup.jvmOptions="..."
+ **/
+public class StartupBenchmark {
+    private static final String[] genres = {"Fiction", "Children", "Fantasy", "Mystery", "History", "Science"};
+    private static final String lookupTitle = "Title 00000001";
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 2 && args[0].equals("--run")) {
+            run(args[1]);
+            return;
+        }
+
+        List<Integer> sizes = new ArrayList<>();
+
+        for (String arg : args)
+            sizes.add(Integer.parseInt(arg));
+
+        if (sizes.isEmpty())
+            sizes = List.of(1000, 10000, 100000);
+
+        for (int size : sizes) {
+            Path directory = Files.createTempDirectory("startup-" + size);
+            writeCatalog(directory, size);
+            startJvm(directory, "export");
+
+            for (String mode : new String[]{"eager", "fast", "snapshot"})
+                System.out.printf("%,d books | %-8s | %s%n", size, mode, startJvm(directory, mode));
+        }
+    }
+
+    /**
+     * Books, authors and genres like a real catalog: every author wrote 5 books
+     **/
+    private static void writeCatalog(Path directory, int size) throws IOException {
+        try (PrintWriter books = new PrintWriter(Files.newBufferedWriter(directory.resolve("books.txt")));
+             PrintWriter authors = new PrintWriter(Files.newBufferedWriter(directory.resolve("authors.txt")))) {
+            for (int i = 0; i < size; i++) {
+                books.printf("Title %08d - Author %06d - %s, %s - %d%n", i, i / 5, genres[i % genres.length],
+                        genres[(i / 7) % genres.length], 1 + i % 3);
+
+                if (i % 5 == 0)
+                    authors.printf("Author %06d - %02d/%02d/%d%n", i / 5, 1 + i % 12, 1 + i % 28, 1900 + i % 100);
+            }
+        }
+    }
+
+    /**
+     * Runs one startup mode in a new JVM in the directory and returns what it printed
+     **/
+    private static String startJvm(Path directory, String mode) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+
+        for (String option : System.getProperty("startup.jvmOptions", "").split(" ")) {
+            if (!option.isEmpty())
+                command.add(option);
+        }
+
+        command.addAll(List.of("-cp", System.getProperty("java.class.path"), StartupBenchmark.class.getName(),
+                "--run", mode));
+        Process process = new ProcessBuilder(command).directory(directory.toFile()).redirectErrorStream(true).start();
+        String result = "";
+
+        try (BufferedReader out = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+            for (String line = out.readLine(); line != null; line = out.readLine()) {
+                // The result, or the error if the run failed
+                if (line.startsWith("First lookup") || (result.isEmpty() && line.startsWith("Exception")))
+                    result = line;
+            }
+        }
+
+        process.waitFor();
+        return result;
+    }
+
+    /**
+     * Body of one run (in its own JVM)
+     **/
+    private static void run(String mode) throws Exception {
+        LibraryManager manager = LibraryManager.getInstance();
+
+        if (mode.equals("eager") || mode.equals("export"))
+            manager.startUpManager();
+        else
+            manager.fastStartUpManager(mode.equals("snapshot") ? "snapshot" : null, true);
+
+        if (manager.getBookByTitle(lookupTitle).startsWith("Sorry"))
+            throw new IllegalStateException(lookupTitle + " wasn't found");
+
+        long firstLookup = ManagementFactory.getRuntimeMXBean().getUptime();
+
+        if (!manager.getIndexBuilder().awaitReady(600000))
+            throw new IllegalStateException("Indexes weren't built");
+
+        long indexesReady = ManagementFactory.getRuntimeMXBean().getUptime();
+
+        if (mode.equals("export"))
+            manager.exportSnapshot("snapshot");
+
+        System.out.printf("First lookup after %,d ms, all indexes ready after %,d ms%n", firstLookup, indexesReady);
+    }
+}
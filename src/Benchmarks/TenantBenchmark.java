@@ -0,0 +1,68 @@
+package Benchmarks;
+
+import Models.LibraryManager;
+import Models.LibraryTenants;
+import Models.TenantQuota;
+import Models.User;
+
+import java.util.Random;
+
+/**
+ * Hosts thousands of small libraries in one JVM and reports the heap each takes (measured and
+ * estimated). Libraries pick their books from one shared catalog, like real libraries do, so
+ * titles, authors and genres repeat across them.
+ * Run: java Benchmarks.TenantBenchmark [# tenants] [books per tenant] [users per tenant]
+ **/
+public class TenantBenchmark {
+    public static void main(String[] args) {
+        int tenantCount = (args.length > 0) ? Integer.parseInt(args[0]) : 2000;
+        int booksPerTenant = (args.length > 1) ? Integer.parseInt(args[1]) : 200;
+        int usersPerTenant = (args.length > 2) ? Integer.parseInt(args[2]) : 20;
+        int catalogSize = 20000;
+        String[] genres = {"Fiction", "Children", "Fantasy", "Mystery", "History", "Science", "Poetry", "Horror"};
+
+        Random random = new Random(42);
+        LibraryTenants tenants = new LibraryTenants();
+        long memoryBefore = usedMemory();
+        long startTime = System.nanoTime();
+
+        for (int t = 0; t < tenantCount; t++) {
+            LibraryManager library = tenants.getOrCreate("library-" + t);
+
+            for (int b = 0; b < booksPerTenant; b++) {
+                int book = random.nextInt(catalogSize);
+                library.addBook("Title " + book, "Author " + (book % 4000), genres[book % genres.length], 3);
+            }
+
+            for (int u = 0; u < usersPerTenant; u++) {
+                User user = library.signUp("User " + u, "password");
+
+                for (int loan = 0; loan < 3; loan++)
+                    library.checkOutBook(user, "Title " + random.nextInt(catalogSize));
+            }
+        }
+
+        long elapsed = System.nanoTime() - startTime;
+        long used = usedMemory() - memoryBefore;
+        System.out.printf("%d tenants (%d books, %d users each) built in %d ms%n", tenantCount, booksPerTenant,
+                usersPerTenant, elapsed / 1000000);
+        System.out.printf("Heap: %d MB total, %d KB per tenant (estimated %d KB per tenant)%n", used >> 20,
+                used / tenantCount / 1024, tenants.getEstimatedMemoryBytes() / tenantCount / 1024);
+
+        // A tiny quota is enforced
+        LibraryManager small = tenants.getOrCreate("small", new TenantQuota(2, 10, 1, 64L << 20, 5, 5));
+        small.addBook("Holes", "Louis Sachar", "Fiction", 1);
+        small.addBook("The Lorax", "Dr. Suess", "Children", 1);
+        small.addBook("Frog And Toad", "Arnold Lobel", "Children", 1);
+        System.out.printf("Small tenant: %d books (quota: %s)%n", small.getUniqueBookCount(), small.getQuota());
+    }
+
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+
+        for (int i = 0; i < 3; i++)
+            System.gc();
+
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
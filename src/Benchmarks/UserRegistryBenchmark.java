@@ -0,0 +1,100 @@
+package Benchmarks;
+
+import Models.User;
+import Models.UserRegistry;
+
+import java.security.SecureRandom;
+import java.util.HashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures sign up throughput from 1 to 64 threads. Compares the sharded registry (ids from
+ * IdGenerator, no retries) with the old scheme (one HashMap behind a lock, ids from a shared
+ * SecureRandom and a retry loop on collisions).
+ * Run: java Benchmarks.UserRegistryBenchmark [signUpsPerThread]
+ **/
+public class UserRegistryBenchmark {
+    private static final String allChars = "0123456789abcdefghijklmnopqrstuvwxyz";
+    private static final SecureRandom random = new SecureRandom();
+
+    public static void main(String[] args) throws InterruptedException {
+        int signUpsPerThread = (args.length > 0) ? Integer.parseInt(args[0]) : 20000;
+
+        // Warm up both paths before measuring
+        runShardedRegistry(4, signUpsPerThread);
+        runOldRegistry(4, signUpsPerThread);
+
+        System.out.println("Threads | Sharded registry (sign ups/s) | Old registry (sign ups/s)");
+
+        for (int threads = 1; threads <= 64; threads *= 2) {
+            double sharded = runShardedRegistry(threads, signUpsPerThread);
+            double old = runOldRegistry(threads, signUpsPerThread);
+            System.out.printf("%7d | %29.0f | %25.0f%n", threads, sharded, old);
+        }
+    }
+
+    private static double runShardedRegistry(int threads, int signUpsPerThread) throws InterruptedException {
+        UserRegistry registry = new UserRegistry();
+
+        return run(threads, () -> {
+            for (int i = 0; i < signUpsPerThread; i++)
+                registry.register(new User("Sam", "password"));
+        }) * signUpsPerThread;
+    }
+
+    private static double runOldRegistry(int threads, int signUpsPerThread) throws InterruptedException {
+        HashMap<String, User> userMap = new HashMap<>();
+
+        return run(threads, () -> {
+            for (int i = 0; i < signUpsPerThread; i++) {
+                User newUser = new User("Sam", "password");
+                String id = oldRandomId();
+
+                synchronized (userMap) {
+                    while (userMap.containsKey(id))
+                        id = oldRandomId();
+
+                    newUser.setId(id);
+                    userMap.put(id, newUser);
+                }
+            }
+        }) * signUpsPerThread;
+    }
+
+    /**
+     * Runs the task on the given # of threads at once. Returns (# threads / seconds taken).
+     **/
+    private static double run(int threads, Runnable task) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+
+        for (int i = 0; i < threads; i++) {
+            new Thread(() -> {
+                try {
+                    start.await();
+                    task.run();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            }).start();
+        }
+
+        long startTime = System.nanoTime();
+        start.countDown();
+        done.await();
+        double seconds = (System.nanoTime() - startTime) / (double) TimeUnit.SECONDS.toNanos(1);
+        return threads / seconds;
+    }
+
+    private static String oldRandomId() {
+        StringBuilder sb = new StringBuilder();
+
+        for (int i = 0; i < 12; i++)
+            sb.append(allChars.charAt(random.nextInt(allChars.length())));
+
+        return sb.toString();
+    }
+}
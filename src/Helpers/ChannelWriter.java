@@ -0,0 +1,106 @@
+package Helpers;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Appendable that encodes text as UTF-8 into a channel (file, socket...) in 64KB chunks,
+ * so text of any size is written with the same two fixed buffers. Call flush when done.
+ * NOTE: not thread safe. Doesn't close the channel.
+ **/
+public class ChannelWriter implements Appendable, Flushable {
+    private static final int chunkBytes = 64 * 1024;
+
+    private final WritableByteChannel channel;
+    private final CharsetEncoder encoder;
+    private final CharBuffer chars;
+    private final ByteBuffer bytes;
+    private long bytesWritten;
+
+    public ChannelWriter(WritableByteChannel channel) {
+        this.channel = channel;
+        this.encoder = StandardCharsets.UTF_8.newEncoder().onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.chars = CharBuffer.allocate(chunkBytes / 4);
+        this.bytes = ByteBuffer.allocate(chunkBytes);
+    }
+
+    public ChannelWriter append(CharSequence text) throws IOException {
+        return append(text, 0, (text == null) ? 4 : text.length());
+    }
+
+    public ChannelWriter append(CharSequence text, int start, int end) throws IOException {
+        if (text == null)
+            text = "null";
+
+        while (start < end) {
+            if (!chars.hasRemaining())
+                encodeChars();
+
+            int count = Math.min(end - start, chars.remaining());
+
+            if (text instanceof String) {
+                chars.put((String) text, start, start + count);
+            } else {
+                for (int i = start; i < start + count; i++)
+                    chars.put(text.charAt(i));
+            }
+
+            start += count;
+        }
+
+        return this;
+    }
+
+    public ChannelWriter append(char c) throws IOException {
+        if (!chars.hasRemaining())
+            encodeChars();
+
+        chars.put(c);
+        return this;
+    }
+
+    /**
+     * Writes everything appended so far to the channel
+     **/
+    public void flush() throws IOException {
+        encodeChars();
+        writeBytes();
+    }
+
+    /**
+     * # of bytes written to the channel so far
+     **/
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    /**
+     * Moves buffered chars into the byte buffer, writing it out each time it fills up.
+     * Half of a surrogate pair is kept back until the other half comes.
+     **/
+    private void encodeChars() throws IOException {
+        chars.flip();
+
+        while (encoder.encode(chars, bytes, false) == CoderResult.OVERFLOW)
+            writeBytes();
+
+        chars.compact();
+    }
+
+    private void writeBytes() throws IOException {
+        bytes.flip();
+
+        while (bytes.hasRemaining())
+            bytesWritten += channel.write(bytes);
+
+        bytes.clear();
+    }
+}
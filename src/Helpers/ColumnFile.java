@@ -0,0 +1,363 @@
+package Helpers;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * One column of values in its own file, written and read in 64KB chunks through a FileChannel. A
+ * DICTIONARY column keeps its distinct values in memory, so it's meant for values that repeat. Encodings:
+ * INT_RLE - ints as (value, run length) pairs, DICTIONARY - strings as ids into a dictionary of the
+ * distinct values (ids run length encoded), STRING - strings as they are (length + UTF-8 bytes).
+ * Layout: header (magic, encoding, row count, dictionary position), chunks (byte length + data),
+ * then the dictionary (DICTIONARY only). Numbers inside chunks are variable length (1 - 5 bytes).
+ **/
+public class ColumnFile {
+    public enum Encoding {INT_RLE, DICTIONARY, STRING}
+
+    private static final int magic = 0x4C434F4C;
+    private static final int headerBytes = 4 + 1 + 4 + 8;
+    private static final int chunkBytes = 64 * 1024;
+
+    private ColumnFile() {
+    }
+
+    /**
+     * Writes values one at a time. Only one thread may use a writer.
+     **/
+    public static class Writer implements Closeable {
+        private final FileChannel channel;
+        private final Encoding encoding;
+        private final ByteBuffer chunk;
+        private final HashMap<String, Integer> dictionaryIds;
+        private final List<String> dictionary;
+        private int rowCount;
+        // Run being built (INT_RLE and DICTIONARY), written out once a different value comes
+        private int runValue;
+        private int runLength;
+
+        public Writer(Path file, Encoding encoding) throws IOException {
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            this.encoding = encoding;
+            this.chunk = ByteBuffer.allocate(chunkBytes);
+            this.dictionaryIds = new HashMap<>();
+            this.dictionary = new ArrayList<>();
+            channel.position(headerBytes);
+        }
+
+        public void writeInt(int value) throws IOException {
+            if (encoding != Encoding.INT_RLE)
+                throw new IllegalStateException("Column isn't INT_RLE: " + encoding);
+
+            addToRun(value);
+        }
+
+        public void writeString(String value) throws IOException {
+            if (value == null)
+                throw new IllegalArgumentException("Columns can't hold null");
+
+            if (encoding == Encoding.DICTIONARY) {
+                Integer id = dictionaryIds.get(value);
+
+                if (id == null) {
+                    id = dictionary.size();
+                    dictionary.add(value);
+                    dictionaryIds.put(value, id);
+                }
+
+                addToRun(id);
+            } else if (encoding == Encoding.STRING) {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                ensureRoom(5 + bytes.length);
+                writeVarInt(chunk, bytes.length);
+
+                if (bytes.length > chunk.remaining())
+                    writeOversized(bytes);
+                else
+                    chunk.put(bytes);
+
+                rowCount++;
+            } else {
+                throw new IllegalStateException("Column doesn't hold strings: " + encoding);
+            }
+        }
+
+        public int getRowCount() {
+            return rowCount;
+        }
+
+        /**
+         * Writes out everything left, the dictionary and the header
+         **/
+        public void close() throws IOException {
+            try {
+                endRun();
+                flushChunk();
+                long dictionaryPosition = channel.position();
+
+                if (encoding == Encoding.DICTIONARY) {
+                    for (String value : dictionary) {
+                        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                        ensureRoom(5 + bytes.length);
+                        writeVarInt(chunk, bytes.length);
+
+                        if (bytes.length > chunk.remaining())
+                            writeOversized(bytes);
+                        else
+                            chunk.put(bytes);
+                    }
+
+                    flushChunk();
+                }
+
+                ByteBuffer header = ByteBuffer.allocate(headerBytes);
+                header.putInt(magic).put((byte) encoding.ordinal()).putInt(rowCount).putLong(dictionaryPosition);
+                header.flip();
+
+                while (header.hasRemaining())
+                    channel.write(header, headerBytes - header.remaining());
+            } finally {
+                channel.close();
+            }
+        }
+
+        private void addToRun(int value) throws IOException {
+            if (runLength > 0 && value != runValue)
+                endRun();
+
+            runValue = value;
+            runLength++;
+            rowCount++;
+        }
+
+        private void endRun() throws IOException {
+            if (runLength == 0)
+                return;
+
+            ensureRoom(10);
+            writeVarInt(chunk, zigZag(runValue));
+            writeVarInt(chunk, runLength);
+            runLength = 0;
+        }
+
+        private void ensureRoom(int bytes) throws IOException {
+            if (chunk.position() > 0 && chunk.remaining() < Math.min(bytes, chunkBytes))
+                flushChunk();
+        }
+
+        /**
+         * Writes the chunk as (length, data) and starts a new one
+         **/
+        private void flushChunk() throws IOException {
+            if (chunk.position() == 0)
+                return;
+
+            chunk.flip();
+            ByteBuffer length = ByteBuffer.allocate(4).putInt(chunk.remaining());
+            length.flip();
+            writeFully(length);
+            writeFully(chunk);
+            chunk.clear();
+        }
+
+        /**
+         * A string bigger than a chunk gets a chunk of its own
+         **/
+        private void writeOversized(byte[] bytes) throws IOException {
+            chunk.flip();
+            ByteBuffer whole = ByteBuffer.allocate(chunk.remaining() + bytes.length);
+            whole.put(chunk).put(bytes).flip();
+            chunk.clear();
+
+            ByteBuffer length = ByteBuffer.allocate(4).putInt(whole.remaining());
+            length.flip();
+            writeFully(length);
+            writeFully(whole);
+        }
+
+        private void writeFully(ByteBuffer buffer) throws IOException {
+            while (buffer.hasRemaining())
+                channel.write(buffer);
+        }
+    }
+
+    /**
+     * Reads values back in the order they were written, one chunk in memory at a time.
+     **/
+    public static class Reader implements Closeable {
+        private final FileChannel channel;
+        private final Encoding encoding;
+        private final int rowCount;
+        private final long dataEnd;
+        private final List<String> dictionary;
+        private ByteBuffer chunk;
+        private int rowsRead;
+        private int runValue;
+        private int runRemaining;
+
+        public Reader(Path file) throws IOException {
+            this.channel = FileChannel.open(file, StandardOpenOption.READ);
+            ByteBuffer header = ByteBuffer.allocate(headerBytes);
+            readFully(header, 0);
+
+            if (header.getInt() != magic)
+                throw new IOException("Not a column file: " + file);
+
+            this.encoding = Encoding.values()[header.get()];
+            this.rowCount = header.getInt();
+            this.dataEnd = header.getLong();
+            this.dictionary = new ArrayList<>();
+            this.chunk = ByteBuffer.allocate(chunkBytes).limit(0);
+
+            if (encoding == Encoding.DICTIONARY) {
+                channel.position(dataEnd);
+
+                while (nextChunk(channel.size())) {
+                    while (chunk.hasRemaining())
+                        dictionary.add(readUtf8());
+                }
+            }
+
+            channel.position(headerBytes);
+        }
+
+        public Encoding getEncoding() {
+            return encoding;
+        }
+
+        public int getRowCount() {
+            return rowCount;
+        }
+
+        public boolean hasNext() {
+            return rowsRead < rowCount;
+        }
+
+        public int readInt() throws IOException {
+            if (encoding != Encoding.INT_RLE)
+                throw new IllegalStateException("Column isn't INT_RLE: " + encoding);
+
+            return nextRunValue();
+        }
+
+        public String readString() throws IOException {
+            if (encoding == Encoding.DICTIONARY)
+                return dictionary.get(nextRunValue());
+
+            if (encoding != Encoding.STRING)
+                throw new IllegalStateException("Column doesn't hold strings: " + encoding);
+
+            checkHasNext();
+
+            if (!chunk.hasRemaining() && !nextChunk(dataEnd))
+                throw new EOFException("Column ended early");
+
+            rowsRead++;
+            return readUtf8();
+        }
+
+        public void close() throws IOException {
+            channel.close();
+        }
+
+        private int nextRunValue() throws IOException {
+            checkHasNext();
+
+            if (runRemaining == 0) {
+                if (!chunk.hasRemaining() && !nextChunk(dataEnd))
+                    throw new EOFException("Column ended early");
+
+                runValue = unZigZag(readVarInt(chunk));
+                runRemaining = readVarInt(chunk);
+            }
+
+            runRemaining--;
+            rowsRead++;
+            return runValue;
+        }
+
+        private void checkHasNext() {
+            if (!hasNext())
+                throw new IllegalStateException("No more rows");
+        }
+
+        private String readUtf8() {
+            int length = readVarInt(chunk);
+            String value = new String(chunk.array(), chunk.position(), length, StandardCharsets.UTF_8);
+            chunk.position(chunk.position() + length);
+            return value;
+        }
+
+        /**
+         * Loads the next chunk before end. Returns false if there are no more.
+         **/
+        private boolean nextChunk(long end) throws IOException {
+            long position = channel.position();
+
+            if (position >= end)
+                return false;
+
+            ByteBuffer length = ByteBuffer.allocate(4);
+            readFully(length, position);
+            int chunkLength = length.getInt();
+
+            if (chunk.capacity() < chunkLength)
+                chunk = ByteBuffer.allocate(chunkLength);
+
+            chunk.clear().limit(chunkLength);
+            readFully(chunk, position + 4);
+            channel.position(position + 4 + chunkLength);
+            return true;
+        }
+
+        private void readFully(ByteBuffer buffer, long position) throws IOException {
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, position + buffer.position()) < 0)
+                    throw new EOFException("Column file is cut short");
+            }
+
+            buffer.flip();
+        }
+    }
+
+    private static void writeVarInt(ByteBuffer buffer, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+
+        buffer.put((byte) value);
+    }
+
+    private static int readVarInt(ByteBuffer buffer) {
+        int value = 0;
+
+        for (int shift = 0; ; shift += 7) {
+            byte next = buffer.get();
+            value |= (next & 0x7F) << shift;
+
+            if (next >= 0)
+                return value;
+        }
+    }
+
+    /**
+     * Maps small negative numbers to small positive ones so they stay short as var ints
+     **/
+    private static int zigZag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private static int unZigZag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
@@ -0,0 +1,107 @@
+package Helpers;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lets at most maxConcurrent callers in at once. Up to maxQueued more wait (first come, first served)
+ * for up to maxWaitMillis. Anyone past that is turned away right away, without waiting.
+ * Callers that get in must call exit when they're done.
+ **/
+public class ConcurrencyLimiter {
+    private final int maxConcurrent;
+    private final int maxAdmitted;
+    private final long maxWaitNanos;
+    private final Semaphore permits;
+    // Callers running or waiting for a permit
+    private final AtomicInteger admitted;
+    private final LongAdder rejectedCount;
+    private final LongAdder timedOutCount;
+
+    public ConcurrencyLimiter(int maxConcurrent, int maxQueued, long maxWaitMillis) {
+        if (maxConcurrent < 1 || maxQueued < 0)
+            throw new IllegalArgumentException("Need at least 1 concurrent caller and a queue size >= 0");
+
+        this.maxConcurrent = maxConcurrent;
+        this.maxAdmitted = maxConcurrent + maxQueued;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, maxWaitMillis));
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.admitted = new AtomicInteger();
+        this.rejectedCount = new LongAdder();
+        this.timedOutCount = new LongAdder();
+    }
+
+    /**
+     * Returns true once the caller may go ahead, false if the queue is full or the wait timed out
+     **/
+    public boolean tryEnter() {
+        int current;
+
+        do {
+            current = admitted.get();
+
+            if (current >= maxAdmitted) {
+                rejectedCount.increment();
+                return false;
+            }
+        } while (!admitted.compareAndSet(current, current + 1));
+
+        boolean entered = permits.tryAcquire();
+
+        try {
+            if (!entered && maxWaitNanos > 0)
+                entered = permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (!entered) {
+            admitted.decrementAndGet();
+            timedOutCount.increment();
+        }
+
+        return entered;
+    }
+
+    /**
+     * Lets the next caller in. Only call after tryEnter returned true.
+     **/
+    public void exit() {
+        permits.release();
+        admitted.decrementAndGet();
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    /**
+     * # of callers running now
+     **/
+    public int getRunning() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    /**
+     * # of callers waiting for their turn now
+     **/
+    public int getQueued() {
+        return Math.max(0, admitted.get() - getRunning());
+    }
+
+    /**
+     * # of callers turned away because the queue was full
+     **/
+    public long getRejectedCount() {
+        return rejectedCount.sum();
+    }
+
+    /**
+     * # of callers that waited in the queue for maxWaitMillis without getting in
+     **/
+    public long getTimedOutCount() {
+        return timedOutCount.sum();
+    }
+}
@@ -0,0 +1,228 @@
+package Helpers;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Availability of numbered copies (0, 1, 2 ...), one bit per copy (set = free). Copies are
+ * claimed and released with a compare and swap, without locks. Bits are grouped into words of
+ * 64 copies and segments of 64 words, each with a summary word marking which of its words (or
+ * segments) may have a free copy, so finding a free copy takes a few bit scans however many
+ * copies there are.
+ * NOTE: grow is synchronized, claim and release can run at the same time as it.
+ **/
+public class CopyBitmap {
+    private static final int copiesPerSegment = 64 * 64;
+    public static final int maxCopies = 64 * copiesPerSegment;
+    // Rough heap cost of the bitmap without segments (64 segment references + counters), and of each segment
+    private static final long baseBytes = 32 + (32 + 4 * 64) + 24 + 16;
+    private static final long segmentBytes = 16 + (32 + 8 * 64) + 24;
+
+    private final AtomicReferenceArray<Segment> segments;
+    // Bit s set -> segment s may have a free copy
+    private final AtomicLong segmentSummary;
+    private final AtomicInteger freeCount;
+    private volatile int size;
+
+    public CopyBitmap() {
+        segments = new AtomicReferenceArray<>(64);
+        segmentSummary = new AtomicLong();
+        freeCount = new AtomicInteger();
+    }
+
+    /**
+     * # of copies, free or not
+     **/
+    public int size() {
+        return size;
+    }
+
+    public int getFreeCount() {
+        return freeCount.get();
+    }
+
+    /**
+     * Approximate heap taken by the bitmap
+     **/
+    public long getMemoryBytes() {
+        return memoryBytesFor(size);
+    }
+
+    /**
+     * Approximate heap taken by a bitmap of the given # of copies
+     **/
+    public static long memoryBytesFor(int copies) {
+        return baseBytes + (long) ((Math.max(0, copies) + copiesPerSegment - 1) / copiesPerSegment) * segmentBytes;
+    }
+
+    /**
+     * Adds count free copies numbered after the existing ones. Returns the number of the first
+     * new copy, or -1 if that would make more than maxCopies copies.
+     **/
+    public synchronized int grow(int count) {
+        int first = size;
+
+        if (count < 0 || count > maxCopies - first)
+            return -1;
+
+        for (int copy = first; copy < first + count; ) {
+            int s = copy / copiesPerSegment, w = (copy / 64) % 64, bit = copy % 64;
+            int bitsInWord = Math.min(64 - bit, first + count - copy);
+            long mask = (bitsInWord == 64) ? -1L : ((1L << bitsInWord) - 1) << bit;
+
+            if (segments.get(s) == null)
+                segments.set(s, new Segment());
+
+            Segment segment = segments.get(s);
+            segment.words.getAndUpdate(w, word -> word | mask);
+            freeCount.addAndGet(bitsInWord);
+            setBit(segment.summary, w);
+            setBit(segmentSummary, s);
+            copy += bitsInWord;
+        }
+
+        size = first + count;
+        return first;
+    }
+
+    /**
+     * Claims any free copy. Returns its number, or -1 if no copy is free.
+     **/
+    public int claimAny() {
+        while (true) {
+            long summary = segmentSummary.get();
+
+            if (summary == 0)
+                return -1;
+
+            int s = Long.numberOfTrailingZeros(summary);
+            Segment segment = segments.get(s);
+            long wordSummary = segment.summary.get();
+
+            if (wordSummary == 0) {
+                clearHint(segmentSummary, s, () -> segment.summary.get() != 0);
+                continue;
+            }
+
+            int w = Long.numberOfTrailingZeros(wordSummary);
+            long word = segment.words.get(w);
+
+            if (word == 0) {
+                clearWordHint(s, segment, w);
+                continue;
+            }
+
+            long bit = word & -word;
+
+            if (segment.words.compareAndSet(w, word, word & ~bit)) {
+                freeCount.decrementAndGet();
+
+                if ((word & ~bit) == 0)
+                    clearWordHint(s, segment, w);
+
+                return s * copiesPerSegment + w * 64 + Long.numberOfTrailingZeros(bit);
+            }
+        }
+    }
+
+    /**
+     * Claims the given copy. Returns false if it isn't free.
+     **/
+    public boolean claim(int copy) {
+        if (copy < 0 || copy >= size)
+            return false;
+
+        Segment segment = segments.get(copy / copiesPerSegment);
+        int w = (copy / 64) % 64;
+        long bit = 1L << copy;
+
+        while (true) {
+            long word = segment.words.get(w);
+
+            if ((word & bit) == 0)
+                return false;
+
+            if (segment.words.compareAndSet(w, word, word & ~bit)) {
+                freeCount.decrementAndGet();
+
+                if ((word & ~bit) == 0)
+                    clearWordHint(copy / copiesPerSegment, segment, w);
+
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Frees the given copy. Returns false if it was already free.
+     **/
+    public boolean release(int copy) {
+        if (copy < 0 || copy >= size)
+            return false;
+
+        int s = copy / copiesPerSegment, w = (copy / 64) % 64;
+        Segment segment = segments.get(s);
+        long bit = 1L << copy;
+
+        if ((segment.words.getAndUpdate(w, word -> word | bit) & bit) != 0)
+            return false;
+
+        freeCount.incrementAndGet();
+        // Copy bit first, then the summaries, so a claimer clearing a summary never hides it
+        setBit(segment.summary, w);
+        setBit(segmentSummary, s);
+        return true;
+    }
+
+    public boolean isFree(int copy) {
+        if (copy < 0 || copy >= size)
+            return false;
+
+        Segment segment = segments.get(copy / copiesPerSegment);
+        return (segment.words.get((copy / 64) % 64) & (1L << copy)) != 0;
+    }
+
+    /**
+     * Word w of the segment looked empty. Clears its summary bit (and the segment's, if that
+     * was the last one), unless a copy was released in the meantime.
+     **/
+    private void clearWordHint(int s, Segment segment, int w) {
+        if (clearHint(segment.summary, w, () -> segment.words.get(w) != 0))
+            setBit(segmentSummary, s);
+        else if (segment.summary.get() == 0)
+            clearHint(segmentSummary, s, () -> segment.summary.get() != 0);
+    }
+
+    /**
+     * Clears the bit, then sets it again if hasFree shows a release raced with the clear.
+     * Returns true if the bit was set again.
+     **/
+    private static boolean clearHint(AtomicLong summary, int index, BooleanSupplier hasFree) {
+        long mask = 1L << index;
+        summary.getAndUpdate(value -> value & ~mask);
+
+        if (!hasFree.getAsBoolean())
+            return false;
+
+        setBit(summary, index);
+        return true;
+    }
+
+    private static void setBit(AtomicLong summary, int index) {
+        long mask = 1L << index;
+
+        if ((summary.get() & mask) == 0)
+            summary.getAndUpdate(value -> value | mask);
+    }
+
+    /**
+     * 64 words of 64 copies
+     **/
+    private static class Segment {
+        private final AtomicLongArray words = new AtomicLongArray(64);
+        private final AtomicLong summary = new AtomicLong();
+    }
+}
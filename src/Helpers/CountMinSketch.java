@@ -0,0 +1,106 @@
+package Helpers;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Count-Min Sketch: approximate frequency counts in a fixed amount of memory.
+ * Estimates never undercount, they can only overcount when keys collide.
+ * Counters are updated with atomic operations so increments never block.
+ **/
+public class CountMinSketch {
+    private static final int depth = 4;
+    private static final long[] seeds = {
+            0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L};
+
+    private final AtomicLongArray table;
+    private final int widthMask;
+
+    /**
+     * Width is rounded up to a power of 2. Larger width -> fewer collisions -> better estimates
+     **/
+    public CountMinSketch(int width) {
+        int actualWidth = Integer.highestOneBit(Math.max(2, width - 1)) << 1;
+        this.widthMask = actualWidth - 1;
+        this.table = new AtomicLongArray(actualWidth * depth);
+    }
+
+    /**
+     * Returns the # of counters per row
+     **/
+    public int getWidth() {
+        return widthMask + 1;
+    }
+
+    /**
+     * Approximate memory used by the counters, in bytes
+     **/
+    public long getMemoryBytes() {
+        return (long) table.length() * Long.BYTES;
+    }
+
+    /**
+     * Adds 1 to the count of the key
+     **/
+    public void increment(Object key) {
+        add(key, 1);
+    }
+
+    /**
+     * Adds amount to the count of the key
+     **/
+    public void add(Object key, long amount) {
+        int hash = key.hashCode();
+
+        for (int row = 0; row < depth; row++)
+            table.getAndAdd(indexOf(hash, row), amount);
+    }
+
+    /**
+     * Returns the estimated count of the key (never less than the real count)
+     **/
+    public long estimate(Object key) {
+        int hash = key.hashCode();
+        long min = Long.MAX_VALUE;
+
+        for (int row = 0; row < depth; row++)
+            min = Math.min(min, table.get(indexOf(hash, row)));
+
+        return min;
+    }
+
+    /**
+     * Halves every counter. Used to age out old counts so recent activity matters more.
+     **/
+    public void halve() {
+        shiftRight(1);
+    }
+
+    /**
+     * Divides every counter by 2^bits (Ex: bits = 3 -> counts / 8)
+     **/
+    public void shiftRight(int bits) {
+        int shift = Math.min(bits, 63);
+
+        for (int i = 0; i < table.length(); i++) {
+            long current;
+
+            do {
+                current = table.get(i);
+            } while (current != 0 && !table.compareAndSet(i, current, current >>> shift));
+        }
+    }
+
+    /**
+     * Sets every counter back to 0
+     **/
+    public void clear() {
+        for (int i = 0; i < table.length(); i++)
+            table.set(i, 0);
+    }
+
+    private int indexOf(int hash, int row) {
+        long mixed = (hash + seeds[row]) * seeds[(row + 1) % depth];
+        mixed ^= mixed >>> 32;
+        return row * (widthMask + 1) + ((int) mixed & widthMask);
+    }
+}
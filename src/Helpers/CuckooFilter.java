@@ -0,0 +1,337 @@
+package Helpers;
+
+import java.util.Random;
+
+/**
+ * Cuckoo filter: answers "might this key be in the set?" in a few bytes per key. A "no" is always
+ * right, a "maybe" is wrong at roughly the configured false positive rate. Unlike a Bloom filter,
+ * keys can be removed. Each key is stored as a short fingerprint in one of two buckets of 4 slots.
+ * Fingerprints are packed at their exact size, so memory per key follows the false positive rate.
+ * NOTE: not thread safe. Only remove keys that were added.
+ **/
+public class CuckooFilter {
+    private static final int slotsPerBucket = 4;
+    private static final int maxKicks = 500;
+    // Buckets are sized so the filter is at most this full at the expected # of keys
+    private static final double targetLoad = 0.9;
+
+    private final double falsePositiveRate;
+    private final int fingerprintBits;
+    private final int fingerprintMask;
+    private final int bucketMask;
+    private final int slotCount;
+    // Fingerprint of slot i in bits [i * fingerprintBits, (i + 1) * fingerprintBits)
+    private final long[] slots;
+    private final Random random;
+    private int size;
+    // Fingerprint kicked out by the add that filled the filter (0 = none), kept so its key is still found
+    private int victimFingerprint;
+    private int victimBucket;
+
+    private long queryCount;
+    private long negativeCount;
+    private long falsePositiveCount;
+
+    /**
+     * Room for at least expectedKeys keys. Fingerprint size (4 - 16 bits) is picked from the false positive rate.
+     **/
+    public CuckooFilter(int expectedKeys, double falsePositiveRate) {
+        this.falsePositiveRate = Math.min(0.5, Math.max(1e-5, falsePositiveRate));
+        // A lookup compares 2 buckets x 4 fingerprints, each matching by chance with probability 2^-bits
+        int bits = (int) Math.ceil(Math.log(2.0 * slotsPerBucket / this.falsePositiveRate) / Math.log(2));
+        this.fingerprintBits = Math.max(4, Math.min(16, bits));
+        this.fingerprintMask = (1 << fingerprintBits) - 1;
+
+        int buckets = (int) Math.ceil(Math.max(1, expectedKeys) / (slotsPerBucket * targetLoad));
+        buckets = Integer.highestOneBit(Math.max(1, buckets - 1)) << 1;
+        this.bucketMask = buckets - 1;
+        this.slotCount = buckets * slotsPerBucket;
+        this.slots = new long[(int) (((long) slotCount * fingerprintBits + 63) / 64)];
+        this.random = new Random(buckets);
+    }
+
+    /**
+     * Adds the key. Returns true if it was stored (it tests as present), false if the filter is full
+     * and it wasn't. Once isFull the filter should be rebuilt bigger: the add that filled it still
+     * stored its key, but later adds only store keys whose buckets have a free slot.
+     **/
+    public boolean add(String key) {
+        long hash = hash(key);
+        int fingerprint = fingerprintOf(hash);
+        int bucket = (int) hash & bucketMask;
+
+        if (insert(bucket, fingerprint) || insert(alternateBucket(bucket, fingerprint), fingerprint)) {
+            size++;
+            return true;
+        }
+
+        // Only one fingerprint can be kept aside, so no more kicking once one is
+        if (victimFingerprint != 0)
+            return false;
+
+        // Both buckets are full, kick a random fingerprint to its other bucket until one fits
+        if (random.nextBoolean())
+            bucket = alternateBucket(bucket, fingerprint);
+
+        for (int kick = 0; kick < maxKicks; kick++) {
+            int slot = bucket * slotsPerBucket + random.nextInt(slotsPerBucket);
+            int kicked = getSlot(slot);
+            setSlot(slot, fingerprint);
+            fingerprint = kicked;
+            bucket = alternateBucket(bucket, fingerprint);
+
+            if (insert(bucket, fingerprint)) {
+                size++;
+                return true;
+            }
+        }
+
+        // The key is in, the fingerprint it kicked out last is kept aside so it's still found
+        victimFingerprint = fingerprint;
+        victimBucket = bucket;
+        size++;
+        return true;
+    }
+
+    /**
+     * Returns false if the key is definitely not in the set, true if it might be
+     **/
+    public boolean mightContain(String key) {
+        long hash = hash(key);
+        int fingerprint = fingerprintOf(hash);
+        int bucket = (int) hash & bucketMask;
+        int alternate = alternateBucket(bucket, fingerprint);
+        boolean found = contains(bucket, fingerprint) || contains(alternate, fingerprint) ||
+                (victimFingerprint == fingerprint && (victimBucket == bucket || victimBucket == alternate));
+
+        queryCount++;
+
+        if (!found)
+            negativeCount++;
+
+        return found;
+    }
+
+    /**
+     * Removes the key. Returns false if no fingerprint of it was found.
+     **/
+    public boolean remove(String key) {
+        long hash = hash(key);
+        int fingerprint = fingerprintOf(hash);
+        int bucket = (int) hash & bucketMask;
+        int alternate = alternateBucket(bucket, fingerprint);
+
+        if (victimFingerprint == fingerprint && (victimBucket == bucket || victimBucket == alternate)) {
+            victimFingerprint = 0;
+        } else if (!delete(bucket, fingerprint) && !delete(alternate, fingerprint)) {
+            return false;
+        }
+
+        size--;
+
+        // Room was made, so the victim may fit now
+        if (victimFingerprint != 0 && (insert(victimBucket, victimFingerprint) ||
+                insert(alternateBucket(victimBucket, victimFingerprint), victimFingerprint)))
+            victimFingerprint = 0;
+
+        return true;
+    }
+
+    /**
+     * Call when mightContain said "maybe" but the key wasn't there, so the stats can report it
+     **/
+    public void recordFalsePositive() {
+        falsePositiveCount++;
+    }
+
+    /**
+     * Returns true once an add had to keep a fingerprint aside: the filter should be rebuilt bigger
+     **/
+    public boolean isFull() {
+        return victimFingerprint != 0;
+    }
+
+    /**
+     * Returns the # of keys the filter can hold at its target load
+     **/
+    public int getCapacity() {
+        return (int) (slotCount * targetLoad);
+    }
+
+    public double getFalsePositiveRate() {
+        return falsePositiveRate;
+    }
+
+    public Stats getStats() {
+        return new Stats(falsePositiveRate, fingerprintBits, (long) slots.length * Long.BYTES, size,
+                (double) size / slotCount, queryCount, negativeCount, falsePositiveCount);
+    }
+
+    private boolean insert(int bucket, int fingerprint) {
+        for (int slot = bucket * slotsPerBucket; slot < (bucket + 1) * slotsPerBucket; slot++) {
+            if (getSlot(slot) == 0) {
+                setSlot(slot, fingerprint);
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private boolean contains(int bucket, int fingerprint) {
+        for (int slot = bucket * slotsPerBucket; slot < (bucket + 1) * slotsPerBucket; slot++) {
+            if (getSlot(slot) == fingerprint)
+                return true;
+        }
+
+        return false;
+    }
+
+    private boolean delete(int bucket, int fingerprint) {
+        for (int slot = bucket * slotsPerBucket; slot < (bucket + 1) * slotsPerBucket; slot++) {
+            if (getSlot(slot) == fingerprint) {
+                setSlot(slot, 0);
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private int getSlot(int slot) {
+        long bit = (long) slot * fingerprintBits;
+        int word = (int) (bit >>> 6), offset = (int) (bit & 63);
+        long value = slots[word] >>> offset;
+
+        // The fingerprint runs over into the next word
+        if (offset + fingerprintBits > 64)
+            value |= slots[word + 1] << (64 - offset);
+
+        return (int) value & fingerprintMask;
+    }
+
+    private void setSlot(int slot, int fingerprint) {
+        long bit = (long) slot * fingerprintBits;
+        int word = (int) (bit >>> 6), offset = (int) (bit & 63);
+        slots[word] = (slots[word] & ~((long) fingerprintMask << offset)) | ((long) fingerprint << offset);
+
+        if (offset + fingerprintBits > 64) {
+            int spill = offset + fingerprintBits - 64;
+            slots[word + 1] = (slots[word + 1] & -(1L << spill)) | (fingerprint >>> (fingerprintBits - spill));
+        }
+    }
+
+    /**
+     * Each key's other bucket only depends on its bucket and fingerprint, so kicked
+     * fingerprints can move without knowing their key. Applying it twice gives the first bucket back.
+     **/
+    private int alternateBucket(int bucket, int fingerprint) {
+        return (bucket ^ (fingerprint * 0x5bd1e995)) & bucketMask;
+    }
+
+    /**
+     * Fingerprint from the high bits of the hash (the bucket uses the low bits). Never 0, 0 means empty.
+     **/
+    private int fingerprintOf(long hash) {
+        int fingerprint = (int) (hash >>> 40) & fingerprintMask;
+        return (fingerprint == 0) ? 1 : fingerprint;
+    }
+
+    /**
+     * FNV-1a, then mixed so every bit of the key affects the low and high bits
+     **/
+    private static long hash(String key) {
+        long hash = StringHelpers.hash64(key);
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        return hash ^ (hash >>> 33);
+    }
+
+    /**
+     * Immutable snapshot of the filter's settings and statistics
+     **/
+    public static class Stats {
+        private final double falsePositiveRate;
+        private final int fingerprintBits;
+        private final long memoryBytes;
+        private final int size;
+        private final double loadFactor;
+        private final long queryCount;
+        private final long negativeCount;
+        private final long falsePositiveCount;
+
+        public Stats(double falsePositiveRate, int fingerprintBits, long memoryBytes, int size, double loadFactor,
+                     long queryCount, long negativeCount, long falsePositiveCount) {
+            this.falsePositiveRate = falsePositiveRate;
+            this.fingerprintBits = fingerprintBits;
+            this.memoryBytes = memoryBytes;
+            this.size = size;
+            this.loadFactor = loadFactor;
+            this.queryCount = queryCount;
+            this.negativeCount = negativeCount;
+            this.falsePositiveCount = falsePositiveCount;
+        }
+
+        /**
+         * Configured false positive rate
+         **/
+        public double getFalsePositiveRate() {
+            return falsePositiveRate;
+        }
+
+        public int getFingerprintBits() {
+            return fingerprintBits;
+        }
+
+        public long getMemoryBytes() {
+            return memoryBytes;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        /**
+         * Fraction of fingerprint slots in use
+         **/
+        public double getLoadFactor() {
+            return loadFactor;
+        }
+
+        public long getQueryCount() {
+            return queryCount;
+        }
+
+        /**
+         * # of lookups answered "definitely not there" without touching the store
+         **/
+        public long getNegativeCount() {
+            return negativeCount;
+        }
+
+        public long getFalsePositiveCount() {
+            return falsePositiveCount;
+        }
+
+        /**
+         * Fraction of lookups for missing keys that the filter let through (0 if there were none)
+         **/
+        public double getObservedFalsePositiveRate() {
+            long misses = negativeCount + falsePositiveCount;
+            return (misses == 0) ? 0 : (double) falsePositiveCount / misses;
+        }
+
+        /**
+         * String format: Keys: n, Memory: b bytes, Fingerprint: f bits, Load: l%, Target FP Rate: t%,
+         * Observed FP Rate: o%, Negatives: n
+         **/
+        public String toString() {
+            return String.format("Keys: %d, Memory: %d bytes, Fingerprint: %d bits, Load: %.1f%%, " +
+                            "Target FP Rate: %.2f%%, Observed FP Rate: %.2f%%, Negatives: %d", size, memoryBytes,
+                    fingerprintBits, loadFactor * 100, falsePositiveRate * 100, getObservedFalsePositiveRate() * 100,
+                    negativeCount);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package Helpers;
+
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates unique, hard to guess ids without retries or locks. Each id is the next value of a
+ * shared counter run through a secret keyed permutation (a Feistel network over 62 bits), then
+ * written in base 36. Since the permutation is one to one, different counter values always give
+ * different ids, and without the keys consecutive ids look unrelated.
+ **/
+public class IdGenerator {
+    private static final int rounds = 8;
+    private static final int halfBits = 31;
+    private static final long halfMask = (1L << halfBits) - 1;
+
+    private static final AtomicLong counter = new AtomicLong();
+    private static final long[] roundKeys = new long[rounds];
+
+    static {
+        // Only used once to pick the keys, so ids never wait on SecureRandom
+        SecureRandom random = new SecureRandom();
+
+        for (int i = 0; i < rounds; i++)
+            roundKeys[i] = random.nextLong();
+    }
+
+    /**
+     * Returns a new id of length 12 made up of letters a - z and digits 0 - 9.
+     * Ids are unique within the running program.
+     **/
+    public static String nextId() {
+        return encode(permute(counter.getAndIncrement()));
+    }
+
+    /**
+     * Keyed one to one mapping of a 62 bit value to another 62 bit value
+     **/
+    static long permute(long value) {
+        long left = (value >>> halfBits) & halfMask;
+        long right = value & halfMask;
+
+        for (int i = 0; i < rounds; i++) {
+            long newRight = left ^ (mix(right ^ roundKeys[i]) & halfMask);
+            left = right;
+            right = newRight;
+        }
+
+        return (left << halfBits) | right;
+    }
+
+    /**
+     * Writes the value in base 36, padded to 12 characters (36^12 > 2^62 so every value fits)
+     **/
+    static String encode(long value) {
+        char[] id = new char[StringHelpers.idLength];
+        int base = StringHelpers.allChars.length();
+
+        for (int i = id.length - 1; i >= 0; i--) {
+            id[i] = StringHelpers.allChars.charAt((int) (value % base));
+            value /= base;
+        }
+
+        return new String(id);
+    }
+
+    /**
+     * 64 bit finalizer from MurmurHash3. Spreads every input bit across the output.
+     **/
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
@@ -0,0 +1,196 @@
+package Helpers;
+
+import java.util.Arrays;
+
+/**
+ * Set of ints in one int array (open addressing, linear probing), without boxing every element
+ * like a HashSet<Integer> does. Removing shifts the entries after it back, so there are no tombstones.
+ * A set of a few ids takes ~50 bytes instead of ~200 for a HashSet.
+ * NOTE: not thread safe.
+ **/
+public class IntHashSet {
+    // 0 marks an empty slot, so 0 itself is kept in hasZero
+    private int[] slots;
+    private boolean hasZero;
+    private int size;
+
+    public IntHashSet() {
+        this(2);
+    }
+
+    /**
+     * Set with room for expectedSize elements before it grows
+     **/
+    public IntHashSet(int expectedSize) {
+        slots = new int[capacityFor(expectedSize)];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean contains(int value) {
+        if (value == 0)
+            return hasZero;
+
+        int mask = slots.length - 1;
+
+        for (int i = slot(value, mask); slots[i] != 0; i = (i + 1) & mask) {
+            if (slots[i] == value)
+                return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns true if the value wasn't in the set
+     **/
+    public boolean add(int value) {
+        if (value == 0) {
+            if (hasZero)
+                return false;
+
+            hasZero = true;
+            size++;
+            return true;
+        }
+
+        int mask = slots.length - 1;
+        int i = slot(value, mask);
+
+        for (; slots[i] != 0; i = (i + 1) & mask) {
+            if (slots[i] == value)
+                return false;
+        }
+
+        slots[i] = value;
+
+        if (++size > maxFill(slots.length))
+            rehash(slots.length * 2);
+
+        return true;
+    }
+
+    /**
+     * Returns true if the value was in the set
+     **/
+    public boolean remove(int value) {
+        if (value == 0) {
+            if (!hasZero)
+                return false;
+
+            hasZero = false;
+            size--;
+            return true;
+        }
+
+        int mask = slots.length - 1;
+
+        for (int i = slot(value, mask); slots[i] != 0; i = (i + 1) & mask) {
+            if (slots[i] == value) {
+                shiftBack(i, mask);
+                size--;
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    public void clear() {
+        Arrays.fill(slots, 0);
+        hasZero = false;
+        size = 0;
+    }
+
+    /**
+     * The elements in no particular order
+     **/
+    public int[] toArray() {
+        int[] values = new int[size];
+        int count = 0;
+
+        if (hasZero)
+            values[count++] = 0;
+
+        for (int value : slots) {
+            if (value != 0)
+                values[count++] = value;
+        }
+
+        return values;
+    }
+
+    /**
+     * Approximate heap taken by the set
+     **/
+    public long getMemoryBytes() {
+        return 24 + 16 + 4L * slots.length;
+    }
+
+    /**
+     * Empties slot i and moves back the entries after it that belong at or before it
+     **/
+    private void shiftBack(int i, int mask) {
+        for (int next = (i + 1) & mask; slots[next] != 0; next = (next + 1) & mask) {
+            int home = slot(slots[next], mask);
+
+            // Moves back unless its home slot is between the hole and it
+            if (((next - home) & mask) >= ((next - i) & mask)) {
+                slots[i] = slots[next];
+                i = next;
+            }
+        }
+
+        slots[i] = 0;
+    }
+
+    private void rehash(int capacity) {
+        int[] old = slots;
+        slots = new int[capacity];
+        int mask = capacity - 1;
+
+        for (int value : old) {
+            if (value != 0) {
+                int i = slot(value, mask);
+
+                while (slots[i] != 0)
+                    i = (i + 1) & mask;
+
+                slots[i] = value;
+            }
+        }
+    }
+
+    /**
+     * Home slot of the value (ids are often consecutive, so they're spread out first)
+     **/
+    static int slot(int value, int mask) {
+        int hash = value * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    /**
+     * Most entries a table of the capacity holds (3/4 full, counting 0 which isn't in the table)
+     **/
+    static int maxFill(int capacity) {
+        return capacity * 3 / 4;
+    }
+
+    /**
+     * Smallest power of 2 capacity with room for size entries
+     **/
+    static int capacityFor(int size) {
+        int capacity = 2;
+
+        while (maxFill(capacity) < size)
+            capacity *= 2;
+
+        return capacity;
+    }
+}
@@ -0,0 +1,159 @@
+package Helpers;
+
+/**
+ * Map from int keys to int counts in two parallel int arrays (open addressing, linear probing, see IntHashSet),
+ * without boxing keys and values like a HashMap<Integer, Integer>. Missing keys count 0.
+ * NOTE: not thread safe.
+ **/
+public class IntIntMap {
+    private int[] keys;
+    private int[] values;
+    // 0 marks an empty slot, so the value of key 0 is kept on its own
+    private boolean hasZero;
+    private int zeroValue;
+    private int size;
+
+    public IntIntMap() {
+        this(2);
+    }
+
+    /**
+     * Map with room for expectedSize keys before it grows
+     **/
+    public IntIntMap(int expectedSize) {
+        int capacity = IntHashSet.capacityFor(expectedSize);
+        keys = new int[capacity];
+        values = new int[capacity];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the key's value, or 0 if it isn't in the map
+     **/
+    public int get(int key) {
+        if (key == 0)
+            return zeroValue;
+
+        int mask = keys.length - 1;
+
+        for (int i = IntHashSet.slot(key, mask); keys[i] != 0; i = (i + 1) & mask) {
+            if (keys[i] == key)
+                return values[i];
+        }
+
+        return 0;
+    }
+
+    public boolean containsKey(int key) {
+        if (key == 0)
+            return hasZero;
+
+        int mask = keys.length - 1;
+
+        for (int i = IntHashSet.slot(key, mask); keys[i] != 0; i = (i + 1) & mask) {
+            if (keys[i] == key)
+                return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Adds delta to the key's value (adding the key with value delta if it's new), returns the new value
+     **/
+    public int add(int key, int delta) {
+        if (key == 0) {
+            if (!hasZero) {
+                hasZero = true;
+                size++;
+            }
+
+            return zeroValue += delta;
+        }
+
+        int mask = keys.length - 1;
+        int i = IntHashSet.slot(key, mask);
+
+        for (; keys[i] != 0; i = (i + 1) & mask) {
+            if (keys[i] == key)
+                return values[i] += delta;
+        }
+
+        keys[i] = key;
+        values[i] = delta;
+
+        if (++size > IntHashSet.maxFill(keys.length))
+            rehash(keys.length * 2);
+
+        return delta;
+    }
+
+    /**
+     * The keys in no particular order
+     **/
+    public int[] keys() {
+        int[] result = new int[size];
+        int count = 0;
+
+        if (hasZero)
+            result[count++] = 0;
+
+        for (int key : keys) {
+            if (key != 0)
+                result[count++] = key;
+        }
+
+        return result;
+    }
+
+    /**
+     * Calls the action with every key and its value, in no particular order
+     **/
+    public void forEach(IntIntConsumer action) {
+        if (hasZero)
+            action.accept(0, zeroValue);
+
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0)
+                action.accept(keys[i], values[i]);
+        }
+    }
+
+    /**
+     * Approximate heap taken by the map
+     **/
+    public long getMemoryBytes() {
+        return 32 + 2 * (16 + 4L * keys.length);
+    }
+
+    public interface IntIntConsumer {
+        void accept(int key, int value);
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new int[capacity];
+        values = new int[capacity];
+        int mask = capacity - 1;
+
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldKeys[j] != 0) {
+                int i = IntHashSet.slot(oldKeys[j], mask);
+
+                while (keys[i] != 0)
+                    i = (i + 1) & mask;
+
+                keys[i] = oldKeys[j];
+                values[i] = oldValues[j];
+            }
+        }
+    }
+}
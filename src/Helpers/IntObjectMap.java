@@ -0,0 +1,203 @@
+package Helpers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Map from int keys to values in two parallel arrays (open addressing, linear probing, see IntHashSet),
+ * without an Integer and an entry object per key like a HashMap<Integer, V>.
+ * Null values aren't allowed (get returns null for a missing key). NOTE: not thread safe.
+ **/
+public class IntObjectMap<V> {
+    private int[] keys;
+    private Object[] values;
+    // 0 marks an empty slot, so the value of key 0 is kept on its own
+    private Object zeroValue;
+    private int size;
+
+    public IntObjectMap() {
+        this(2);
+    }
+
+    /**
+     * Map with room for expectedSize keys before it grows
+     **/
+    public IntObjectMap(int expectedSize) {
+        int capacity = IntHashSet.capacityFor(expectedSize);
+        keys = new int[capacity];
+        values = new Object[capacity];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        if (key == 0)
+            return (V) zeroValue;
+
+        int mask = keys.length - 1;
+
+        for (int i = IntHashSet.slot(key, mask); keys[i] != 0; i = (i + 1) & mask) {
+            if (keys[i] == key)
+                return (V) values[i];
+        }
+
+        return null;
+    }
+
+    public boolean containsKey(int key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Maps the key to the value, returns the value it replaced (or null)
+     **/
+    @SuppressWarnings("unchecked")
+    public V put(int key, V value) {
+        if (value == null)
+            throw new NullPointerException("Null value for key " + key);
+
+        if (key == 0) {
+            V old = (V) zeroValue;
+            zeroValue = value;
+
+            if (old == null)
+                size++;
+
+            return old;
+        }
+
+        int mask = keys.length - 1;
+        int i = IntHashSet.slot(key, mask);
+
+        for (; keys[i] != 0; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                V old = (V) values[i];
+                values[i] = value;
+                return old;
+            }
+        }
+
+        keys[i] = key;
+        values[i] = value;
+
+        if (++size > IntHashSet.maxFill(keys.length))
+            rehash(keys.length * 2);
+
+        return null;
+    }
+
+    /**
+     * Removes the key, returns its value (or null if it wasn't in the map)
+     **/
+    @SuppressWarnings("unchecked")
+    public V remove(int key) {
+        if (key == 0) {
+            V old = (V) zeroValue;
+
+            if (old != null)
+                size--;
+
+            zeroValue = null;
+            return old;
+        }
+
+        int mask = keys.length - 1;
+
+        for (int i = IntHashSet.slot(key, mask); keys[i] != 0; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                V old = (V) values[i];
+                shiftBack(i, mask);
+                size--;
+                return old;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * The keys in no particular order
+     **/
+    public int[] keys() {
+        int[] result = new int[size];
+        int count = 0;
+
+        if (zeroValue != null)
+            result[count++] = 0;
+
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0)
+                result[count++] = keys[i];
+        }
+
+        return result;
+    }
+
+    /**
+     * The values in no particular order
+     **/
+    @SuppressWarnings("unchecked")
+    public List<V> values() {
+        List<V> result = new ArrayList<>(size);
+
+        if (zeroValue != null)
+            result.add((V) zeroValue);
+
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0)
+                result.add((V) values[i]);
+        }
+
+        return result;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, 0);
+        Arrays.fill(values, null);
+        zeroValue = null;
+        size = 0;
+    }
+
+    private void shiftBack(int i, int mask) {
+        for (int next = (i + 1) & mask; keys[next] != 0; next = (next + 1) & mask) {
+            int home = IntHashSet.slot(keys[next], mask);
+
+            if (((next - home) & mask) >= ((next - i) & mask)) {
+                keys[i] = keys[next];
+                values[i] = values[next];
+                i = next;
+            }
+        }
+
+        keys[i] = 0;
+        values[i] = null;
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new int[capacity];
+        values = new Object[capacity];
+        int mask = capacity - 1;
+
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldKeys[j] != 0) {
+                int i = IntHashSet.slot(oldKeys[j], mask);
+
+                while (keys[i] != 0)
+                    i = (i + 1) & mask;
+
+                keys[i] = oldKeys[j];
+                values[i] = oldValues[j];
+            }
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package Helpers;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Runs tasks on an executor, one at a time and in the order they were submitted for the same key,
+ * while tasks of different keys run at the same time. Submitting never blocks: each task is chained
+ * after the last one submitted for its key, and the key is forgotten once its last task is done, so
+ * only keys with work pending take memory. A task that fails doesn't stop the ones after it.
+ **/
+public class KeyedSerialExecutor<K> {
+    private static final CompletableFuture<Void> idle = CompletableFuture.completedFuture(null);
+
+    private final Executor executor;
+    // Last task submitted for each key with work pending
+    private final ConcurrentHashMap<K, CompletableFuture<?>> tails;
+
+    public KeyedSerialExecutor(Executor executor) {
+        this.executor = executor;
+        this.tails = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Runs the task after every task submitted before it for the key. The future completes with its result,
+     * or exceptionally if it threw. Completing or cancelling the returned future doesn't affect the queue.
+     **/
+    public <T> CompletableFuture<T> submit(K key, Supplier<T> task) {
+        // Set inside compute, which runs once per call
+        AtomicReference<CompletableFuture<T>> next = new AtomicReference<>();
+
+        tails.compute(key, (k, tail) -> {
+            CompletableFuture<?> previous = (tail == null) ? idle : tail;
+            next.set(previous.handle((result, error) -> null).thenApplyAsync(ignored -> task.get(), executor));
+            return next.get();
+        });
+
+        CompletableFuture<T> future = next.get();
+        future.whenComplete((result, error) -> tails.remove(key, future));
+        return future.copy();
+    }
+
+    /**
+     * Runs the task with no ordering against other tasks
+     **/
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        return CompletableFuture.supplyAsync(task, executor);
+    }
+
+    /**
+     * # of keys with a task pending or running
+     **/
+    public int getPendingKeyCount() {
+        return tails.size();
+    }
+}
@@ -0,0 +1,186 @@
+package Helpers;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Gives each name (author, genre, title ...) a small int id, so relations between names can be kept
+ * as int sets and maps (IntHashSet, IntObjectMap) with the strings kept once, here. Ids are dense
+ * (0, 1, 2 ...) and the ids of removed names are reused.
+ * Each library has its own dictionary for the author names and genres of its books (see Book), so
+ * they go away with the library. Adding and removing names is synchronized, lookup and nameOf don't
+ * lock: they read a table that is only changed in ways they can follow, and replaced as a whole when it grows.
+ **/
+public class NameDictionary {
+    private static final NameDictionary shared = new NameDictionary();
+    // Slot of a removed name, lookups probe past it (it's reused by the next name that probes it)
+    private static final int removed = -1;
+
+    private volatile Table table;
+    private int size;
+    private int removedSlots;
+    private int nextId;
+    private int[] freeIds;
+    private int freeCount;
+
+    public NameDictionary() {
+        table = new Table(16);
+        freeIds = new int[0];
+    }
+
+    /**
+     * The dictionary of books made outside a library (Ex: in tests), its names are never removed
+     **/
+    public static NameDictionary shared() {
+        return shared;
+    }
+
+    /**
+     * Returns the name's id, giving it one if it's new
+     **/
+    public synchronized int idOf(String name) {
+        int id = lookup(name);
+
+        if (id >= 0)
+            return id;
+
+        int capacity = table.capacity();
+
+        if (size + removedSlots + 1 > IntHashSet.maxFill(capacity))
+            rehash((size + 1 > IntHashSet.maxFill(capacity) / 2) ? capacity * 2 : capacity);
+
+        // Ids stay below the capacity: there are never more than maxFill names
+        id = (freeCount > 0) ? freeIds[--freeCount] : nextId++;
+        Table current = table;
+        // The name goes in before the slot pointing to it, so a lookup that sees the slot sees the name
+        current.names.set(id, name);
+        insert(current, id);
+        size++;
+        return id;
+    }
+
+    /**
+     * Returns the name's id or -1 if it doesn't have one
+     **/
+    public int lookup(String name) {
+        if (name == null)
+            return -1;
+
+        Table current = table;
+        int mask = current.capacity() - 1;
+
+        for (int i = slot(name, mask), entry; (entry = current.slots.get(i)) != 0; i = (i + 1) & mask) {
+            if (entry != removed && name.equals(current.names.get(entry - 1)))
+                return entry - 1;
+        }
+
+        return -1;
+    }
+
+    /**
+     * Returns the name with the id, or null if no name has it
+     **/
+    public String nameOf(int id) {
+        Table current = table;
+        return (id >= 0 && id < current.capacity()) ? current.names.get(id) : null;
+    }
+
+    /**
+     * Removes the name, its id will be given to another name. Returns its id or -1 if it didn't have one.
+     **/
+    public synchronized int remove(String name) {
+        int id = lookup(name);
+
+        if (id < 0)
+            return -1;
+
+        Table current = table;
+        int mask = current.capacity() - 1;
+        int i = slot(name, mask);
+
+        while (current.slots.get(i) != id + 1)
+            i = (i + 1) & mask;
+
+        // Marked instead of emptied, so names after it in the probe sequence are still found
+        current.slots.set(i, removed);
+        current.names.set(id, null);
+        size--;
+        removedSlots++;
+
+        if (freeCount == freeIds.length)
+            freeIds = Arrays.copyOf(freeIds, Math.max(8, freeCount * 2));
+
+        freeIds[freeCount++] = id;
+        return id;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Approximate heap taken by the dictionary, not counting the names themselves
+     **/
+    public synchronized long getMemoryBytes() {
+        return 64 + 2 * (32 + 4L * table.capacity()) + 16 + 4L * freeIds.length;
+    }
+
+    /**
+     * Puts the id in the first empty or removed slot of its name's probe sequence
+     **/
+    private void insert(Table target, int id) {
+        int mask = target.capacity() - 1;
+        int i = slot(target.names.get(id), mask);
+
+        while (target.slots.get(i) > 0)
+            i = (i + 1) & mask;
+
+        if (target.slots.get(i) == removed)
+            removedSlots--;
+
+        target.slots.set(i, id + 1);
+    }
+
+    /**
+     * Builds a table of the given capacity without removed slots, then swaps it in
+     **/
+    private void rehash(int capacity) {
+        Table current = table;
+        Table rebuilt = new Table(capacity);
+
+        for (int id = 0; id < nextId; id++) {
+            String name = current.names.get(id);
+
+            if (name != null) {
+                rebuilt.names.set(id, name);
+                insert(rebuilt, id);
+            }
+        }
+
+        removedSlots = 0;
+        table = rebuilt;
+    }
+
+    private static int slot(String name, int mask) {
+        int hash = name.hashCode() * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    /**
+     * Names by id and the probe table (id + 1 of the name in each slot, 0 = empty), both of the same capacity
+     **/
+    private static class Table {
+        final AtomicReferenceArray<String> names;
+        final AtomicIntegerArray slots;
+
+        Table(int capacity) {
+            names = new AtomicReferenceArray<>(capacity);
+            slots = new AtomicIntegerArray(capacity);
+        }
+
+        int capacity() {
+            return slots.length();
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package Helpers;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket rate limiter with one bucket per key (Ex: a user id), written as GCRA: a bucket is a
+ * single "theoretical arrival time" updated with a compare and swap, so there are no locks and no
+ * refill thread. Tokens refill lazily, by comparing that time with the clock on the next request.
+ * A full bucket holds burst tokens and refills at tokensPerSecond.
+ * At most maxKeys keys have a bucket. A new key takes the bucket of a key whose bucket is full again
+ * (found with a short clock sweep), else it shares one overflow bucket with every other such key.
+ **/
+public class RateLimiter {
+    private static final int defaultMaxKeys = 100000;
+    // Buckets looked at per new key when every key has one, keeps adding a key O(1)
+    private static final int sweepLength = 16;
+
+    private final long nanosPerToken;
+    // How far ahead of the clock a bucket's arrival time can get, (burst - 1) tokens
+    private final long burstNanos;
+    private final int maxKeys;
+    private final LongSupplier nanoClock;
+    private final ConcurrentHashMap<String, AtomicLong> buckets;
+    // Keys with a bucket, in the order the sweep looks at them (guarded by the limiter's lock)
+    private final ArrayDeque<String> sweepOrder;
+    private final AtomicLong overflowBucket;
+    private final LongAdder overflowCount;
+    private final LongAdder allowedCount;
+    private final LongAdder rejectedCount;
+
+    public RateLimiter(double tokensPerSecond, int burst) {
+        this(tokensPerSecond, burst, defaultMaxKeys, System::nanoTime);
+    }
+
+    /**
+     * Keys past maxKeys reuse full buckets (a missing bucket is a full one) or share the overflow bucket.
+     * nanoClock is System::nanoTime outside of tests.
+     **/
+    public RateLimiter(double tokensPerSecond, int burst, int maxKeys, LongSupplier nanoClock) {
+        if (tokensPerSecond <= 0 || burst < 1)
+            throw new IllegalArgumentException("Rate and burst must be positive");
+
+        this.nanosPerToken = Math.max(1, (long) (1e9 / tokensPerSecond));
+        this.burstNanos = (burst - 1) * nanosPerToken;
+        this.maxKeys = maxKeys;
+        this.nanoClock = nanoClock;
+        this.buckets = new ConcurrentHashMap<>();
+        this.sweepOrder = new ArrayDeque<>();
+        this.overflowBucket = new AtomicLong(nanoClock.getAsLong());
+        this.overflowCount = new LongAdder();
+        this.allowedCount = new LongAdder();
+        this.rejectedCount = new LongAdder();
+    }
+
+    /**
+     * Takes a token from the key's bucket. Returns false right away if the bucket is empty.
+     **/
+    public boolean tryAcquire(String key) {
+        long now = nanoClock.getAsLong();
+        AtomicLong bucket = buckets.get(key);
+
+        if (bucket == null)
+            bucket = addBucket(key, now);
+
+        while (true) {
+            long arrivalTime = bucket.get();
+            long start = (arrivalTime - now > 0) ? arrivalTime : now;
+
+            if (start - now > burstNanos) {
+                rejectedCount.increment();
+                return false;
+            }
+
+            if (bucket.compareAndSet(arrivalTime, start + nanosPerToken)) {
+                allowedCount.increment();
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Returns the # of tokens left in the key's bucket right now
+     **/
+    public int getAvailableTokens(String key) {
+        AtomicLong bucket = buckets.get(key);
+        // How far the bucket's arrival time is ahead of the clock = time until it's full again
+        long untilFull = (bucket == null) ? 0 : Math.max(0, bucket.get() - nanoClock.getAsLong());
+
+        if (untilFull > burstNanos)
+            return 0;
+
+        return (int) ((burstNanos - untilFull) / nanosPerToken) + 1;
+    }
+
+    /**
+     * # of keys with their own bucket, never more than maxKeys
+     **/
+    public int getKeyCount() {
+        return buckets.size();
+    }
+
+    /**
+     * # of requests from keys that had to share the overflow bucket
+     **/
+    public long getOverflowCount() {
+        return overflowCount.sum();
+    }
+
+    public long getAllowedCount() {
+        return allowedCount.sum();
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount.sum();
+    }
+
+    /**
+     * Gives the key a bucket, taking it from a key whose bucket is full if every key has one.
+     * Returns the overflow bucket if no full bucket was found within sweepLength buckets.
+     **/
+    private synchronized AtomicLong addBucket(String key, long now) {
+        AtomicLong bucket = buckets.get(key);
+
+        if (bucket != null)
+            return bucket;
+
+        if (buckets.size() >= maxKeys && !dropFullBucket(now)) {
+            overflowCount.increment();
+            return overflowBucket;
+        }
+
+        bucket = new AtomicLong(now);
+        buckets.put(key, bucket);
+        sweepOrder.addLast(key);
+        return bucket;
+    }
+
+    /**
+     * Clock sweep: removes the first full bucket among the next sweepLength keys, the others go to the
+     * back of the line. Returns false if none was full. A request racing with the removal may take its
+     * token from the dropped bucket, which at worst lets through one extra request.
+     **/
+    private boolean dropFullBucket(long now) {
+        for (int i = 0; i < sweepLength && !sweepOrder.isEmpty(); i++) {
+            String key = sweepOrder.pollFirst();
+
+            if (buckets.get(key).get() - now <= 0) {
+                buckets.remove(key);
+                return true;
+            }
+
+            sweepOrder.addLast(key);
+        }
+
+        return false;
+    }
+}
@@ -0,0 +1,196 @@
+package Helpers;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded multi producer, multi consumer ring buffer in the style of the LMAX Disruptor.
+ * Producers claim a slot with a single compare and swap, and every consumer reads every item
+ * in publish order, in batches. A slot can only be reused once every consumer has read it.
+ **/
+public class RingBuffer<T> {
+    private final Object[] entries;
+    private final int mask;
+    private final int indexShift;
+    // Round (sequence / capacity) of the item last published in each slot
+    private final AtomicIntegerArray publishedRounds;
+    // Sequence of the last claimed slot
+    private final AtomicLong cursor;
+    private final CopyOnWriteArrayList<Reader<T>> readers;
+    private volatile long cachedMinReaderSequence;
+
+    /**
+     * Capacity is rounded up to a power of 2
+     **/
+    public RingBuffer(int capacity) {
+        int actualCapacity = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        entries = new Object[actualCapacity];
+        mask = actualCapacity - 1;
+        indexShift = Integer.numberOfTrailingZeros(actualCapacity);
+        publishedRounds = new AtomicIntegerArray(actualCapacity);
+        cursor = new AtomicLong(-1);
+        readers = new CopyOnWriteArrayList<>();
+        cachedMinReaderSequence = -1;
+
+        for (int i = 0; i < actualCapacity; i++)
+            publishedRounds.set(i, -1);
+    }
+
+    public int getCapacity() {
+        return entries.length;
+    }
+
+    /**
+     * Publishes the item if there is room. Returns false right away if the buffer is full.
+     **/
+    public boolean tryPublish(T item) {
+        long sequence = tryClaim();
+
+        if (sequence < 0)
+            return false;
+
+        write(sequence, item);
+        return true;
+    }
+
+    /**
+     * Publishes the item, waiting up to the timeout for room. Returns false if it timed out.
+     **/
+    public boolean publish(T item, long timeout, TimeUnit unit) {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        int spins = 0;
+
+        while (!tryPublish(item)) {
+            if (System.nanoTime() - deadline >= 0)
+                return false;
+
+            backOff(spins++);
+        }
+
+        return true;
+    }
+
+    /**
+     * Publishes the item, waiting as long as it takes for room.
+     **/
+    public void publish(T item) {
+        int spins = 0;
+
+        while (!tryPublish(item))
+            backOff(spins++);
+    }
+
+    /**
+     * Adds a reader that sees every item published from now on. Until the reader is removed,
+     * producers can't get more than capacity items ahead of it.
+     **/
+    public Reader<T> addReader() {
+        Reader<T> reader = new Reader<>(this, cursor.get());
+        readers.add(reader);
+        return reader;
+    }
+
+    /**
+     * Removes the reader so it no longer holds producers back
+     **/
+    public void removeReader(Reader<T> reader) {
+        readers.remove(reader);
+    }
+
+    private long tryClaim() {
+        long current, next;
+
+        do {
+            current = cursor.get();
+            next = current + 1;
+            long wrapPoint = next - entries.length;
+
+            if (wrapPoint > cachedMinReaderSequence) {
+                long minSequence = minReaderSequence(current);
+                cachedMinReaderSequence = minSequence;
+
+                if (wrapPoint > minSequence)
+                    return -1;
+            }
+        } while (!cursor.compareAndSet(current, next));
+
+        return next;
+    }
+
+    private void write(long sequence, T item) {
+        int index = (int) sequence & mask;
+        entries[index] = item;
+        // Volatile write, makes the entry visible to readers that see the new round
+        publishedRounds.set(index, (int) (sequence >>> indexShift));
+    }
+
+    private boolean isPublished(long sequence) {
+        return publishedRounds.get((int) sequence & mask) == (int) (sequence >>> indexShift);
+    }
+
+    @SuppressWarnings("unchecked")
+    private T entryAt(long sequence) {
+        return (T) entries[(int) sequence & mask];
+    }
+
+    private long minReaderSequence(long defaultSequence) {
+        long min = defaultSequence;
+
+        for (Reader<T> reader : readers)
+            min = Math.min(min, reader.sequence.get());
+
+        return min;
+    }
+
+    private static void backOff(int spins) {
+        if (spins < 100)
+            Thread.onSpinWait();
+        else if (spins < 200)
+            Thread.yield();
+        else
+            LockSupport.parkNanos(50000);
+    }
+
+    /**
+     * Reads items from the ring buffer in the order they were published
+     **/
+    public static class Reader<T> {
+        private final RingBuffer<T> ringBuffer;
+        // Sequence of the last item read
+        private final AtomicLong sequence;
+
+        private Reader(RingBuffer<T> ringBuffer, long startSequence) {
+            this.ringBuffer = ringBuffer;
+            this.sequence = new AtomicLong(startSequence);
+        }
+
+        /**
+         * Adds up to maxItems published items to batch and frees their slots.
+         * Returns the # of items added (0 if nothing new was published).
+         **/
+        public int poll(List<T> batch, int maxItems) {
+            long current = sequence.get();
+            long last = current;
+            long claimed = ringBuffer.cursor.get();
+
+            while (last < claimed && last - current < maxItems && ringBuffer.isPublished(last + 1)) {
+                last++;
+                batch.add(ringBuffer.entryAt(last));
+            }
+
+            sequence.set(last);
+            return (int) (last - current);
+        }
+
+        /**
+         * Returns the # of items published that this reader hasn't read yet
+         **/
+        public long getBacklog() {
+            return ringBuffer.cursor.get() - sequence.get();
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package Helpers;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Approximate "most frequent keys right now", in memory that doesn't grow with the # of keys seen.
+ * Counts come from a Count-Min Sketch. Like Space-Saving, only capacity candidates are tracked and a
+ * new key replaces the smallest candidate once its count is bigger. Every half life all counts are
+ * halved, so old activity fades out.
+ * Adding is lock-free: counts are atomic and the rare replacement of a candidate is skipped (not
+ * waited for) if another thread is already replacing one.
+ **/
+public class SpaceSavingTopK<K> {
+    private final int capacity;
+    private final CountMinSketch sketch;
+    private final ConcurrentHashMap<K, Long> candidates;
+    // Smallest candidate count when last checked. Keys at or below it aren't worth a replacement.
+    private volatile long minCount;
+    private final AtomicBoolean replacing;
+    private final long halfLifeNanos;
+    private final AtomicLong nextDecayNanos;
+    private final LongSupplier nanoClock;
+
+    public SpaceSavingTopK(int capacity, long halfLifeMillis) {
+        this(capacity, halfLifeMillis, System::nanoTime);
+    }
+
+    /**
+     * Counts halve every halfLifeMillis by nanoClock (a clock in ns, see RateLimiter)
+     **/
+    public SpaceSavingTopK(int capacity, long halfLifeMillis, LongSupplier nanoClock) {
+        this.capacity = Math.max(1, capacity);
+        // ~16 counters per candidate keeps overcounting low for the heavy keys
+        this.sketch = new CountMinSketch(16 * this.capacity);
+        this.candidates = new ConcurrentHashMap<>();
+        this.replacing = new AtomicBoolean();
+        this.halfLifeNanos = Math.max(1, halfLifeMillis) * 1000000;
+        this.nanoClock = nanoClock;
+        this.nextDecayNanos = new AtomicLong(nanoClock.getAsLong() + halfLifeNanos);
+    }
+
+    public void increment(K key) {
+        add(key, 1);
+    }
+
+    public void add(K key, long amount) {
+        decayIfDue();
+        sketch.add(key, amount);
+        long estimate = sketch.estimate(key);
+
+        if (candidates.replace(key, estimate) != null)
+            return;
+
+        if (candidates.size() < capacity) {
+            candidates.putIfAbsent(key, estimate);
+            return;
+        }
+
+        if (estimate > minCount && replacing.compareAndSet(false, true)) {
+            try {
+                replaceSmallest(key, estimate);
+            } finally {
+                replacing.set(false);
+            }
+        }
+    }
+
+    /**
+     * Returns up to k keys with the highest counts, highest first (ties by key's string)
+     **/
+    public List<K> getTop(int k) {
+        List<Map.Entry<K, Long>> entries = new ArrayList<>(candidates.entrySet());
+        entries.sort(Comparator.comparing((Map.Entry<K, Long> entry) -> entry.getValue()).reversed()
+                .thenComparing(entry -> entry.getKey().toString()));
+
+        List<K> top = new ArrayList<>();
+
+        for (int i = 0; i < Math.min(Math.max(0, k), entries.size()); i++)
+            top.add(entries.get(i).getKey());
+
+        return top;
+    }
+
+    /**
+     * Returns the key's (decayed) count estimate. Never less than the real decayed count.
+     **/
+    public long estimate(K key) {
+        decayIfDue();
+        return sketch.estimate(key);
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Approximate memory used, in bytes: the sketch plus ~64 bytes per candidate
+     **/
+    public long getMemoryBytes() {
+        return sketch.getMemoryBytes() + 64L * capacity;
+    }
+
+    private void replaceSmallest(K key, long estimate) {
+        K smallest = null;
+        long smallestCount = Long.MAX_VALUE;
+
+        for (Map.Entry<K, Long> entry : candidates.entrySet()) {
+            if (entry.getValue() < smallestCount) {
+                smallest = entry.getKey();
+                smallestCount = entry.getValue();
+            }
+        }
+
+        if (smallest == null || estimate <= smallestCount) {
+            minCount = smallestCount;
+            return;
+        }
+
+        candidates.remove(smallest);
+        candidates.put(key, estimate);
+        minCount = smallestCount;
+    }
+
+    /**
+     * Halves every count once for each half life that passed. Only the thread that moves the deadline does it.
+     **/
+    private void decayIfDue() {
+        long now = nanoClock.getAsLong();
+        long deadline = nextDecayNanos.get();
+
+        if (now - deadline < 0)
+            return;
+
+        long halfLives = (now - deadline) / halfLifeNanos + 1;
+
+        if (!nextDecayNanos.compareAndSet(deadline, deadline + halfLives * halfLifeNanos))
+            return;
+
+        int shift = (int) Math.min(halfLives, 63);
+        sketch.shiftRight(shift);
+        candidates.replaceAll((key, count) -> count >>> shift);
+        candidates.values().removeIf(count -> count == 0);
+        minCount >>>= shift;
+    }
+}
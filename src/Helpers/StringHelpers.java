@@ -1,16 +1,29 @@
 package Helpers;
 
-import java.security.SecureRandom;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
 
 public class StringHelpers {
-    private static final Pattern dateRegex = Pattern
-            .compile("^(0[1-9]|1[0-2])\\/(0[1-9]|[1-2][0-9]|3[0-1])\\/([1-2][0-9]{3})$");
+    // Direct mapped cache of recently parsed dates (by string hash). Entries are immutable,
+    // so threads racing on a slot at worst overwrite each other's entry.
+    private static final ParsedDate[] parsedDates = new ParsedDate[256];
+
+    // Stands for an unknown or invalid date where dates are stored as epoch days
+    public static final int unknownDate = Integer.MIN_VALUE;
 
     static final String allChars = "0123456789abcdefghijklmnopqrstuvwxyz";
     static final int idLength = 12;
-    static SecureRandom random = new SecureRandom();
+
+    private static class ParsedDate {
+        final String text;
+        final int epochDay;
+
+        ParsedDate(String text, int epochDay) {
+            this.text = text;
+            this.epochDay = epochDay;
+        }
+    }
 
     /**
      * Checks to see if a string is title case. Title case -> first letter of each word is capitalized
@@ -19,10 +32,11 @@ public class StringHelpers {
         if (input == null || input.equals(""))
             return false;
 
-        String[] tokens = input.split(" ");
+        // Checks the first letter of each word in place, this runs for every name and title loaded
+        for (int i = 0; i < input.length(); i++) {
+            boolean startsWord = (i == 0 || input.charAt(i - 1) == ' ') && input.charAt(i) != ' ';
 
-        for (String tok : tokens) {
-            if (!Character.isUpperCase(tok.charAt(0)))
+            if (startsWord && !Character.isUpperCase(input.charAt(i)))
                 return false;
         }
 
@@ -72,31 +86,141 @@ public class StringHelpers {
     }
 
     /**
-     * Returns true if the date is in the correct format.
-     * NOTE: This does not mean the date is a valid date.
-     * Valid years: 1000 - 2999, Valid Months: 01 - 12, Valid Days: 01 - 31
+     * Returns true if the date is in the format MM/DD/YYYY and is a real calendar date.
+     * Valid years: 1000 - 2999 (Ex: 02/29/2000 is valid, 02/31/2000 and 02/29/1900 are not)
      **/
     public static boolean isValidDateFormat(String date) {
-        if (date == null || date.equals(""))
-            return false;
+        return parseDate(date) != unknownDate;
+    }
+
+    /**
+     * Converts a MM/DD/YYYY date into the # of days since 01/01/1970 (epoch day).
+     * Returns unknownDate if the date isn't valid (see isValidDateFormat).
+     * Recently parsed strings are answered from a small cache.
+     **/
+    public static int parseDate(String date) {
+        if (date == null)
+            return unknownDate;
+
+        int slot = date.hashCode() & (parsedDates.length - 1);
+        ParsedDate cached = parsedDates[slot];
+
+        if (cached != null && cached.text.equals(date))
+            return cached.epochDay;
+
+        int epochDay = parseDateUncached(date);
+        parsedDates[slot] = new ParsedDate(date, epochDay);
+        return epochDay;
+    }
+
+    /**
+     * Parses MM/DD/YYYY by hand, without allocating. Returns unknownDate if the date isn't valid.
+     **/
+    static int parseDateUncached(String date) {
+        if (date.length() != 10 || date.charAt(2) != '/' || date.charAt(5) != '/')
+            return unknownDate;
+
+        int month = parseDigits(date, 0, 2);
+        int day = parseDigits(date, 3, 5);
+        int year = parseDigits(date, 6, 10);
+
+        if (month < 1 || month > 12 || day < 1 || year < 1000 || year > 2999)
+            return unknownDate;
+
+        if (day > daysInMonth(month, year))
+            return unknownDate;
+
+        return toEpochDay(year, month, day);
+    }
+
+    /**
+     * Converts an epoch day back into a MM/DD/YYYY date. Returns "Unknown" for unknownDate.
+     **/
+    public static String formatDate(int epochDay) {
+        if (epochDay == unknownDate)
+            return "Unknown";
+
+        int civil = toCivil(epochDay);
+        int year = civil >>> 9, month = (civil >>> 5) & 0xF, day = civil & 0x1F;
+        char[] date = {
+                digit(month / 10), digit(month % 10), '/', digit(day / 10), digit(day % 10), '/',
+                digit(year / 1000), digit(year / 100 % 10), digit(year / 10 % 10), digit(year % 10)};
+
+        return new String(date);
+    }
+
+    /**
+     * Returns the year of an epoch day
+     **/
+    public static int getYear(int epochDay) {
+        return toCivil(epochDay) >>> 9;
+    }
+
+    /**
+     * Returns the value of the digits from start (inclusive) to end (exclusive), or -1 if one isn't a digit
+     **/
+    private static int parseDigits(String input, int start, int end) {
+        int value = 0;
+
+        for (int i = start; i < end; i++) {
+            int digit = input.charAt(i) - '0';
+
+            if (digit < 0 || digit > 9)
+                return -1;
+
+            value = value * 10 + digit;
+        }
+
+        return value;
+    }
+
+    private static int daysInMonth(int month, int year) {
+        if (month == 2)
+            return (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+
+        return (month == 4 || month == 6 || month == 9 || month == 11) ? 30 : 31;
+    }
 
-        Matcher matcher = dateRegex.matcher(date);
-        return matcher.find();
+    /**
+     * Days from 01/01/1970 to the date (proleptic Gregorian calendar, years >= 0).
+     * Counts from March 1st so the leap day falls at the end of each year.
+     **/
+    private static int toEpochDay(int year, int month, int day) {
+        int marchYear = (month <= 2) ? year - 1 : year;
+        int era = marchYear / 400;
+        int yearOfEra = marchYear - era * 400;
+        int dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    /**
+     * Inverse of toEpochDay. Returns the date packed as (year << 9) | (month << 5) | day
+     **/
+    private static int toCivil(int epochDay) {
+        int shifted = epochDay + 719468;
+        int era = Math.floorDiv(shifted, 146097);
+        int dayOfEra = shifted - era * 146097;
+        int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        int shiftedMonth = (5 * dayOfYear + 2) / 153;
+        int day = dayOfYear - (153 * shiftedMonth + 2) / 5 + 1;
+        int month = (shiftedMonth < 10) ? shiftedMonth + 3 : shiftedMonth - 9;
+        int year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        return (year << 9) | (month << 5) | day;
+    }
+
+    private static char digit(int value) {
+        return (char) ('0' + value);
     }
 
     /**
      * Generates a ransom string to use for Id for users
      * Id has length 12 and can contain letters a - z
-     * and digits 0 - 9
+     * and digits 0 - 9. Ids never repeat (see IdGenerator).
      **/
     public static String generateRandomId() {
-        StringBuilder sb = new StringBuilder();
-        int numbPossibleChars = allChars.length();
-
-        for (int i = 0; i < idLength; i++)
-            sb.append(allChars.charAt(random.nextInt(numbPossibleChars)));
-
-        return sb.toString();
+        return IdGenerator.nextId();
     }
 
     /**
@@ -117,10 +241,66 @@ public class StringHelpers {
         return true;
     }
 
+    /**
+     * Returns a 64 bit FNV-1a hash of the string. Used to tell if a record has
+     * changed without keeping the whole record around.
+     **/
+    public static long hash64(String input) {
+        long hash = 0xcbf29ce484222325L;
+
+        for (int i = 0; i < input.length(); i++) {
+            hash ^= input.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+
+        return hash;
+    }
+
+    /**
+     * Returns the JVM wide shared copy of the string (String.intern), so every library hosted in the
+     * JVM keeps one copy of the titles, author names and genres they have in common. Copies no
+     * library uses anymore are garbage collected. Returns null for null.
+     **/
+    public static String share(String input) {
+        return (input == null) ? null : input.intern();
+    }
+
     /**
      * Returns true if the input is null or an empty string ("")
      **/
     public static boolean isNullOrEmptyString(String input) {
         return input == null || input.equals("");
     }
+
+    /**
+     * Writes the items separated by ", " as they come, without building the whole string first.
+     * Returns the # of items written.
+     **/
+    public static int appendJoined(Appendable out, Iterator<String> items) throws IOException {
+        int count = 0;
+
+        while (items.hasNext()) {
+            if (count++ > 0)
+                out.append(", ");
+
+            out.append(items.next());
+        }
+
+        return count;
+    }
+
+    /**
+     * Same format as List.toString ([a, b, c]) built in one pass, with no copy of the items
+     **/
+    public static String toListString(Iterable<String> items) {
+        StringBuilder builder = new StringBuilder().append('[');
+
+        try {
+            appendJoined(builder, items.iterator());
+        } catch (IOException e) { // StringBuilder never throws
+            throw new UncheckedIOException(e);
+        }
+
+        return builder.append(']').toString();
+    }
 }
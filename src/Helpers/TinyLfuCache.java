@@ -0,0 +1,259 @@
+package Helpers;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Bounded cache using the W-TinyLFU policy. New entries go into a small LRU window.
+ * When the window overflows, its oldest entry only makes it into the main cache if it has
+ * been requested more often (according to a Count-Min Sketch) than the entry it would evict.
+ * The main cache is a segmented LRU: probation for new entries, protected for entries hit twice.
+ **/
+public class TinyLfuCache<K, V> {
+    private final int windowCapacity;
+    private final int protectedCapacity;
+    private final int mainCapacity;
+
+    // Access ordered maps, the first key is always the least recently used one
+    private final LinkedHashMap<K, V> window;
+    private final LinkedHashMap<K, V> probation;
+    private final LinkedHashMap<K, V> protectedSegment;
+
+    private final CountMinSketch sketch;
+    private final int sampleSize;
+    private int additions;
+
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+    private long invalidationCount;
+
+    public TinyLfuCache(int capacity) {
+        capacity = Math.max(2, capacity);
+        windowCapacity = Math.max(1, capacity / 100);
+        mainCapacity = capacity - windowCapacity;
+        protectedCapacity = (int) (mainCapacity * 0.8);
+
+        window = new LinkedHashMap<>(16, 0.75f, true);
+        probation = new LinkedHashMap<>(16, 0.75f, true);
+        protectedSegment = new LinkedHashMap<>(16, 0.75f, true);
+
+        sketch = new CountMinSketch(capacity);
+        sampleSize = 10 * capacity;
+    }
+
+    /**
+     * Returns the cached value for key, or null if it isn't cached.
+     **/
+    public synchronized V get(K key) {
+        return get(key, value -> true);
+    }
+
+    /**
+     * Returns the cached value for key if isValid accepts it. A cached value that isn't valid
+     * anymore is invalidated and counted as a miss. Returns null on a miss.
+     **/
+    public synchronized V get(K key, Predicate<V> isValid) {
+        recordAccess(key);
+        V value = peek(key);
+
+        if (value != null && !isValid.test(value)) {
+            remove(key);
+            invalidationCount++;
+            value = null;
+        }
+
+        if (value == null) {
+            missCount++;
+            return null;
+        }
+
+        hitCount++;
+
+        if (probation.containsKey(key))
+            promote(key);
+        else if (window.containsKey(key))
+            window.get(key);
+        else
+            protectedSegment.get(key);
+
+        return value;
+    }
+
+    /**
+     * Adds or replaces the cached value for key. May evict another entry.
+     **/
+    public synchronized void put(K key, V value) {
+        if (window.containsKey(key)) {
+            window.put(key, value);
+            return;
+        } else if (probation.containsKey(key)) {
+            probation.put(key, value);
+            return;
+        } else if (protectedSegment.containsKey(key)) {
+            protectedSegment.put(key, value);
+            return;
+        }
+
+        window.put(key, value);
+
+        if (window.size() > windowCapacity)
+            admitFromWindow();
+    }
+
+    /**
+     * Removes key from the cache if it's cached
+     **/
+    public synchronized void invalidate(K key) {
+        if (remove(key) != null)
+            invalidationCount++;
+    }
+
+    public synchronized int size() {
+        return window.size() + probation.size() + protectedSegment.size();
+    }
+
+    /**
+     * Approximate memory used when full, in bytes: the sketch plus ~64 bytes per entry (not counting
+     * the keys and values themselves)
+     **/
+    public long getMemoryBytes() {
+        return sketch.getMemoryBytes() + 64L * (windowCapacity + mainCapacity);
+    }
+
+    /**
+     * Returns a snapshot of the hit, miss, eviction and invalidation counts
+     **/
+    public synchronized Stats getStats() {
+        return new Stats(hitCount, missCount, evictionCount, invalidationCount);
+    }
+
+    private V peek(K key) {
+        V value = window.get(key);
+
+        if (value == null)
+            value = probation.get(key);
+
+        if (value == null)
+            value = protectedSegment.get(key);
+
+        return value;
+    }
+
+    private V remove(K key) {
+        V value = window.remove(key);
+
+        if (value == null)
+            value = probation.remove(key);
+
+        if (value == null)
+            value = protectedSegment.remove(key);
+
+        return value;
+    }
+
+    /**
+     * Counts the access in the sketch. Halves all counts every sampleSize accesses
+     * so entries that used to be popular eventually lose their spot.
+     **/
+    private void recordAccess(K key) {
+        sketch.increment(key);
+
+        if (++additions >= sampleSize) {
+            sketch.halve();
+            additions /= 2;
+        }
+    }
+
+    /**
+     * Moves a probation entry that was hit again into the protected segment. If protected is
+     * full its least recently used entry goes back to probation.
+     **/
+    private void promote(K key) {
+        protectedSegment.put(key, probation.remove(key));
+
+        if (protectedSegment.size() > protectedCapacity) {
+            K demoted = eldest(protectedSegment);
+            probation.put(demoted, protectedSegment.remove(demoted));
+        }
+    }
+
+    /**
+     * The window's oldest entry competes with main's next victim. The one requested more
+     * often stays, the other is evicted.
+     **/
+    private void admitFromWindow() {
+        K candidate = eldest(window);
+        V candidateValue = window.remove(candidate);
+
+        if (probation.size() + protectedSegment.size() < mainCapacity) {
+            probation.put(candidate, candidateValue);
+            return;
+        }
+
+        LinkedHashMap<K, V> victimSegment = probation.isEmpty() ? protectedSegment : probation;
+        K victim = eldest(victimSegment);
+        evictionCount++;
+
+        if (sketch.estimate(candidate) > sketch.estimate(victim)) {
+            victimSegment.remove(victim);
+            probation.put(candidate, candidateValue);
+        }
+    }
+
+    private K eldest(LinkedHashMap<K, V> segment) {
+        Iterator<K> keys = segment.keySet().iterator();
+        return keys.next();
+    }
+
+    /**
+     * Immutable snapshot of cache statistics
+     **/
+    public static class Stats {
+        private final long hitCount;
+        private final long missCount;
+        private final long evictionCount;
+        private final long invalidationCount;
+
+        public Stats(long hitCount, long missCount, long evictionCount, long invalidationCount) {
+            this.hitCount = hitCount;
+            this.missCount = missCount;
+            this.evictionCount = evictionCount;
+            this.invalidationCount = invalidationCount;
+        }
+
+        public long getHitCount() {
+            return hitCount;
+        }
+
+        public long getMissCount() {
+            return missCount;
+        }
+
+        public long getEvictionCount() {
+            return evictionCount;
+        }
+
+        public long getInvalidationCount() {
+            return invalidationCount;
+        }
+
+        /**
+         * Fraction of requests that were hits (0 if there were no requests)
+         **/
+        public double getHitRate() {
+            long requests = hitCount + missCount;
+            return (requests == 0) ? 0 : (double) hitCount / requests;
+        }
+
+        /**
+         * String format: Hits: h, Misses: m, Hit Rate: r%, Evictions: e, Invalidations: i
+         **/
+        public String toString() {
+            return "Hits: " + hitCount + ", Misses: " + missCount + ", Hit Rate: " +
+                    String.format("%.1f", getHitRate() * 100) + "%, Evictions: " + evictionCount +
+                    ", Invalidations: " + invalidationCount;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package Main;
+
+import java.util.Scanner;
+
+/**
+ * Session channel for System.in and System.out.
+ **/
+public class ConsoleIO implements SessionIO {
+    private final Scanner sc;
+
+    public ConsoleIO() {
+        sc = new Scanner(System.in);
+    }
+
+    public String readLine() {
+        return sc.hasNextLine() ? sc.nextLine() : null;
+    }
+
+    public void println(String line) {
+        System.out.println(line);
+    }
+}
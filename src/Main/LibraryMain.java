@@ -1,16 +1,92 @@
 package Main;
 
+import Models.CatalogPage;
+import Models.CatalogQuery;
 import Models.LibraryManager;
+import Models.ReplicationLeader;
+import Models.User;
 
-import java.io.FileNotFoundException;
+import java.io.IOException;
 
+/**
+ * Usage: java Main.LibraryMain [--fast-start] [--warmup] [--replicate port]
+ * --fast-start: loads the library from the snapshot in snapshot/ (saved on shutdown) if there is one
+ * and builds the search indexes in the background, so the first lookup doesn't wait for them.
+ * --warmup: starts up, runs one scripted session using every kind of request and quits. Use it as
+ * the training run when creating a class data sharing (AppCDS) archive, see README.
+ * --replicate: ships every change to hot standbys (Main.ReplicaMain) connecting to the port on loopback.
+ **/
 public class LibraryMain {
-    private static final LibraryManager libManager = LibraryManager.getInstance();
+    private static final String snapshotDirectory = "snapshot";
+
+    public static void main(String[] args) throws IOException {
+        boolean fastStart = false, warmup = false;
+        int replicationPort = -1;
+
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--fast-start"))
+                fastStart = true;
+            else if (args[i].equals("--warmup"))
+                warmup = true;
+            else if (args[i].equals("--replicate") && i + 1 < args.length && args[i + 1].matches("\\d+"))
+                replicationPort = Integer.parseInt(args[++i]);
+            else
+                System.out.println("Unknown option: " + args[i]);
+        }
+
+        LibraryManager libManager = LibraryManager.getInstance();
 
-    public static void main(String[] args) throws FileNotFoundException {
         // Populate libManager with data of book and authors
-        libManager.startUpManager();
-        libManager.startLibrary();
+        if (fastStart)
+            libManager.fastStartUpManager(snapshotDirectory, true);
+        else
+            libManager.startUpManager();
+
+        ReplicationLeader leader = null;
+
+        if (replicationPort >= 0) {
+            leader = new ReplicationLeader(libManager, replicationPort);
+            System.out.println("Replicating to standbys on port " + leader.getPort() + ".");
+        }
+
+        if (warmup)
+            runWarmup(libManager);
+        else
+            new LibrarySession(libManager, new ConsoleIO()).run();
+
+        if (fastStart && !warmup)
+            libManager.exportSnapshot(snapshotDirectory);
+
+        if (leader != null)
+            leader.close();
+
         System.out.println("Shutting down library system.");
     }
+
+    /**
+     * Logs in a new user and searches, checks out and returns the first book, like a user at the console would
+     **/
+    private static void runWarmup(LibraryManager libManager) {
+        CatalogPage page = libManager.query(new CatalogQuery());
+        String title = page.getBooks().isEmpty() ? "the lorax" : page.getBooks().get(0).getTitle();
+        User user = libManager.signUp("Warmup", "password");
+        String[] script = {
+                "n", user.getName(), user.getId(), "password",
+                "s", "b", "t", title,
+                "s", "b", "k", title,
+                "s", "a", "dr. suess",
+                "c", title,
+                "i", "b",
+                "r", title,
+                "q"
+        };
+        QueueIO io = new QueueIO(false);
+
+        for (String line : script)
+            io.send(line);
+
+        io.close();
+        new LibrarySession(libManager, io).run();
+        System.out.println("Warmup ran " + io.getOutputLineCount() + " lines of output.");
+    }
 }
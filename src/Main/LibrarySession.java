@@ -0,0 +1,262 @@
+package Main;
+
+import Helpers.ConcurrencyLimiter;
+import Models.LibraryManager;
+import Models.LoanStatus;
+import Models.User;
+
+/**
+ * One library user's interactive session, written as a state machine: each line of input moves
+ * the session to its next state and prints the next prompt. Input and output go through a SessionIO,
+ * so the same session works for the console, scripted tests or a network connection.
+ * Commands: search (s), info (i), checkout (c), return (r), logout (l), quit (q)
+ **/
+public class LibrarySession implements Runnable {
+    private enum State {
+        CREATE_USER, NAME, ID, PASSWORD, COMMAND, SEARCH_TYPE, AUTHOR_NAME, BOOK_SEARCH_TYPE,
+        TITLE, GENRE, KEYWORDS, CHECKOUT_TITLE, RETURN_TITLE, INFO_TYPE, DONE
+    }
+
+    private final LibraryManager libManager;
+    private final SessionIO io;
+    private State state;
+    private User currentUser;
+    private boolean creatingUser;
+    private String name;
+    private String id;
+
+    public LibrarySession(LibraryManager libManager, SessionIO io) {
+        this.libManager = libManager;
+        this.io = io;
+        this.state = State.CREATE_USER;
+    }
+
+    /**
+     * Runs the session until the user quits or the input ends.
+     **/
+    public void run() {
+        prompt();
+        String input;
+
+        while (state != State.DONE && (input = io.readLine()) != null)
+            handle(input);
+    }
+
+    /**
+     * Handles one line of input and prints the prompt for the next state.
+     * If the library is too busy the input is ignored and the same prompt is printed again.
+     **/
+    public void handle(String input) {
+        ConcurrencyLimiter limiter = libManager.getAdmissionControl().tryEnter();
+
+        if (limiter == null) {
+            io.println("The library is busy right now, please try again.");
+        } else {
+            try {
+                state = nextState(input.strip());
+            } finally {
+                limiter.exit();
+            }
+        }
+
+        if (state != State.DONE)
+            prompt();
+    }
+
+    public boolean isDone() {
+        return state == State.DONE;
+    }
+
+    /**
+     * Returns the logged in user, or null if no one is logged in
+     **/
+    public User getCurrentUser() {
+        return currentUser;
+    }
+
+    private void prompt() {
+        switch (state) {
+            case CREATE_USER:
+                io.println("Would you like to create a new user? (y/n)");
+                break;
+            case NAME:
+                io.println("Please enter your name.");
+                break;
+            case ID:
+                io.println("Please enter your id.");
+                break;
+            case PASSWORD:
+                io.println("Please enter your password.");
+                break;
+            case COMMAND:
+                io.println(libManager.getSystemCommands());
+                break;
+            case SEARCH_TYPE:
+                io.println("Would you like to search for an author or a book? (a/b)");
+                break;
+            case AUTHOR_NAME:
+                io.println("Enter name of author to search for.");
+                break;
+            case BOOK_SEARCH_TYPE:
+                io.println("Would you like to search for book by title, genre or keywords? (t/g/k)");
+                break;
+            case TITLE:
+                io.println("Enter the tile of the book you want to search for.");
+                break;
+            case GENRE:
+                io.println("Enter the genre you're looking for");
+                break;
+            case KEYWORDS:
+                io.println("Enter keywords to search for (use quotes for a phrase).");
+                break;
+            case CHECKOUT_TITLE:
+                io.println("What book would you like to check out? (enter the book title)");
+                break;
+            case RETURN_TITLE:
+                io.println("What is the title of the book you would like to return?");
+                break;
+            case INFO_TYPE:
+                io.println("What would you like to look up? (i: info, b: books checked out, r: recommended books)");
+                break;
+        }
+    }
+
+    private State nextState(String input) {
+        String lowerInput = input.toLowerCase();
+
+        switch (state) {
+            case CREATE_USER:
+                return askedCreateUser(lowerInput);
+            case NAME:
+                name = input;
+                return creatingUser ? State.PASSWORD : State.ID;
+            case ID:
+                id = input;
+                return State.PASSWORD;
+            case PASSWORD:
+                return enteredPassword(input);
+            case COMMAND:
+                return enteredCommand(lowerInput);
+            case SEARCH_TYPE:
+                if (lowerInput.equals("a"))
+                    return State.AUTHOR_NAME;
+
+                return lowerInput.equals("b") ? State.BOOK_SEARCH_TYPE : State.SEARCH_TYPE;
+            case AUTHOR_NAME:
+                io.println(libManager.getAuthorByName(currentUser, input));
+                return State.COMMAND;
+            case BOOK_SEARCH_TYPE:
+                return askedBookSearchType(lowerInput);
+            case TITLE:
+                io.println(libManager.getBookByTitle(currentUser, lowerInput));
+                return State.COMMAND;
+            case GENRE:
+                io.println(libManager.findBooksByGenre(currentUser, lowerInput));
+                return State.COMMAND;
+            case KEYWORDS:
+                io.println(libManager.searchBooks(currentUser, input, 10));
+                return State.COMMAND;
+            case CHECKOUT_TITLE:
+                io.println(libManager.checkOutBook(currentUser, input).getMessage(input));
+                return State.COMMAND;
+            case RETURN_TITLE:
+                io.println(libManager.returnBook(currentUser, lowerInput).getMessage(lowerInput));
+                return State.COMMAND;
+            case INFO_TYPE:
+                return askedInfoType(lowerInput);
+            default:
+                return State.DONE;
+        }
+    }
+
+    private State askedCreateUser(String input) {
+        if (!input.equals("y") && !input.equals("n"))
+            return State.CREATE_USER;
+
+        creatingUser = input.equals("y");
+
+        if (creatingUser)
+            io.println("Attempting to create new user.");
+
+        return State.NAME;
+    }
+
+    /**
+     * Last step of creating a user or logging in. After a user is created they still need to log in.
+     **/
+    private State enteredPassword(String password) {
+        if (creatingUser) {
+            User newUser = libManager.signUp(name, password);
+
+            if (newUser != null) {
+                io.println("Successfully Created new user. Your id is: " + newUser.getId() + "\n");
+                return State.CREATE_USER;
+            }
+        } else {
+            currentUser = libManager.logIn(id, name, password);
+
+            if (currentUser != null)
+                return State.COMMAND;
+        }
+
+        io.println("Invalid login information!\n");
+        return State.CREATE_USER;
+    }
+
+    private State enteredCommand(String input) {
+        switch (input) {
+            case "logout":
+            case "l":
+                currentUser = null;
+                return State.CREATE_USER;
+            case "quit":
+            case "q":
+                return State.DONE;
+            case "search":
+            case "s":
+                return State.SEARCH_TYPE;
+            case "checkout":
+            case "c":
+                if (currentUser.canCheckOutMoreBooks())
+                    return State.CHECKOUT_TITLE;
+
+                io.println("You've reached your check out limit please return a book to check out another.");
+                return State.COMMAND;
+            case "info":
+            case "i":
+                return State.INFO_TYPE;
+            case "return":
+            case "r":
+                return State.RETURN_TITLE;
+            default:
+                return State.COMMAND;
+        }
+    }
+
+    private State askedBookSearchType(String input) {
+        switch (input) {
+            case "t":
+                return State.TITLE;
+            case "g":
+                return State.GENRE;
+            case "k":
+                return State.KEYWORDS;
+            default:
+                return State.BOOK_SEARCH_TYPE;
+        }
+    }
+
+    private State askedInfoType(String input) {
+        if (input.equals("i")) {
+            io.println(currentUser.toString());
+        } else if (input.equals("b")) {
+            io.println(currentUser.getBooksCheckedOut());
+        } else if (input.equals("r")) {
+            io.println(libManager.recommendFor(currentUser));
+        } else {
+            return State.INFO_TYPE;
+        }
+
+        return State.COMMAND;
+    }
+}
@@ -0,0 +1,74 @@
+package Main;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Session channel fed from another thread. Input lines are queued with send() and the session
+ * blocks until one arrives. Output is kept in memory (or just counted, to keep idle sessions small).
+ **/
+public class QueueIO implements SessionIO {
+    // Queued to signal the end of the input
+    private static final String endOfInput = new String("");
+
+    private final BlockingQueue<String> input;
+    private final List<String> output;
+    private final boolean keepOutput;
+    private volatile int outputLineCount;
+
+    public QueueIO(boolean keepOutput) {
+        this.input = new LinkedBlockingQueue<>();
+        this.output = keepOutput ? new ArrayList<>() : null;
+        this.keepOutput = keepOutput;
+    }
+
+    /**
+     * Queues a line of input for the session
+     **/
+    public void send(String line) {
+        input.add(line);
+    }
+
+    /**
+     * Ends the input. The session sees null after all queued lines are read.
+     **/
+    public void close() {
+        input.add(endOfInput);
+    }
+
+    public String readLine() {
+        try {
+            String line = input.take();
+
+            if (line == endOfInput) {
+                input.add(endOfInput);
+                return null;
+            }
+
+            return line;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    public synchronized void println(String line) {
+        outputLineCount++;
+
+        if (keepOutput)
+            output.add(line);
+    }
+
+    public int getOutputLineCount() {
+        return outputLineCount;
+    }
+
+    /**
+     * Returns a copy of all output so far (empty if output isn't kept)
+     **/
+    public synchronized List<String> getOutput() {
+        return keepOutput ? new ArrayList<>(output) : new ArrayList<>();
+    }
+}
@@ -0,0 +1,67 @@
+package Main;
+
+import Models.LibraryManager;
+import Models.ReplicationFollower;
+
+import java.io.IOException;
+import java.util.Scanner;
+
+/**
+ * Usage: java Main.ReplicaMain [host] [port]
+ * Runs a hot standby of a library started with --replicate port (default localhost 7070) and answers
+ * lookups from it. "promote" saves the standby's library to snapshot/ so "LibraryMain --fast-start"
+ * started in the same directory takes over from where the leader was.
+ **/
+public class ReplicaMain {
+    public static void main(String[] args) throws IOException {
+        String host = (args.length > 0) ? args[0] : "localhost";
+        int port = (args.length > 1) ? Integer.parseInt(args[1]) : 7070;
+        LibraryManager libManager = LibraryManager.getInstance();
+        ReplicationFollower follower = new ReplicationFollower(libManager, host, port);
+
+        if (!follower.start())
+            return;
+
+        System.out.println("Following " + host + ":" + port + " with " + libManager.getUniqueBookCount() + " books.");
+        Scanner sc = new Scanner(System.in);
+
+        while (true) {
+            System.out.println("\nEnter: title <title>, genre <genre>, author <name>, lag, promote or quit");
+
+            if (!sc.hasNextLine())
+                break;
+
+            String[] command = sc.nextLine().trim().split(" ", 2);
+            String argument = (command.length > 1) ? command[1] : "";
+
+            switch (command[0].toLowerCase()) {
+                case "title":
+                    System.out.println(libManager.getBookByTitle(argument));
+                    break;
+                case "genre":
+                    System.out.println(libManager.findBooksByGenre(argument));
+                    break;
+                case "author":
+                    System.out.println(libManager.getAuthorByName(argument));
+                    break;
+                case "lag":
+                    System.out.println((follower.isConnected() ? "Connected" : "Leader is gone") + ", applied change #"
+                            + follower.getAppliedSequence() + ", " + follower.getLagEvents() + " changes and "
+                            + follower.getLagMillis() + " ms behind.");
+                    break;
+                case "promote":
+                    follower.close();
+                    libManager.exportSnapshot("snapshot");
+                    System.out.println("Saved to snapshot/, start LibraryMain --fast-start here to take over.");
+                    return;
+                case "quit":
+                    follower.close();
+                    return;
+                default:
+                    System.out.println("Unknown command: " + command[0]);
+            }
+        }
+
+        follower.close();
+    }
+}
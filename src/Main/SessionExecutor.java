@@ -0,0 +1,64 @@
+package Main;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs each library session on its own thread. On Java 21+ every session gets a virtual thread,
+ * so a session blocked waiting for input costs a few KB instead of a whole OS thread.
+ * On older Java versions it falls back to a cached pool of platform threads.
+ **/
+public class SessionExecutor implements AutoCloseable {
+    private final ExecutorService executor;
+    private final boolean virtualThreads;
+
+    public SessionExecutor() {
+        ExecutorService virtualExecutor = newVirtualThreadExecutor();
+        this.virtualThreads = virtualExecutor != null;
+        this.executor = virtualThreads ? virtualExecutor : Executors.newCachedThreadPool();
+    }
+
+    /**
+     * Returns true if sessions run on virtual threads
+     **/
+    public boolean usesVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * Starts running the session on its own thread
+     **/
+    public Future<?> submit(LibrarySession session) {
+        return executor.submit(session);
+    }
+
+    /**
+     * Stops accepting sessions and waits for the running ones to finish.
+     * If the wait is interrupted it stops waiting and the thread keeps its interrupt.
+     **/
+    public void close() {
+        executor.shutdown();
+
+        try {
+            while (!executor.awaitTermination(1, TimeUnit.MINUTES))
+                System.out.println("Waiting for library sessions to finish.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Looked up by reflection so the project still builds and runs before Java 21
+     **/
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
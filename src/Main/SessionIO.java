@@ -0,0 +1,16 @@
+package Main;
+
+/**
+ * Input and output channel of a single library session (console, socket, test script...).
+ **/
+public interface SessionIO {
+    /**
+     * Blocks until the next line of input is available. Returns null once the input has ended.
+     **/
+    String readLine();
+
+    /**
+     * Sends a line of output to the library user.
+     **/
+    void println(String line);
+}
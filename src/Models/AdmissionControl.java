@@ -0,0 +1,100 @@
+package Models;
+
+import Helpers.ConcurrencyLimiter;
+import Helpers.RateLimiter;
+
+import java.util.EnumMap;
+
+/**
+ * Protects the library from bursts of traffic. Each operation has a rate limit per user (or per id
+ * for logins, to slow down password guessing) and all requests share a limit on how many run at once.
+ * Rejected requests are turned away right away instead of waiting.
+ * Rate limits are checked inside LibraryManager (isValidUser, checkOutBook and the searches taking a
+ * User), so every caller gets them. The concurrency limit is taken once per request where requests
+ * come in (LibrarySession, one turn per input line), not inside LibraryManager: its methods call each
+ * other (Ex: applyReplicated -> returnBook), so a request holding a turn could be refused a second one.
+ * AsyncLibraryManager doesn't take turns either, its calls wait in per key queues instead.
+ **/
+public class AdmissionControl {
+    public enum Operation {LOGIN, CHECKOUT, SEARCH}
+
+    private static final String tenantKey = "tenant";
+
+    private volatile EnumMap<Operation, RateLimiter> rateLimiters;
+    private volatile ConcurrencyLimiter concurrencyLimiter;
+    // Limit on every operation of the whole library together (hosted tenants only), else null
+    private volatile RateLimiter tenantLimiter;
+
+    /**
+     * Defaults: 5 logins per minute per id, 2 checkouts per second per user (bursts of 10),
+     * 20 searches per second per user (bursts of 40), 4 requests per core at once with 1024 more
+     * waiting up to 100 ms.
+     **/
+    public AdmissionControl() {
+        rateLimiters = new EnumMap<>(Operation.class);
+        rateLimiters.put(Operation.LOGIN, new RateLimiter(5 / 60.0, 5));
+        rateLimiters.put(Operation.CHECKOUT, new RateLimiter(2, 10));
+        rateLimiters.put(Operation.SEARCH, new RateLimiter(20, 40));
+        concurrencyLimiter = new ConcurrencyLimiter(4 * Runtime.getRuntime().availableProcessors(), 1024, 100);
+    }
+
+    /**
+     * Replaces the rate limit for an operation. Buckets start full again.
+     **/
+    public synchronized void setRateLimit(Operation operation, double perSecond, int burst) {
+        EnumMap<Operation, RateLimiter> newLimiters = new EnumMap<>(rateLimiters);
+        newLimiters.put(operation, new RateLimiter(perSecond, burst));
+        rateLimiters = newLimiters;
+    }
+
+    /**
+     * Limits every operation together, whoever does it. Used to hold a hosted library (see LibraryTenants)
+     * to its quota. Bucket starts full.
+     **/
+    public void setTenantRateLimit(double perSecond, int burst) {
+        tenantLimiter = new RateLimiter(perSecond, burst);
+    }
+
+    /**
+     * Replaces the limit on requests running at once. Requests already let in finish on the old limit.
+     **/
+    public void setConcurrencyLimit(int maxConcurrent, int maxQueued, long maxWaitMillis) {
+        concurrencyLimiter = new ConcurrencyLimiter(maxConcurrent, maxQueued, maxWaitMillis);
+    }
+
+    /**
+     * Returns true if the user (or id) may do the operation now
+     **/
+    public boolean tryAcquire(Operation operation, String key) {
+        RateLimiter tenant = tenantLimiter;
+
+        if (tenant != null && !tenant.tryAcquire(tenantKey))
+            return false;
+
+        return rateLimiters.get(operation).tryAcquire(key);
+    }
+
+    /**
+     * Waits for a turn to run a request. Returns null if the library is too busy,
+     * else the limiter to exit once the request is done.
+     **/
+    public ConcurrencyLimiter tryEnter() {
+        ConcurrencyLimiter limiter = concurrencyLimiter;
+        return limiter.tryEnter() ? limiter : null;
+    }
+
+    public RateLimiter getRateLimiter(Operation operation) {
+        return rateLimiters.get(operation);
+    }
+
+    /**
+     * Returns the limit on all operations together, or null if there isn't one
+     **/
+    public RateLimiter getTenantRateLimiter() {
+        return tenantLimiter;
+    }
+
+    public ConcurrencyLimiter getConcurrencyLimiter() {
+        return concurrencyLimiter;
+    }
+}
@@ -0,0 +1,129 @@
+package Models;
+
+import Helpers.KeyedSerialExecutor;
+import Helpers.StringHelpers;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Non blocking front for a LibraryManager: each call returns a CompletableFuture right away and runs
+ * on an executor, so callers don't wait once the library sits on storage or replication (Ex: the
+ * BLOCK policy of a ReplicationLeader). Calls for the same title run one at a time in the order they
+ * were made (a lookup made after a checkout sees it), logins are ordered per user id, and calls for
+ * different titles or users run at the same time. Genre searches aren't ordered with anything.
+ * The LibraryManager still does its own locking, so calls that change it are only as parallel as it allows.
+ * Calls run on virtual threads on Java 21+, else on a fixed pool of platform threads (calls past it wait
+ * in its queue), so a burst of calls never starts a burst of OS threads.
+ **/
+public class AsyncLibraryManager implements AutoCloseable {
+    // Platform threads of the pool before Java 21, calls mostly wait for the library's lock
+    private static final int poolThreads = 4 * Runtime.getRuntime().availableProcessors();
+
+    private final LibraryManager manager;
+    private final KeyedSerialExecutor<String> executor;
+    // Only set when the pool was created here, so close shuts it down
+    private final ExecutorService ownPool;
+
+    /**
+     * Runs calls on virtual threads or a pool of daemon threads created for it (shut down by close)
+     **/
+    public AsyncLibraryManager(LibraryManager manager) {
+        ExecutorService pool = newVirtualThreadExecutor();
+
+        if (pool == null) {
+            pool = Executors.newFixedThreadPool(poolThreads, task -> {
+                Thread thread = new Thread(task, "async-library");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        this.manager = manager;
+        this.ownPool = pool;
+        this.executor = new KeyedSerialExecutor<>(pool);
+    }
+
+    /**
+     * Runs calls on the given executor (close leaves it running)
+     **/
+    public AsyncLibraryManager(LibraryManager manager, Executor executor) {
+        this.manager = manager;
+        this.ownPool = null;
+        this.executor = new KeyedSerialExecutor<>(executor);
+    }
+
+    public LibraryManager getManager() {
+        return manager;
+    }
+
+    public CompletableFuture<LoanStatus> checkOutBook(User requester, String title) {
+        return executor.submit(titleKey(title), () -> manager.checkOutBook(requester, title));
+    }
+
+    public CompletableFuture<LoanStatus> returnBook(User returner, String title) {
+        return executor.submit(titleKey(title), () -> manager.returnBook(returner, title));
+    }
+
+    /**
+     * Searches count against the requester's search rate limit (see LibraryManager.getBookByTitle)
+     **/
+    public CompletableFuture<String> getBookByTitle(User requester, String title) {
+        return executor.submit(titleKey(title), () -> manager.getBookByTitle(requester, title));
+    }
+
+    public CompletableFuture<String> findBooksByGenre(User requester, String genre) {
+        return executor.submit(() -> manager.findBooksByGenre(requester, genre));
+    }
+
+    public CompletableFuture<Void> addBook(String title, String author, String genre, int totalCopies) {
+        return executor.submit(titleKey(title), () -> {
+            manager.addBook(title, author, genre, totalCopies);
+            return null;
+        });
+    }
+
+    /**
+     * Completes with the user if the id, name and password match, else null (see LibraryManager.logIn)
+     **/
+    public CompletableFuture<User> logIn(String id, String name, String password) {
+        return executor.submit("user:" + id, () -> manager.logIn(id, name, password));
+    }
+
+    /**
+     * # of titles and users with calls pending or running
+     **/
+    public int getPendingKeyCount() {
+        return executor.getPendingKeyCount();
+    }
+
+    /**
+     * Shuts down the pool if it was created here, calls already made still run
+     **/
+    public void close() {
+        if (ownPool != null)
+            ownPool.shutdown();
+    }
+
+    /**
+     * Looked up by reflection so the project still builds and runs before Java 21 (like SessionExecutor)
+     **/
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Titles are title cased like LibraryManager does, so "holes" and "Holes" are the same key
+     **/
+    private static String titleKey(String title) {
+        return "book:" + StringHelpers.makeTitleCase(title);
+    }
+}
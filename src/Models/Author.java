@@ -2,28 +2,32 @@ package Models;
 
 import Helpers.StringHelpers;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashSet;
+import java.io.IOException;
+import java.util.TreeSet;
 
 /**
  * Class represents an author. An author has a name, birth date, a list of books they've written
  * and a count for the # of books they've written. Name and book titles should be in title case
  * (Ex: The Cat In The Hat vs. the cat in the hat), Birth Date format: MM/DD/YYYY
+ * NOTE: Birth date is stored as an epoch day (# of days since 01/01/1970) so dates can be compared.
  **/
 public class Author {
     private String name;
-    private String birthDate;
-    private final HashSet<String> bookSet;
+    // Epoch day or StringHelpers.unknownDate
+    private int birthDate;
+    // Kept sorted, so listing the books never sorts or copies them
+    private final TreeSet<String> bookSet;
+    // Bumped every time a field shown by toString changes
+    private int version;
 
     /**
      * Author constructor. Assumes that name passed in is title cased. (EX: Dr. Suess)
      * Date should be in format: MM/DD/YYYY
      **/
     public Author(String name, String birthDate) {
-        this.name = name;
-        this.birthDate = (StringHelpers.isValidDateFormat(birthDate)) ? birthDate : "Unknown";
-        this.bookSet = new HashSet<>();
+        this.name = StringHelpers.share(name);
+        this.birthDate = StringHelpers.parseDate(birthDate);
+        this.bookSet = new TreeSet<>();
     }
 
     /**
@@ -49,24 +53,47 @@ public class Author {
             return;
 
         this.name = StringHelpers.makeTitleCase(name);
+        version++;
     }
 
     /**
-     * Returns the birth date of the author
+     * Returns a counter that changes every time the name, birth date or books written change.
+     * Lets callers tell if something they rendered from this author is out of date.
+     **/
+    int getVersion() {
+        return version;
+    }
+
+    /**
+     * Returns the birth date of the author (MM/DD/YYYY or Unknown)
      **/
     public String getBirthDate() {
+        return StringHelpers.formatDate(this.birthDate);
+    }
+
+    /**
+     * Returns the birth date of the author as an epoch day, or StringHelpers.unknownDate
+     **/
+    public int getBirthEpochDay() {
         return this.birthDate;
     }
 
+    public boolean hasKnownBirthDate() {
+        return this.birthDate != StringHelpers.unknownDate;
+    }
+
     /**
-     * Update the author's birth date if the date
-     * format is valid (MM/DD/YYYY), else does nothing
+     * Update the author's birth date if the date is a valid
+     * date (MM/DD/YYYY), else does nothing
      **/
     public void setBirthDate(String birthDate) {
-        if (!StringHelpers.isValidDateFormat(birthDate))
+        int newBirthDate = StringHelpers.parseDate(birthDate);
+
+        if (newBirthDate == StringHelpers.unknownDate)
             return;
 
-        this.birthDate = birthDate;
+        this.birthDate = newBirthDate;
+        version++;
     }
 
     /**
@@ -74,9 +101,14 @@ public class Author {
      * that are written by the author.
      **/
     public String getBooksWritten() {
-        ArrayList<String> books = new ArrayList<>(bookSet);
-        Collections.sort(books);
-        return books.toString();
+        return StringHelpers.toListString(bookSet);
+    }
+
+    /**
+     * Writes the titles of the books written by the author (sorted, separated by commas) to out
+     **/
+    public void writeBooksWritten(Appendable out) throws IOException {
+        StringHelpers.appendJoined(out, bookSet.iterator());
     }
 
     /**
@@ -85,12 +117,13 @@ public class Author {
      * then do nothing. If title is null or "" do nothing.
      **/
     public void removeBookWritten(String title) {
-        if (StringHelpers.isNullOrEmptyString(name))
+        if (StringHelpers.isNullOrEmptyString(title))
             return;
 
         title = StringHelpers.makeTitleCase(title);
 
-        this.bookSet.remove(title);
+        if (this.bookSet.remove(title))
+            version++;
     }
 
     /**
@@ -99,14 +132,15 @@ public class Author {
      * NOTE: Doesn't add duplicate books
      **/
     public void addBookWritten(String title) {
-        if (StringHelpers.isNullOrEmptyString(name))
+        if (StringHelpers.isNullOrEmptyString(title))
             return;
 
         title = StringHelpers.makeTitleCase(title);
 
         if (this.bookSet.contains(title)) return;
 
-        bookSet.add(title);
+        bookSet.add(StringHelpers.share(title));
+        version++;
     }
 
     /**
@@ -114,7 +148,7 @@ public class Author {
      * NOTE: Book titles listed in sorted order and separated by commas.
      **/
     public String toString() {
-        return "Name: " + name + ", Birth Date: " + birthDate + ", Books Written: " + getBooksWritten();
+        return "Name: " + name + ", Birth Date: " + getBirthDate() + ", Books Written: " + getBooksWritten();
     }
 
     /**
@@ -125,6 +159,6 @@ public class Author {
             return false;
 
         Author otherAuthor = (Author) obj;
-        return name.equals(otherAuthor.getName()) && birthDate.equals(otherAuthor.getBirthDate());
+        return name.equals(otherAuthor.getName()) && birthDate == otherAuthor.getBirthEpochDay();
     }
 }
\ No newline at end of file
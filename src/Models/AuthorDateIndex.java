@@ -0,0 +1,80 @@
+package Models;
+
+import Helpers.StringHelpers;
+
+import java.util.*;
+
+/**
+ * Authors sorted by birth date (epoch day), so range queries like "authors born 1900 - 1950"
+ * take O(log n + # of matches). Authors with an unknown birth date aren't indexed.
+ * NOTE: LibraryManager keeps this in sync for the authors it manages.
+ **/
+public class AuthorDateIndex {
+    private final TreeMap<Integer, TreeSet<String>> authorsByBirthDate;
+    private int size;
+
+    public AuthorDateIndex() {
+        authorsByBirthDate = new TreeMap<>();
+    }
+
+    /**
+     * Adds the author (title case name) born on the given epoch day
+     **/
+    public void add(String name, int birthEpochDay) {
+        if (birthEpochDay == StringHelpers.unknownDate)
+            return;
+
+        if (authorsByBirthDate.computeIfAbsent(birthEpochDay, day -> new TreeSet<>()).add(name))
+            size++;
+    }
+
+    /**
+     * Removes the author (title case name) born on the given epoch day, if they're indexed
+     **/
+    public void remove(String name, int birthEpochDay) {
+        TreeSet<String> names = authorsByBirthDate.get(birthEpochDay);
+
+        if (names == null || !names.remove(name))
+            return;
+
+        size--;
+
+        if (names.isEmpty())
+            authorsByBirthDate.remove(birthEpochDay);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the names of authors born between the two epoch days (inclusive), oldest first
+     **/
+    public List<String> getAuthorsBornBetween(int fromEpochDay, int toEpochDay) {
+        List<String> names = new ArrayList<>();
+
+        if (fromEpochDay > toEpochDay)
+            return names;
+
+        for (TreeSet<String> sameDay : authorsByBirthDate.subMap(fromEpochDay, true, toEpochDay, true).values())
+            names.addAll(sameDay);
+
+        return names;
+    }
+
+    /**
+     * Returns the names of authors born between 01/01 of fromYear and 12/31 of toYear, oldest first
+     **/
+    public List<String> getAuthorsBornInYears(int fromYear, int toYear) {
+        // Only years 1000 - 2999 are valid birth years
+        fromYear = Math.max(1000, fromYear);
+        toYear = Math.min(2999, toYear);
+
+        if (fromYear > toYear)
+            return new ArrayList<>();
+
+        int from = StringHelpers.parseDate(String.format("01/01/%04d", fromYear));
+        int to = StringHelpers.parseDate(String.format("12/31/%04d", toYear));
+        return getAuthorsBornBetween(from, to);
+    }
+}
@@ -1,5 +1,8 @@
 package Models;
 
+import Helpers.CopyBitmap;
+import Helpers.IntHashSet;
+import Helpers.NameDictionary;
 import Helpers.StringHelpers;
 
 import java.util.*;
@@ -7,99 +10,284 @@ import java.util.stream.Collectors;
 
 /**
  * Class for a book object. A book object consists of: a title, the author(s),
- * the genres, copies available, total copies.
+ * the genres and its copies. Each copy has a barcode (Ex: K3F9A01B-0002) and is either
+ * available, checked out or withdrawn from the library.
  **/
 public class Book {
-    private final String title;
-    private int totalCopies;
-    private int copiesAvailable;
+    public enum CopyState {AVAILABLE, CHECKED_OUT, WITHDRAWN}
+
+    // Most copies a book can ever have, withdrawn copies included (they keep their copy numbers)
+    public static final int maxCopies = CopyBitmap.maxCopies;
 
-    // Use hashset so that dupes aren't inserted
-    private final HashSet<String> authorsList;
-    private final HashSet<String> genreList;
+    private final String title;
+    private final String barcodePrefix;
+    // Set bit = copy is available. Checking out and returning copies doesn't need a lock.
+    private final CopyBitmap copies;
+    // Copies taken out of the library, never checked out again
+    private final BitSet withdrawnCopies;
+    private int withdrawnCount;
+    // Set once the book is being removed, copies are withdrawn as they're returned
+    private volatile boolean retiring;
+    // Bumped every time a field shown by toString changes
+    private int version;
+
+    // Ids of the author names and genres in the library's NameDictionary
+    private final NameDictionary names;
+    private final IntHashSet authorIds;
+    private final IntHashSet genreIds;
 
     public Book(String title) {
-        this.title = title;
-        totalCopies = copiesAvailable = 1;
-        authorsList = new HashSet<>();
-        genreList = new HashSet<>();
+        this(title, null, null, 1);
     }
 
     /**
      * Book Constructor. Title, genres and authors should be passed in using title case
      * (Ex: Author - Dr. Suess, Title - The Cat In The Hat, Genres - Fiction, Children)
+     * Throws IllegalArgumentException if totalCopies is over maxCopies (LibraryManager.addBook checks first).
      **/
     public Book(String title, String authors, String genre, int totalCopies) {
-        this.title = title;
-        this.totalCopies = this.copiesAvailable = totalCopies;
-        authorsList = new HashSet<>();
-        genreList = new HashSet<>();
+        this(title, authors, genre, totalCopies, NameDictionary.shared());
+    }
+
+    /**
+     * Book whose author names and genres are kept in the given dictionary (the library's, see LibraryManager)
+     **/
+    Book(String title, String authors, String genre, int totalCopies, NameDictionary names) {
+        if (totalCopies > maxCopies)
+            throw new IllegalArgumentException(title + " can't have " + totalCopies + " copies (max " + maxCopies + ")");
+
+        this.title = StringHelpers.share(title);
+        barcodePrefix = barcodePrefixOf(title);
+        copies = new CopyBitmap();
+        withdrawnCopies = new BitSet();
+        copies.grow(Math.max(0, totalCopies));
+        this.names = names;
+        authorIds = new IntHashSet();
+        genreIds = new IntHashSet();
 
         if (!StringHelpers.isNullOrEmptyString(authors))
-            addToSet(authors, authorsList);
+            addToSet(authors, authorIds);
 
         if (!StringHelpers.isNullOrEmptyString(genre))
-            addToSet(genre, genreList);
+            addToSet(genre, genreIds);
     }
 
     /**
      * Helper method for constructor. Split up list by delimiter ','
-     * then trim each string and add it to proper collection
+     * then trim each string and add its id to the proper set
      **/
-    private void addToSet(String listToAdd, Collection<String> placeToAdd) {
-        List<String> tempList;
-        String[] tempArray;
+    private void addToSet(String listToAdd, IntHashSet placeToAdd) {
+        for (String name : parseList(listToAdd))
+            placeToAdd.add(names.idOf(name));
+    }
+
+    /**
+     * Splits a ',' separated list of authors or genres into a set of trimmed, title cased names.
+     * Returns an empty set if list is null or "".
+     **/
+    static Set<String> parseList(String list) {
+        if (StringHelpers.isNullOrEmptyString(list))
+            return new HashSet<>();
 
-        listToAdd = StringHelpers.makeTitleCase(listToAdd);
-        tempArray = listToAdd.split(",");
-        tempList = Arrays.stream(tempArray).map(String::trim).collect(Collectors.toList());
-        placeToAdd.addAll(tempList);
+        String[] tempArray = StringHelpers.makeTitleCase(list).split(",");
+        return Arrays.stream(tempArray).map(name -> StringHelpers.share(name.trim()))
+                .collect(Collectors.toCollection(HashSet::new));
     }
 
     public String getTitle() {
         return title;
     }
 
+    /**
+     * # of copies owned by the library (checked out or not), withdrawn copies aren't counted
+     **/
     public int getTotalCopies() {
-        return totalCopies;
+        return copies.size() - withdrawnCount;
     }
 
     public int getCopiesAvailable() {
-        return copiesAvailable;
+        return copies.getFreeCount();
     }
 
-    public void setTotalCopies(int totalCopies) {
-        this.totalCopies = totalCopies;
+    /**
+     * Returns a counter that changes every time the title, authors, genres or total copies change.
+     * Lets callers tell if something they rendered from this book is out of date.
+     **/
+    int getVersion() {
+        return version;
     }
 
-    public void setCopiesAvailable(int copiesAvailable) {
-        this.copiesAvailable = copiesAvailable;
+    /**
+     * Called when a user checks out a copy of the book. Claims any available copy
+     * and returns its barcode, or null if no copy is available.
+     **/
+    public String checkOutBook() {
+        int copy = copies.claimAny();
+        return (copy < 0) ? null : getBarcode(copy);
     }
 
     /**
-     * Called when user returns a copy of the book
+     * Claims the copy with the given number if it's available, else any available copy.
+     * Returns the claimed copy's barcode, or null if no copy is available.
      **/
-    public void returnBook() {
-        copiesAvailable++;
+    String checkOutCopy(int copy) {
+        return copies.claim(copy) ? getBarcode(copy) : checkOutBook();
     }
 
     /**
-     * Called when a user checks out a copy of the book.
+     * Called when a user returns the copy with the given barcode. The copy is available again,
+     * unless the book is being removed (then it's withdrawn). Returns false if the copy
+     * isn't one of this book's or wasn't checked out.
      **/
-    public void checkOutBook() {
-        copiesAvailable--;
+    public boolean returnBook(String barcode) {
+        int copy = getCopyNumber(barcode);
+
+        if (getCopyState(copy) != CopyState.CHECKED_OUT)
+            return false;
+
+        if (retiring) {
+            withdrawCopy(copy);
+            return true;
+        }
+
+        return copies.release(copy);
     }
 
     /**
-     * Increases the totalCopies and availableCopies by given amount
-     * AddCopies must be greater than 0, else do nothing
+     * Increases the totalCopies and availableCopies by given amount. Cancels removing the book.
+     * Returns false (and adds nothing) if addCopies is negative or there's no room for them (see getRoomForCopies).
      **/
-    public void addBookCopies(int addCopies) {
-        if (addCopies < 0)
-            return;
+    public synchronized boolean addBookCopies(int addCopies) {
+        if (addCopies < 0 || copies.grow(addCopies) < 0)
+            return false;
+
+        retiring = false;
+        version++;
+        return true;
+    }
+
+    /**
+     * Approximate heap taken by the book's copies once addCopies more are added (0 for now)
+     **/
+    public long getCopyMemoryBytes(int addCopies) {
+        return CopyBitmap.memoryBytesFor(copies.size() + Math.max(0, addCopies));
+    }
+
+    /**
+     * # of copies that can still be added (maxCopies minus every copy the book ever had, withdrawn or not)
+     **/
+    public int getRoomForCopies() {
+        return maxCopies - copies.size();
+    }
+
+    /**
+     * Withdraws up to maxCopies available copies. Returns the # of copies withdrawn.
+     **/
+    public synchronized int withdrawAvailableCopies(int maxCopies) {
+        int withdrawn = 0;
+
+        for (int copy; withdrawn < maxCopies && (copy = copies.claimAny()) >= 0; withdrawn++)
+            withdrawCopy(copy);
+
+        return withdrawn;
+    }
+
+    /**
+     * Adds or withdraws available copies to get as close to totalCopies as possible.
+     * Copies checked out aren't withdrawn, copies past getRoomForCopies aren't added. Returns the new total.
+     **/
+    public synchronized int resizeCopies(int totalCopies) {
+        int difference = totalCopies - getTotalCopies();
+
+        if (difference > 0)
+            addBookCopies(Math.min(difference, getRoomForCopies()));
+        else if (difference < 0)
+            withdrawAvailableCopies(-difference);
+
+        return getTotalCopies();
+    }
+
+    /**
+     * Withdraws every available copy and every copy checked out once it's returned.
+     * Returns the # of copies still checked out.
+     **/
+    public synchronized int retire() {
+        retiring = true;
+        withdrawAvailableCopies(Integer.MAX_VALUE);
+        return getTotalCopies() - getCopiesAvailable();
+    }
 
-        setTotalCopies(getTotalCopies() + addCopies);
-        setCopiesAvailable(getCopiesAvailable() + addCopies);
+    public boolean isRetiring() {
+        return retiring;
+    }
+
+    /**
+     * Marks a claimed copy as withdrawn
+     **/
+    private synchronized void withdrawCopy(int copy) {
+        withdrawnCopies.set(copy);
+        withdrawnCount++;
+        version++;
+    }
+
+    /**
+     * Returns the barcode of the copy with the given number (0 is the first copy)
+     **/
+    public String getBarcode(int copy) {
+        return String.format("%s-%04d", barcodePrefix, copy + 1);
+    }
+
+    /**
+     * Returns the copy number in any book's barcode (Ex: K3F9A01B-0002 -> 1), or -1 if there isn't one
+     **/
+    static int copyNumberOf(String barcode) {
+        if (barcode == null)
+            return -1;
+
+        try {
+            return Integer.parseInt(barcode.substring(barcode.lastIndexOf('-') + 1)) - 1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Returns the number of the copy with the given barcode, or -1 if it isn't one of this book's copies
+     **/
+    public int getCopyNumber(String barcode) {
+        if (barcode == null || !barcode.startsWith(barcodePrefix) || barcode.length() <= barcodePrefix.length() + 1 ||
+                barcode.charAt(barcodePrefix.length()) != '-')
+            return -1;
+
+        try {
+            int copy = Integer.parseInt(barcode.substring(barcodePrefix.length() + 1)) - 1;
+            return (copy >= 0 && copy < copies.size()) ? copy : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Returns the state of the copy with the given number, or null if there's no such copy
+     **/
+    public CopyState getCopyState(int copy) {
+        if (copy < 0 || copy >= copies.size())
+            return null;
+
+        synchronized (this) {
+            if (withdrawnCopies.get(copy))
+                return CopyState.WITHDRAWN;
+        }
+
+        return copies.isFree(copy) ? CopyState.AVAILABLE : CopyState.CHECKED_OUT;
+    }
+
+    /**
+     * First 8 base 36 digits of the title's hash, upper case
+     **/
+    private static String barcodePrefixOf(String title) {
+        String hash = Long.toString(StringHelpers.hash64(title) >>> 23, 36).toUpperCase();
+        return (hash + "00000000").substring(0, 8);
     }
 
     /**
@@ -110,81 +298,125 @@ public class Book {
             return false;
 
         genre = (StringHelpers.isTitleCase(genre)) ? genre : StringHelpers.capitalize(genre);
-        return genreList.contains(genre);
+        return contains(genreIds, genre);
+    }
+
+    /**
+     * Returns true if the author (title case) wrote the book
+     **/
+    boolean hasAuthor(String author) {
+        return contains(authorIds, author);
+    }
+
+    private boolean contains(IntHashSet ids, String name) {
+        int id = names.lookup(name);
+        return id >= 0 && ids.contains(id);
     }
 
     /**
      * Adds a SINGLE author to the book's author list if it's new.
      **/
     public void addAuthor(String author) {
-        addTo(author, authorsList);
+        addTo(author, authorIds);
     }
 
     /**
      * Adds a SINGLE genre to the book's genre list if it's new.
      **/
     public void addGenre(String genre) {
-        addTo(genre, genreList);
+        addTo(genre, genreIds);
     }
 
     /**
      * Adds element (converted to title case if not already) to the given set.
      **/
-    private void addTo(String element, HashSet<String> set) {
+    private void addTo(String element, IntHashSet set) {
         if (StringHelpers.isNullOrEmptyString(element))
             return;
 
-        element = StringHelpers.makeTitleCase(element);
-        set.add(element);
+        element = StringHelpers.share(StringHelpers.makeTitleCase(element));
+
+        if (set.add(names.idOf(element)))
+            version++;
     }
 
     /**
-     * Removes a SINGLE genre from the book if it's included in the genreList
+     * Removes a SINGLE genre from the book if it has it
      **/
     public void removeGenre(String genre) {
-        removeFromSet(genre, genreList);
+        removeFromSet(genre, genreIds);
     }
 
     /**
      * Removes a SINGLE author from the book, if it's in the authorList.
      **/
     public void removeAuthor(String name) {
-        removeFromSet(name, authorsList);
+        removeFromSet(name, authorIds);
     }
 
     /**
      * If element is null or "", then do nothing, else remove it from the given set.
      * Element is converted to title case before removing from set.
      **/
-    private void removeFromSet(String element, HashSet<String> set) {
+    private void removeFromSet(String element, IntHashSet set) {
         if (StringHelpers.isNullOrEmptyString(element))
             return;
 
-        element = StringHelpers.makeTitleCase(element);
-        set.remove(element);
+        int id = names.lookup(StringHelpers.makeTitleCase(element));
+
+        if (id >= 0 && set.remove(id))
+            version++;
     }
 
     /**
      * Returns a Array string representation of author name(s) in sorted order
      **/
     public String getAuthors() {
-        return getSortedList(authorsList);
+        return getSortedList(authorIds);
     }
 
     /**
      * Returns a Array string representation of genre(s) in sorted order
      **/
     public String getGenres() {
-        return getSortedList(genreList);
+        return getSortedList(genreIds);
+    }
+
+    /**
+     * The book's author names (title case), a copy
+     **/
+    Set<String> getAuthorSet() {
+        return namesOf(authorIds);
+    }
+
+    /**
+     * The book's genres (title case), a copy
+     **/
+    Set<String> getGenreSet() {
+        return namesOf(genreIds);
+    }
+
+    private Set<String> namesOf(IntHashSet ids) {
+        Set<String> result = new HashSet<>();
+
+        for (int id : ids.toArray())
+            result.add(names.nameOf(id));
+
+        return result;
     }
 
     /**
-     * Given a set, sort it then return string representation of it.
+     * Given a set of ids, sort their names then return string representation of them.
      **/
-    private String getSortedList(HashSet<String> set) {
-        ArrayList<String> tempList = new ArrayList<>(set);
-        Collections.sort(tempList);
-        return tempList.toString();
+    private String getSortedList(IntHashSet ids) {
+        int[] idArray = ids.toArray();
+        String[] sorted = new String[idArray.length];
+
+        for (int i = 0; i < idArray.length; i++)
+            sorted[i] = names.nameOf(idArray[i]);
+
+        Arrays.sort(sorted);
+        return StringHelpers.toListString(Arrays.asList(sorted));
     }
 
     /**
@@ -192,11 +424,11 @@ public class Book {
      * Tile: title, Author(s): authors, Genre(s): genres, Total Copies: copies
      **/
     public String toString() {
-        String authors = authorsList.isEmpty() ? "Unknown" : getAuthors();
-        String genres = genreList.isEmpty() ? "Unknown" : getGenres();
+        String authors = authorIds.isEmpty() ? "Unknown" : getAuthors();
+        String genres = genreIds.isEmpty() ? "Unknown" : getGenres();
 
         return "Title: " + title + ", Author(s): " + authors + ", Genre(s): " +
-                genres + ", Total Copies: " + totalCopies;
+                genres + ", Total Copies: " + getTotalCopies();
     }
 
     /**
@@ -0,0 +1,93 @@
+package Models;
+
+import Helpers.StringHelpers;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Aggregate reports over a CatalogSnapshot. Every report runs as a parallel stream, so it uses
+ * all cores and never holds the library's lock (the snapshot is already a consistent copy).
+ **/
+public class CatalogAnalytics {
+    private final CatalogSnapshot snapshot;
+
+    public CatalogAnalytics(CatalogSnapshot snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    public CatalogSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Returns genre -> total # of copies of books with that genre, sorted by genre
+     **/
+    public Map<String, Integer> getCopiesPerGenre() {
+        Map<String, Integer> copies = snapshot.getBooks().parallelStream()
+                .flatMap(book -> book.getGenres().stream()
+                        .map(genre -> Map.entry(genre, book.getTotalCopies())))
+                .collect(Collectors.groupingByConcurrent(Map.Entry::getKey,
+                        Collectors.summingInt(Map.Entry::getValue)));
+
+        return new TreeMap<>(copies);
+    }
+
+    /**
+     * Returns title -> # of copies currently checked out, sorted by title
+     **/
+    public Map<String, Integer> getUtilizationPerTitle() {
+        Map<String, Integer> inUse = snapshot.getBooks().parallelStream()
+                .collect(Collectors.toConcurrentMap(CatalogSnapshot.BookInfo::getTitle,
+                        CatalogSnapshot.BookInfo::getCopiesInUse));
+
+        return new TreeMap<>(inUse);
+    }
+
+    /**
+     * Returns author -> # of copies of their books currently checked out, sorted by author
+     **/
+    public Map<String, Integer> getUtilizationPerAuthor() {
+        Map<String, Integer> inUse = snapshot.getBooks().parallelStream()
+                .flatMap(book -> book.getAuthors().stream()
+                        .map(author -> Map.entry(author, book.getCopiesInUse())))
+                .collect(Collectors.groupingByConcurrent(Map.Entry::getKey,
+                        Collectors.summingInt(Map.Entry::getValue)));
+
+        return new TreeMap<>(inUse);
+    }
+
+    /**
+     * Returns up to limit users with the most books checked out, most first (ties by id)
+     **/
+    public List<CatalogSnapshot.UserInfo> getTopBorrowers(int limit) {
+        return snapshot.getUsers().parallelStream()
+                .filter(user -> !user.getBooksCheckedOut().isEmpty())
+                .sorted(Comparator.comparingInt((CatalogSnapshot.UserInfo user) -> user.getBooksCheckedOut().size())
+                        .reversed().thenComparing(CatalogSnapshot.UserInfo::getId))
+                .limit(Math.max(0, limit))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Returns decade (Ex: 1900) -> names of authors born in it (sorted). Authors with an
+     * unknown birth date are left out.
+     **/
+    public Map<Integer, List<String>> getAuthorsByBirthDecade() {
+        Map<Integer, List<String>> byDecade = snapshot.getAuthors().parallelStream()
+                .filter(author -> author.getBirthEpochDay() != StringHelpers.unknownDate)
+                .collect(Collectors.groupingByConcurrent(
+                        author -> StringHelpers.getYear(author.getBirthEpochDay()) / 10 * 10,
+                        Collectors.mapping(CatalogSnapshot.AuthorInfo::getName, Collectors.toList())));
+
+        TreeMap<Integer, List<String>> sorted = new TreeMap<>();
+
+        for (Map.Entry<Integer, List<String>> entry : byDecade.entrySet()) {
+            List<String> names = new ArrayList<>(entry.getValue());
+            Collections.sort(names);
+            sorted.put(entry.getKey(), names);
+        }
+
+        return sorted;
+    }
+}
@@ -0,0 +1,181 @@
+package Models;
+
+import Helpers.IntHashSet;
+import Helpers.IntObjectMap;
+import Helpers.NameDictionary;
+
+import java.util.*;
+
+/**
+ * Two way relation between authors and the books they wrote. Each author and book gets an
+ * integer id (from its own NameDictionary) and keeps an adjacency set of the ids it's linked to,
+ * so removing an author or a book only touches its own links. Names and titles should be passed in title case.
+ **/
+public class CatalogGraph {
+    private final NameDictionary authorIds;
+    private final NameDictionary bookIds;
+
+    // author id -> ids of books written, book id -> ids of its authors
+    private final IntObjectMap<IntHashSet> booksOfAuthor;
+    private final IntObjectMap<IntHashSet> authorsOfBook;
+
+    public CatalogGraph() {
+        authorIds = new NameDictionary();
+        bookIds = new NameDictionary();
+        booksOfAuthor = new IntObjectMap<>();
+        authorsOfBook = new IntObjectMap<>();
+    }
+
+    /**
+     * Links the author to the book, adding either of them if they're new.
+     **/
+    public void link(String author, String title) {
+        int authorId = getOrAddAuthor(author);
+        int bookId = getOrAddBook(title);
+
+        booksOfAuthor.get(authorId).add(bookId);
+        authorsOfBook.get(bookId).add(authorId);
+    }
+
+    /**
+     * Removes the link between the author and the book, if there is one.
+     **/
+    public void unlink(String author, String title) {
+        int authorId = authorIds.lookup(author);
+        int bookId = bookIds.lookup(title);
+
+        if (authorId < 0 || bookId < 0)
+            return;
+
+        booksOfAuthor.get(authorId).remove(bookId);
+        authorsOfBook.get(bookId).remove(authorId);
+    }
+
+    /**
+     * Returns the id of the author, adding them if they're new
+     **/
+    public int getOrAddAuthor(String author) {
+        int id = authorIds.idOf(author);
+
+        if (!booksOfAuthor.containsKey(id))
+            booksOfAuthor.put(id, new IntHashSet());
+
+        return id;
+    }
+
+    /**
+     * Returns the id of the book, adding it if it's new
+     **/
+    public int getOrAddBook(String title) {
+        int id = bookIds.idOf(title);
+
+        if (!authorsOfBook.containsKey(id))
+            authorsOfBook.put(id, new IntHashSet());
+
+        return id;
+    }
+
+    /**
+     * Returns the id of the book or -1 if it isn't in the graph
+     **/
+    public int getBookId(String title) {
+        return bookIds.lookup(title);
+    }
+
+    /**
+     * Returns the id of the author or -1 if they aren't in the graph
+     **/
+    public int getAuthorId(String author) {
+        return authorIds.lookup(author);
+    }
+
+    /**
+     * Removes the book and its links. Returns the names of the authors it was linked to.
+     **/
+    public List<String> removeBook(String title) {
+        int bookId = bookIds.remove(title);
+
+        if (bookId < 0)
+            return new ArrayList<>();
+
+        List<String> authors = new ArrayList<>();
+
+        for (int authorId : authorsOfBook.remove(bookId).toArray()) {
+            booksOfAuthor.get(authorId).remove(bookId);
+            authors.add(authorIds.nameOf(authorId));
+        }
+
+        return authors;
+    }
+
+    /**
+     * Removes the author and their links. Returns the titles they were linked to.
+     **/
+    public List<String> removeAuthor(String author) {
+        int authorId = authorIds.remove(author);
+
+        if (authorId < 0)
+            return new ArrayList<>();
+
+        List<String> titles = new ArrayList<>();
+
+        for (int bookId : booksOfAuthor.remove(authorId).toArray()) {
+            authorsOfBook.get(bookId).remove(authorId);
+            titles.add(bookIds.nameOf(bookId));
+        }
+
+        return titles;
+    }
+
+    /**
+     * Returns the titles of all books linked to the author
+     **/
+    public List<String> getBooksOf(String author) {
+        int authorId = authorIds.lookup(author);
+        List<String> titles = new ArrayList<>();
+
+        if (authorId < 0)
+            return titles;
+
+        for (int bookId : booksOfAuthor.get(authorId).toArray())
+            titles.add(bookIds.nameOf(bookId));
+
+        return titles;
+    }
+
+    /**
+     * Returns the names of all authors linked to the book
+     **/
+    public List<String> getAuthorsOf(String title) {
+        int bookId = bookIds.lookup(title);
+        List<String> authors = new ArrayList<>();
+
+        if (bookId < 0)
+            return authors;
+
+        for (int authorId : authorsOfBook.get(bookId).toArray())
+            authors.add(authorIds.nameOf(authorId));
+
+        return authors;
+    }
+
+    /**
+     * Returns the names of everyone who wrote at least one book together with the author
+     **/
+    public Set<String> getCoAuthors(String author) {
+        int authorId = authorIds.lookup(author);
+        Set<String> coAuthors = new HashSet<>();
+
+        if (authorId < 0)
+            return coAuthors;
+
+        for (int bookId : booksOfAuthor.get(authorId).toArray()) {
+            for (int coAuthorId : authorsOfBook.get(bookId).toArray()) {
+                if (coAuthorId != authorId)
+                    coAuthors.add(authorIds.nameOf(coAuthorId));
+            }
+        }
+
+        return coAuthors;
+    }
+}
@@ -0,0 +1,202 @@
+package Models;
+
+import Helpers.StringHelpers;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.*;
+
+/**
+ * Applies a new export of the book catalog (same format as books.txt: title - authors - genres - copies)
+ * to a running library. Only the records that changed are applied: new titles are added, changed
+ * titles are updated and titles missing from the export are removed. Copies in the export are the
+ * new total copies, they're not added to the existing copies like addBook does.
+ **/
+public class CatalogImporter {
+    private static final int batchSize = 1000;
+
+    private final LibraryManager manager;
+    // title -> hash of the export line it was last imported from and the book at that time
+    private final HashMap<String, ImportedRecord> importedRecords;
+
+    CatalogImporter(LibraryManager manager) {
+        this.manager = manager;
+        this.importedRecords = new HashMap<>();
+    }
+
+    /**
+     * Export line as it was last imported. If neither the line nor the book have changed since,
+     * the line can be skipped without parsing it.
+     **/
+    private static class ImportedRecord {
+        final long lineHash;
+        final Book book;
+        final int bookVersion;
+
+        ImportedRecord(long lineHash, Book book) {
+            this.lineHash = lineHash;
+            this.book = book;
+            this.bookVersion = book.getVersion();
+        }
+    }
+
+    /**
+     * Single line of the export split up into its parts
+     **/
+    private static class Record {
+        final String line;
+        final String title;
+        final String authors;
+        final String genres;
+        final int copies;
+
+        Record(String line, String title, String authors, String genres, int copies) {
+            this.line = line;
+            this.title = title;
+            this.authors = authors;
+            this.genres = genres;
+            this.copies = copies;
+        }
+    }
+
+    /**
+     * Streams through the export and applies it to the library one batch at a time, so the library
+     * keeps serving other requests between batches. Returns counts of what was changed.
+     **/
+    public synchronized DeltaImportResult importDelta(String fileName) throws IOException {
+        DeltaImportResult result = new DeltaImportResult();
+        Set<String> seenTitles = new HashSet<>();
+        List<Record> batch = new ArrayList<>(batchSize);
+
+        try (BufferedReader reader = Files.newBufferedReader(Paths.get(fileName))) {
+            String line;
+
+            while ((line = reader.readLine()) != null) {
+                Record record = parse(line);
+
+                if (record == null) {
+                    result.skipped++;
+                    continue;
+                }
+
+                seenTitles.add(record.title);
+                batch.add(record);
+
+                if (batch.size() == batchSize) {
+                    applyBatch(batch, result);
+                    batch.clear();
+                }
+            }
+        }
+
+        applyBatch(batch, result);
+        removeMissing(seenTitles, result);
+        return result;
+    }
+
+    /**
+     * Splits the line into a record. Returns null if the line isn't a valid book record
+     * (Ex: more copies than a book can have).
+     **/
+    private Record parse(String line) {
+        String[] dataParts = line.split(" - ");
+
+        if (dataParts.length != 4 || StringHelpers.isNullOrEmptyString(dataParts[0]))
+            return null;
+
+        try {
+            int copies = Integer.parseInt(dataParts[3].trim());
+
+            if (copies < 0 || copies > Book.maxCopies)
+                return null;
+
+            String title = StringHelpers.makeTitleCase(dataParts[0].trim());
+            return new Record(line, title, dataParts[1], dataParts[2], copies);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Inserts or updates every record of the batch that changed, while holding the library's lock.
+     **/
+    private void applyBatch(List<Record> batch, DeltaImportResult result) {
+        synchronized (manager) {
+            for (Record record : batch) {
+                long lineHash = StringHelpers.hash64(record.line);
+                Book book = manager.getBook(record.title);
+
+                if (book == null) {
+                    manager.addBook(record.title, record.authors, record.genres, record.copies);
+                    book = manager.getBook(record.title);
+
+                    if (book == null) {
+                        result.skipped++;
+                        continue;
+                    }
+
+                    result.inserted++;
+                } else if (isUnchanged(record, lineHash, book)) {
+                    result.unchanged++;
+                } else {
+                    manager.updateBook(record.title, record.authors, record.genres, record.copies);
+                    result.updated++;
+                }
+
+                importedRecords.put(record.title, new ImportedRecord(lineHash, book));
+            }
+        }
+    }
+
+    /**
+     * Cheap check first: same line as last import and book untouched since. Otherwise
+     * compares the record to the book itself.
+     **/
+    private boolean isUnchanged(Record record, long lineHash, Book book) {
+        ImportedRecord last = importedRecords.get(record.title);
+
+        if (last != null && last.lineHash == lineHash && last.book == book && last.bookVersion == book.getVersion())
+            return true;
+
+        return book.getTotalCopies() == record.copies &&
+                book.getAuthorSet().equals(Book.parseList(record.authors)) &&
+                book.getGenreSet().equals(Book.parseList(record.genres));
+    }
+
+    /**
+     * Removes every book that wasn't in the export, one batch at a time. Books with copies checked
+     * out are retired instead (see LibraryManager.retireBook) and counted as pending deletes.
+     **/
+    private void removeMissing(Set<String> seenTitles, DeltaImportResult result) {
+        List<String> missing = new ArrayList<>();
+
+        for (String title : manager.getBookTitles()) {
+            if (!seenTitles.contains(title))
+                missing.add(title);
+        }
+
+        for (int start = 0; start < missing.size(); start += batchSize) {
+            synchronized (manager) {
+                for (String title : missing.subList(start, Math.min(missing.size(), start + batchSize))) {
+                    Book book = manager.getBook(title);
+
+                    if (book == null)
+                        continue;
+
+                    if (manager.deleteBook(title)) {
+                        result.deleted++;
+                    } else {
+                        if (!book.isRetiring())
+                            manager.retireBook(book);
+
+                        result.deletePending++;
+                    }
+
+                    importedRecords.remove(title);
+                }
+            }
+        }
+    }
+}
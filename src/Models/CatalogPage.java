@@ -0,0 +1,66 @@
+package Models;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One page of CatalogQuery results, plus the cursor for the next page and how the query was run
+ **/
+public class CatalogPage {
+    private final List<CatalogSnapshot.BookInfo> books;
+    private final String nextCursor;
+    private final QueryPlanner.Index indexUsed;
+    private final int candidatesScanned;
+
+    CatalogPage(List<CatalogSnapshot.BookInfo> books, String nextCursor, QueryPlanner.Index indexUsed,
+                int candidatesScanned) {
+        this.books = Collections.unmodifiableList(books);
+        this.nextCursor = nextCursor;
+        this.indexUsed = indexUsed;
+        this.candidatesScanned = candidatesScanned;
+    }
+
+    public List<CatalogSnapshot.BookInfo> getBooks() {
+        return books;
+    }
+
+    /**
+     * Pass to CatalogQuery.setCursor to get the next page. Null if this is the last page.
+     **/
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasMore() {
+        return nextCursor != null;
+    }
+
+    /**
+     * Index the planner picked to find candidate books
+     **/
+    public QueryPlanner.Index getIndexUsed() {
+        return indexUsed;
+    }
+
+    /**
+     * # of candidate books looked at to fill the page
+     **/
+    public int getCandidatesScanned() {
+        return candidatesScanned;
+    }
+
+    /**
+     * String format: one book per line (Title: title, ...), then a line with the index used
+     **/
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+
+        for (CatalogSnapshot.BookInfo book : books)
+            builder.append("Title: ").append(book.getTitle()).append(", Author(s): ").append(book.getAuthors())
+                    .append(", Genre(s): ").append(book.getGenres()).append(", Copies Available: ")
+                    .append(book.getCopiesAvailable()).append('\n');
+
+        return builder.append("(").append(books.size()).append(" books, index: ").append(indexUsed)
+                .append(hasMore() ? ", more available)" : ")").toString();
+    }
+}
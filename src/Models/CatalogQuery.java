@@ -0,0 +1,179 @@
+package Models;
+
+import Helpers.StringHelpers;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Map;
+
+/**
+ * A search over the books of the library combining any of these filters: genre, author,
+ * available (at least one copy not checked out), author born in a date range and title prefix.
+ * Results come back sorted by title, one page at a time (see LibraryManager.query).
+ * Filters left unset (null) match every book. Ex:
+ * query.setGenre("fiction"); query.setAvailableOnly(true); query.setPageSize(10);
+ **/
+public class CatalogQuery {
+    public enum SortOrder {TITLE, TITLE_DESCENDING}
+
+    public static final int defaultPageSize = 20;
+    public static final int maxPageSize = 1000;
+
+    private String genre;
+    private String author;
+    private boolean availableOnly;
+    private int bornFrom = StringHelpers.unknownDate;
+    private int bornTo = StringHelpers.unknownDate;
+    private String titlePrefix;
+    private SortOrder sortOrder = SortOrder.TITLE;
+    private int pageSize = defaultPageSize;
+    // Last title of the previous page, results start after it
+    private String after;
+
+    public String getGenre() {
+        return genre;
+    }
+
+    public void setGenre(String genre) {
+        this.genre = StringHelpers.isNullOrEmptyString(genre) ? null : StringHelpers.makeTitleCase(genre.trim());
+    }
+
+    public String getAuthor() {
+        return author;
+    }
+
+    public void setAuthor(String author) {
+        this.author = StringHelpers.isNullOrEmptyString(author) ? null : StringHelpers.makeTitleCase(author.trim());
+    }
+
+    public boolean isAvailableOnly() {
+        return availableOnly;
+    }
+
+    /**
+     * If true, only books with at least one copy available match
+     **/
+    public void setAvailableOnly(boolean availableOnly) {
+        this.availableOnly = availableOnly;
+    }
+
+    /**
+     * Only books with an author born between the two dates (MM/DD/YYYY, inclusive) match.
+     * Returns false and leaves the filter unchanged if either date is invalid.
+     **/
+    public boolean setAuthorBornBetween(String fromDate, String toDate) {
+        int from = StringHelpers.parseDate(fromDate);
+        int to = StringHelpers.parseDate(toDate);
+
+        if (from == StringHelpers.unknownDate || to == StringHelpers.unknownDate)
+            return false;
+
+        bornFrom = from;
+        bornTo = to;
+        return true;
+    }
+
+    public boolean hasBirthDateRange() {
+        return bornFrom != StringHelpers.unknownDate;
+    }
+
+    /**
+     * Start of the birth date range as an epoch day, or StringHelpers.unknownDate if there's no range
+     **/
+    public int getBornFrom() {
+        return bornFrom;
+    }
+
+    /**
+     * End of the birth date range as an epoch day, or StringHelpers.unknownDate if there's no range
+     **/
+    public int getBornTo() {
+        return bornTo;
+    }
+
+    public String getTitlePrefix() {
+        return titlePrefix;
+    }
+
+    public void setTitlePrefix(String titlePrefix) {
+        this.titlePrefix = StringHelpers.isNullOrEmptyString(titlePrefix) ? null :
+                StringHelpers.makeTitleCase(titlePrefix);
+    }
+
+    public SortOrder getSortOrder() {
+        return sortOrder;
+    }
+
+    public void setSortOrder(SortOrder sortOrder) {
+        this.sortOrder = (sortOrder == null) ? SortOrder.TITLE : sortOrder;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    /**
+     * # of books per page, 1 - maxPageSize
+     **/
+    public void setPageSize(int pageSize) {
+        this.pageSize = Math.max(1, Math.min(maxPageSize, pageSize));
+    }
+
+    /**
+     * Continues from where a previous page ended (CatalogPage.getNextCursor). Null starts from the beginning.
+     * Throws IllegalArgumentException if the cursor wasn't made by a CatalogPage.
+     **/
+    public void setCursor(String cursor) {
+        this.after = (cursor == null) ? null : decodeCursor(cursor);
+    }
+
+    /**
+     * Title the results start after, or null to start from the beginning
+     **/
+    String getAfter() {
+        return after;
+    }
+
+    /**
+     * Returns true if the book passes every filter that's set
+     **/
+    boolean matches(Book book, Map<String, Author> authors) {
+        if (titlePrefix != null && !book.getTitle().startsWith(titlePrefix))
+            return false;
+
+        if (genre != null && !book.hasGenre(genre))
+            return false;
+
+        if (author != null && !book.hasAuthor(author))
+            return false;
+
+        if (availableOnly && book.getCopiesAvailable() == 0)
+            return false;
+
+        if (hasBirthDateRange()) {
+            for (String name : book.getAuthorSet()) {
+                Author anAuthor = authors.get(name);
+
+                if (anAuthor != null && anAuthor.hasKnownBirthDate() && anAuthor.getBirthEpochDay() >= bornFrom &&
+                        anAuthor.getBirthEpochDay() <= bornTo)
+                    return true;
+            }
+
+            return false;
+        }
+
+        return true;
+    }
+
+    static String encodeCursor(String title) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(title.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decodeCursor(String cursor) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package Models;
+
+import Helpers.StringHelpers;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable copy of every book, author and user in the library at one point in time.
+ * Safe to read from any thread while the library keeps changing.
+ **/
+public class CatalogSnapshot {
+    private final List<BookInfo> books;
+    private final List<AuthorInfo> authors;
+    private final List<UserInfo> users;
+
+    CatalogSnapshot(List<BookInfo> books, List<AuthorInfo> authors, List<UserInfo> users) {
+        this.books = Collections.unmodifiableList(books);
+        this.authors = Collections.unmodifiableList(authors);
+        this.users = Collections.unmodifiableList(users);
+    }
+
+    /**
+     * Copies the current state of the given books, authors and users. Caller must make sure
+     * nothing changes them while the copy is made.
+     **/
+    public static CatalogSnapshot of(Collection<Book> books, Collection<Author> authors, Collection<User> users) {
+        List<BookInfo> bookInfos = new ArrayList<>(books.size());
+        List<AuthorInfo> authorInfos = new ArrayList<>(authors.size());
+        List<UserInfo> userInfos = new ArrayList<>(users.size());
+
+        for (Book aBook : books)
+            bookInfos.add(new BookInfo(aBook));
+
+        for (Author anAuthor : authors)
+            authorInfos.add(new AuthorInfo(anAuthor));
+
+        for (User aUser : users)
+            userInfos.add(new UserInfo(aUser));
+
+        return new CatalogSnapshot(bookInfos, authorInfos, userInfos);
+    }
+
+    public List<BookInfo> getBooks() {
+        return books;
+    }
+
+    public List<AuthorInfo> getAuthors() {
+        return authors;
+    }
+
+    public List<UserInfo> getUsers() {
+        return users;
+    }
+
+    /**
+     * State of a single book when the snapshot was taken
+     **/
+    public static class BookInfo {
+        private final String title;
+        private final List<String> authors;
+        private final List<String> genres;
+        private final int totalCopies;
+        private final int copiesAvailable;
+
+        BookInfo(Book book) {
+            this.title = book.getTitle();
+            this.authors = List.copyOf(book.getAuthorSet());
+            this.genres = List.copyOf(book.getGenreSet());
+            this.totalCopies = book.getTotalCopies();
+            this.copiesAvailable = book.getCopiesAvailable();
+        }
+
+        BookInfo(String title, List<String> authors, List<String> genres, int totalCopies, int copiesAvailable) {
+            this.title = title;
+            this.authors = List.copyOf(authors);
+            this.genres = List.copyOf(genres);
+            this.totalCopies = totalCopies;
+            this.copiesAvailable = copiesAvailable;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        public List<String> getAuthors() {
+            return authors;
+        }
+
+        public List<String> getGenres() {
+            return genres;
+        }
+
+        public int getTotalCopies() {
+            return totalCopies;
+        }
+
+        public int getCopiesAvailable() {
+            return copiesAvailable;
+        }
+
+        /**
+         * Returns the # of copies that are checked out
+         **/
+        public int getCopiesInUse() {
+            return totalCopies - copiesAvailable;
+        }
+    }
+
+    /**
+     * State of a single author when the snapshot was taken
+     **/
+    public static class AuthorInfo {
+        private final String name;
+        private final int birthEpochDay;
+
+        AuthorInfo(Author author) {
+            this.name = author.getName();
+            this.birthEpochDay = author.getBirthEpochDay();
+        }
+
+        AuthorInfo(String name, int birthEpochDay) {
+            this.name = name;
+            this.birthEpochDay = birthEpochDay;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Returns the birth date (MM/DD/YYYY or Unknown)
+         **/
+        public String getBirthDate() {
+            return StringHelpers.formatDate(birthEpochDay);
+        }
+
+        /**
+         * Returns the birth date as an epoch day, or StringHelpers.unknownDate
+         **/
+        public int getBirthEpochDay() {
+            return birthEpochDay;
+        }
+    }
+
+    /**
+     * State of a single user when the snapshot was taken
+     **/
+    public static class UserInfo {
+        private final String id;
+        private final String name;
+        private final String password;
+        private final int checkOutLimit;
+        private final List<String> booksCheckedOut;
+        // Copy # of each book checked out (-1 if unknown), same order as booksCheckedOut
+        private final List<Integer> copyNumbers;
+
+        UserInfo(User user) {
+            this.id = user.getId();
+            this.name = user.getName();
+            this.password = user.getPassword();
+            this.checkOutLimit = user.getCheckOutLimit();
+            Map<String, String> loans = user.getLoans();
+            this.booksCheckedOut = new ArrayList<>(loans.keySet());
+            this.copyNumbers = new ArrayList<>(loans.size());
+
+            for (String barcode : loans.values())
+                copyNumbers.add(Book.copyNumberOf(barcode));
+        }
+
+        UserInfo(String id, String name, String password, int checkOutLimit, List<String> booksCheckedOut,
+                 List<Integer> copyNumbers) {
+            this.id = id;
+            this.name = name;
+            this.password = password;
+            this.checkOutLimit = checkOutLimit;
+            this.booksCheckedOut = new ArrayList<>(booksCheckedOut);
+            this.copyNumbers = new ArrayList<>(copyNumbers);
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        String getPassword() {
+            return password;
+        }
+
+        public int getCheckOutLimit() {
+            return checkOutLimit;
+        }
+
+        public List<String> getBooksCheckedOut() {
+            return Collections.unmodifiableList(booksCheckedOut);
+        }
+
+        /**
+         * Returns the copy # of each book checked out (-1 if unknown), in the order of getBooksCheckedOut
+         **/
+        public List<Integer> getCopyNumbers() {
+            return Collections.unmodifiableList(copyNumbers);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package Models;
+
+import Helpers.IntHashSet;
+import Helpers.IntIntMap;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * "People who borrowed this also borrowed" model. Keeps a sparse title x title matrix counting how many
+ * users borrowed both titles, updated one loan at a time: when a user borrows a title for the first
+ * time, its count with each of the last maxPairsPerLoan titles they borrowed goes up by 1.
+ * LibraryManager feeds it from an EventBus subscriber (tenant libraries from the TenantLoanFeed thread they
+ * share), so checkouts never wait for it.
+ **/
+public class CoCheckoutRecommender {
+    private static final int maxPairsPerLoan = 64;
+
+    private final LoanHistory loanHistory;
+    // Row t: title # -> # of users who borrowed both t and that title
+    private final ArrayList<IntIntMap> coCheckouts;
+    private final ReentrantReadWriteLock lock;
+    // Sum of the rows' getMemoryBytes, kept up to date as they grow
+    private long rowMemoryBytes;
+
+    public CoCheckoutRecommender() {
+        loanHistory = new LoanHistory();
+        coCheckouts = new ArrayList<>();
+        lock = new ReentrantReadWriteLock();
+    }
+
+    /**
+     * EventBus handler, records every checkout in the batch
+     **/
+    public void recordLoans(List<LibraryEvent> events) {
+        lock.writeLock().lock();
+
+        try {
+            for (LibraryEvent event : events) {
+                if (event.getType() == LibraryEvent.Type.BOOK_CHECKED_OUT)
+                    addLoan(event.getUserId(), event.getTitle(), event.getTimestamp());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Records that the user checked out the title (title case) at the given time
+     **/
+    public void recordLoan(String userId, String title, long timestamp) {
+        lock.writeLock().lock();
+
+        try {
+            addLoan(userId, title, timestamp);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns title -> score for titles the user hasn't borrowed yet, where the score is the sum of
+     * the title's co-checkout counts with every title the user has borrowed
+     **/
+    public Map<String, Integer> scoreCandidates(String userId) {
+        lock.readLock().lock();
+
+        try {
+            int[] borrowed = loanHistory.getTitleIdsBorrowedBy(userId);
+            IntHashSet borrowedIds = new IntHashSet(borrowed.length);
+            IntIntMap scores = new IntIntMap();
+
+            for (int titleId : borrowed) {
+                borrowedIds.add(titleId);
+                coCheckouts.get(titleId).forEach(scores::add);
+            }
+
+            HashMap<String, Integer> byTitle = new HashMap<>();
+            scores.forEach((titleId, score) -> {
+                if (!borrowedIds.contains(titleId))
+                    byTitle.put(loanHistory.getTitle(titleId), score);
+            });
+            return byTitle;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the titles the user has ever borrowed, in the order first borrowed
+     **/
+    public List<String> getBorrowedTitles(String userId) {
+        lock.readLock().lock();
+
+        try {
+            List<String> titles = new ArrayList<>();
+
+            for (int titleId : loanHistory.getTitleIdsBorrowedBy(userId))
+                titles.add(loanHistory.getTitle(titleId));
+
+            return titles;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the # of users who borrowed both titles (title case)
+     **/
+    public int getCoCheckoutCount(String title, String otherTitle) {
+        lock.readLock().lock();
+
+        try {
+            int titleId = loanHistory.getTitleId(title);
+            int otherId = loanHistory.getTitleId(otherTitle);
+            return (titleId < 0 || otherId < 0) ? 0 : coCheckouts.get(titleId).get(otherId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the # of loans recorded
+     **/
+    public int getLoanCount() {
+        lock.readLock().lock();
+
+        try {
+            return loanHistory.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Approximate heap taken by the loan history and the co-checkout rows
+     **/
+    public long getMemoryBytes() {
+        lock.readLock().lock();
+
+        try {
+            return loanHistory.getMemoryBytes() + rowMemoryBytes + 16L * coCheckouts.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void addLoan(String userId, String title, long timestamp) {
+        if (userId == null || title == null)
+            return;
+
+        if (!loanHistory.record(userId, title, timestamp))
+            return;
+
+        while (coCheckouts.size() < loanHistory.getTitleCount()) {
+            IntIntMap row = new IntIntMap();
+            coCheckouts.add(row);
+            rowMemoryBytes += row.getMemoryBytes();
+        }
+
+        int[] borrowed = loanHistory.getTitleIdsBorrowedBy(userId);
+        int titleId = borrowed[borrowed.length - 1];
+
+        // The new title is last, pair it with the ones borrowed before it
+        for (int i = Math.max(0, borrowed.length - 1 - maxPairsPerLoan); i < borrowed.length - 1; i++) {
+            addPair(coCheckouts.get(titleId), borrowed[i]);
+            addPair(coCheckouts.get(borrowed[i]), titleId);
+        }
+    }
+
+    private void addPair(IntIntMap row, int otherTitleId) {
+        long bytesBefore = row.getMemoryBytes();
+        row.add(otherTitleId, 1);
+        rowMemoryBytes += row.getMemoryBytes() - bytesBefore;
+    }
+}
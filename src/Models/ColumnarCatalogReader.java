@@ -0,0 +1,166 @@
+package Models;
+
+import Helpers.ColumnFile;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static Models.ColumnarCatalogWriter.*;
+
+/**
+ * Reads a ColumnarCatalogWriter export back, one column per task in parallel, into a catalog
+ * snapshot or straight into the library.
+ **/
+public class ColumnarCatalogReader {
+    private static final List<String> columns = List.of(bookTitles, bookCopies, bookAuthorCounts, bookAuthors,
+            bookGenreCounts, bookGenres, authorNames, authorBirthDays, userIds, userNames, userCheckOutLimits,
+            loanUsers, loanTitles, loanCopies);
+
+    private ColumnarCatalogReader() {
+    }
+
+    /**
+     * Reads the export in the directory. Throws an IOException if a column is missing or they don't line up.
+     * Users have no password (null) unless it's a backup.
+     **/
+    public static CatalogSnapshot read(Path directory) throws IOException {
+        ConcurrentHashMap<String, Object> values = new ConcurrentHashMap<>();
+        List<String> toRead = new ArrayList<>(columns);
+
+        if (Files.isRegularFile(columnFile(directory, userPasswords)))
+            toRead.add(userPasswords);
+
+        try {
+            toRead.parallelStream().forEach(column -> values.put(column,
+                    readColumn(columnFile(directory, column))));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        String[] titles = strings(values, bookTitles);
+        int[] copies = ints(values, bookCopies);
+        int[] authorCounts = ints(values, bookAuthorCounts);
+        String[] bookAuthorNames = strings(values, bookAuthors);
+        int[] genreCounts = ints(values, bookGenreCounts);
+        String[] genres = strings(values, bookGenres);
+        String[] names = strings(values, authorNames);
+        int[] birthDays = ints(values, authorBirthDays);
+        String[] ids = strings(values, userIds);
+        String[] userNameValues = strings(values, userNames);
+        String[] passwords = values.containsKey(userPasswords) ? strings(values, userPasswords) : new String[ids.length];
+        int[] limits = ints(values, userCheckOutLimits);
+        String[] loanUserIds = strings(values, loanUsers);
+        String[] loanTitleValues = strings(values, loanTitles);
+        int[] loanCopyNumbers = ints(values, loanCopies);
+
+        checkRows(titles.length, copies.length, authorCounts.length, genreCounts.length);
+        checkRows(names.length, birthDays.length);
+        checkRows(ids.length, userNameValues.length, passwords.length, limits.length);
+        checkRows(loanUserIds.length, loanTitleValues.length, loanCopyNumbers.length);
+        checkRows(Arrays.stream(authorCounts).sum(), bookAuthorNames.length);
+        checkRows(Arrays.stream(genreCounts).sum(), genres.length);
+
+        HashMap<String, Integer> loansByTitle = new HashMap<>();
+
+        for (String title : loanTitleValues)
+            loansByTitle.merge(title, 1, Integer::sum);
+
+        List<CatalogSnapshot.BookInfo> books = new ArrayList<>(titles.length);
+
+        for (int i = 0, author = 0, genre = 0; i < titles.length; i++) {
+            List<String> bookAuthorList = Arrays.asList(bookAuthorNames).subList(author, author += authorCounts[i]);
+            List<String> genreList = Arrays.asList(genres).subList(genre, genre += genreCounts[i]);
+            books.add(new CatalogSnapshot.BookInfo(titles[i], bookAuthorList, genreList, copies[i],
+                    Math.max(0, copies[i] - loansByTitle.getOrDefault(titles[i], 0))));
+        }
+
+        List<CatalogSnapshot.AuthorInfo> authors = new ArrayList<>(names.length);
+
+        for (int i = 0; i < names.length; i++)
+            authors.add(new CatalogSnapshot.AuthorInfo(names[i], birthDays[i]));
+
+        // Loans are grouped by user, in the same order as the users
+        List<CatalogSnapshot.UserInfo> users = new ArrayList<>(ids.length);
+
+        for (int i = 0, loan = 0; i < ids.length; i++) {
+            int firstLoan = loan;
+
+            while (loan < loanUserIds.length && loanUserIds[loan].equals(ids[i]))
+                loan++;
+
+            List<Integer> copyNumbers = new ArrayList<>(loan - firstLoan);
+
+            for (int j = firstLoan; j < loan; j++)
+                copyNumbers.add(loanCopyNumbers[j]);
+
+            users.add(new CatalogSnapshot.UserInfo(ids[i], userNameValues[i], passwords[i], limits[i],
+                    Arrays.asList(loanTitleValues).subList(firstLoan, loan), copyNumbers));
+        }
+
+        return new CatalogSnapshot(books, authors, users);
+    }
+
+    /**
+     * Returns true if the directory holds an export (at least its book titles column)
+     **/
+    public static boolean isExport(Path directory) {
+        return Files.isRegularFile(columnFile(directory, bookTitles));
+    }
+
+    /**
+     * Adds everything in the export in the directory to the library
+     **/
+    public static void readInto(Path directory, LibraryManager manager) throws IOException {
+        manager.restore(read(directory));
+    }
+
+    /**
+     * Returns the column's values as an int[] (INT_RLE) or String[]
+     **/
+    private static Object readColumn(Path file) {
+        try (ColumnFile.Reader in = new ColumnFile.Reader(file)) {
+            if (in.getEncoding() == ColumnFile.Encoding.INT_RLE) {
+                int[] ints = new int[in.getRowCount()];
+
+                for (int i = 0; i < ints.length; i++)
+                    ints[i] = in.readInt();
+
+                return ints;
+            }
+
+            String[] strings = new String[in.getRowCount()];
+
+            for (int i = 0; i < strings.length; i++)
+                strings[i] = in.readString();
+
+            return strings;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static int[] ints(Map<String, Object> values, String column) throws IOException {
+        if (!(values.get(column) instanceof int[]))
+            throw new IOException("Column " + column + " should hold ints");
+
+        return (int[]) values.get(column);
+    }
+
+    private static String[] strings(Map<String, Object> values, String column) throws IOException {
+        if (!(values.get(column) instanceof String[]))
+            throw new IOException("Column " + column + " should hold strings");
+
+        return (String[]) values.get(column);
+    }
+
+    private static void checkRows(int... rowCounts) throws IOException {
+        for (int rows : rowCounts) {
+            if (rows != rowCounts[0])
+                throw new IOException("Columns don't line up: " + Arrays.toString(rowCounts) + " rows");
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package Models;
+
+import Helpers.ColumnFile;
+import Helpers.ColumnFile.Encoding;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Exports a catalog snapshot as one column file per field (see ColumnFile), written in parallel, one
+ * column per task. Authors, genres and loan titles are dictionary encoded, counts are run length encoded.
+ * Files (in the directory): book.title, book.copies, book.authorCount, book.authors (every book's
+ * authors, one after the other), book.genreCount, book.genres, author.name, author.birthDay,
+ * user.id, user.name, user.checkOutLimit, loan.user, loan.title, loan.copy, and user.password for
+ * backups only (an export for analysis has no credentials). ColumnarCatalogReader reads them back.
+ **/
+public class ColumnarCatalogWriter {
+    static final String extension = ".col";
+    static final String bookTitles = "book.title";
+    static final String bookCopies = "book.copies";
+    static final String bookAuthorCounts = "book.authorCount";
+    static final String bookAuthors = "book.authors";
+    static final String bookGenreCounts = "book.genreCount";
+    static final String bookGenres = "book.genres";
+    static final String authorNames = "author.name";
+    static final String authorBirthDays = "author.birthDay";
+    static final String userIds = "user.id";
+    static final String userNames = "user.name";
+    static final String userPasswords = "user.password";
+    static final String userCheckOutLimits = "user.checkOutLimit";
+    static final String loanUsers = "loan.user";
+    static final String loanTitles = "loan.title";
+    static final String loanCopies = "loan.copy";
+
+    private ColumnarCatalogWriter() {
+    }
+
+    /**
+     * Writes an export for analysis (no passwords) into the directory, see write(snapshot, directory, isBackup)
+     **/
+    public static void write(CatalogSnapshot snapshot, Path directory) throws IOException {
+        write(snapshot, directory, false);
+    }
+
+    /**
+     * Writes every column of the snapshot into the directory (created if needed), replacing old files.
+     * Passwords are only written if isBackup, for a library to be restored from it: keep that directory private.
+     **/
+    public static void write(CatalogSnapshot snapshot, Path directory, boolean isBackup) throws IOException {
+        Files.createDirectories(directory);
+        List<CatalogSnapshot.BookInfo> books = snapshot.getBooks();
+        List<CatalogSnapshot.AuthorInfo> authors = snapshot.getAuthors();
+        List<CatalogSnapshot.UserInfo> users = snapshot.getUsers();
+
+        List<Column> columns = new ArrayList<>(List.of(
+                new Column(bookTitles, Encoding.STRING, out -> {
+                    for (CatalogSnapshot.BookInfo book : books)
+                        out.writeString(book.getTitle());
+                }),
+                new Column(bookCopies, Encoding.INT_RLE, out -> {
+                    for (CatalogSnapshot.BookInfo book : books)
+                        out.writeInt(book.getTotalCopies());
+                }),
+                new Column(bookAuthorCounts, Encoding.INT_RLE, out -> {
+                    for (CatalogSnapshot.BookInfo book : books)
+                        out.writeInt(book.getAuthors().size());
+                }),
+                new Column(bookAuthors, Encoding.DICTIONARY, out -> {
+                    for (CatalogSnapshot.BookInfo book : books)
+                        writeSorted(book.getAuthors(), out);
+                }),
+                new Column(bookGenreCounts, Encoding.INT_RLE, out -> {
+                    for (CatalogSnapshot.BookInfo book : books)
+                        out.writeInt(book.getGenres().size());
+                }),
+                new Column(bookGenres, Encoding.DICTIONARY, out -> {
+                    for (CatalogSnapshot.BookInfo book : books)
+                        writeSorted(book.getGenres(), out);
+                }),
+                new Column(authorNames, Encoding.STRING, out -> {
+                    for (CatalogSnapshot.AuthorInfo author : authors)
+                        out.writeString(author.getName());
+                }),
+                new Column(authorBirthDays, Encoding.INT_RLE, out -> {
+                    for (CatalogSnapshot.AuthorInfo author : authors)
+                        out.writeInt(author.getBirthEpochDay());
+                }),
+                new Column(userIds, Encoding.STRING, out -> {
+                    for (CatalogSnapshot.UserInfo user : users)
+                        out.writeString(user.getId());
+                }),
+                // Mostly distinct, a dictionary would only hold every value a second time
+                new Column(userNames, Encoding.STRING, out -> {
+                    for (CatalogSnapshot.UserInfo user : users)
+                        out.writeString(user.getName());
+                }),
+                new Column(userCheckOutLimits, Encoding.INT_RLE, out -> {
+                    for (CatalogSnapshot.UserInfo user : users)
+                        out.writeInt(user.getCheckOutLimit());
+                }),
+                new Column(loanUsers, Encoding.STRING, out -> {
+                    for (CatalogSnapshot.UserInfo user : users) {
+                        for (int i = 0; i < user.getBooksCheckedOut().size(); i++)
+                            out.writeString(user.getId());
+                    }
+                }),
+                new Column(loanTitles, Encoding.DICTIONARY, out -> {
+                    for (CatalogSnapshot.UserInfo user : users) {
+                        for (String title : user.getBooksCheckedOut())
+                            out.writeString(title);
+                    }
+                }),
+                new Column(loanCopies, Encoding.INT_RLE, out -> {
+                    for (CatalogSnapshot.UserInfo user : users) {
+                        for (int copy : user.getCopyNumbers())
+                            out.writeInt(copy);
+                    }
+                })));
+
+        if (isBackup) {
+            columns.add(new Column(userPasswords, Encoding.STRING, out -> {
+                for (CatalogSnapshot.UserInfo user : users)
+                    out.writeString(user.getPassword());
+            }));
+        } else {
+            // Don't leave the passwords of an older backup next to the new columns
+            Files.deleteIfExists(columnFile(directory, userPasswords));
+        }
+
+        try {
+            columns.parallelStream().forEach(column -> column.write(directory));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Returns the file holding the given column
+     **/
+    static Path columnFile(Path directory, String column) {
+        return directory.resolve(column + extension);
+    }
+
+    /**
+     * Sorted so books with the same authors/genres write the same ids, which helps the run length encoding
+     **/
+    private static void writeSorted(List<String> values, ColumnFile.Writer out) throws IOException {
+        List<String> sorted = new ArrayList<>(values);
+        sorted.sort(null);
+
+        for (String value : sorted)
+            out.writeString(value);
+    }
+
+    private interface RowWriter {
+        void writeRows(ColumnFile.Writer out) throws IOException;
+    }
+
+    /**
+     * One column file and how to fill it
+     **/
+    private static class Column {
+        private final String name;
+        private final Encoding encoding;
+        private final RowWriter rows;
+
+        Column(String name, Encoding encoding, RowWriter rows) {
+            this.name = name;
+            this.encoding = encoding;
+            this.rows = rows;
+        }
+
+        void write(Path directory) {
+            try (ColumnFile.Writer out = new ColumnFile.Writer(columnFile(directory, name), encoding)) {
+                rows.writeRows(out);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package Models;
+
+/**
+ * Counts of what a delta import changed in the catalog.
+ * Skipped: invalid lines. Delete pending: books missing from the export with copies checked out,
+ * they can't be checked out anymore and are removed once their last copy is returned.
+ **/
+public class DeltaImportResult {
+    int inserted;
+    int updated;
+    int deleted;
+    int deletePending;
+    int unchanged;
+    int skipped;
+
+    public int getInserted() {
+        return inserted;
+    }
+
+    public int getUpdated() {
+        return updated;
+    }
+
+    public int getDeleted() {
+        return deleted;
+    }
+
+    public int getDeletePending() {
+        return deletePending;
+    }
+
+    public int getUnchanged() {
+        return unchanged;
+    }
+
+    public int getSkipped() {
+        return skipped;
+    }
+
+    /**
+     * String format: Inserted: i, Updated: u, Deleted: d, Delete Pending: p, Unchanged: n, Skipped: s
+     **/
+    public String toString() {
+        return "Inserted: " + inserted + ", Updated: " + updated + ", Deleted: " + deleted +
+                ", Delete Pending: " + deletePending + ", Unchanged: " + unchanged + ", Skipped: " + skipped;
+    }
+}
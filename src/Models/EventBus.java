@@ -0,0 +1,197 @@
+package Models;
+
+import Helpers.RingBuffer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Publishes LibraryEvents to subscribers without making the publisher do their work. Events go into
+ * a bounded ring buffer and every subscriber reads them in batches on its own thread. When a
+ * subscriber falls a whole buffer behind, the overflow policy decides what publishers do:
+ * BLOCK waits for room, BLOCK_WITH_TIMEOUT waits up to the timeout then drops, DROP drops right away.
+ * Dropped events are counted. With BLOCK, subscribers must not call back into LibraryManager methods
+ * that change the library, since the publisher may be waiting while holding the library's lock.
+ **/
+public class EventBus implements AutoCloseable {
+    public enum OverflowPolicy {BLOCK, BLOCK_WITH_TIMEOUT, DROP}
+
+    private final RingBuffer<LibraryEvent> ringBuffer;
+    private final CopyOnWriteArrayList<Subscription> subscriptions;
+    private final LongAdder publishedCount;
+    private final LongAdder droppedCount;
+    private volatile OverflowPolicy overflowPolicy;
+    private volatile long blockTimeoutNanos;
+
+    public EventBus(int capacity, OverflowPolicy overflowPolicy, long blockTimeoutMillis) {
+        this.ringBuffer = new RingBuffer<>(capacity);
+        this.subscriptions = new CopyOnWriteArrayList<>();
+        this.publishedCount = new LongAdder();
+        this.droppedCount = new LongAdder();
+        this.overflowPolicy = (overflowPolicy == null) ? OverflowPolicy.DROP : overflowPolicy;
+        this.blockTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, blockTimeoutMillis));
+    }
+
+    /**
+     * Changes what publishers do when the buffer is full. Timeout is only used by BLOCK_WITH_TIMEOUT.
+     **/
+    public void setOverflowPolicy(OverflowPolicy overflowPolicy, long blockTimeoutMillis) {
+        this.overflowPolicy = (overflowPolicy == null) ? OverflowPolicy.DROP : overflowPolicy;
+        this.blockTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, blockTimeoutMillis));
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    public int getCapacity() {
+        return ringBuffer.getCapacity();
+    }
+
+    /**
+     * Publishes the event to every subscriber. Does nothing if there are no subscribers.
+     **/
+    public void publish(LibraryEvent event) {
+        if (subscriptions.isEmpty())
+            return;
+
+        boolean published;
+
+        switch (overflowPolicy) {
+            case BLOCK:
+                ringBuffer.publish(event);
+                published = true;
+                break;
+            case BLOCK_WITH_TIMEOUT:
+                published = ringBuffer.publish(event, blockTimeoutNanos, TimeUnit.NANOSECONDS);
+                break;
+            default:
+                published = ringBuffer.tryPublish(event);
+        }
+
+        if (published)
+            publishedCount.increment();
+        else
+            droppedCount.increment();
+    }
+
+    /**
+     * Starts a subscriber thread that passes every event published from now on to the handler,
+     * up to maxBatchSize events at a time. The handler must not keep the list it's given.
+     **/
+    public Subscription subscribe(String name, Consumer<List<LibraryEvent>> handler, int maxBatchSize) {
+        Subscription subscription = new Subscription(this, name, handler, Math.max(1, maxBatchSize));
+        subscriptions.add(subscription);
+        subscription.thread.start();
+        return subscription;
+    }
+
+    public long getPublishedCount() {
+        return publishedCount.sum();
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.sum();
+    }
+
+    /**
+     * Stops every subscriber after it has handled the events already published
+     **/
+    public void close() {
+        for (Subscription subscription : subscriptions)
+            subscription.close();
+    }
+
+    /**
+     * A subscriber's thread and its position in the ring buffer
+     **/
+    public static class Subscription implements AutoCloseable {
+        private final EventBus eventBus;
+        private final RingBuffer.Reader<LibraryEvent> reader;
+        private final Consumer<List<LibraryEvent>> handler;
+        private final int maxBatchSize;
+        private final Thread thread;
+        private final LongAdder handledCount;
+        private final LongAdder failedBatchCount;
+        private volatile boolean running;
+
+        private Subscription(EventBus eventBus, String name, Consumer<List<LibraryEvent>> handler, int maxBatchSize) {
+            this.eventBus = eventBus;
+            this.reader = eventBus.ringBuffer.addReader();
+            this.handler = handler;
+            this.maxBatchSize = maxBatchSize;
+            this.handledCount = new LongAdder();
+            this.failedBatchCount = new LongAdder();
+            this.running = true;
+            this.thread = new Thread(this::run, "event-subscriber-" + name);
+            this.thread.setDaemon(true);
+        }
+
+        private void run() {
+            List<LibraryEvent> batch = new ArrayList<>(maxBatchSize);
+            int idlePolls = 0;
+
+            while (true) {
+                batch.clear();
+
+                if (reader.poll(batch, maxBatchSize) == 0) {
+                    if (!running)
+                        return;
+
+                    // Back off a little more each time nothing was published
+                    LockSupport.parkNanos(Math.min(1000000, 1000L << Math.min(idlePolls++, 10)));
+                    continue;
+                }
+
+                idlePolls = 0;
+
+                try {
+                    handler.accept(batch);
+                } catch (RuntimeException e) {
+                    failedBatchCount.increment();
+                }
+
+                handledCount.add(batch.size());
+            }
+        }
+
+        /**
+         * Returns the # of events published that this subscriber hasn't handled yet
+         **/
+        public long getBacklog() {
+            return reader.getBacklog();
+        }
+
+        public long getHandledCount() {
+            return handledCount.sum();
+        }
+
+        /**
+         * Returns the # of batches where the handler threw an exception
+         **/
+        public long getFailedBatchCount() {
+            return failedBatchCount.sum();
+        }
+
+        /**
+         * Stops the subscriber once it has handled everything already published
+         **/
+        public void close() {
+            running = false;
+
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            eventBus.ringBuffer.removeReader(reader);
+            eventBus.subscriptions.remove(this);
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package Models;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Builds the secondary indexes of a library after its books are loaded, for fast start (see
+ * LibraryManager.fastStartUpManager). While an index is NOT_BUILT the library doesn't keep it up to
+ * date; the first request that needs it finishes building it, or the library's background thread
+ * builds it a chunk of books at a time. Once an index is BUILDING the library keeps it up to date
+ * as usual (indexing a book twice is harmless), so it's correct once the last chunk is done.
+ * NOTE: the state getters are thread safe, LibraryManager only calls the rest while holding its lock.
+ **/
+public class IndexBuilder {
+    /**
+     * GENRE: sorted titles, all and per genre (TitleIndex). AUTHOR: authors <-> books (CatalogGraph).
+     * SEARCH: keyword search over titles, authors and genres (SearchIndex).
+     **/
+    public enum Index {GENRE, AUTHOR, SEARCH}
+
+    public enum State {NOT_BUILT, BUILDING, READY}
+
+    private final Map<String, Book> books;
+    private final TitleIndex titleIndex;
+    private final CatalogGraph catalogGraph;
+    private final SearchIndex searchIndex;
+    private final AtomicReferenceArray<State> states;
+    private final AtomicLongArray buildMillis;
+    // Titles (when the build started) each index still has to go through
+    private final List<List<String>> pendingTitles;
+    private final int[] position;
+    private final long[] startNanos;
+    private CountDownLatch ready;
+
+    /**
+     * Every index starts READY (kept up to date from the first book on), see defer
+     **/
+    public IndexBuilder(Map<String, Book> books, TitleIndex titleIndex, CatalogGraph catalogGraph,
+                        SearchIndex searchIndex) {
+        int indexCount = Index.values().length;
+        this.books = books;
+        this.titleIndex = titleIndex;
+        this.catalogGraph = catalogGraph;
+        this.searchIndex = searchIndex;
+        this.states = new AtomicReferenceArray<>(indexCount);
+        this.buildMillis = new AtomicLongArray(indexCount);
+        this.pendingTitles = new ArrayList<>(indexCount);
+        this.position = new int[indexCount];
+        this.startNanos = new long[indexCount];
+        this.ready = new CountDownLatch(0);
+
+        for (int i = 0; i < indexCount; i++) {
+            states.set(i, State.READY);
+            pendingTitles.add(null);
+        }
+    }
+
+    /**
+     * Marks every index NOT_BUILT, so loading books doesn't update them. Returns false (and changes
+     * nothing) if an index isn't READY already or there are books, since those wouldn't be indexed.
+     **/
+    synchronized boolean defer() {
+        if (!books.isEmpty() || !isAllReady())
+            return false;
+
+        ready = new CountDownLatch(Index.values().length);
+
+        for (Index index : Index.values())
+            states.set(index.ordinal(), State.NOT_BUILT);
+
+        return true;
+    }
+
+    public State getState(Index index) {
+        return states.get(index.ordinal());
+    }
+
+    public boolean isReady(Index index) {
+        return getState(index) == State.READY;
+    }
+
+    public boolean isAllReady() {
+        for (Index index : Index.values()) {
+            if (!isReady(index))
+                return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Waits up to timeoutMillis for every index to be READY. Returns true if they are.
+     **/
+    public boolean awaitReady(long timeoutMillis) throws InterruptedException {
+        CountDownLatch latch;
+
+        synchronized (this) {
+            latch = ready;
+        }
+
+        return latch.await(timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Milliseconds from the start of the index's build until it was READY (0 if it was never deferred)
+     **/
+    public long getBuildMillis(Index index) {
+        return buildMillis.get(index.ordinal());
+    }
+
+    /**
+     * True if the library should keep the index up to date as books change (it's BUILDING or READY)
+     **/
+    boolean isMaintained(Index index) {
+        return getState(index) != State.NOT_BUILT;
+    }
+
+    /**
+     * Finishes building the index if it isn't READY
+     **/
+    void build(Index index) {
+        buildStep(index, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Indexes up to maxBooks more books, starting the index's build if it's NOT_BUILT.
+     * Returns true once the index is READY.
+     **/
+    boolean buildStep(Index index, int maxBooks) {
+        int i = index.ordinal();
+
+        if (states.get(i) == State.READY)
+            return true;
+
+        if (states.get(i) == State.NOT_BUILT) {
+            pendingTitles.set(i, new ArrayList<>(books.keySet()));
+            position[i] = 0;
+            startNanos[i] = System.nanoTime();
+            states.set(i, State.BUILDING);
+        }
+
+        List<String> titles = pendingTitles.get(i);
+        int end = (int) Math.min(titles.size(), (long) position[i] + maxBooks);
+
+        for (; position[i] < end; position[i]++) {
+            Book book = books.get(titles.get(position[i]));
+
+            // Books removed since the build started were removed from the index too
+            if (book != null)
+                indexBook(index, book);
+        }
+
+        if (position[i] < titles.size())
+            return false;
+
+        pendingTitles.set(i, null);
+        buildMillis.set(i, (System.nanoTime() - startNanos[i]) / 1000000);
+        states.set(i, State.READY);
+
+        synchronized (this) {
+            ready.countDown();
+        }
+
+        return true;
+    }
+
+    private void indexBook(Index index, Book book) {
+        switch (index) {
+            case GENRE:
+                titleIndex.add(book);
+                break;
+            case AUTHOR:
+                for (String author : book.getAuthorSet())
+                    catalogGraph.link(author, book.getTitle());
+                break;
+            default:
+                searchIndex.index(book);
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package Models;
+
+/**
+ * Something that changed in the library. Events are immutable and are published on the
+ * library's EventBus in the order the changes were made.
+ **/
+public class LibraryEvent {
+    public enum Type {
+        BOOK_CHECKED_OUT, BOOK_RETURNED, BOOK_ADDED, COPIES_ADDED, BOOK_UPDATED, BOOK_REMOVED,
+        AUTHOR_ADDED, AUTHOR_UPDATED, AUTHOR_REMOVED, USER_CREATED, BOOK_RETIRING
+    }
+
+    private final Type type;
+    private final long timestamp;
+    private final String userId;
+    private final String title;
+    private final String name;
+    private final String authors;
+    private final String genres;
+    private final String birthDate;
+    private final int copies;
+    private final String barcode;
+    // Only set on USER_CREATED events made by the library, so followers (see ReplicationLeader) can log users in
+    private final String password;
+
+    private LibraryEvent(Type type, String userId, String title, String name, String authors,
+                         String genres, String birthDate, int copies) {
+        this(type, System.currentTimeMillis(), userId, title, name, authors, genres, birthDate, copies, null, null);
+    }
+
+    /**
+     * Event with every field given, for events read back from a replication stream
+     **/
+    LibraryEvent(Type type, long timestamp, String userId, String title, String name, String authors,
+                 String genres, String birthDate, int copies, String barcode, String password) {
+        this.type = type;
+        this.timestamp = timestamp;
+        this.userId = userId;
+        this.title = title;
+        this.name = name;
+        this.authors = authors;
+        this.genres = genres;
+        this.birthDate = birthDate;
+        this.copies = copies;
+        this.barcode = barcode;
+        this.password = password;
+    }
+
+    public static LibraryEvent bookCheckedOut(String userId, String title) {
+        return bookCheckedOut(userId, title, null);
+    }
+
+    /**
+     * Checkout of the copy with the given barcode
+     **/
+    public static LibraryEvent bookCheckedOut(String userId, String title, String barcode) {
+        return new LibraryEvent(Type.BOOK_CHECKED_OUT, System.currentTimeMillis(), userId, title, null, null, null,
+                null, 1, barcode, null);
+    }
+
+    public static LibraryEvent bookReturned(String userId, String title) {
+        return new LibraryEvent(Type.BOOK_RETURNED, userId, title, null, null, null, null, 1);
+    }
+
+    public static LibraryEvent bookAdded(String title, String authors, String genres, int copies) {
+        return new LibraryEvent(Type.BOOK_ADDED, null, title, null, authors, genres, null, copies);
+    }
+
+    public static LibraryEvent copiesAdded(String title, int copies) {
+        return new LibraryEvent(Type.COPIES_ADDED, null, title, null, null, null, null, copies);
+    }
+
+    public static LibraryEvent bookUpdated(String title, String authors, String genres, int copies) {
+        return new LibraryEvent(Type.BOOK_UPDATED, null, title, null, authors, genres, null, copies);
+    }
+
+    public static LibraryEvent bookRemoved(String title) {
+        return new LibraryEvent(Type.BOOK_REMOVED, null, title, null, null, null, null, 0);
+    }
+
+    /**
+     * The book is being removed but has copies checked out: its available copies are withdrawn now
+     * and the book is removed (BOOK_REMOVED) once the rest are returned
+     **/
+    public static LibraryEvent bookRetiring(String title) {
+        return new LibraryEvent(Type.BOOK_RETIRING, null, title, null, null, null, null, 0);
+    }
+
+    public static LibraryEvent authorAdded(String name, String birthDate) {
+        return new LibraryEvent(Type.AUTHOR_ADDED, null, null, name, null, null, birthDate, 0);
+    }
+
+    public static LibraryEvent authorUpdated(String name, String birthDate) {
+        return new LibraryEvent(Type.AUTHOR_UPDATED, null, null, name, null, null, birthDate, 0);
+    }
+
+    public static LibraryEvent authorRemoved(String name) {
+        return new LibraryEvent(Type.AUTHOR_REMOVED, null, null, name, null, null, null, 0);
+    }
+
+    public static LibraryEvent userCreated(String userId, String name) {
+        return new LibraryEvent(Type.USER_CREATED, userId, null, name, null, null, null, 0);
+    }
+
+    static LibraryEvent userCreated(String userId, String name, String password) {
+        return new LibraryEvent(Type.USER_CREATED, System.currentTimeMillis(), userId, null, name, null, null, null,
+                0, null, password);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Time the event happened, in milliseconds since the epoch
+     **/
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    /**
+     * Name of the author or user the event is about
+     **/
+    public String getName() {
+        return name;
+    }
+
+    public String getAuthors() {
+        return authors;
+    }
+
+    public String getGenres() {
+        return genres;
+    }
+
+    public String getBirthDate() {
+        return birthDate;
+    }
+
+    public int getCopies() {
+        return copies;
+    }
+
+    /**
+     * Barcode of the copy checked out, if known
+     **/
+    public String getBarcode() {
+        return barcode;
+    }
+
+    String getPassword() {
+        return password;
+    }
+
+    /**
+     * String format: TYPE (only the fields set for this type of event)
+     **/
+    public String toString() {
+        StringBuilder sb = new StringBuilder(type.toString());
+
+        if (userId != null) sb.append(", User: ").append(userId);
+        if (title != null) sb.append(", Title: ").append(title);
+        if (name != null) sb.append(", Name: ").append(name);
+        if (authors != null) sb.append(", Author(s): ").append(authors);
+        if (genres != null) sb.append(", Genre(s): ").append(genres);
+        if (birthDate != null) sb.append(", Birth Date: ").append(birthDate);
+        if (copies != 0) sb.append(", Copies: ").append(copies);
+        if (barcode != null) sb.append(", Barcode: ").append(barcode);
+
+        return sb.toString();
+    }
+}
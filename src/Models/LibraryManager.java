@@ -1,26 +1,141 @@
 package Models;
 
+import Helpers.CuckooFilter;
+import Helpers.NameDictionary;
 import Helpers.StringHelpers;
+import Helpers.TinyLfuCache;
 
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
 
 /**
  * Singleton Class. It manages the entire 'Library' system. It handles adding
  * new books and authors to the system. Allows user to look up books and authors
  * within the system.
+ * NOTE: Methods that read or change library state are synchronized, so it's safe to share between threads.
  **/
 public class LibraryManager {
     private static LibraryManager INSTANCE;
+    private static final int responseCacheSize = 10000;
+    private static final int eventBusCapacity = 65536;
+    private static final int defaultRecommendations = 5;
+    private static final int trendingCapacity = 256;
+    private static final long trendingHalfLifeMillis = 10 * 60 * 1000;
+    private static final double defaultLookupFalsePositiveRate = 0.01;
+    private static final int initialLookupFilterSize = 1024;
+    private static final int listingBatchSize = 1024;
+    // Compiled once, loading the library splits every line of the data files
+    private static final Pattern fieldSeparator = Pattern.compile(" - ", Pattern.LITERAL);
+    private static final Pattern listSeparator = Pattern.compile(", ", Pattern.LITERAL);
+    // Books indexed per turn with the lock when indexes are built in the background
+    private static final int indexBuildChunkSize = 2048;
+    // Tenant libraries (see LibraryTenants) are built small so thousands fit in one JVM
+    private static final int tenantEventBusCapacity = 64;
+    private static final int tenantResponseCacheSize = 64;
+    private static final int tenantTrendingCapacity = 16;
+    private static final int tenantLookupFilterSize = 64;
+    private static final int tenantUserShards = 2;
+    // Rough heap cost of each kind of record (measured with TenantBenchmark), for memory quotas
+    private static final long bytesPerBook = 2200;
+    private static final long bytesPerAuthor = 300;
+    private static final long bytesPerUser = 350;
+    // A loan's entry in the recommender's history, loans are refused once the estimate is at the quota
+    private static final long bytesPerLoan = 16;
+    private final String tenantId;
+    // Null for the standalone library (no limits)
+    private final TenantQuota quota;
+    private final long baseMemoryBytes;
     private final HashMap<String, Book> bookMap;
+    // Author names and genres of the books, dropped with the library
+    private final NameDictionary bookNames;
     private final HashMap<String, Author> authorMap;
-    private final HashMap<String, User> userMap;
+    // Same names as authorMap, sorted for listings
+    private final TreeSet<String> authorNames;
+    private final UserRegistry userRegistry;
+    private final SearchIndex searchIndex;
+    private final CatalogGraph catalogGraph;
+    private final AuthorDateIndex authorDateIndex;
+    private final TitleIndex titleIndex;
+    private final QueryPlanner queryPlanner;
+    private final IndexBuilder indexBuilder;
+    private final CatalogImporter bookImporter;
+    private final EventBus eventBus;
+    private final TinyLfuCache<String, CachedResponse> responseCache;
+    private final AdmissionControl admissionControl;
+    private final CoCheckoutRecommender recommender;
+    // Null for tenant libraries
+    private final EventBus.Subscription recommenderSubscription;
+    private final PopularityTracker popularityTracker;
+    private volatile boolean replicating;
+    // Title/name lookups that these rule out never touch bookMap/authorMap
+    private CuckooFilter bookFilter;
+    private CuckooFilter authorFilter;
+    // Sum of every book's getCopyMemoryBytes, kept up to date as books and copies are added and removed
+    private long copyMemoryBytes;
 
     private LibraryManager() {
+        this(null, null);
+    }
+
+    /**
+     * Library of one tenant (see LibraryTenants), or the standalone library if quota is null
+     **/
+    LibraryManager(String tenantId, TenantQuota quota) {
+        boolean isTenant = quota != null;
+        this.tenantId = tenantId;
+        this.quota = quota;
         this.authorMap = new HashMap<>();
+        this.authorNames = new TreeSet<>();
         this.bookMap = new HashMap<>();
-        this.userMap = new HashMap<>();
+        this.bookNames = new NameDictionary();
+        this.userRegistry = isTenant ? new UserRegistry(tenantUserShards) : new UserRegistry();
+        this.searchIndex = new SearchIndex();
+        this.catalogGraph = new CatalogGraph();
+        this.authorDateIndex = new AuthorDateIndex();
+        this.titleIndex = new TitleIndex();
+        this.queryPlanner = new QueryPlanner(bookMap, authorMap, titleIndex, catalogGraph, authorDateIndex);
+        this.indexBuilder = new IndexBuilder(bookMap, titleIndex, catalogGraph, searchIndex);
+        this.bookImporter = new CatalogImporter(this);
+        this.eventBus = new EventBus(isTenant ? tenantEventBusCapacity : eventBusCapacity, EventBus.OverflowPolicy.DROP, 0);
+        this.responseCache = new TinyLfuCache<>(isTenant ? tenantResponseCacheSize : responseCacheSize);
+        this.admissionControl = new AdmissionControl();
+        this.recommender = new CoCheckoutRecommender();
+        this.popularityTracker = new PopularityTracker(isTenant ? tenantTrendingCapacity : trendingCapacity,
+                trendingHalfLifeMillis);
+        int filterSize = isTenant ? tenantLookupFilterSize : initialLookupFilterSize;
+        this.bookFilter = new CuckooFilter(filterSize, defaultLookupFalsePositiveRate);
+        this.authorFilter = new CuckooFilter(filterSize, defaultLookupFalsePositiveRate);
+        this.baseMemoryBytes = eventBus.getCapacity() * 8L + responseCache.getMemoryBytes() +
+                popularityTracker.getMemoryBytes();
+
+        if (isTenant) {
+            // Loans reach the recommender on the thread all tenants share (see TenantLoanFeed), not one of their own
+            admissionControl.setTenantRateLimit(quota.getOperationsPerSecond(), quota.getOperationBurst());
+            this.recommenderSubscription = null;
+        } else {
+            // Loans reach the recommender on the bus's thread, off the checkout path
+            this.recommenderSubscription = eventBus.subscribe("recommender", recommender::recordLoans, 1024);
+        }
+    }
+
+    /**
+     * A rendered search response and the version of the book/author it was rendered from.
+     **/
+    private static class CachedResponse {
+        final Object source;
+        final int version;
+        final String text;
+
+        CachedResponse(Object source, int version, String text) {
+            this.source = source;
+            this.version = version;
+            this.text = text;
+        }
     }
 
     /**
@@ -32,6 +147,56 @@ public class LibraryManager {
         loadBookData();
     }
 
+    /**
+     * Fast start: loads the library from a snapshot (see exportSnapshot) if the directory has one, else
+     * from the text files like startUpManager, without building the genre, author and search indexes
+     * first. Title and author lookups work as soon as this returns. The indexes are built a chunk at a
+     * time by a background thread if buildIndexesInBackground, else by the first request needing each.
+     * See getIndexBuilder for their progress.
+     **/
+    public void fastStartUpManager(String snapshotDirectory, boolean buildIndexesInBackground) throws IOException {
+        System.out.println("Starting up Library system.");
+        boolean deferred = indexBuilder.defer();
+
+        if (snapshotDirectory != null && ColumnarCatalogReader.isExport(Path.of(snapshotDirectory))) {
+            importColumnar(snapshotDirectory);
+        } else {
+            loadAuthorData();
+            loadBookData();
+        }
+
+        if (deferred && buildIndexesInBackground) {
+            Thread builder = new Thread(this::buildIndexes, "index-builder");
+            builder.setDaemon(true);
+            builder.start();
+        }
+    }
+
+    /**
+     * Builds every index that isn't READY, one chunk of books per turn with the lock, so requests
+     * only ever wait for one chunk.
+     **/
+    private void buildIndexes() {
+        for (IndexBuilder.Index index : IndexBuilder.Index.values()) {
+            boolean isReady = false;
+
+            while (!isReady) {
+                synchronized (this) {
+                    isReady = indexBuilder.buildStep(index, indexBuildChunkSize);
+                }
+
+                Thread.yield();
+            }
+        }
+    }
+
+    /**
+     * Finishes building the index if fast start deferred it and it isn't READY yet
+     **/
+    private void ensureIndex(IndexBuilder.Index index) {
+        indexBuilder.build(index);
+    }
+
     /**
      * If there is an active instance of a LibraryManager return it,
      * else make a new one and return it
@@ -43,94 +208,266 @@ public class LibraryManager {
         return INSTANCE;
     }
 
-    public int getUniqueBookCount() {
+    /**
+     * Returns the bus that every change to the library (checkouts, returns, catalog edits,
+     * new users) is published on. Subscribe to it to react to changes asynchronously.
+     **/
+    public EventBus getEventBus() {
+        return eventBus;
+    }
+
+    /**
+     * Returns which indexes are ready after a fast start (see fastStartUpManager). Every index is
+     * always ready after startUpManager.
+     **/
+    public IndexBuilder getIndexBuilder() {
+        return indexBuilder;
+    }
+
+    /**
+     * Returns the rate and concurrency limits checked before logins, checkouts and searches
+     **/
+    public AdmissionControl getAdmissionControl() {
+        return admissionControl;
+    }
+
+    /**
+     * Returns the tenant id of a hosted library (see LibraryTenants), or null for the standalone library
+     **/
+    public String getTenantId() {
+        return tenantId;
+    }
+
+    /**
+     * Returns the limits of a hosted library, or null for the standalone library (no limits)
+     **/
+    public TenantQuota getQuota() {
+        return quota;
+    }
+
+    /**
+     * Rough # of bytes the library takes up: its fixed size caches and buffers, an average per book,
+     * author and user, the books' copies and names, the lookup filters and the loan history and co-checkout
+     * counts of the recommender. Strings shared with other libraries are counted in full.
+     **/
+    public synchronized long getEstimatedMemoryBytes() {
+        return baseMemoryBytes + bookMap.size() * bytesPerBook + authorMap.size() * bytesPerAuthor +
+                userRegistry.size() * bytesPerUser + copyMemoryBytes + bookNames.getMemoryBytes() +
+                bookFilter.getStats().getMemoryBytes() + authorFilter.getStats().getMemoryBytes() +
+                recommender.getMemoryBytes();
+    }
+
+    private boolean hasRoomFor(int newBooks, int newAuthors, int newUsers) {
+        return hasRoomFor(newBooks, newAuthors, newUsers, 0);
+    }
+
+    /**
+     * Returns true if the quota (if any) leaves room for the given # of new books, authors and users
+     * and otherBytes more. Prints why if it doesn't.
+     **/
+    private boolean hasRoomFor(int newBooks, int newAuthors, int newUsers, long otherBytes) {
+        if (quota == null)
+            return true;
+
+        long newBytes = newBooks * bytesPerBook + newAuthors * bytesPerAuthor + newUsers * bytesPerUser + otherBytes;
+        String limit = null;
+
+        if (bookMap.size() + newBooks > quota.getMaxBooks())
+            limit = quota.getMaxBooks() + " books";
+        else if (authorMap.size() + newAuthors > quota.getMaxAuthors())
+            limit = quota.getMaxAuthors() + " authors";
+        else if (userRegistry.size() + newUsers > quota.getMaxUsers())
+            limit = quota.getMaxUsers() + " users";
+        else if (getEstimatedMemoryBytes() + newBytes > quota.getMaxMemoryBytes())
+            limit = (quota.getMaxMemoryBytes() >> 20) + " MB";
+
+        if (limit == null)
+            return true;
+
+        System.out.println("Library " + tenantId + " is full (limit: " + limit + ").\n");
+        return false;
+    }
+
+    public synchronized int getUniqueBookCount() {
         return bookMap.size();
     }
 
-    public int getUniqueAuthorCount() {
+    public synchronized int getUniqueAuthorCount() {
         return authorMap.size();
     }
 
     public int getTotalUsers() {
-        return userMap.size();
+        return userRegistry.size();
     }
 
-    private boolean bookIsAvailableForCheckOut(String title) {
-        title = StringHelpers.makeTitleCase(title);
-
-        if (bookMap.containsKey(title)) {
-            Book requestBook = bookMap.get(title);
-            return requestBook.getCopiesAvailable() > 0;
-        }
+    /**
+     * Returns a consistent copy of every book, author and user in the library. The copy is made
+     * holding the library's lock, so changes (checkouts included) wait for it: O(books + users).
+     **/
+    public synchronized CatalogSnapshot takeSnapshot() {
+        return CatalogSnapshot.of(bookMap.values(), authorMap.values(), userRegistry.getUsers());
+    }
 
-        return false;
+    /**
+     * Returns analytics over a snapshot of the library taken now. Changes wait while the
+     * snapshot is copied (see takeSnapshot), then reports run in parallel without blocking them.
+     **/
+    public CatalogAnalytics getAnalytics() {
+        return new CatalogAnalytics(takeSnapshot());
     }
 
     /**
      * Adds book to user's checked out list if they can check our more book.
-     * If successful, then also decrements copy of the book available by 1.
+     * If successful, then an available copy of the book is claimed and its barcode recorded for the user
+     * (the limit check and the copy claim are one step, see User.checkOut).
+     * Rate limited checkouts are turned away before taking the library's lock.
      **/
-    public void checkOutBook(User requester, String title) {
+    public LoanStatus checkOutBook(User requester, String title) {
         if (requester == null || StringHelpers.isNullOrEmptyString(title))
-            return;
+            return LoanStatus.INVALID_REQUEST;
 
-        if (!requester.canCheckOutMoreBooks()) {
-            System.out.println("Sorry, you have reached your checkout limit." +
-                    "Please return a book to check out another.\n");
-            return;
-        }
+        if (!requester.canCheckOutMoreBooks())
+            return LoanStatus.LIMIT_REACHED;
+
+        if (!admissionControl.tryAcquire(AdmissionControl.Operation.CHECKOUT, requester.getId()))
+            return LoanStatus.RATE_LIMITED;
 
         title = StringHelpers.makeTitleCase(title);
 
-        if (!bookIsAvailableForCheckOut(title)) {
-            System.out.println("Sorry the book: " + title + " is currently unavailable for checkout.\n");
-            return;
-        }
+        synchronized (this) {
+            if (!hasRoomFor(0, 0, 0, bytesPerLoan))
+                return LoanStatus.LIBRARY_FULL;
+
+            Book bookCheckedOut = bookMap.get(title);
 
-        // Check out book
-        requester.checkOutBook(title);
-        Book bookCheckedOut = bookMap.get(title);
-        bookCheckedOut.checkOutBook();
+            if (bookCheckedOut == null)
+                return requester.hasBookCheckedOut(title) ? LoanStatus.ALREADY_CHECKED_OUT : LoanStatus.UNAVAILABLE;
+
+            LoanStatus status = requester.checkOut(bookCheckedOut);
+
+            if (status != LoanStatus.SUCCESS)
+                return status;
+
+            popularityTracker.recordCheckout(bookCheckedOut);
+            publishCheckout(requester, title);
+            return LoanStatus.SUCCESS;
+        }
     }
 
     /**
      * Library user is returning a book with the given title.
-     * If the book doesn't exist in system output message and do nothing.
+     * If the book doesn't exist in system or the user doesn't have it, do nothing.
      **/
-    public void returnBook(User returner, String title) {
+    public synchronized LoanStatus returnBook(User returner, String title) {
+        if (returner == null || StringHelpers.isNullOrEmptyString(title))
+            return LoanStatus.INVALID_REQUEST;
+
         title = StringHelpers.makeTitleCase(title);
         boolean hasBookCheckedOut = returner.hasBookCheckedOut(title);
 
         if (bookMap.containsKey(title) && hasBookCheckedOut) {
             Book returningBook = bookMap.get(title);
-            returningBook.returnBook();
-            returner.returnBook(title);
-            return;
+
+            if (!returner.returnTo(returningBook))
+                return LoanStatus.NOT_CHECKED_OUT;
+
+            eventBus.publish(LibraryEvent.bookReturned(returner.getId(), title));
+
+            // Last copy of a book being removed came back
+            if (returningBook.isRetiring() && returningBook.getTotalCopies() == 0)
+                deleteBook(title);
+
+            return LoanStatus.SUCCESS;
         } else if (bookMap.containsKey(title) && !hasBookCheckedOut) {
-            System.out.println("You didn't check out the book: " + title + "!\n");
-            return;
+            return LoanStatus.NOT_CHECKED_OUT;
         }
 
-
-        System.out.println("The book: " + title + " is not from this library!\n");
+        return LoanStatus.NOT_IN_LIBRARY;
     }
 
     /**
      * Returns string representation of the author requested if found.
      **/
-    public String getAuthorByName(String name) {
+    public synchronized String getAuthorByName(String name) {
         Author requestAuthor = (Author) getRequestedItem(name, "author");
-        return (requestAuthor == null) ?
-                "Sorry invalid search for " + name + "\n" : requestAuthor.toString();
+
+        if (requestAuthor == null)
+            return "Sorry invalid search for " + name + "\n";
+
+        return getRenderedResponse("author:" + StringHelpers.makeTitleCase(name), requestAuthor, requestAuthor.getVersion());
+    }
+
+    /**
+     * getAuthorByName for a library user, counted against their search rate limit (see admitSearch)
+     **/
+    public String getAuthorByName(User requester, String name) {
+        return admitSearch(requester, name, () -> getAuthorByName(name));
     }
 
     /**
      * Returns the string representation of book requested if found.
      **/
-    public String getBookByTitle(String title) {
+    public synchronized String getBookByTitle(String title) {
         Book requestBook = (Book) getRequestedItem(title, "book");
-        return (requestBook == null) ?
-                "Sorry invalid search for " + title + "\n" : requestBook.toString();
+
+        if (requestBook == null)
+            return "Sorry invalid search for " + title + "\n";
+
+        popularityTracker.recordLookup(requestBook);
+        return getRenderedResponse("book:" + requestBook.getTitle(), requestBook, requestBook.getVersion());
+    }
+
+    /**
+     * getBookByTitle for a library user, counted against their search rate limit (see admitSearch)
+     **/
+    public String getBookByTitle(User requester, String title) {
+        return admitSearch(requester, title, () -> getBookByTitle(title));
+    }
+
+    /**
+     * Returns up to k titles looked up and checked out the most recently (counts fade with a 10 minute
+     * half life), most popular first. Titles no longer in the library are skipped.
+     **/
+    public synchronized String getTrendingTitles(int k) {
+        List<String> trending = new ArrayList<>();
+
+        for (String title : popularityTracker.getTrendingTitles(Math.max(0, k) * 2)) {
+            if (trending.size() < k && bookMap.containsKey(title))
+                trending.add(title);
+        }
+
+        return trending.isEmpty() ? "There is no information currently available." : String.join(", ", trending);
+    }
+
+    /**
+     * Returns up to k genres of the books looked up and checked out the most recently, most popular first.
+     **/
+    public String getTrendingGenres(int k) {
+        List<String> trending = popularityTracker.getTrendingGenres(k);
+        return trending.isEmpty() ? "There is no information currently available." : String.join(", ", trending);
+    }
+
+    /**
+     * Returns the cached toString of source if it hasn't changed since it was cached,
+     * else renders it again and caches it under key.
+     **/
+    private String getRenderedResponse(String key, Object source, int version) {
+        CachedResponse cached = responseCache.get(key,
+                response -> response.source == source && response.version == version);
+
+        if (cached != null)
+            return cached.text;
+
+        String text = source.toString();
+        responseCache.put(key, new CachedResponse(source, version, text));
+        return text;
+    }
+
+    /**
+     * Returns the hit rate and eviction statistics for cached search responses
+     **/
+    public TinyLfuCache.Stats getResponseCacheStats() {
+        return responseCache.getStats();
     }
 
     /**
@@ -138,12 +475,78 @@ public class LibraryManager {
      * the title/name of the requested itemName. Returns null if not found.
      **/
     private Object getRequestedItem(String itemName, String searchFor) {
-        if (searchFor == null)
+        if (searchFor == null || itemName == null)
             return null;
 
         itemName = StringHelpers.makeTitleCase(itemName);
-        return (searchFor.equals("author")) ?
-                authorMap.get(itemName) : bookMap.get(itemName);
+        boolean isAuthor = searchFor.equals("author");
+        CuckooFilter filter = isAuthor ? authorFilter : bookFilter;
+
+        // Definitely not in the library, skip the lookup
+        if (!filter.mightContain(itemName))
+            return null;
+
+        Object item = isAuthor ? authorMap.get(itemName) : bookMap.get(itemName);
+
+        if (item == null)
+            filter.recordFalsePositive();
+
+        return item;
+    }
+
+    /**
+     * Rebuilds the title and author lookup filters for the given false positive rate (Ex: 0.01 = 1%).
+     * Lower rates use more memory per key (Ex: 6 bits at 20%, 10 bits at 1%, 16 bits at 0.01%).
+     **/
+    public synchronized void setLookupFalsePositiveRate(double falsePositiveRate) {
+        bookFilter = buildFilter(bookMap.keySet(), bookMap.size(), falsePositiveRate);
+        authorFilter = buildFilter(authorMap.keySet(), authorMap.size(), falsePositiveRate);
+    }
+
+    /**
+     * Returns the memory use and hit rates of the filter that rules out title lookups for books
+     * the library doesn't have
+     **/
+    public synchronized CuckooFilter.Stats getBookFilterStats() {
+        return bookFilter.getStats();
+    }
+
+    /**
+     * Returns the memory use and hit rates of the filter that rules out author lookups
+     **/
+    public synchronized CuckooFilter.Stats getAuthorFilterStats() {
+        return authorFilter.getStats();
+    }
+
+    private void addToBookFilter(String title) {
+        if (!bookFilter.add(title) || bookFilter.isFull())
+            bookFilter = buildFilter(bookMap.keySet(), 2 * bookFilter.getCapacity(), bookFilter.getFalsePositiveRate());
+    }
+
+    private void addToAuthorFilter(String name) {
+        if (!authorFilter.add(name) || authorFilter.isFull())
+            authorFilter = buildFilter(authorMap.keySet(), 2 * authorFilter.getCapacity(),
+                    authorFilter.getFalsePositiveRate());
+    }
+
+    /**
+     * Returns a filter holding every key, with room for at least minCapacity keys
+     **/
+    private static CuckooFilter buildFilter(Set<String> keys, int minCapacity, double falsePositiveRate) {
+        int capacity = Math.max(initialLookupFilterSize, Math.max(minCapacity, keys.size()));
+
+        while (true) {
+            CuckooFilter filter = new CuckooFilter(capacity, falsePositiveRate);
+            boolean allAdded = true;
+
+            for (String key : keys)
+                allAdded &= filter.add(key) && !filter.isFull();
+
+            if (allAdded)
+                return filter;
+
+            capacity *= 2;
+        }
     }
 
     /**
@@ -151,7 +554,7 @@ public class LibraryManager {
      * Note: Only searches for a single genre at a time. If null or "" passed in for genre,
      * then it returns all the book titles in the system.
      **/
-    public String findBooksByGenre(String genre) {
+    public synchronized String findBooksByGenre(String genre) {
         if (genre == null || genre.equals(""))
             return getAllBookTitles();
 
@@ -166,18 +569,247 @@ public class LibraryManager {
         return getAllKeys(booksWithGenre);
     }
 
+    /**
+     * findBooksByGenre for a library user, counted against their search rate limit (see admitSearch)
+     **/
+    public String findBooksByGenre(User requester, String genre) {
+        return admitSearch(requester, genre, () -> findBooksByGenre(genre));
+    }
+
+    /**
+     * Returns the next page of books matching every filter of the query, sorted by title.
+     * The query's most selective indexed filter picks the candidates, so a page costs about
+     * the # of candidates looked at, not the size of the catalog.
+     **/
+    public synchronized CatalogPage query(CatalogQuery query) {
+        ensureIndex(IndexBuilder.Index.GENRE);
+        ensureIndex(IndexBuilder.Index.AUTHOR);
+        return queryPlanner.run(query);
+    }
+
+    /**
+     * Returns the titles (sorted) of books by the author that have at least one copy available.
+     **/
+    public synchronized String getAvailableBooksByAuthor(String name) {
+        name = StringHelpers.makeTitleCase(name);
+        ensureIndex(IndexBuilder.Index.AUTHOR);
+        Set<String> available = new HashSet<>();
+
+        for (String title : catalogGraph.getBooksOf(name)) {
+            Book aBook = bookMap.get(title);
+
+            if (aBook != null && aBook.getCopiesAvailable() > 0)
+                available.add(title);
+        }
+
+        return getAllKeys(available);
+    }
+
+    /**
+     * Returns the names (sorted) of authors who wrote at least one book with the given author.
+     **/
+    public synchronized String getCoAuthors(String name) {
+        ensureIndex(IndexBuilder.Index.AUTHOR);
+        return getAllKeys(catalogGraph.getCoAuthors(StringHelpers.makeTitleCase(name)));
+    }
+
+    /**
+     * Returns up to 5 titles the user might like, see recommendFor(User, int).
+     **/
+    public String recommendFor(User user) {
+        return recommendFor(user, defaultRecommendations);
+    }
+
+    /**
+     * Returns up to limit titles (best first) that were borrowed by users who borrowed the same books
+     * as this user. Titles the user has borrowed before or that left the library are skipped. Ties go
+     * to the title sharing the most genres with the user's books, then by title.
+     * NOTE: loans are added to the model asynchronously, so very recent checkouts may not count yet.
+     **/
+    public String recommendFor(User user, int limit) {
+        if (user == null || limit <= 0)
+            return "There is no information currently available.";
+
+        Map<String, Integer> scores = recommender.scoreCandidates(user.getId());
+        List<String> borrowed = recommender.getBorrowedTitles(user.getId());
+        List<String> ranked;
+
+        synchronized (this) {
+            Set<String> userGenres = new HashSet<>();
+
+            for (String title : borrowed) {
+                Book book = bookMap.get(title);
+
+                if (book != null)
+                    userGenres.addAll(book.getGenreSet());
+            }
+
+            Map<String, Integer> genreOverlap = new HashMap<>();
+
+            for (String title : scores.keySet()) {
+                Book book = bookMap.get(title);
+
+                if (book != null && !user.hasBookCheckedOut(title))
+                    genreOverlap.put(title, (int) book.getGenreSet().stream().filter(userGenres::contains).count());
+            }
+
+            ranked = new ArrayList<>(genreOverlap.keySet());
+            ranked.sort(Comparator.comparing((String title) -> scores.get(title)).reversed()
+                    .thenComparing(Comparator.comparing((String title) -> genreOverlap.get(title)).reversed())
+                    .thenComparing(Comparator.naturalOrder()));
+        }
+
+        if (ranked.isEmpty())
+            return "There is no information currently available.";
+
+        return String.join(", ", ranked.subList(0, Math.min(limit, ranked.size())));
+    }
+
+    /**
+     * Waits up to timeoutMillis for every checkout made so far to reach recommendFor. Returns true if they have.
+     **/
+    public boolean awaitLoansRecorded(long timeoutMillis) throws InterruptedException {
+        if (recommenderSubscription == null)
+            return TenantLoanFeed.shared.awaitRecorded(timeoutMillis);
+
+        long published = eventBus.getPublishedCount();
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+
+        while (recommenderSubscription.getHandledCount() < published) {
+            if (System.currentTimeMillis() >= deadline)
+                return false;
+
+            Thread.sleep(1);
+        }
+
+        return true;
+    }
+
+    /**
+     * Tells subscribers about the user's checkout, and for tenant libraries queues it for the recommender
+     **/
+    private void publishCheckout(User user, String title) {
+        eventBus.publish(LibraryEvent.bookCheckedOut(user.getId(), title, user.getBarcode(title)));
+
+        if (recommenderSubscription == null)
+            TenantLoanFeed.shared.publish(recommender, user.getId(), title, System.currentTimeMillis());
+    }
+
+    /**
+     * Returns the names of authors born between the two dates (MM/DD/YYYY, inclusive), oldest first.
+     **/
+    public synchronized String getAuthorsBornBetween(String fromDate, String toDate) {
+        int from = StringHelpers.parseDate(fromDate);
+        int to = StringHelpers.parseDate(toDate);
+
+        if (from == StringHelpers.unknownDate || to == StringHelpers.unknownDate)
+            return "Sorry invalid search for " + fromDate + " - " + toDate + "\n";
+
+        List<String> names = authorDateIndex.getAuthorsBornBetween(from, to);
+        return names.isEmpty() ? "There is no information currently available." : String.join(", ", names);
+    }
+
+    /**
+     * Returns the names of authors born from the start of fromYear to the end of toYear, oldest first.
+     **/
+    public synchronized String getAuthorsBornInYears(int fromYear, int toYear) {
+        List<String> names = authorDateIndex.getAuthorsBornInYears(fromYear, toYear);
+        return names.isEmpty() ? "There is no information currently available." : String.join(", ", names);
+    }
+
+    /**
+     * Returns the titles (sorted) of books written by authors born in the decade (Ex: 1900 -> 1900 - 1909)
+     **/
+    public synchronized String getBooksByAuthorsBornInDecade(int decade) {
+        decade = decade / 10 * 10;
+        ensureIndex(IndexBuilder.Index.AUTHOR);
+        Set<String> titles = new HashSet<>();
+
+        for (String name : authorDateIndex.getAuthorsBornInYears(decade, decade + 9))
+            titles.addAll(catalogGraph.getBooksOf(name));
+
+        return getAllKeys(titles);
+    }
+
+    /**
+     * Full text search over book titles, author names and genres. Returns up to limit
+     * matching titles, best match first. Words in quotes are matched as a phrase.
+     **/
+    public synchronized String searchBooks(String query, int limit) {
+        ensureIndex(IndexBuilder.Index.SEARCH);
+        List<String> titles = searchIndex.search(query, limit);
+        return titles.isEmpty() ?
+                "Sorry invalid search for " + query + "\n" : String.join(", ", titles);
+    }
+
+    /**
+     * searchBooks for a library user, counted against their search rate limit (see admitSearch)
+     **/
+    public String searchBooks(User requester, String query, int limit) {
+        return admitSearch(requester, query, () -> searchBooks(query, limit));
+    }
+
+    /**
+     * Runs the search if the user hasn't gone over their search rate limit, else tells them to slow down.
+     * Checked before taking the library's lock. The searches without a user (for the library's own use,
+     * Ex: startup, replicas, tests) aren't limited.
+     **/
+    private String admitSearch(User requester, String searched, Supplier<String> search) {
+        if (requester == null)
+            return "Sorry invalid search for " + searched + "\n";
+
+        if (!admissionControl.tryAcquire(AdmissionControl.Operation.SEARCH, requester.getId()))
+            return "Too many searches, please wait a moment and try again.\n";
+
+        return search.get();
+    }
+
     /**
      * Returns all the author names in the system currently
      **/
-    public String getAllAuthorNames() {
-        return getAllKeys(authorMap.keySet());
+    public synchronized String getAllAuthorNames() {
+        return getAllKeys(authorNames);
     }
 
     /**
      * Returns the titles of all books currently in the system in sorted order
      **/
-    public String getAllBookTitles() {
-        return getAllKeys(bookMap.keySet());
+    public synchronized String getAllBookTitles() {
+        ensureIndex(IndexBuilder.Index.GENRE);
+        return getAllKeys(titleIndex.getTitles());
+    }
+
+    /**
+     * Same as getAllAuthorNames, written to out a batch at a time instead of built into one string
+     **/
+    public void writeAllAuthorNames(Appendable out) throws IOException {
+        writeAllKeys(iterateAuthorNames(), out);
+    }
+
+    /**
+     * Same as getAllBookTitles, written to out a batch at a time instead of built into one string.
+     * Use a ChannelWriter to write to a file or socket.
+     **/
+    public void writeAllBookTitles(Appendable out) throws IOException {
+        writeAllKeys(iterateBookTitles(), out);
+    }
+
+    /**
+     * Lazily walks every author name in sorted order (see BatchIterator)
+     **/
+    public Iterator<String> iterateAuthorNames() {
+        return new BatchIterator(authorNames);
+    }
+
+    /**
+     * Lazily walks every book title in sorted order (see BatchIterator)
+     **/
+    public Iterator<String> iterateBookTitles() {
+        synchronized (this) {
+            ensureIndex(IndexBuilder.Index.GENRE);
+        }
+
+        return new BatchIterator(titleIndex.getTitles());
     }
 
     /**
@@ -187,32 +819,104 @@ public class LibraryManager {
         if (set.size() == 0)
             return "There is no information currently available.";
 
-        List<String> tempList = new ArrayList<>(set);
-        Collections.sort(tempList);
-        return tempList.toString().replace("[", "").replace("]", "");
+        if (set instanceof SortedSet)
+            return String.join(", ", set);
+
+        String[] sorted = set.toArray(new String[0]);
+        Arrays.sort(sorted);
+        return String.join(", ", sorted);
+    }
+
+    private static void writeAllKeys(Iterator<String> keys, Appendable out) throws IOException {
+        if (!keys.hasNext())
+            out.append("There is no information currently available.");
+        else
+            StringHelpers.appendJoined(out, keys);
+    }
+
+    /**
+     * Iterates a sorted set of keys by copying listingBatchSize of them at a time while holding the
+     * library's lock, so memory stays the same however many keys there are and changes to the library
+     * only wait for one batch. Keys added or removed while iterating may or may not be seen.
+     **/
+    private class BatchIterator implements Iterator<String> {
+        private final NavigableSet<String> keys;
+        private final String[] batch = new String[listingBatchSize];
+        private int batchSize;
+        private int next;
+        private boolean lastBatch;
+
+        BatchIterator(NavigableSet<String> keys) {
+            this.keys = keys;
+        }
+
+        public boolean hasNext() {
+            if (next == batchSize && !lastBatch)
+                fillBatch();
+
+            return next < batchSize;
+        }
+
+        public String next() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+
+            return batch[next++];
+        }
+
+        private void fillBatch() {
+            String after = (batchSize == 0) ? null : batch[batchSize - 1];
+            batchSize = 0;
+            next = 0;
+
+            synchronized (LibraryManager.this) {
+                Iterator<String> it = (after == null) ? keys.iterator() : keys.tailSet(after, false).iterator();
+
+                while (batchSize < batch.length && it.hasNext())
+                    batch[batchSize++] = it.next();
+            }
+
+            lastBatch = batchSize < batch.length;
+        }
     }
 
     /**
      * Add a new book to the library. If the book already exist then increase the
      * total copies for the book. Also adds new authors if the authors of the book
      * aren't in the system already. If author already exist add title to author's
-     * list of written books.
+     * list of written books. A book can't get more than Book.maxCopies copies, the
+     * request is refused (and why is printed) if it would.
      **/
-    public void addBook(String title, String author, String genre, int totalCopies) {
+    public synchronized void addBook(String title, String author, String genre, int totalCopies) {
         if (StringHelpers.isNullOrEmptyString(title) || StringHelpers.isNullOrEmptyString(author) ||
                 StringHelpers.isNullOrEmptyString(genre) || totalCopies < 0) {
             System.out.println("Invalid Book Arguments when adding book to library!\n");
             return;
         }
 
+        if (totalCopies > Book.maxCopies) {
+            System.out.println("A book can't have more than " + Book.maxCopies + " copies!\n");
+            return;
+        }
+
         title = StringHelpers.makeTitleCase(title);
         author = StringHelpers.makeTitleCase(author);
         genre = StringHelpers.makeTitleCase(genre);
 
         if (!bookMap.containsKey(title)) { // Book doesn't exist, add to library
-            bookMap.put(title, new Book(title, author, genre, totalCopies));
+            if (!addNewBook(new Book(title, author, genre, totalCopies, bookNames), author, genre))
+                return;
         } else if (bookMap.containsKey(title) && totalCopies > 0) { // Book exist already, add copies
-            bookMap.get(title).addBookCopies(totalCopies);
+            Book book = bookMap.get(title);
+
+            if (!hasRoomFor(0, 0, 0, book.getCopyMemoryBytes(totalCopies) - book.getCopyMemoryBytes(0)))
+                return;
+
+            if (addCopies(book, totalCopies))
+                eventBus.publish(LibraryEvent.copiesAdded(title, totalCopies));
+            else
+                System.out.println("Only " + book.getRoomForCopies() + " more copies of " + title + " can be added!\n");
+
             return;
         }
 
@@ -220,11 +924,51 @@ public class LibraryManager {
         updateAuthorInfo(author, title);
     }
 
+    /**
+     * Adds copies to the book (see Book.addBookCopies), keeping copyMemoryBytes up to date
+     **/
+    private boolean addCopies(Book book, int count) {
+        long bytesBefore = book.getCopyMemoryBytes(0);
+
+        if (!book.addBookCopies(count))
+            return false;
+
+        copyMemoryBytes += book.getCopyMemoryBytes(0) - bytesBefore;
+        return true;
+    }
+
+    /**
+     * Adds a book that isn't in the library yet. Returns false if the quota has no room for it (or its new authors).
+     **/
+    private boolean addNewBook(Book newBook, String author, String genre) {
+        int newAuthors = 0;
+
+        for (String name : newBook.getAuthorSet()) {
+            if (!authorMap.containsKey(name))
+                newAuthors++;
+        }
+
+        if (!hasRoomFor(1, newAuthors, 0, newBook.getCopyMemoryBytes(0)))
+            return false;
+
+        bookMap.put(newBook.getTitle(), newBook);
+        copyMemoryBytes += newBook.getCopyMemoryBytes(0);
+        addToBookFilter(newBook.getTitle());
+        if (indexBuilder.isMaintained(IndexBuilder.Index.SEARCH))
+            searchIndex.index(newBook);
+
+        if (indexBuilder.isMaintained(IndexBuilder.Index.GENRE))
+            titleIndex.add(newBook);
+
+        eventBus.publish(LibraryEvent.bookAdded(newBook.getTitle(), author, genre, newBook.getTotalCopies()));
+        return true;
+    }
+
     /**
      * Add an author to the library system if they aren't already in the system.
      * If author exist, birth date is unknown & new birthDate is valid, update it.
      **/
-    public void addAuthor(String name, String birthDate) {
+    public synchronized void addAuthor(String name, String birthDate) {
         if (StringHelpers.isNullOrEmptyString(name)) {
             System.out.println("Invalid name when trying to add author to system.\n");
             return;
@@ -238,42 +982,329 @@ public class LibraryManager {
 
         if (isExistingAuthor) { // If author exist update birth date if necessary
             boolean isValidNewDate = StringHelpers.isValidDateFormat(birthDate);
-            boolean currBDayUnknown = anAuthor.getBirthDate().equals("Unknown");
+            boolean currBDayUnknown = !anAuthor.hasKnownBirthDate();
 
-            if (currBDayUnknown && isValidNewDate) anAuthor.setBirthDate(birthDate);
+            if (currBDayUnknown && isValidNewDate) {
+                anAuthor.setBirthDate(birthDate);
+                authorDateIndex.add(name, anAuthor.getBirthEpochDay());
+                eventBus.publish(LibraryEvent.authorUpdated(name, anAuthor.getBirthDate()));
+            }
             return;
         }
 
+        if (!hasRoomFor(0, 1, 0))
+            return;
+
         authorMap.put(name, anAuthor);
+        authorNames.add(name);
+        addToAuthorFilter(name);
+        authorDateIndex.add(name, anAuthor.getBirthEpochDay());
+        eventBus.publish(LibraryEvent.authorAdded(name, anAuthor.getBirthDate()));
     }
 
     /**
-     * Removes book with given title from the system if it
-     * has no copies currently checked out.
+     * Removes book with given title from the system. If copies are checked out, the available
+     * copies are withdrawn now and the book is removed once the rest are returned.
      **/
-    public void removeBook(User user, String title) {
+    public synchronized void removeBook(User user, String title) {
         title = StringHelpers.makeTitleCase(title);
         Book book = bookMap.get(title);
 
-        if (book == null)
+        if (book == null || deleteBook(title))
             return;
 
+        int copiesCheckedOut = retireBook(book);
+        System.out.println("Book: " + title + " will be removed once every copy is returned (" +
+                copiesCheckedOut + " checked out).\n");
+    }
+
+    /**
+     * Withdraws the book's available copies now and the rest as they're returned, the last
+     * return removes the book. Returns the # of copies still checked out.
+     **/
+    synchronized int retireBook(Book book) {
+        int copiesCheckedOut = book.retire();
+        responseCache.invalidate("book:" + book.getTitle());
+        eventBus.publish(LibraryEvent.bookRetiring(book.getTitle()));
+        return copiesCheckedOut;
+    }
+
+    /**
+     * Removes the book with the given title (title case) if it has no copies checked out.
+     * Returns true if the book was removed.
+     **/
+    synchronized boolean deleteBook(String title) {
+        Book book = bookMap.get(title);
+
+        if (book == null)
+            return false;
+
+        ensureIndex(IndexBuilder.Index.AUTHOR);
         boolean noCopiesCheckedOut = book.getCopiesAvailable() == book.getTotalCopies();
 
         if (noCopiesCheckedOut) {
             bookMap.remove(title);
+            copyMemoryBytes -= book.getCopyMemoryBytes(0);
+            bookFilter.remove(title);
+            searchIndex.remove(title);
+            titleIndex.remove(book);
+            eventBus.publish(LibraryEvent.bookRemoved(title));
+            responseCache.invalidate("book:" + title);
+
+            // Only the book's own authors need the title removed
+            for (String authorName : catalogGraph.removeBook(title)) {
+                Author author = authorMap.get(authorName);
+
+                if (author != null)
+                    author.removeBookWritten(title);
+            }
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Replaces the authors, genres and total copies of an existing book (title case title).
+     * Total copies never drops below the # of copies currently checked out.
+     **/
+    synchronized void updateBook(String title, String authors, String genre, int totalCopies) {
+        Book book = bookMap.get(title);
+
+        if (book == null)
             return;
+
+        Set<String> newAuthors = Book.parseList(authors);
+        Set<String> newGenres = Book.parseList(genre);
+
+        for (String oldAuthor : new ArrayList<>(book.getAuthorSet())) {
+            if (newAuthors.contains(oldAuthor))
+                continue;
+
+            book.removeAuthor(oldAuthor);
+
+            if (indexBuilder.isMaintained(IndexBuilder.Index.AUTHOR))
+                catalogGraph.unlink(oldAuthor, title);
+
+            Author author = authorMap.get(oldAuthor);
+
+            if (author != null)
+                author.removeBookWritten(title);
+        }
+
+        boolean inTitleIndex = indexBuilder.isMaintained(IndexBuilder.Index.GENRE);
+
+        if (inTitleIndex)
+            titleIndex.remove(book);
+
+        for (String oldGenre : new ArrayList<>(book.getGenreSet())) {
+            if (!newGenres.contains(oldGenre))
+                book.removeGenre(oldGenre);
+        }
+
+        for (String newGenre : newGenres)
+            book.addGenre(newGenre);
+
+        if (inTitleIndex)
+            titleIndex.add(book);
+
+        for (String newAuthor : newAuthors)
+            book.addAuthor(newAuthor);
+
+        updateAuthorInfo(String.join(", ", newAuthors), title);
+
+        long bytesBefore = book.getCopyMemoryBytes(0);
+        int newTotal = book.resizeCopies(totalCopies);
+        copyMemoryBytes += book.getCopyMemoryBytes(0) - bytesBefore;
+
+        if (indexBuilder.isMaintained(IndexBuilder.Index.SEARCH))
+            searchIndex.index(book);
+
+        eventBus.publish(LibraryEvent.bookUpdated(title, String.join(", ", newAuthors),
+                String.join(", ", newGenres), newTotal));
+    }
+
+    /**
+     * Applies a new export of the catalog (books.txt format) to the running library, only changing
+     * the books that were added, changed or removed since the current catalog.
+     **/
+    public DeltaImportResult importBookDelta(String fileName) throws IOException {
+        return bookImporter.importDelta(fileName);
+    }
+
+    /**
+     * Writes the books, authors, users and loans into the directory as column files for offline analysis.
+     * Passwords aren't written, so users can't be restored from it (see exportSnapshot).
+     **/
+    public void exportColumnar(String directory) throws IOException {
+        ColumnarCatalogWriter.write(takeSnapshot(), Path.of(directory), false);
+    }
+
+    /**
+     * Saves the whole library (with passwords) into the directory as column files, for fastStartUpManager
+     * or importColumnar to restore it. Keep the directory private.
+     **/
+    public void exportSnapshot(String directory) throws IOException {
+        ColumnarCatalogWriter.write(takeSnapshot(), Path.of(directory), true);
+    }
+
+    /**
+     * Adds the books, authors, users and loans of a columnar export (see exportColumnar, exportSnapshot) to
+     * the library. Users are only added from a snapshot, an export for analysis has no passwords.
+     **/
+    public void importColumnar(String directory) throws IOException {
+        ColumnarCatalogReader.readInto(Path.of(directory), this);
+    }
+
+    /**
+     * Adds everything in the snapshot to the library. Users whose id is taken or without a password are
+     * skipped. Each loan gets the same copy back if it's available, else any available copy (or is dropped
+     * if there isn't one).
+     **/
+    synchronized void restore(CatalogSnapshot snapshot) {
+        for (CatalogSnapshot.AuthorInfo author : snapshot.getAuthors())
+            addAuthor(author.getName(), author.getBirthDate());
+
+        for (CatalogSnapshot.BookInfo book : snapshot.getBooks())
+            restoreBook(book.getTitle(), String.join(", ", book.getAuthors()), String.join(", ", book.getGenres()),
+                    book.getTotalCopies());
+
+        for (CatalogSnapshot.UserInfo info : snapshot.getUsers()) {
+            if (info.getPassword() == null)
+                continue;
+
+            User user = new User(info.getName(), info.getPassword());
+            user.setId(info.getId());
+            user.setCheckOutLimit(info.getCheckOutLimit());
+
+            if (!registerUser(user))
+                continue;
+
+            eventBus.publish(LibraryEvent.userCreated(user.getId(), user.getName(), info.getPassword()));
+
+            for (int i = 0; i < info.getBooksCheckedOut().size(); i++) {
+                String title = info.getBooksCheckedOut().get(i);
+                Book book = bookMap.get(title);
+
+                if (book != null && user.checkOut(book, info.getCopyNumbers().get(i)) == LoanStatus.SUCCESS)
+                    publishCheckout(user, title);
+            }
+        }
+    }
+
+    /**
+     * Adds the book (or its copies if it's already in the library), even if every author or genre was removed from it
+     **/
+    private void restoreBook(String title, String authors, String genres, int totalCopies) {
+        if (!authors.isEmpty() && !genres.isEmpty())
+            addBook(title, authors, genres, totalCopies);
+        else if (!bookMap.containsKey(title) && totalCopies <= Book.maxCopies)
+            addNewBook(new Book(title, authors, genres, totalCopies, bookNames), authors, genres);
+    }
+
+    /**
+     * Makes the changes a leader library made (see ReplicationLeader), in the same order, without any
+     * rate limits. Changes to books, authors or users that aren't here are skipped.
+     **/
+    synchronized void applyReplicated(List<LibraryEvent> events) {
+        for (LibraryEvent event : events) {
+            Book book = (event.getTitle() == null) ? null : bookMap.get(event.getTitle());
+            User user = (event.getUserId() == null) ? null : getUser(event.getUserId());
+
+            switch (event.getType()) {
+                case BOOK_ADDED:
+                    restoreBook(event.getTitle(), event.getAuthors(), event.getGenres(), event.getCopies());
+                    break;
+                case COPIES_ADDED:
+                    if (book != null && addCopies(book, event.getCopies()))
+                        eventBus.publish(event);
+                    break;
+                case BOOK_UPDATED:
+                    updateBook(event.getTitle(), event.getAuthors(), event.getGenres(), event.getCopies());
+                    break;
+                case BOOK_RETIRING:
+                    removeBook(null, event.getTitle());
+                    break;
+                case BOOK_REMOVED:
+                    deleteBook(event.getTitle());
+                    break;
+                case AUTHOR_ADDED:
+                case AUTHOR_UPDATED:
+                    addAuthor(event.getName(), event.getBirthDate());
+                    break;
+                case AUTHOR_REMOVED:
+                    removeAuthor(null, event.getName());
+                    break;
+                case USER_CREATED:
+                    User newUser = new User(event.getName(), event.getPassword());
+                    newUser.setId(event.getUserId());
+
+                    if (registerUser(newUser))
+                        eventBus.publish(event);
+                    break;
+                case BOOK_CHECKED_OUT:
+                    if (book != null && user != null &&
+                            user.checkOut(book, Book.copyNumberOf(event.getBarcode())) == LoanStatus.SUCCESS)
+                        eventBus.publish(event);
+                    break;
+                case BOOK_RETURNED:
+                    if (user != null)
+                        returnBook(user, event.getTitle());
+                    break;
+            }
         }
+    }
+
+    /**
+     * Set while a ReplicationLeader ships this library's changes. Every change is then published
+     * while holding the library's lock (sign ups too), so the order of events is the order of changes.
+     **/
+    void setReplicating(boolean replicating) {
+        this.replicating = replicating;
+    }
+
+    /**
+     * Returns the book with the given title (title case) or null if there isn't one
+     **/
+    synchronized Book getBook(String title) {
+        return bookMap.get(title);
+    }
 
-        System.out.println("Can't remove book: " + title + " there are copies currently checked out.\n");
+    /**
+     * Returns a copy of all the titles currently in the system
+     **/
+    synchronized List<String> getBookTitles() {
+        return new ArrayList<>(bookMap.keySet());
     }
 
     /**
-     * Removes author with the given name from the system
+     * Removes author with the given name from the system, and from the author list of every book they wrote
      **/
-    public void removeAuthor(User user, String name) {
+    public synchronized void removeAuthor(User user, String name) {
         name = StringHelpers.makeTitleCase(name);
-        authorMap.remove(name);
+        ensureIndex(IndexBuilder.Index.AUTHOR);
+
+        Author removedAuthor = authorMap.remove(name);
+
+        if (removedAuthor != null) {
+            authorNames.remove(name);
+            authorFilter.remove(name);
+            authorDateIndex.remove(name, removedAuthor.getBirthEpochDay());
+            eventBus.publish(LibraryEvent.authorRemoved(name));
+        }
+
+        responseCache.invalidate("author:" + name);
+
+        for (String title : catalogGraph.removeAuthor(name)) {
+            Book book = bookMap.get(title);
+
+            if (book != null) {
+                book.removeAuthor(name);
+
+                if (indexBuilder.isMaintained(IndexBuilder.Index.SEARCH))
+                    searchIndex.index(book);
+            }
+        }
     }
 
     /**
@@ -281,7 +1312,7 @@ public class LibraryManager {
      * Then update author's books written with title.
      **/
     private void updateAuthorInfo(String authors, String title) {
-        String[] allAuthors = authors.split(", ");
+        String[] allAuthors = listSeparator.split(authors);
         boolean isExistingAuthor;
 
         for (String anAuthor : allAuthors) {
@@ -292,24 +1323,34 @@ public class LibraryManager {
             Author author = (isExistingAuthor) ?
                     authorMap.get(anAuthor) : new Author(anAuthor, null);
 
-            if (!isExistingAuthor) authorMap.put(anAuthor, author);
+            if (!isExistingAuthor) {
+                authorMap.put(anAuthor, author);
+                authorNames.add(anAuthor);
+                addToAuthorFilter(anAuthor);
+            }
 
             author.addBookWritten(title);
+
+            if (indexBuilder.isMaintained(IndexBuilder.Index.AUTHOR))
+                catalogGraph.link(anAuthor, title);
         }
     }
 
     /**
      * Checks if the credentials of a user are valid. Valid if id exist and
-     * name and password entered matches the user's name and password in the system
+     * name and password entered matches the user's name and password in the system.
+     * Always false once the id has had too many login attempts recently.
      **/
     public boolean isValidUser(String id, String name, String password) {
         if (id == null || name == null || password == null)
             return false;
 
-        boolean userExist = userMap.containsKey(id);
+        if (!admissionControl.tryAcquire(AdmissionControl.Operation.LOGIN, id))
+            return false;
+
+        User theUser = userRegistry.get(id);
 
-        if (userExist) {
-            User theUser = userMap.get(id);
+        if (theUser != null) {
             boolean hasSameName = theUser.getName().equals(name);
             boolean isCorrectPassword = theUser.isCorrectPassword(password);
             return hasSameName && isCorrectPassword;
@@ -318,6 +1359,26 @@ public class LibraryManager {
         return false;
     }
 
+    /**
+     * Adds an already created user to the system. Returns false if their id is already taken
+     * or the quota is full. Only hosted libraries need the lock, to check their quota.
+     **/
+    private boolean registerUser(User user) {
+        if (quota == null)
+            return userRegistry.register(user);
+
+        synchronized (this) {
+            return hasRoomFor(0, 0, 1) && userRegistry.register(user);
+        }
+    }
+
+    /**
+     * Returns the user with the given id, or null if there isn't one
+     **/
+    private User getUser(String id) {
+        return userRegistry.get(id);
+    }
+
     /**
      * Creates a new Library User with the give name and password.
      * Each user created will have a unique id.
@@ -332,26 +1393,59 @@ public class LibraryManager {
         }
 
         name = StringHelpers.makeTitleCase(name);
+        return signUp(name, password) != null;
+    }
+
+    /**
+     * Creates and adds a new user with the exact name and password given (name isn't title cased).
+     * Returns the new user, or null if the name or password isn't valid.
+     **/
+    public User signUp(String name, String password) {
+        if (StringHelpers.isNullOrEmptyString(name) || password == null)
+            return null;
+
+        if (password.length() < 6 || password.length() > 20)
+            return null;
+
+        // Generated ids never repeat, so no need to retry
         User newUser = new User(name, password);
-        String id = newUser.getId();
 
-        // If id is not unique, generate new id;
-        while (userMap.containsKey(id)) {
-            id = StringHelpers.generateRandomId();
-            newUser.setId(id);
+        if (!replicating)
+            return addNewUser(newUser) ? newUser : null;
+
+        synchronized (this) {
+            return addNewUser(newUser) ? newUser : null;
         }
+    }
+
+    private boolean addNewUser(User newUser) {
+        if (!registerUser(newUser))
+            return false;
 
-        userMap.put(id, newUser);
+        eventBus.publish(LibraryEvent.userCreated(newUser.getId(), newUser.getName(), newUser.getPassword()));
         return true;
     }
 
+    /**
+     * Returns the user with the given id if the name and password match, else null.
+     **/
+    public User logIn(String id, String name, String password) {
+        return isValidUser(id, name, password) ? getUser(id) : null;
+    }
+
     /**
      * Prints all the input commands valid for the library.
      **/
     public void printSystemCommands() {
-        System.out.println(
-                "To Search: (search/s), " + "To check user info: (info/i), " + "To Checkout: (checkout/c), " +
-                        "To return book: (return/r)" + "To logout: (logout/l), " + "To quit: (quit/q), ");
+        System.out.println(getSystemCommands());
+    }
+
+    /**
+     * Returns all the input commands valid for the library.
+     **/
+    public String getSystemCommands() {
+        return "To Search: (search/s), " + "To check user info: (info/i), " + "To Checkout: (checkout/c), " +
+                "To return book: (return/r)" + "To logout: (logout/l), " + "To quit: (quit/q), ";
     }
 
     /**
@@ -379,7 +1473,7 @@ public class LibraryManager {
         String[] dataParts;
 
         while (sc.hasNext()) {
-            dataParts = sc.nextLine().split(" - ");
+            dataParts = fieldSeparator.split(sc.nextLine());
 
             if (dataType.equals("Books")) {
                 addBook(dataParts[0], dataParts[1], dataParts[2], Integer.parseInt(dataParts[3]));
@@ -390,153 +1484,4 @@ public class LibraryManager {
             }
         }
     }
-
-    public void startLibrary() {
-        Scanner sc = new Scanner(System.in);
-        boolean run = true;
-        String userInput;
-
-        User currentUser = getLoginInfo(sc);
-
-        while (run) {
-            while (currentUser == null)
-                currentUser = getLoginInfo(sc);
-
-            printSystemCommands();
-            userInput = sc.nextLine().toLowerCase().strip();
-
-            if (userInput.equals("logout") || userInput.equals("l"))
-                currentUser = null;
-
-            if (userInput.equals("q") || userInput.equals("quit"))
-                run = false;
-
-            switch (userInput) {
-                case "search":
-                case "s":
-                    searchLibrary(sc);
-                    break;
-                case "checkout":
-                case "c":
-                    if (currentUser.canCheckOutMoreBooks()) {
-                        System.out.println("What book would you like to check out? (enter the book title)");
-                        userInput = sc.nextLine().strip();
-                        checkOutBook(currentUser, userInput);
-                    } else {
-                        System.out.println("You've reached your check out limit please return a book to check out another.");
-                    }
-                    break;
-                case "info":
-                case "i":
-                    userInfo(sc, currentUser);
-                    break;
-                case "return":
-                case "r":
-                    System.out.println("What is the title of the book you would like to return?");
-                    userInput = sc.nextLine().toLowerCase().strip();
-                    returnBook(currentUser, userInput);
-            }
-        }
-    }
-
-    /**
-     * Prompt the user to login or create new user account.
-     **/
-    public User getLoginInfo(Scanner sc) {
-        String name, id = null, password, createUser;
-        boolean createNewUser;
-
-        while (true) {
-            do {
-                System.out.println("Would you like to create a new user? (y/n)");
-                createUser = sc.nextLine().toLowerCase();
-            } while (!createUser.equals("y") && !createUser.equals("n"));
-
-            createNewUser = createUser.equals("y");
-
-            if (createNewUser)
-                System.out.println("Attempting to create new user.");
-
-            System.out.println("Please enter your name.");
-            name = sc.nextLine().strip();
-
-            if (!createNewUser) {
-                System.out.println("Please enter your id.");
-                id = sc.nextLine().strip();
-            }
-
-            System.out.println("Please enter your password.");
-            password = sc.nextLine().strip();
-
-            boolean isValidPassword = password.length() >= 6 && password.length() <= 20;
-
-            if (createNewUser && isValidPassword) {
-                User newUser = new User(name, password);
-                System.out.println("Successfully Created new user. Your id is: " + newUser.getId() + "\n");
-                userMap.put(newUser.getId(), newUser);
-                return null;
-            }
-
-            if (isValidUser(id, name, password)) // Correct login info entered
-                return userMap.get(id);
-
-            System.out.println("Invalid login information!\n");
-        }
-    }
-
-
-    /**
-     * Search the library for info based on user input.
-     * b - books (t - by title, g - by genre)
-     * a - author by name
-     **/
-    public void searchLibrary(Scanner sc) {
-        String userInput;
-
-        do {
-            System.out.println("Would you like to search for an author or a book? (a/b)");
-            userInput = sc.nextLine().toLowerCase().strip();
-        } while (!userInput.equals("a") && !userInput.equals("b"));
-
-        if (userInput.equals("a")) {
-            System.out.println("Enter name of author to search for.");
-            userInput = sc.nextLine().strip();
-            System.out.println(getAuthorByName(userInput));
-        } else {
-            do {
-                System.out.println("Would you like to search for book by title or genre? (t/g)");
-                userInput = sc.nextLine().toLowerCase().strip();
-            } while (!userInput.equals("t") && !userInput.equals("g"));
-
-            if (userInput.equals("t")) {
-                System.out.println("Enter the tile of the book you want to search for.");
-                userInput = sc.nextLine().toLowerCase().strip();
-                System.out.println(getBookByTitle(userInput));
-            } else {
-                System.out.println("Enter the genre you're looking for");
-                userInput = sc.nextLine().toLowerCase().strip();
-                System.out.println(findBooksByGenre(userInput));
-            }
-        }
-    }
-
-    /**
-     * Based on user input gives information about the user.
-     * i - returns string representation of current user
-     * b - returns all books user currently has checked out
-     **/
-    public void userInfo(Scanner sc, User currentUser) {
-        String userInput;
-
-        do {
-            System.out.println("What would you like to look up? (i: info, b: books checked out)");
-            userInput = sc.nextLine().toLowerCase().strip();
-        } while (!userInput.equals("b") && !userInput.equals("i"));
-
-        if (userInput.equals("i")) {
-            System.out.println(currentUser);
-        } else {
-            System.out.println(currentUser.getBooksCheckedOut());
-        }
-    }
-}
\ No newline at end of file
+}
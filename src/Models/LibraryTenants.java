@@ -0,0 +1,84 @@
+package Models;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hosts many independent libraries (tenants) in one JVM, each its own LibraryManager with its own
+ * books, authors, users and loans, and its own TenantQuota. Tenant libraries are built small (small
+ * caches and buffers, no background threads of their own) so thousands of them fit. Their loans all
+ * reach their recommenders on one shared thread (see TenantLoanFeed). Titles, author names and
+ * genres they have in common are stored once for the whole JVM (see StringHelpers.share).
+ * Safe to use from any thread.
+ **/
+public class LibraryTenants {
+    private final ConcurrentHashMap<String, LibraryManager> tenants;
+    private final TenantQuota defaultQuota;
+
+    public LibraryTenants() {
+        this(TenantQuota.defaultQuota);
+    }
+
+    public LibraryTenants(TenantQuota defaultQuota) {
+        this.tenants = new ConcurrentHashMap<>();
+        this.defaultQuota = defaultQuota;
+    }
+
+    /**
+     * Returns the tenant's library, creating an empty one with the default quota if there isn't one
+     **/
+    public LibraryManager getOrCreate(String tenantId) {
+        return getOrCreate(tenantId, defaultQuota);
+    }
+
+    /**
+     * Returns the tenant's library, creating an empty one with the given quota if there isn't one
+     **/
+    public LibraryManager getOrCreate(String tenantId, TenantQuota quota) {
+        if (tenantId == null || quota == null)
+            throw new IllegalArgumentException("Tenant id and quota can't be null");
+
+        return tenants.computeIfAbsent(tenantId, id -> new LibraryManager(id, quota));
+    }
+
+    /**
+     * Returns the tenant's library, or null if there isn't one
+     **/
+    public LibraryManager get(String tenantId) {
+        return (tenantId == null) ? null : tenants.get(tenantId);
+    }
+
+    /**
+     * Removes the tenant's library and stops its event subscribers. Returns false if there wasn't one.
+     **/
+    public boolean remove(String tenantId) {
+        LibraryManager removed = (tenantId == null) ? null : tenants.remove(tenantId);
+
+        if (removed == null)
+            return false;
+
+        removed.getEventBus().close();
+        return true;
+    }
+
+    public int size() {
+        return tenants.size();
+    }
+
+    public List<String> getTenantIds() {
+        return new ArrayList<>(tenants.keySet());
+    }
+
+    /**
+     * Sum of every tenant's estimated memory use, in bytes
+     **/
+    public long getEstimatedMemoryBytes() {
+        long total = 0;
+
+        for (LibraryManager tenant : tenants.values())
+            total += tenant.getEstimatedMemoryBytes();
+
+        return total;
+    }
+}
@@ -0,0 +1,155 @@
+package Models;
+
+import Helpers.NameDictionary;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Every loan ever made, kept compactly: titles and users are numbered once, and each loan is a
+ * (user #, title #, time) entry in three primitive arrays, 16 bytes per loan.
+ * Also keeps the distinct titles each user has borrowed, in the order first borrowed.
+ * NOTE: not thread safe, CoCheckoutRecommender guards it.
+ **/
+public class LoanHistory {
+    // Titles and users are never removed, so their ids are 0, 1, 2 ... in the order first seen
+    private final NameDictionary titles;
+    private final NameDictionary users;
+    private final ArrayList<IntList> titlesByUser;
+
+    private int[] loanUsers;
+    private int[] loanTitles;
+    private long[] loanTimes;
+    private int size;
+    // # of distinct (user, title) pairs, for getMemoryBytes
+    private int borrowedCount;
+
+    public LoanHistory() {
+        titles = new NameDictionary();
+        users = new NameDictionary();
+        titlesByUser = new ArrayList<>();
+        loanUsers = new int[64];
+        loanTitles = new int[64];
+        loanTimes = new long[64];
+    }
+
+    /**
+     * Records that the user checked out the title at the given time (ms since the epoch).
+     * Returns true if it's the first time the user borrowed the title.
+     **/
+    public boolean record(String userId, String title, long timestamp) {
+        int user = users.idOf(userId);
+        int titleId = titles.idOf(title);
+
+        if (user == titlesByUser.size())
+            titlesByUser.add(new IntList());
+
+        if (size == loanUsers.length) {
+            loanUsers = Arrays.copyOf(loanUsers, size * 2);
+            loanTitles = Arrays.copyOf(loanTitles, size * 2);
+            loanTimes = Arrays.copyOf(loanTimes, size * 2);
+        }
+
+        loanUsers[size] = user;
+        loanTitles[size] = titleId;
+        loanTimes[size] = timestamp;
+        size++;
+
+        IntList borrowed = titlesByUser.get(user);
+
+        if (borrowed.contains(titleId))
+            return false;
+
+        borrowed.add(titleId);
+        borrowedCount++;
+        return true;
+    }
+
+    /**
+     * # of loans recorded
+     **/
+    public int size() {
+        return size;
+    }
+
+    public int getTitleCount() {
+        return titles.size();
+    }
+
+    /**
+     * Returns the title's # or -1 if it's never been borrowed
+     **/
+    public int getTitleId(String title) {
+        return titles.lookup(title);
+    }
+
+    public String getTitle(int titleId) {
+        return titles.nameOf(titleId);
+    }
+
+    /**
+     * Title # of the i-th loan (0 is the oldest)
+     **/
+    public int getLoanTitleId(int loan) {
+        return loanTitles[loan];
+    }
+
+    /**
+     * Time of the i-th loan (0 is the oldest), in ms since the epoch
+     **/
+    public long getLoanTime(int loan) {
+        return loanTimes[loan];
+    }
+
+    /**
+     * Returns the #s of the distinct titles the user has borrowed, in the order first borrowed
+     **/
+    public int[] getTitleIdsBorrowedBy(String userId) {
+        int user = users.lookup(userId);
+        return (user < 0) ? new int[0] : titlesByUser.get(user).toArray();
+    }
+
+    /**
+     * Approximate bytes used by the loan arrays
+     **/
+    public long getLoanMemoryBytes() {
+        return (long) loanUsers.length * (Integer.BYTES * 2 + Long.BYTES);
+    }
+
+    /**
+     * Approximate heap taken by the history: the loan arrays, each user's borrowed titles and the
+     * title and user dictionaries
+     **/
+    public long getMemoryBytes() {
+        return getLoanMemoryBytes() + titlesByUser.size() * 64L + borrowedCount * (long) Integer.BYTES +
+                titles.getMemoryBytes() + users.getMemoryBytes();
+    }
+
+    /**
+     * Growable array of ints, in the order added (a user borrows few distinct titles, so contains scans it)
+     **/
+    private static class IntList {
+        private int[] items = new int[4];
+        private int size;
+
+        void add(int item) {
+            if (size == items.length)
+                items = Arrays.copyOf(items, size * 2);
+
+            items[size++] = item;
+        }
+
+        boolean contains(int item) {
+            for (int i = 0; i < size; i++) {
+                if (items[i] == item)
+                    return true;
+            }
+
+            return false;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(items, size);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package Models;
+
+import Helpers.StringHelpers;
+
+/**
+ * Outcome of checking out or returning a book.
+ **/
+public enum LoanStatus {
+    SUCCESS,
+    INVALID_REQUEST,
+    LIMIT_REACHED,
+    ALREADY_CHECKED_OUT,
+    UNAVAILABLE,
+    NOT_CHECKED_OUT,
+    NOT_IN_LIBRARY,
+    RATE_LIMITED,
+    LIBRARY_FULL;
+
+    /**
+     * Returns the message to show a library user for this outcome, for the book with the given title
+     **/
+    public String getMessage(String title) {
+        title = StringHelpers.makeTitleCase(title);
+
+        switch (this) {
+            case SUCCESS:
+                return "Done: " + title + "\n";
+            case LIMIT_REACHED:
+                return "Sorry, you have reached your checkout limit. Please return a book to check out another.\n";
+            case ALREADY_CHECKED_OUT:
+                return "You already have the book: " + title + " checked out.\n";
+            case UNAVAILABLE:
+                return "Sorry the book: " + title + " is currently unavailable for checkout.\n";
+            case NOT_CHECKED_OUT:
+                return "You didn't check out the book: " + title + "!\n";
+            case NOT_IN_LIBRARY:
+                return "The book: " + title + " is not from this library!\n";
+            case RATE_LIMITED:
+                return "Too many checkouts, please wait a moment and try again.\n";
+            case LIBRARY_FULL:
+                return "Sorry, this library can't lend any more books right now.\n";
+            default:
+                return "Invalid request.\n";
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package Models;
+
+import Helpers.SpaceSavingTopK;
+
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * Which titles and genres are popular right now, from title lookups and checkouts.
+ * A checkout counts as 2 lookups. Counts halve every halfLifeMillis, and memory stays the same
+ * however big the catalog gets. Recording is lock-free.
+ **/
+public class PopularityTracker {
+    private static final int checkoutWeight = 2;
+
+    private final SpaceSavingTopK<String> titles;
+    private final SpaceSavingTopK<String> genres;
+
+    /**
+     * Tracks up to capacity candidate titles and capacity candidate genres
+     **/
+    public PopularityTracker(int capacity, long halfLifeMillis) {
+        this(capacity, halfLifeMillis, System::nanoTime);
+    }
+
+    /**
+     * Both sketches decay by nanoClock (see SpaceSavingTopK)
+     **/
+    public PopularityTracker(int capacity, long halfLifeMillis, LongSupplier nanoClock) {
+        titles = new SpaceSavingTopK<>(capacity, halfLifeMillis, nanoClock);
+        genres = new SpaceSavingTopK<>(capacity, halfLifeMillis, nanoClock);
+    }
+
+    public void recordLookup(Book book) {
+        record(book, 1);
+    }
+
+    public void recordCheckout(Book book) {
+        record(book, checkoutWeight);
+    }
+
+    /**
+     * Returns up to k of the most popular titles, most popular first
+     **/
+    public List<String> getTrendingTitles(int k) {
+        return titles.getTop(k);
+    }
+
+    /**
+     * Returns up to k of the most popular genres, most popular first
+     **/
+    public List<String> getTrendingGenres(int k) {
+        return genres.getTop(k);
+    }
+
+    public long getMemoryBytes() {
+        return titles.getMemoryBytes() + genres.getMemoryBytes();
+    }
+
+    private void record(Book book, int weight) {
+        titles.add(book.getTitle(), weight);
+
+        for (String genre : book.getGenreSet())
+            genres.add(genre, weight);
+    }
+}
@@ -0,0 +1,151 @@
+package Models;
+
+import java.util.*;
+
+/**
+ * Runs CatalogQuery searches. Every filter that has an index (title prefix, genre, author, author
+ * birth date) can supply the candidate titles; the planner estimates how many candidates each would
+ * give, walks the smallest set in title order from the cursor on and checks the rest of the
+ * filters on each candidate, stopping as soon as the page is full.
+ * NOTE: not thread safe, LibraryManager only calls it while holding its lock.
+ **/
+public class QueryPlanner {
+    public enum Index {ALL_TITLES, TITLE_PREFIX, GENRE, AUTHOR, AUTHOR_BIRTH_DATE}
+
+    private final Map<String, Book> books;
+    private final Map<String, Author> authors;
+    private final TitleIndex titleIndex;
+    private final CatalogGraph catalogGraph;
+    private final AuthorDateIndex authorDateIndex;
+
+    public QueryPlanner(Map<String, Book> books, Map<String, Author> authors, TitleIndex titleIndex,
+                        CatalogGraph catalogGraph, AuthorDateIndex authorDateIndex) {
+        this.books = books;
+        this.authors = authors;
+        this.titleIndex = titleIndex;
+        this.catalogGraph = catalogGraph;
+        this.authorDateIndex = authorDateIndex;
+    }
+
+    /**
+     * Returns the next page of books matching the query
+     **/
+    public CatalogPage run(CatalogQuery query) {
+        Index index = chooseIndex(query);
+        NavigableSet<String> candidates = getCandidates(index, query);
+
+        if (query.getSortOrder() == CatalogQuery.SortOrder.TITLE_DESCENDING)
+            candidates = candidates.descendingSet();
+
+        if (query.getAfter() != null)
+            candidates = candidates.tailSet(query.getAfter(), false);
+
+        List<CatalogSnapshot.BookInfo> page = new ArrayList<>(Math.min(query.getPageSize(), 64));
+        String lastTitle = null;
+        boolean hasMore = false;
+        int scanned = 0;
+
+        for (String title : candidates) {
+            Book book = books.get(title);
+            scanned++;
+
+            if (book == null || !query.matches(book, authors))
+                continue;
+
+            if (page.size() == query.getPageSize()) {
+                hasMore = true;
+                break;
+            }
+
+            page.add(new CatalogSnapshot.BookInfo(book));
+            lastTitle = title;
+        }
+
+        return new CatalogPage(page, hasMore ? CatalogQuery.encodeCursor(lastTitle) : null, index, scanned);
+    }
+
+    /**
+     * Returns the index that gives the fewest candidates for the query. Counting stops once
+     * an index is known to give more than the best so far.
+     **/
+    Index chooseIndex(CatalogQuery query) {
+        Index best = Index.ALL_TITLES;
+        int bestCount = titleIndex.size();
+
+        if (query.getGenre() != null) {
+            int count = titleIndex.getTitlesInGenre(query.getGenre()).size();
+
+            if (count < bestCount) {
+                best = Index.GENRE;
+                bestCount = count;
+            }
+        }
+
+        if (query.getAuthor() != null) {
+            int count = catalogGraph.getBooksOf(query.getAuthor()).size();
+
+            if (count < bestCount) {
+                best = Index.AUTHOR;
+                bestCount = count;
+            }
+        }
+
+        if (query.getTitlePrefix() != null) {
+            int count = countUpTo(titleIndex.getTitlesStartingWith(query.getTitlePrefix()), bestCount);
+
+            if (count < bestCount) {
+                best = Index.TITLE_PREFIX;
+                bestCount = count;
+            }
+        }
+
+        if (query.hasBirthDateRange()) {
+            int count = 0;
+
+            for (String name : authorDateIndex.getAuthorsBornBetween(query.getBornFrom(), query.getBornTo())) {
+                count += catalogGraph.getBooksOf(name).size();
+
+                if (count >= bestCount)
+                    break;
+            }
+
+            if (count < bestCount)
+                best = Index.AUTHOR_BIRTH_DATE;
+        }
+
+        return best;
+    }
+
+    /**
+     * Candidate titles from the index, sorted. Indexes that aren't kept sorted (author, birth date)
+     * are only picked when they give few candidates, so sorting those is cheap.
+     **/
+    private NavigableSet<String> getCandidates(Index index, CatalogQuery query) {
+        switch (index) {
+            case TITLE_PREFIX:
+                return titleIndex.getTitlesStartingWith(query.getTitlePrefix());
+            case GENRE:
+                return titleIndex.getTitlesInGenre(query.getGenre());
+            case AUTHOR:
+                return new TreeSet<>(catalogGraph.getBooksOf(query.getAuthor()));
+            case AUTHOR_BIRTH_DATE:
+                TreeSet<String> titles = new TreeSet<>();
+
+                for (String name : authorDateIndex.getAuthorsBornBetween(query.getBornFrom(), query.getBornTo()))
+                    titles.addAll(catalogGraph.getBooksOf(name));
+
+                return titles;
+            default:
+                return titleIndex.getTitles();
+        }
+    }
+
+    private static int countUpTo(Iterable<String> titles, int limit) {
+        int count = 0;
+
+        for (Iterator<String> it = titles.iterator(); it.hasNext() && count < limit; it.next())
+            count++;
+
+        return count;
+    }
+}
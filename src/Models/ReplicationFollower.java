@@ -0,0 +1,149 @@
+package Models;
+
+import java.io.*;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps a library a hot standby of a leader library (see ReplicationLeader): loads the leader's snapshot,
+ * then makes every change the leader makes, in order. The library should be empty when the follower starts
+ * and only read from while it follows (getBookByTitle, findBooksByGenre, getAuthorByName, ...).
+ * If the leader goes away the library keeps everything it had, so it can be exported and take over.
+ **/
+public class ReplicationFollower implements AutoCloseable {
+    private static final int bufferBytes = 64 * 1024;
+
+    private final LibraryManager manager;
+    private final String host;
+    private final int port;
+    private Socket socket;
+    private Thread thread;
+    private volatile boolean connected;
+    private volatile long appliedSequence;
+    private volatile long leaderSequence;
+    private volatile long lagMillis;
+
+    public ReplicationFollower(LibraryManager manager, String host, int port) {
+        this.manager = manager;
+        this.host = host;
+        this.port = port;
+    }
+
+    /**
+     * Connects to the leader and loads its snapshot, then applies its changes on another thread.
+     * Returns false (and prints why) if the leader couldn't be reached.
+     **/
+    public boolean start() {
+        try {
+            socket = new Socket(host, port);
+            socket.setTcpNoDelay(true);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream(), bufferBytes));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+
+            if (in.readByte() != ReplicationProtocol.snapshotFrame)
+                throw new IOException("Expected a snapshot");
+
+            List<CatalogSnapshot> snapshot = new ArrayList<>(1);
+            long sequence = ReplicationProtocol.readSnapshot(in, snapshot);
+            manager.restore(snapshot.get(0));
+            appliedSequence = sequence;
+            leaderSequence = sequence;
+            connected = true;
+
+            thread = new Thread(() -> follow(in, out), "replication-follower");
+            thread.setDaemon(true);
+            thread.start();
+            return true;
+        } catch (IOException e) {
+            System.out.println("Replication: couldn't follow " + host + ":" + port + " (" + e.getMessage() + ")");
+            close();
+            return false;
+        }
+    }
+
+    /**
+     * Applies batches until the leader goes away, acking each one
+     **/
+    private void follow(DataInputStream in, DataOutputStream out) {
+        try {
+            while (true) {
+                if (in.readByte() != ReplicationProtocol.batchFrame)
+                    throw new IOException("Expected a batch");
+
+                long firstSequence = in.readLong();
+                List<LibraryEvent> events = ReplicationProtocol.readBatch(in);
+
+                if (firstSequence != appliedSequence + 1)
+                    throw new IOException("Missed changes " + (appliedSequence + 1) + " to " + (firstSequence - 1));
+
+                leaderSequence = firstSequence + events.size() - 1;
+                manager.applyReplicated(events);
+                appliedSequence = leaderSequence;
+                lagMillis = Math.max(0, System.currentTimeMillis() - events.get(events.size() - 1).getTimestamp());
+
+                // Acked once nothing else is waiting to be read, so a backlog is applied without a flush per batch
+                out.writeLong(appliedSequence);
+
+                if (in.available() == 0)
+                    out.flush();
+            }
+        } catch (IOException e) {
+            if (connected) {
+                String reason = (e instanceof EOFException) ? "the leader is gone" : e.getMessage();
+                System.out.println("Replication: stopped following " + host + ":" + port + " (" + reason + ")");
+            }
+        } finally {
+            connected = false;
+        }
+    }
+
+    /**
+     * False once the leader went away (or close was called)
+     **/
+    public boolean isConnected() {
+        return connected;
+    }
+
+    /**
+     * Sequence # of the last of the leader's changes made here
+     **/
+    public long getAppliedSequence() {
+        return appliedSequence;
+    }
+
+    /**
+     * Sequence # of the last change received from the leader
+     **/
+    public long getLeaderSequence() {
+        return leaderSequence;
+    }
+
+    /**
+     * # of changes received from the leader that aren't made here yet. See ReplicationLeader.getMaxLagEvents
+     * for the changes the leader made that weren't received yet.
+     **/
+    public long getLagEvents() {
+        return leaderSequence - appliedSequence;
+    }
+
+    /**
+     * Time from the leader making the last change applied to it being made here
+     **/
+    public long getLagMillis() {
+        return lagMillis;
+    }
+
+    /**
+     * Stops following. The library keeps what it has.
+     **/
+    public void close() {
+        connected = false;
+
+        try {
+            if (socket != null)
+                socket.close();
+        } catch (IOException ignored) {
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package Models;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Ships every change made to the library to hot standby followers (ReplicationFollower) over TCP,
+ * on loopback by default. A follower that connects gets a snapshot of the library, then every change
+ * made after it, in order. Changes are taken off the library's EventBus in batches and each batch is
+ * one write to each follower; the leader never waits for a follower to apply a batch before sending
+ * the next. Followers send back the sequence # they've applied, which gives the lag of each follower.
+ * While the leader runs the bus is set to BLOCK so no change is ever dropped, so a follower that stops
+ * reading eventually holds up changes to the library. Followers that disconnect are dropped.
+ **/
+public class ReplicationLeader implements AutoCloseable {
+    private static final int maxBatchSize = 1024;
+    private static final int bufferBytes = 64 * 1024;
+
+    private final LibraryManager manager;
+    private final ServerSocket serverSocket;
+    private final CopyOnWriteArrayList<Follower> followers;
+    private final EventBus.Subscription subscription;
+    private final Thread acceptThread;
+    private final EventBus.OverflowPolicy overflowPolicy;
+    // Events published on the bus before the leader started, sequence #s count from there
+    private final long publishedBefore;
+    // Sequence # of the last change shipped, only changed by the subscriber thread
+    private volatile long lastSequence;
+    private volatile boolean running;
+
+    /**
+     * Starts shipping the library's changes and accepting followers on the port (0 picks a free port)
+     * of the loopback address
+     **/
+    public ReplicationLeader(LibraryManager manager, int port) throws IOException {
+        this(manager, InetAddress.getLoopbackAddress(), port);
+    }
+
+    public ReplicationLeader(LibraryManager manager, InetAddress address, int port) throws IOException {
+        this.manager = manager;
+        this.serverSocket = new ServerSocket(port, 50, address);
+        this.followers = new CopyOnWriteArrayList<>();
+        this.running = true;
+
+        synchronized (manager) {
+            manager.setReplicating(true);
+            this.overflowPolicy = manager.getEventBus().getOverflowPolicy();
+            manager.getEventBus().setOverflowPolicy(EventBus.OverflowPolicy.BLOCK, 0);
+            this.publishedBefore = manager.getEventBus().getPublishedCount();
+            this.subscription = manager.getEventBus().subscribe("replication", this::ship, maxBatchSize);
+        }
+
+        this.acceptThread = new Thread(this::acceptFollowers, "replication-accept");
+        this.acceptThread.setDaemon(true);
+        this.acceptThread.start();
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Sequence # of the last change shipped to followers
+     **/
+    public long getLastSequence() {
+        return lastSequence;
+    }
+
+    public int getFollowerCount() {
+        return followers.size();
+    }
+
+    /**
+     * # of changes made that the follower furthest behind hasn't applied yet (0 with no followers)
+     **/
+    public long getMaxLagEvents() {
+        long lastChange = manager.getEventBus().getPublishedCount() - publishedBefore;
+        long lag = 0;
+
+        for (Follower follower : followers)
+            lag = Math.max(lag, lastChange - follower.appliedSequence);
+
+        return lag;
+    }
+
+    /**
+     * Stops accepting followers and disconnects the ones connected. The library keeps running.
+     **/
+    public void close() {
+        if (!running)
+            return;
+
+        running = false;
+
+        try {
+            serverSocket.close();
+        } catch (IOException ignored) {
+        }
+
+        // Closing the sockets first unblocks the subscriber if it's stuck writing to a follower
+        for (Follower follower : followers)
+            follower.close();
+
+        subscription.close();
+        manager.getEventBus().setOverflowPolicy(overflowPolicy, 0);
+        manager.setReplicating(false);
+    }
+
+    /**
+     * Sends the batch to every follower, skipping changes a follower's snapshot already had
+     **/
+    private void ship(List<LibraryEvent> batch) {
+        long firstSequence = lastSequence + 1;
+        lastSequence += batch.size();
+
+        for (Follower follower : followers)
+            follower.send(firstSequence, batch);
+    }
+
+    private void acceptFollowers() {
+        while (running) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                Follower follower = new Follower(socket);
+
+                // Nothing changes while the snapshot is taken, so its sequence # is exact. Changes made
+                // after it are queued for the follower until the snapshot is sent.
+                CatalogSnapshot snapshot;
+                long snapshotSequence;
+
+                synchronized (manager) {
+                    snapshot = manager.takeSnapshot();
+                    snapshotSequence = manager.getEventBus().getPublishedCount() - publishedBefore;
+                    follower.appliedSequence = snapshotSequence;
+                    followers.add(follower);
+                }
+
+                follower.start(snapshot, snapshotSequence);
+            } catch (IOException e) {
+                if (running)
+                    System.out.println("Replication: couldn't add a follower (" + e.getMessage() + ")");
+            }
+        }
+    }
+
+    /**
+     * One connected follower
+     **/
+    private class Follower {
+        private final Socket socket;
+        private final DataOutputStream out;
+        // Batches shipped while the snapshot was being sent
+        private final List<QueuedBatch> queued;
+        private boolean live;
+        private long sentSequence;
+        private volatile long appliedSequence;
+
+        Follower(Socket socket) throws IOException {
+            this.socket = socket;
+            this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), bufferBytes));
+            this.queued = new ArrayList<>();
+        }
+
+        /**
+         * Sends the snapshot, then the changes queued meanwhile, then reads acks on its own thread
+         **/
+        void start(CatalogSnapshot snapshot, long snapshotSequence) {
+            try {
+                ReplicationProtocol.writeSnapshot(out, snapshot, snapshotSequence);
+                out.flush();
+
+                synchronized (this) {
+                    sentSequence = snapshotSequence;
+
+                    for (QueuedBatch batch : queued)
+                        write(batch.firstSequence, batch.events);
+
+                    queued.clear();
+                    live = true;
+                    out.flush();
+                }
+            } catch (IOException e) {
+                close();
+                return;
+            }
+
+            Thread acks = new Thread(this::readAcks, "replication-acks");
+            acks.setDaemon(true);
+            acks.start();
+        }
+
+        synchronized void send(long firstSequence, List<LibraryEvent> batch) {
+            if (!live) {
+                // The bus reuses the list it hands out
+                queued.add(new QueuedBatch(firstSequence, new ArrayList<>(batch)));
+                return;
+            }
+
+            try {
+                write(firstSequence, batch);
+                out.flush();
+            } catch (IOException e) {
+                close();
+            }
+        }
+
+        /**
+         * Writes the part of the batch the follower doesn't have yet
+         **/
+        private void write(long firstSequence, List<LibraryEvent> batch) throws IOException {
+            int skip = (int) Math.max(0, Math.min(batch.size(), sentSequence + 1 - firstSequence));
+
+            if (skip == batch.size())
+                return;
+
+            ReplicationProtocol.writeBatch(out, firstSequence + skip, batch.subList(skip, batch.size()));
+            sentSequence = firstSequence + batch.size() - 1;
+        }
+
+        private void readAcks() {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()))) {
+                while (true)
+                    appliedSequence = in.readLong();
+            } catch (IOException e) {
+                close();
+            }
+        }
+
+        void close() {
+            followers.remove(this);
+
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    /**
+     * A batch of changes waiting for the follower's snapshot to be sent, and the sequence # of its first change
+     **/
+    private static class QueuedBatch {
+        final long firstSequence;
+        final List<LibraryEvent> events;
+
+        QueuedBatch(long firstSequence, List<LibraryEvent> events) {
+            this.firstSequence = firstSequence;
+            this.events = events;
+        }
+    }
+}
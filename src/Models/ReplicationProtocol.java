@@ -0,0 +1,166 @@
+package Models;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * What leaders and followers send each other (see ReplicationLeader).
+ * Leader -> follower: one SNAPSHOT frame, then BATCH frames. Follower -> leader: the sequence # it has applied, after each batch.
+ * SNAPSHOT: 'S', sequence # of the last change it includes, # of books, each book (title, # of authors, authors,
+ * # of genres, genres, total copies), # of authors, each author (name, birth epoch day), # of users, each user
+ * (id, name, password, checkout limit, # of loans, each loan (title, copy #))
+ * BATCH: 'B', sequence # of its first event, # of events, each event (type, timestamp, user id, title, name,
+ * authors, genres, birth date, copies, barcode, password). Strings can be null.
+ **/
+class ReplicationProtocol {
+    static final byte snapshotFrame = 'S';
+    static final byte batchFrame = 'B';
+
+    private ReplicationProtocol() {
+    }
+
+    static void writeSnapshot(DataOutputStream out, CatalogSnapshot snapshot, long sequence) throws IOException {
+        out.writeByte(snapshotFrame);
+        out.writeLong(sequence);
+        out.writeInt(snapshot.getBooks().size());
+
+        for (CatalogSnapshot.BookInfo book : snapshot.getBooks()) {
+            writeString(out, book.getTitle());
+            writeStrings(out, book.getAuthors());
+            writeStrings(out, book.getGenres());
+            out.writeInt(book.getTotalCopies());
+        }
+
+        out.writeInt(snapshot.getAuthors().size());
+
+        for (CatalogSnapshot.AuthorInfo author : snapshot.getAuthors()) {
+            writeString(out, author.getName());
+            out.writeInt(author.getBirthEpochDay());
+        }
+
+        out.writeInt(snapshot.getUsers().size());
+
+        for (CatalogSnapshot.UserInfo user : snapshot.getUsers()) {
+            writeString(out, user.getId());
+            writeString(out, user.getName());
+            writeString(out, user.getPassword());
+            out.writeInt(user.getCheckOutLimit());
+            out.writeInt(user.getBooksCheckedOut().size());
+
+            for (int i = 0; i < user.getBooksCheckedOut().size(); i++) {
+                writeString(out, user.getBooksCheckedOut().get(i));
+                out.writeInt(user.getCopyNumbers().get(i));
+            }
+        }
+    }
+
+    /**
+     * Reads a SNAPSHOT frame (after its frame byte) into the snapshot list, returns its sequence #
+     **/
+    static long readSnapshot(DataInputStream in, List<CatalogSnapshot> snapshot) throws IOException {
+        long sequence = in.readLong();
+        List<CatalogSnapshot.BookInfo> books = new ArrayList<>();
+        List<CatalogSnapshot.AuthorInfo> authors = new ArrayList<>();
+        List<CatalogSnapshot.UserInfo> users = new ArrayList<>();
+
+        for (int i = in.readInt(); i > 0; i--) {
+            String title = readString(in);
+            List<String> bookAuthors = readStrings(in);
+            List<String> genres = readStrings(in);
+            int copies = in.readInt();
+            books.add(new CatalogSnapshot.BookInfo(title, bookAuthors, genres, copies, copies));
+        }
+
+        for (int i = in.readInt(); i > 0; i--)
+            authors.add(new CatalogSnapshot.AuthorInfo(readString(in), in.readInt()));
+
+        for (int i = in.readInt(); i > 0; i--) {
+            String id = readString(in), name = readString(in), password = readString(in);
+            int checkOutLimit = in.readInt();
+            List<String> titles = new ArrayList<>();
+            List<Integer> copyNumbers = new ArrayList<>();
+
+            for (int loan = in.readInt(); loan > 0; loan--) {
+                titles.add(readString(in));
+                copyNumbers.add(in.readInt());
+            }
+
+            users.add(new CatalogSnapshot.UserInfo(id, name, password, checkOutLimit, titles, copyNumbers));
+        }
+
+        snapshot.add(new CatalogSnapshot(books, authors, users));
+        return sequence;
+    }
+
+    static void writeBatch(DataOutputStream out, long firstSequence, List<LibraryEvent> events) throws IOException {
+        out.writeByte(batchFrame);
+        out.writeLong(firstSequence);
+        out.writeInt(events.size());
+
+        for (LibraryEvent event : events) {
+            out.writeByte(event.getType().ordinal());
+            out.writeLong(event.getTimestamp());
+            writeString(out, event.getUserId());
+            writeString(out, event.getTitle());
+            writeString(out, event.getName());
+            writeString(out, event.getAuthors());
+            writeString(out, event.getGenres());
+            writeString(out, event.getBirthDate());
+            out.writeInt(event.getCopies());
+            writeString(out, event.getBarcode());
+            writeString(out, event.getPassword());
+        }
+    }
+
+    /**
+     * Reads the events of a BATCH frame (after its frame byte and first sequence #)
+     **/
+    static List<LibraryEvent> readBatch(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        List<LibraryEvent> events = new ArrayList<>(count);
+        LibraryEvent.Type[] types = LibraryEvent.Type.values();
+
+        for (int i = 0; i < count; i++) {
+            int type = in.readUnsignedByte();
+
+            if (type >= types.length)
+                throw new IOException("Unknown event type: " + type);
+
+            // Arguments are read left to right, in the order they were written
+            events.add(new LibraryEvent(types[type], in.readLong(), readString(in), readString(in), readString(in),
+                    readString(in), readString(in), readString(in), in.readInt(), readString(in), readString(in)));
+        }
+
+        return events;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+
+        if (value != null)
+            out.writeUTF(value);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void writeStrings(DataOutputStream out, List<String> values) throws IOException {
+        out.writeInt(values.size());
+
+        for (String value : values)
+            writeString(out, value);
+    }
+
+    private static List<String> readStrings(DataInputStream in) throws IOException {
+        List<String> values = new ArrayList<>();
+
+        for (int i = in.readInt(); i > 0; i--)
+            values.add(readString(in));
+
+        return values;
+    }
+}
@@ -0,0 +1,294 @@
+package Models;
+
+import Helpers.IntObjectMap;
+import Helpers.NameDictionary;
+
+import java.util.*;
+
+/**
+ * In memory inverted index over the books of the library. Every book is a document made up of
+ * its title, author names and genres. Documents are ranked with BM25 and the index is updated
+ * one book at a time (index/remove) so it never has to be rebuilt.
+ * Query format: free words and "quoted phrases" (Ex: fiction "red fern")
+ **/
+public class SearchIndex {
+    private static final double k1 = 1.2;
+    private static final double b = 0.75;
+    // Gap between field values so phrases never match across a title/author/genre boundary
+    private static final int fieldGap = 100;
+
+    // Every term indexed gets an id, term id -> (docId -> positions of the term in the doc)
+    private final NameDictionary terms;
+    private final IntObjectMap<IntObjectMap<int[]>> postings;
+    private final IntObjectMap<Document> docs;
+    private final HashMap<String, Integer> titleToDocId;
+    private long totalDocLength;
+    private int nextDocId;
+
+    public SearchIndex() {
+        terms = new NameDictionary();
+        postings = new IntObjectMap<>();
+        docs = new IntObjectMap<>();
+        titleToDocId = new HashMap<>();
+    }
+
+    /**
+     * A single indexed book. Keeps the ids of its distinct terms so removal only touches its own postings.
+     **/
+    private static class Document {
+        final String title;
+        final int length;
+        final int[] terms;
+
+        Document(String title, int length, int[] terms) {
+            this.title = title;
+            this.length = length;
+            this.terms = terms;
+        }
+    }
+
+    /**
+     * Returns the # of books currently indexed
+     **/
+    public int size() {
+        return docs.size();
+    }
+
+    /**
+     * Adds the book to the index. If the title is already indexed the old entry is replaced.
+     **/
+    public void index(Book book) {
+        if (book == null)
+            return;
+
+        remove(book.getTitle());
+
+        List<String> fields = new ArrayList<>();
+        fields.add(book.getTitle());
+        fields.addAll(book.getAuthorSet());
+        fields.addAll(book.getGenreSet());
+
+        HashMap<String, List<Integer>> termPositions = new HashMap<>();
+        int position = 0, length = 0;
+
+        for (String field : fields) {
+            for (String token : tokenize(field)) {
+                termPositions.computeIfAbsent(token, t -> new ArrayList<>()).add(position++);
+                length++;
+            }
+            position += fieldGap;
+        }
+
+        int docId = nextDocId++;
+        int[] termIds = new int[termPositions.size()];
+        int count = 0;
+
+        for (Map.Entry<String, List<Integer>> entry : termPositions.entrySet()) {
+            int[] positions = entry.getValue().stream().mapToInt(Integer::intValue).toArray();
+            int termId = terms.idOf(entry.getKey());
+            IntObjectMap<int[]> termDocs = postings.get(termId);
+
+            if (termDocs == null)
+                postings.put(termId, termDocs = new IntObjectMap<>());
+
+            termDocs.put(docId, positions);
+            termIds[count++] = termId;
+        }
+
+        docs.put(docId, new Document(book.getTitle(), length, termIds));
+        titleToDocId.put(book.getTitle(), docId);
+        totalDocLength += length;
+    }
+
+    /**
+     * Removes the book with the given title (title case) from the index, if it's indexed.
+     **/
+    public void remove(String title) {
+        Integer docId = titleToDocId.remove(title);
+
+        if (docId == null)
+            return;
+
+        Document doc = docs.remove(docId);
+        totalDocLength -= doc.length;
+
+        for (int termId : doc.terms) {
+            IntObjectMap<int[]> termDocs = postings.get(termId);
+            termDocs.remove(docId);
+
+            if (termDocs.isEmpty()) {
+                postings.remove(termId);
+                terms.remove(terms.nameOf(termId));
+            }
+        }
+    }
+
+    /**
+     * Returns up to limit titles that match every word and phrase of the query,
+     * best match first. Returns an empty list if nothing matches.
+     **/
+    public List<String> search(String query, int limit) {
+        List<String> results = new ArrayList<>();
+
+        if (query == null || limit <= 0 || docs.isEmpty())
+            return results;
+
+        List<List<String>> phrases = new ArrayList<>();
+        List<IntObjectMap<int[]>> queryTerms = new ArrayList<>();
+
+        // Drive the match from the rarest term so only its postings are scanned
+        IntObjectMap<int[]> rarest = null;
+
+        for (String term : parseQuery(query, phrases)) {
+            IntObjectMap<int[]> termDocs = postingsOf(term);
+
+            if (termDocs == null)
+                return results;
+
+            queryTerms.add(termDocs);
+
+            if (rarest == null || termDocs.size() < rarest.size())
+                rarest = termDocs;
+        }
+
+        if (rarest == null)
+            return results;
+
+        double avgDocLength = (double) totalDocLength / docs.size();
+        PriorityQueue<ScoredDoc> topK = new PriorityQueue<>();
+
+        for (int docId : rarest.keys()) {
+            if (!containsAll(docId, queryTerms) || !containsPhrases(docId, phrases))
+                continue;
+
+            double score = score(docId, queryTerms, avgDocLength);
+
+            if (topK.size() < limit) {
+                topK.add(new ScoredDoc(docId, score));
+            } else if (score > topK.peek().score) {
+                topK.poll();
+                topK.add(new ScoredDoc(docId, score));
+            }
+        }
+
+        while (!topK.isEmpty())
+            results.add(docs.get(topK.poll().docId).title);
+
+        Collections.reverse(results);
+        return results;
+    }
+
+    /**
+     * Splits the query into its distinct terms. Quoted phrases are added to phrases,
+     * and their words are also returned as terms.
+     **/
+    private List<String> parseQuery(String query, List<List<String>> phrases) {
+        LinkedHashSet<String> terms = new LinkedHashSet<>();
+        String[] parts = query.split("\"");
+
+        // Odd parts are inside quotes
+        for (int i = 0; i < parts.length; i++) {
+            List<String> tokens = tokenize(parts[i]);
+            terms.addAll(tokens);
+
+            if (i % 2 == 1 && tokens.size() > 1)
+                phrases.add(tokens);
+        }
+
+        return new ArrayList<>(terms);
+    }
+
+    /**
+     * Postings of the term, or null if no doc has it
+     **/
+    private IntObjectMap<int[]> postingsOf(String term) {
+        int termId = terms.lookup(term);
+        return (termId < 0) ? null : postings.get(termId);
+    }
+
+    private boolean containsAll(int docId, List<IntObjectMap<int[]>> queryTerms) {
+        for (IntObjectMap<int[]> termDocs : queryTerms) {
+            if (!termDocs.containsKey(docId))
+                return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns true if every phrase appears in the doc with its words in consecutive positions.
+     **/
+    private boolean containsPhrases(int docId, List<List<String>> phrases) {
+        for (List<String> phrase : phrases) {
+            int[] starts = postingsOf(phrase.get(0)).get(docId);
+            boolean found = false;
+
+            for (int start : starts) {
+                found = true;
+
+                for (int i = 1; i < phrase.size() && found; i++)
+                    found = Arrays.binarySearch(postingsOf(phrase.get(i)).get(docId), start + i) >= 0;
+
+                if (found)
+                    break;
+            }
+
+            if (!found)
+                return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * BM25 score of the doc for the given terms.
+     **/
+    private double score(int docId, List<IntObjectMap<int[]>> queryTerms, double avgDocLength) {
+        int docLength = docs.get(docId).length;
+        double score = 0;
+
+        for (IntObjectMap<int[]> termDocs : queryTerms) {
+            int termFreq = termDocs.get(docId).length;
+            double idf = Math.log(1 + (docs.size() - termDocs.size() + 0.5) / (termDocs.size() + 0.5));
+            double norm = termFreq + k1 * (1 - b + b * docLength / avgDocLength);
+            score += idf * termFreq * (k1 + 1) / norm;
+        }
+
+        return score;
+    }
+
+    /**
+     * Lower cases the text and splits it into words made up of letters and digits.
+     **/
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+
+        if (text == null)
+            return tokens;
+
+        for (String token : text.toLowerCase().split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty())
+                tokens.add(token);
+        }
+
+        return tokens;
+    }
+
+    /**
+     * Doc and its score. Ordered by score (lowest first) so the heap root is the weakest match.
+     **/
+    private static class ScoredDoc implements Comparable<ScoredDoc> {
+        final int docId;
+        final double score;
+
+        ScoredDoc(int docId, double score) {
+            this.docId = docId;
+            this.score = score;
+        }
+
+        public int compareTo(ScoredDoc other) {
+            int byScore = Double.compare(score, other.score);
+            return (byScore != 0) ? byScore : Integer.compare(other.docId, docId);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package Models;
+
+import Helpers.RingBuffer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Records the checkouts of every tenant library (see LibraryTenants) in that library's CoCheckoutRecommender,
+ * on one thread shared by the whole JVM. Tenant checkouts never wait for their recommender, and thousands of
+ * tenants don't need a subscriber thread each. Loans wait in a bounded ring buffer and are dropped while
+ * the thread is a whole buffer behind, like an EventBus with the DROP policy.
+ **/
+class TenantLoanFeed {
+    private static final int capacity = 65536;
+    private static final int maxBatchSize = 1024;
+
+    static final TenantLoanFeed shared = new TenantLoanFeed(capacity);
+
+    /**
+     * A checkout waiting to be recorded, and the recommender of the library it was made in
+     **/
+    private static class Loan {
+        private final CoCheckoutRecommender recommender;
+        private final String userId;
+        private final String title;
+        private final long timestamp;
+
+        private Loan(CoCheckoutRecommender recommender, String userId, String title, long timestamp) {
+            this.recommender = recommender;
+            this.userId = userId;
+            this.title = title;
+            this.timestamp = timestamp;
+        }
+    }
+
+    private final RingBuffer<Loan> ringBuffer;
+    private final RingBuffer.Reader<Loan> reader;
+    private final LongAdder publishedCount;
+    private final LongAdder handledCount;
+
+    private TenantLoanFeed(int capacity) {
+        this.ringBuffer = new RingBuffer<>(capacity);
+        this.reader = ringBuffer.addReader();
+        this.publishedCount = new LongAdder();
+        this.handledCount = new LongAdder();
+
+        Thread thread = new Thread(this::run, "tenant-loan-feed");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Queues the loan for the recommender, or drops it right away if the buffer is full
+     **/
+    void publish(CoCheckoutRecommender recommender, String userId, String title, long timestamp) {
+        if (ringBuffer.tryPublish(new Loan(recommender, userId, title, timestamp)))
+            publishedCount.increment();
+    }
+
+    /**
+     * Waits up to timeoutMillis for every loan published so far to be recorded. Returns true if they are.
+     **/
+    boolean awaitRecorded(long timeoutMillis) throws InterruptedException {
+        long published = publishedCount.sum();
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+
+        while (handledCount.sum() < published) {
+            if (System.currentTimeMillis() >= deadline)
+                return false;
+
+            Thread.sleep(1);
+        }
+
+        return true;
+    }
+
+    private void run() {
+        List<Loan> batch = new ArrayList<>(maxBatchSize);
+        int idlePolls = 0;
+
+        while (true) {
+            batch.clear();
+
+            if (reader.poll(batch, maxBatchSize) == 0) {
+                // Back off a little more each time nothing was published
+                LockSupport.parkNanos(Math.min(1000000, 1000L << Math.min(idlePolls++, 10)));
+                continue;
+            }
+
+            idlePolls = 0;
+
+            for (Loan loan : batch) {
+                try {
+                    loan.recommender.recordLoan(loan.userId, loan.title, loan.timestamp);
+                } catch (RuntimeException e) {
+                    // One bad loan mustn't stop the feed for every other tenant
+                }
+            }
+
+            handledCount.add(batch.size());
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package Models;
+
+/**
+ * Limits for one library hosted by LibraryTenants: max # of books, authors and users, max estimated
+ * memory (see LibraryManager.getEstimatedMemoryBytes) and max logins + checkouts + searches per second
+ * across all of the library's users. Adds over a limit are refused, operations over it are rate limited.
+ **/
+public class TenantQuota {
+    // 10k books, 10k authors, 5k users, 64 MB, 200 operations per second (bursts of 400)
+    public static final TenantQuota defaultQuota = new TenantQuota(10000, 10000, 5000, 64L << 20, 200, 400);
+
+    private final int maxBooks;
+    private final int maxAuthors;
+    private final int maxUsers;
+    private final long maxMemoryBytes;
+    private final double operationsPerSecond;
+    private final int operationBurst;
+
+    public TenantQuota(int maxBooks, int maxAuthors, int maxUsers, long maxMemoryBytes, double operationsPerSecond,
+                       int operationBurst) {
+        this.maxBooks = Math.max(0, maxBooks);
+        this.maxAuthors = Math.max(0, maxAuthors);
+        this.maxUsers = Math.max(0, maxUsers);
+        this.maxMemoryBytes = Math.max(0, maxMemoryBytes);
+        this.operationsPerSecond = operationsPerSecond;
+        this.operationBurst = Math.max(1, operationBurst);
+    }
+
+    public int getMaxBooks() {
+        return maxBooks;
+    }
+
+    public int getMaxAuthors() {
+        return maxAuthors;
+    }
+
+    public int getMaxUsers() {
+        return maxUsers;
+    }
+
+    public long getMaxMemoryBytes() {
+        return maxMemoryBytes;
+    }
+
+    public double getOperationsPerSecond() {
+        return operationsPerSecond;
+    }
+
+    public int getOperationBurst() {
+        return operationBurst;
+    }
+
+    /**
+     * String format: Books: b, Authors: a, Users: u, Memory: m MB, Operations: o/s (burst b)
+     **/
+    public String toString() {
+        return String.format("Books: %d, Authors: %d, Users: %d, Memory: %d MB, Operations: %.0f/s (burst %d)",
+                maxBooks, maxAuthors, maxUsers, maxMemoryBytes >> 20, operationsPerSecond, operationBurst);
+    }
+}
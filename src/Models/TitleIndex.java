@@ -0,0 +1,68 @@
+package Models;
+
+import java.util.*;
+
+/**
+ * Titles kept in sorted order, all together and per genre, so queries can walk them in order
+ * (or from a given title on) and stop as soon as they have enough, instead of sorting every match.
+ * NOTE: LibraryManager keeps this in sync for the books it manages. Re-add a book after changing its genres.
+ **/
+public class TitleIndex {
+    private final TreeSet<String> titles;
+    private final HashMap<String, TreeSet<String>> titlesByGenre;
+
+    public TitleIndex() {
+        titles = new TreeSet<>();
+        titlesByGenre = new HashMap<>();
+    }
+
+    /**
+     * Adds the book under its title and each of its genres
+     **/
+    public void add(Book book) {
+        titles.add(book.getTitle());
+
+        for (String genre : book.getGenreSet())
+            titlesByGenre.computeIfAbsent(genre, g -> new TreeSet<>()).add(book.getTitle());
+    }
+
+    /**
+     * Removes the book from its title and each of its genres (as they are now)
+     **/
+    public void remove(Book book) {
+        titles.remove(book.getTitle());
+
+        for (String genre : book.getGenreSet()) {
+            TreeSet<String> genreTitles = titlesByGenre.get(genre);
+
+            if (genreTitles != null && genreTitles.remove(book.getTitle()) && genreTitles.isEmpty())
+                titlesByGenre.remove(genre);
+        }
+    }
+
+    public int size() {
+        return titles.size();
+    }
+
+    /**
+     * Read only, sorted view of every title
+     **/
+    public NavigableSet<String> getTitles() {
+        return Collections.unmodifiableNavigableSet(titles);
+    }
+
+    /**
+     * Read only, sorted view of the titles that start with the prefix (case sensitive)
+     **/
+    public NavigableSet<String> getTitlesStartingWith(String prefix) {
+        return Collections.unmodifiableNavigableSet(titles.subSet(prefix, true, prefix + Character.MAX_VALUE, false));
+    }
+
+    /**
+     * Read only, sorted view of the titles of the genre (title case). Empty if no book has it.
+     **/
+    public NavigableSet<String> getTitlesInGenre(String genre) {
+        TreeSet<String> genreTitles = titlesByGenre.get(genre);
+        return (genreTitles == null) ? Collections.emptyNavigableSet() : Collections.unmodifiableNavigableSet(genreTitles);
+    }
+}
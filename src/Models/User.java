@@ -3,15 +3,21 @@ package Models;
 import Helpers.StringHelpers;
 
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 
 /**
  * Class represents a library user. Each user has a unique id on creation, a name,
  * a list of books they've checked out and a cap on # of books they can check out.
+ * Loans and the checkout limit are guarded by the user's lock, so the same account can be used
+ * from several places at once (Ex: web and kiosk) without going over its limit.
  **/
 public class User {
     private static final int defaultCheckOutLimit = 5;
     private final ArrayList<String> booksCheckedOut;
+    // Title -> barcode of the copy checked out
+    private final HashMap<String, String> barcodes;
     private int checkOutLimit;
     private String password;
     private String name;
@@ -23,6 +29,7 @@ public class User {
         id = StringHelpers.generateRandomId();
         checkOutLimit = defaultCheckOutLimit;
         booksCheckedOut = new ArrayList<>();
+        barcodes = new HashMap<>();
     }
 
     public String getId() {
@@ -33,21 +40,28 @@ public class User {
         return name;
     }
 
-    public int getCheckOutLimit() {
+    public synchronized int getCheckOutLimit() {
         return checkOutLimit;
     }
 
-    public int getNumbBooksCheckedOut() {
+    public synchronized int getNumbBooksCheckedOut() {
         return booksCheckedOut.size();
     }
 
     /**
      * Returns true if the user hasn't reached their checkout limit
      **/
-    public boolean canCheckOutMoreBooks() {
+    public synchronized boolean canCheckOutMoreBooks() {
         return booksCheckedOut.size() < checkOutLimit;
     }
 
+    /**
+     * Only for copying the user (snapshots and exports), never shown to anyone
+     **/
+    String getPassword() {
+        return password;
+    }
+
     /**
      * Returns true if the password passed in is the user's password
      **/
@@ -88,7 +102,7 @@ public class User {
      * Set the new checkout limit for the user. New limit can't be negative and it can't be less than
      * the number of books the user currently has checked out
      **/
-    public void setCheckOutLimit(int newLimit) {
+    public synchronized void setCheckOutLimit(int newLimit) {
         if (newLimit > 0 && newLimit > getNumbBooksCheckedOut())
             this.checkOutLimit = newLimit;
     }
@@ -116,10 +130,10 @@ public class User {
     /**
      * Returns titles of all books checked out by user
      **/
-    public String getBooksCheckedOut() {
-        ArrayList<String> books = new ArrayList<>(booksCheckedOut);
-        Collections.sort(books);
-        return books.toString();
+    public synchronized String getBooksCheckedOut() {
+        String[] books = booksCheckedOut.toArray(new String[0]);
+        Arrays.sort(books);
+        return StringHelpers.toListString(Arrays.asList(books));
     }
 
     /**
@@ -127,29 +141,103 @@ public class User {
      * out two of the same book. or more books than their limit
      **/
     public void checkOutBook(String title) {
+        checkOutBook(title, null);
+    }
+
+    /**
+     * Same as checkOutBook, also records the barcode of the copy checked out
+     **/
+    public synchronized void checkOutBook(String title, String barcode) {
         if (StringHelpers.isNullOrEmptyString(title))
             return;
 
         title = StringHelpers.makeTitleCase(title);
         boolean alreadyHasBook = booksCheckedOut.contains(title);
 
-        if (!alreadyHasBook && booksCheckedOut.size() < checkOutLimit)
+        if (!alreadyHasBook && booksCheckedOut.size() < checkOutLimit) {
             booksCheckedOut.add(title);
+
+            if (barcode != null)
+                barcodes.put(title, barcode);
+        }
+    }
+
+    /**
+     * Checks out an available copy of the book as one step: the limit and duplicate checks, claiming
+     * the copy and recording the loan all happen while holding the user's lock, so two checkouts by the
+     * same user can't both get past the limit. Lock order is library, user, then the book's copies
+     * (claimed with a CAS, never waits for anything), so this can't deadlock.
+     **/
+    synchronized LoanStatus checkOut(Book book) {
+        return checkOut(book, -1);
+    }
+
+    /**
+     * Same as checkOut, claiming the copy with the given number if it's available, else any copy
+     **/
+    synchronized LoanStatus checkOut(Book book, int copy) {
+        if (booksCheckedOut.size() >= checkOutLimit)
+            return LoanStatus.LIMIT_REACHED;
+
+        if (booksCheckedOut.contains(book.getTitle()))
+            return LoanStatus.ALREADY_CHECKED_OUT;
+
+        String barcode = book.checkOutCopy(copy);
+
+        if (barcode == null)
+            return LoanStatus.UNAVAILABLE;
+
+        booksCheckedOut.add(book.getTitle());
+        barcodes.put(book.getTitle(), barcode);
+        return LoanStatus.SUCCESS;
+    }
+
+    /**
+     * Gives the user's copy of the book back to it as one step (see checkOut).
+     * Returns false if the user doesn't have the book checked out.
+     **/
+    synchronized boolean returnTo(Book book) {
+        if (!booksCheckedOut.remove(book.getTitle()))
+            return false;
+
+        book.returnBook(barcodes.remove(book.getTitle()));
+        return true;
     }
 
     /**
      * Return a book with the given title, if the user has
      * the book checked out, else do nothing.
      **/
-    public void returnBook(String title) {
+    public synchronized void returnBook(String title) {
         if (StringHelpers.isNullOrEmptyString(title))
             return;
 
         title = StringHelpers.makeTitleCase(title);
         booksCheckedOut.remove(title);
+        barcodes.remove(title);
+    }
+
+    /**
+     * Returns the barcode of the copy of the book (title case) the user has checked out,
+     * or null if they don't have it or it was checked out without one
+     **/
+    public synchronized String getBarcode(String title) {
+        return barcodes.get(title);
+    }
+
+    /**
+     * Copy of the user's loans, title -> barcode (null if checked out without one), oldest first
+     **/
+    synchronized LinkedHashMap<String, String> getLoans() {
+        LinkedHashMap<String, String> loans = new LinkedHashMap<>();
+
+        for (String title : booksCheckedOut)
+            loans.put(title, barcodes.get(title));
+
+        return loans;
     }
 
-    public boolean hasBookCheckedOut(String title) {
+    public synchronized boolean hasBookCheckedOut(String title) {
         return booksCheckedOut.contains(title);
     }
 
@@ -157,7 +245,7 @@ public class User {
      * Returns string in the format:
      * Id: id, Name: name, Checkout Limit: limit, Books Checked Out: [books]
      **/
-    public String toString() {
+    public synchronized String toString() {
         return "Id: " + id + ", Name: " + name + ", Checkout Limit: " + checkOutLimit +
                 ", Books Checked Out: " + getBooksCheckedOut();
     }
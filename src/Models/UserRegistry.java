@@ -0,0 +1,94 @@
+package Models;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread safe store of library users by id. Users are spread over several independent shards by id,
+ * so concurrent sign ups and logins rarely touch the same shard (or wait on the same resize).
+ **/
+public class UserRegistry {
+    private static final int defaultShardCount = 16;
+
+    private final List<ConcurrentHashMap<String, User>> shards;
+    private final int shardMask;
+    private final LongAdder userCount;
+
+    public UserRegistry() {
+        this(defaultShardCount);
+    }
+
+    /**
+     * Shard count is rounded up to a power of 2
+     **/
+    public UserRegistry(int shardCount) {
+        int actualCount = Integer.highestOneBit(Math.max(2, shardCount - 1)) << 1;
+        shards = new ArrayList<>(actualCount);
+        shardMask = actualCount - 1;
+        userCount = new LongAdder();
+
+        for (int i = 0; i < actualCount; i++)
+            shards.add(new ConcurrentHashMap<>());
+    }
+
+    /**
+     * Adds the user if no other user has the same id. Returns true if the user was added.
+     **/
+    public boolean register(User user) {
+        if (user == null || user.getId() == null)
+            return false;
+
+        boolean added = shardOf(user.getId()).putIfAbsent(user.getId(), user) == null;
+
+        if (added)
+            userCount.increment();
+
+        return added;
+    }
+
+    /**
+     * Returns the user with the given id, or null if there isn't one
+     **/
+    public User get(String id) {
+        return (id == null) ? null : shardOf(id).get(id);
+    }
+
+    public boolean contains(String id) {
+        return get(id) != null;
+    }
+
+    /**
+     * Removes the user with the given id. Returns the removed user or null.
+     **/
+    public User remove(String id) {
+        User removed = (id == null) ? null : shardOf(id).remove(id);
+
+        if (removed != null)
+            userCount.decrement();
+
+        return removed;
+    }
+
+    public int size() {
+        return userCount.intValue();
+    }
+
+    /**
+     * Returns a list of every registered user
+     **/
+    public List<User> getUsers() {
+        List<User> users = new ArrayList<>(size());
+
+        for (ConcurrentHashMap<String, User> shard : shards)
+            users.addAll(shard.values());
+
+        return users;
+    }
+
+    private ConcurrentHashMap<String, User> shardOf(String id) {
+        int hash = id.hashCode();
+        return shards.get((hash ^ (hash >>> 16)) & shardMask);
+    }
+}
@@ -0,0 +1,109 @@
+package Test;
+
+import Models.*;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncLibraryManagerTest {
+
+    static <T> T get(CompletableFuture<T> future) throws Exception {
+        return future.get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void testCallsOnATitleRunInOrder() throws Exception {
+        LibraryManager library = TestLibraries.unlimited("ordered");
+        User first = library.signUp("First User", "password");
+        User second = library.signUp("Second User", "password");
+
+        try (AsyncLibraryManager async = new AsyncLibraryManager(library)) {
+            // Nothing waits in between, the order the calls were made in is the order they run in
+            CompletableFuture<Void> added = async.addBook("holes", "Louis Sachar", "Fiction", 1);
+            CompletableFuture<LoanStatus> firstCheckout = async.checkOutBook(first, "Holes");
+            CompletableFuture<LoanStatus> secondCheckout = async.checkOutBook(second, "HOLES");
+            CompletableFuture<LoanStatus> firstReturn = async.returnBook(first, "holes");
+            CompletableFuture<LoanStatus> secondRetry = async.checkOutBook(second, "holes");
+            CompletableFuture<String> lookup = async.getBookByTitle(second, "holes");
+
+            assertNull(get(added));
+            assertEquals(LoanStatus.SUCCESS, get(firstCheckout));
+            assertEquals(LoanStatus.UNAVAILABLE, get(secondCheckout));
+            assertEquals(LoanStatus.SUCCESS, get(firstReturn));
+            assertEquals(LoanStatus.SUCCESS, get(secondRetry));
+            assertTrue(get(lookup).startsWith("Title: Holes"));
+            assertEquals("Holes", get(async.findBooksByGenre(first, "fiction")));
+        }
+    }
+
+    @Test
+    void testLogIn() throws Exception {
+        LibraryManager library = TestLibraries.unlimited("logins");
+        User user = library.signUp("Kiosk User", "password");
+
+        try (AsyncLibraryManager async = new AsyncLibraryManager(library)) {
+            assertSame(user, get(async.logIn(user.getId(), "Kiosk User", "password")));
+            assertNull(get(async.logIn(user.getId(), "Kiosk User", "wrong password")));
+            assertNull(get(async.logIn("nobody", "Kiosk User", "password")));
+        }
+    }
+
+    @Test
+    void testManyTitlesAtOnce() throws Exception {
+        LibraryManager library = TestLibraries.unlimited("many");
+        List<User> users = new ArrayList<>();
+
+        for (int i = 0; i < 200; i++)
+            users.add(library.signUp("User " + i, "password"));
+
+        try (AsyncLibraryManager async = new AsyncLibraryManager(library)) {
+            List<CompletableFuture<LoanStatus>> checkouts = new ArrayList<>();
+
+            for (int title = 0; title < 50; title++) {
+                async.addBook("Title " + title, "Author " + title, "Fiction", 2);
+
+                for (User user : users.subList(4 * title, 4 * title + 4))
+                    checkouts.add(async.checkOutBook(user, "Title " + title));
+            }
+
+            // Every title has 2 copies and its own 4 users asking for them, in that order
+            for (int i = 0; i < checkouts.size(); i++)
+                assertEquals((i % 4 < 2) ? LoanStatus.SUCCESS : LoanStatus.UNAVAILABLE, get(checkouts.get(i)));
+
+            ConcurrencyTest.assertConsistent(library.takeSnapshot());
+        }
+    }
+
+    @Test
+    void testBurstDoesNotStartAThreadPerCall() throws Exception {
+        LibraryManager library = TestLibraries.unlimited("burst");
+        User reader = library.signUp("Reader", "password");
+        int threadsBefore = ManagementFactory.getThreadMXBean().getThreadCount();
+        List<CompletableFuture<String>> lookups = new ArrayList<>();
+
+        try (AsyncLibraryManager async = new AsyncLibraryManager(library)) {
+            int threadsDuring;
+
+            // Every call waits for the library while its lock is held here, 3000 titles means 3000 keys at once
+            synchronized (library) {
+                for (int i = 0; i < 3000; i++)
+                    lookups.add(async.getBookByTitle(reader, "Title " + i));
+
+                Thread.sleep(200);
+                threadsDuring = ManagementFactory.getThreadMXBean().getThreadCount();
+            }
+
+            assertTrue(threadsDuring - threadsBefore <= 4 * Runtime.getRuntime().availableProcessors(),
+                    (threadsDuring - threadsBefore) + " new threads");
+
+            for (CompletableFuture<String> lookup : lookups)
+                assertTrue(get(lookup).startsWith("Sorry"));
+        }
+    }
+}
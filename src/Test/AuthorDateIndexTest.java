@@ -0,0 +1,56 @@
+package Test;
+
+import Helpers.StringHelpers;
+import Models.AuthorDateIndex;
+import org.junit.jupiter.api.Test;
+import Models.LibraryManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuthorDateIndexTest {
+    AuthorDateIndex index = new AuthorDateIndex();
+
+    void buildIndex() {
+        index.add("Dr. Suess", StringHelpers.parseDate("03/02/1904"));
+        index.add("Wilson Rawls", StringHelpers.parseDate("09/24/1913"));
+        index.add("Jean Craighed George", StringHelpers.parseDate("07/02/1919"));
+        index.add("Robert C. Martin", StringHelpers.parseDate("12/05/1952"));
+        index.add("Jeff Kinney", StringHelpers.unknownDate);
+    }
+
+    @Test
+    void testRangeQueries() {
+        buildIndex();
+        assertEquals(4, index.size());
+
+        assertEquals(List.of("Dr. Suess", "Wilson Rawls", "Jean Craighed George"), index.getAuthorsBornInYears(1900, 1950));
+        assertEquals(List.of("Wilson Rawls", "Jean Craighed George"), index.getAuthorsBornInYears(1910, 1919));
+        assertEquals(4, index.getAuthorsBornInYears(0, 5000).size());
+        assertTrue(index.getAuthorsBornInYears(1960, 1950).isEmpty());
+
+        int from = StringHelpers.parseDate("09/24/1913");
+        int to = StringHelpers.parseDate("12/05/1952");
+        assertEquals(List.of("Wilson Rawls", "Jean Craighed George", "Robert C. Martin"), index.getAuthorsBornBetween(from, to));
+    }
+
+    @Test
+    void testRemove() {
+        buildIndex();
+
+        index.remove("Dr. Suess", StringHelpers.parseDate("03/02/1904"));
+        index.remove("Dr. Suess", StringHelpers.parseDate("03/02/1904"));
+        assertEquals(3, index.size());
+        assertEquals(List.of("Wilson Rawls", "Jean Craighed George"), index.getAuthorsBornInYears(1900, 1950));
+    }
+
+    @Test
+    void testLibraryBirthDateSearches() {
+        LibraryManager library = TestLibraries.basicCatalog("birth-dates");
+
+        assertEquals("Dr. Suess, Robert C. Martin", library.getAuthorsBornInYears(1900, 1952));
+        assertEquals("Robert C. Martin", library.getAuthorsBornBetween("12/05/1952", "01/01/1990"));
+        assertEquals("The Cat In The Hat", library.getBooksByAuthorsBornInDecade(1904));
+    }
+}
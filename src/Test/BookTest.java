@@ -1,6 +1,7 @@
 package Test;
 
 import Models.Book;
+import Models.LibraryManager;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -82,4 +83,63 @@ class BookTest {
         wimp.removeAuthor("jeff kinney");
         assertEquals("[]", wimp.getAuthors());
     }
-}
\ No newline at end of file
+
+    @Test
+    void bookTestCopies() {
+        String first = giver.checkOutBook();
+        String second = giver.checkOutBook();
+        assertNotEquals(first, second);
+        assertEquals(0, giver.getCopyNumber(first));
+        assertEquals(Book.CopyState.CHECKED_OUT, giver.getCopyState(0));
+        assertEquals(1, giver.getCopiesAvailable());
+
+        assertTrue(giver.returnBook(first));
+        assertFalse(giver.returnBook(first));
+        assertFalse(giver.returnBook(gatsby.getBarcode(1)));
+        assertEquals(2, giver.getCopiesAvailable());
+
+        // Only available copies are withdrawn, total never drops below copies checked out
+        assertEquals(1, giver.resizeCopies(0));
+        assertEquals(Book.CopyState.CHECKED_OUT, giver.getCopyState(1));
+        assertNull(giver.checkOutBook());
+
+        assertEquals(1, giver.retire());
+        assertTrue(giver.returnBook(second));
+        assertEquals(Book.CopyState.WITHDRAWN, giver.getCopyState(1));
+        assertEquals(0, giver.getTotalCopies());
+    }
+
+    @Test
+    void testCopyLimit() {
+        Book popular = new Book("Popular", "Some Author", "Fiction", Book.maxCopies - 1);
+        assertEquals(1, popular.getRoomForCopies());
+
+        assertFalse(popular.addBookCopies(2));
+        assertEquals(Book.maxCopies - 1, popular.getTotalCopies());
+        assertTrue(popular.addBookCopies(1));
+        assertEquals(Book.maxCopies, popular.getTotalCopies());
+        assertFalse(popular.addBookCopies(1));
+        assertEquals(Book.maxCopies, popular.getCopiesAvailable());
+
+        // Withdrawn copies keep their copy numbers, so they don't make room for new ones
+        assertEquals(Book.maxCopies - 10, popular.resizeCopies(Book.maxCopies - 10));
+        assertEquals(0, popular.getRoomForCopies());
+        assertEquals(Book.maxCopies - 10, popular.resizeCopies(Book.maxCopies));
+
+        assertThrows(IllegalArgumentException.class, () -> new Book("Too Popular", "Some Author", "Fiction",
+                Book.maxCopies + 1));
+    }
+
+    @Test
+    void testCopyLimitInLibrary() {
+        LibraryManager library = TestLibraries.unlimited("copies");
+
+        // Refused, not cut down to the limit
+        library.addBook("too popular", "some author", "fiction", Book.maxCopies + 1);
+        assertEquals("Sorry invalid search for too popular\n", library.getBookByTitle("too popular"));
+
+        library.addBook("popular", "some author", "fiction", Book.maxCopies);
+        library.addBook("popular", "some author", "fiction", 1);
+        assertTrue(library.getBookByTitle("popular").endsWith("Total Copies: " + Book.maxCopies));
+    }
+}
@@ -0,0 +1,67 @@
+package Test;
+
+import Models.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogAnalyticsTest {
+    Book cat = new Book("The Cat In The Hat", "Dr. Suess", "Children, Fiction, Picture", 10);
+    Book lorax = new Book("The Lorax", "Dr. Suess", "Children, Fiction, Picture", 5);
+    Book redFern = new Book("Where The Red Fern Grows", "Wilson Rawls", "Adventure, Fiction", 6);
+
+    Author suess = new Author("Dr. Suess", "03/02/1904");
+    Author rawls = new Author("Wilson Rawls", "09/24/1913");
+    Author lobel = new Author("Arnold Lobel", "05/22/1933");
+    Author unknown = new Author("Jeff Kinney", null);
+
+    User sam = new User("Sam", "password");
+    User alice = new User("Alice", "password");
+
+    CatalogAnalytics buildAnalytics() {
+        cat.checkOutBook();
+        cat.checkOutBook();
+        redFern.checkOutBook();
+        sam.checkOutBook("the cat in the hat");
+        sam.checkOutBook("where the red fern grows");
+        alice.checkOutBook("the cat in the hat");
+
+        return new CatalogAnalytics(CatalogSnapshot.of(List.of(cat, lorax, redFern),
+                List.of(suess, rawls, lobel, unknown), List.of(sam, alice)));
+    }
+
+    @Test
+    void testCopiesAndUtilization() {
+        CatalogAnalytics analytics = buildAnalytics();
+
+        assertEquals(Map.of("Adventure", 6, "Children", 15, "Fiction", 21, "Picture", 15),
+                analytics.getCopiesPerGenre());
+        assertEquals(Map.of("The Cat In The Hat", 2, "The Lorax", 0, "Where The Red Fern Grows", 1),
+                analytics.getUtilizationPerTitle());
+        assertEquals(Map.of("Dr. Suess", 2, "Wilson Rawls", 1), analytics.getUtilizationPerAuthor());
+    }
+
+    @Test
+    void testBorrowersAndDecades() {
+        CatalogAnalytics analytics = buildAnalytics();
+
+        List<CatalogSnapshot.UserInfo> top = analytics.getTopBorrowers(1);
+        assertEquals(1, top.size());
+        assertEquals(sam.getId(), top.get(0).getId());
+        assertEquals(2, analytics.getTopBorrowers(5).size());
+
+        Map<Integer, List<String>> decades = analytics.getAuthorsByBirthDecade();
+        assertEquals(List.of(1900, 1910, 1930), List.copyOf(decades.keySet()));
+        assertEquals(List.of("Dr. Suess"), decades.get(1900));
+    }
+
+    @Test
+    void testSnapshotDoesNotChange() {
+        CatalogAnalytics analytics = buildAnalytics();
+        lorax.checkOutBook();
+        assertEquals(0, (int) analytics.getUtilizationPerTitle().get("The Lorax"));
+    }
+}
@@ -0,0 +1,63 @@
+package Test;
+
+import Models.CatalogGraph;
+import Models.LibraryManager;
+import Models.User;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogGraphTest {
+    CatalogGraph graph = new CatalogGraph();
+
+    void buildGraph() {
+        graph.link("Robert C. Martin", "Calculus Textbook");
+        graph.link("Franklin D. Demana", "Calculus Textbook");
+        graph.link("Bet K. Waits", "Calculus Textbook");
+        graph.link("Robert C. Martin", "Clean Code");
+        graph.link("Dr. Suess", "The Lorax");
+    }
+
+    @Test
+    void testLinksAndQueries() {
+        buildGraph();
+
+        assertEquals(Set.of("Franklin D. Demana", "Bet K. Waits"), graph.getCoAuthors("Robert C. Martin"));
+        assertTrue(graph.getCoAuthors("Dr. Suess").isEmpty());
+        assertTrue(graph.getCoAuthors("Nobody").isEmpty());
+
+        assertEquals(2, graph.getBooksOf("Robert C. Martin").size());
+        assertEquals(3, graph.getAuthorsOf("Calculus Textbook").size());
+        assertEquals(-1, graph.getBookId("Random Book"));
+        assertNotEquals(-1, graph.getAuthorId("Dr. Suess"));
+    }
+
+    @Test
+    void testRemovalsCascade() {
+        buildGraph();
+
+        List<String> authors = graph.removeBook("Calculus Textbook");
+        assertEquals(3, authors.size());
+        assertEquals(List.of("Clean Code"), graph.getBooksOf("Robert C. Martin"));
+        assertTrue(graph.getCoAuthors("Robert C. Martin").isEmpty());
+
+        assertEquals(List.of("The Lorax"), graph.removeAuthor("Dr. Suess"));
+        assertTrue(graph.getAuthorsOf("The Lorax").isEmpty());
+        assertTrue(graph.removeAuthor("Dr. Suess").isEmpty());
+    }
+
+    @Test
+    void testLibraryRemovalUpdatesAuthors() {
+        LibraryManager library = TestLibraries.basicCatalog("graph-removal");
+        library.addBook("the lorax", "dr. suess", "picture, children", 3);
+
+        // Removing a book also removes it from its authors
+        library.removeBook(new User("sam", "password"), "the lorax");
+        String suess = "Name: Dr. Suess, Birth Date: 03/02/1904, Books Written: [The Cat In The Hat]";
+        assertEquals(suess, library.getAuthorByName("dr. suess"));
+        assertEquals("The Cat In The Hat", library.getAvailableBooksByAuthor("dr. suess"));
+    }
+}
@@ -0,0 +1,118 @@
+package Test;
+
+import Models.*;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogImporterTest {
+    LibraryManager newLibrary(String id) {
+        LibraryManager library = TestLibraries.unlimited(id);
+        library.addBook("the cat in the hat", "dr. suess", "children, fiction", 5);
+        library.addBook("frog and toad", "arnold lobel, dr. suess", "children", 4);
+        library.addBook("holes", "louis sachar", "fiction", 2);
+        return library;
+    }
+
+    /**
+     * Imports the export lines and deletes the export file
+     **/
+    static DeltaImportResult importLines(LibraryManager library, String... lines) throws IOException {
+        Path export = Files.createTempFile("books", ".txt");
+
+        try {
+            Files.write(export, List.of(lines));
+            return library.importBookDelta(export.toString());
+        } finally {
+            Files.delete(export);
+        }
+    }
+
+    @Test
+    void testInsertUpdateDelete() throws IOException {
+        LibraryManager library = newLibrary("changes");
+        DeltaImportResult result = importLines(library,
+                "the cat in the hat - dr. suess - children, fiction - 5",
+                "frog and toad - arnold lobel, dr. suess - children, picture - 6",
+                "matilda - roald dahl - children, fantasy - 3",
+                "not a record");
+
+        assertEquals("Inserted: 1, Updated: 1, Deleted: 1, Delete Pending: 0, Unchanged: 1, Skipped: 1",
+                result.toString());
+        assertEquals("Title: Frog And Toad, Author(s): [Arnold Lobel, Dr. Suess], Genre(s): [Children, Picture], " +
+                "Total Copies: 6", library.getBookByTitle("frog and toad"));
+        assertEquals("Title: Matilda, Author(s): [Roald Dahl], Genre(s): [Children, Fantasy], Total Copies: 3",
+                library.getBookByTitle("matilda"));
+        assertEquals("Sorry invalid search for holes\n", library.getBookByTitle("holes"));
+        assertEquals("Frog And Toad, Matilda, The Cat In The Hat", library.findBooksByGenre("children"));
+        assertEquals("The Cat In The Hat", library.findBooksByGenre("fiction"));
+    }
+
+    @Test
+    void testUnchangedRowsAreSkipped() throws IOException {
+        LibraryManager library = newLibrary("unchanged");
+        String[] export = {
+                "the cat in the hat - dr. suess - children, fiction - 5",
+                "frog and toad - arnold lobel, dr. suess - children - 4",
+                "holes - louis sachar - fiction - 2"
+        };
+
+        assertEquals("Inserted: 0, Updated: 0, Deleted: 0, Delete Pending: 0, Unchanged: 3, Skipped: 0",
+                importLines(library, export).toString());
+        assertEquals("Inserted: 0, Updated: 0, Deleted: 0, Delete Pending: 0, Unchanged: 3, Skipped: 0",
+                importLines(library, export).toString());
+
+        // A book changed in the library since the last import is compared again, not skipped by its line
+        library.addBook("holes", "louis sachar", "fiction", 1);
+        assertEquals("Inserted: 0, Updated: 1, Deleted: 0, Delete Pending: 0, Unchanged: 2, Skipped: 0",
+                importLines(library, export).toString());
+        assertTrue(library.getBookByTitle("holes").endsWith("Total Copies: 2"));
+    }
+
+    @Test
+    void testRemovedAuthorsAreUnlinked() throws IOException {
+        LibraryManager library = newLibrary("authors");
+        importLines(library,
+                "the cat in the hat - dr. suess - children, fiction - 5",
+                "frog and toad - arnold lobel - children - 4",
+                "holes - louis sachar - fiction - 2");
+
+        assertEquals("Name: Dr. Suess, Birth Date: Unknown, Books Written: [The Cat In The Hat]",
+                library.getAuthorByName("dr. suess"));
+        assertEquals("Name: Arnold Lobel, Birth Date: Unknown, Books Written: [Frog And Toad]",
+                library.getAuthorByName("arnold lobel"));
+        assertEquals("There is no information currently available.", library.getCoAuthors("dr. suess"));
+        assertEquals("There is no information currently available.", library.getCoAuthors("arnold lobel"));
+    }
+
+    @Test
+    void testBooksWithCopiesCheckedOut() throws IOException {
+        LibraryManager library = newLibrary("loans");
+        User reader = library.signUp("Reader", "password");
+        assertEquals(LoanStatus.SUCCESS, library.checkOutBook(reader, "holes"));
+        assertEquals(LoanStatus.SUCCESS, library.checkOutBook(reader, "the cat in the hat"));
+
+        // Holes is missing from the export with a copy out, so it's removed once that copy is back.
+        // The cat's total can't drop below its loans.
+        String[] export = {
+                "the cat in the hat - dr. suess - children, fiction - 0",
+                "frog and toad - arnold lobel, dr. suess - children - 4"
+        };
+        assertEquals("Inserted: 0, Updated: 1, Deleted: 0, Delete Pending: 1, Unchanged: 1, Skipped: 0",
+                importLines(library, export).toString());
+        assertTrue(library.getBookByTitle("the cat in the hat").endsWith("Total Copies: 1"));
+        assertTrue(library.getBookByTitle("holes").startsWith("Title: Holes"));
+        assertEquals(LoanStatus.UNAVAILABLE, library.checkOutBook(library.signUp("Other", "password"), "holes"));
+
+        assertEquals("Inserted: 0, Updated: 0, Deleted: 0, Delete Pending: 1, Unchanged: 2, Skipped: 0",
+                importLines(library, export).toString());
+
+        assertEquals(LoanStatus.SUCCESS, library.returnBook(reader, "holes"));
+        assertEquals("Sorry invalid search for holes\n", library.getBookByTitle("holes"));
+    }
+}
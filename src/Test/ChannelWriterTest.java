@@ -0,0 +1,62 @@
+package Test;
+
+import Helpers.ChannelWriter;
+import org.junit.jupiter.api.Test;
+import Models.LibraryManager;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChannelWriterTest {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    ChannelWriter writer = new ChannelWriter(Channels.newChannel(bytes));
+
+    @Test
+    void testWritesInChunks() throws IOException {
+        StringBuilder expected = new StringBuilder();
+
+        for (int i = 0; i < 100000; i++) {
+            writer.append("Title ").append(Integer.toString(i)).append(',');
+            expected.append("Title ").append(i).append(',');
+
+            // Output goes out a chunk at a time, never all at the end
+            if (i == 50000)
+                assertTrue(bytes.size() > 0);
+        }
+
+        writer.flush();
+        assertEquals(expected.toString(), bytes.toString(StandardCharsets.UTF_8));
+        assertEquals(expected.length(), writer.getBytesWritten());
+    }
+
+    @Test
+    void testMultiByteChars() throws IOException {
+        // Emoji are surrogate pairs, 100k of them split across char buffers at every offset
+        String text = "Caf\u00e9 \ud83d\udcda ".repeat(20000);
+
+        writer.append(new StringBuilder(text), 0, text.length());
+        writer.append('!');
+        writer.append(null);
+        writer.flush();
+
+        assertEquals(text + "!null", bytes.toString(StandardCharsets.UTF_8));
+        assertEquals((text + "!null").getBytes(StandardCharsets.UTF_8).length, writer.getBytesWritten());
+    }
+
+    @Test
+    void testLibraryStreamsNames() throws IOException {
+        LibraryManager library = TestLibraries.basicCatalog("streamed-names");
+        StringBuilder streamed = new StringBuilder();
+
+        library.writeAllBookTitles(streamed);
+        assertEquals(library.getAllBookTitles(), streamed.toString());
+        streamed.setLength(0);
+        library.writeAllAuthorNames(streamed);
+        assertEquals(library.getAllAuthorNames(), streamed.toString());
+        assertEquals("Arnold Lobel", library.iterateAuthorNames().next());
+    }
+}
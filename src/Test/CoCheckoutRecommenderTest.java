@@ -0,0 +1,101 @@
+package Test;
+
+import Models.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CoCheckoutRecommenderTest {
+    CoCheckoutRecommender recommender = new CoCheckoutRecommender();
+
+    @Test
+    void testLoanHistory() {
+        LoanHistory history = new LoanHistory();
+
+        assertTrue(history.record("sam", "The Lorax", 10));
+        assertTrue(history.record("sam", "Holes", 20));
+        assertFalse(history.record("sam", "The Lorax", 30));
+        assertTrue(history.record("kim", "Holes", 40));
+
+        assertEquals(4, history.size());
+        assertEquals(2, history.getTitleCount());
+        assertEquals(history.getTitleId("The Lorax"), history.getLoanTitleId(2));
+        assertEquals(30, history.getLoanTime(2));
+        assertArrayEquals(new int[]{0, 1}, history.getTitleIdsBorrowedBy("sam"));
+        assertEquals(0, history.getTitleIdsBorrowedBy("lee").length);
+    }
+
+    @Test
+    void testCoCheckoutCounts() {
+        recommender.recordLoan("sam", "The Lorax", 1);
+        recommender.recordLoan("sam", "Holes", 2);
+        recommender.recordLoan("kim", "The Lorax", 3);
+        recommender.recordLoan("kim", "Holes", 4);
+        // Borrowing the same title again doesn't count twice
+        recommender.recordLoan("kim", "The Lorax", 5);
+
+        assertEquals(2, recommender.getCoCheckoutCount("The Lorax", "Holes"));
+        assertEquals(2, recommender.getCoCheckoutCount("Holes", "The Lorax"));
+        assertEquals(0, recommender.getCoCheckoutCount("Holes", "The Giver"));
+        assertEquals(5, recommender.getLoanCount());
+    }
+
+    @Test
+    void testScoreCandidates() {
+        recommender.recordLoans(List.of(
+                LibraryEvent.bookCheckedOut("sam", "The Lorax"),
+                LibraryEvent.bookCheckedOut("sam", "Holes"),
+                LibraryEvent.bookCheckedOut("kim", "The Lorax"),
+                LibraryEvent.bookCheckedOut("kim", "Holes"),
+                LibraryEvent.bookCheckedOut("kim", "The Giver"),
+                LibraryEvent.bookReturned("kim", "The Giver"),
+                LibraryEvent.bookCheckedOut("lee", "The Lorax")));
+
+        // Holes was borrowed with The Lorax twice, The Giver once
+        Map<String, Integer> scores = recommender.scoreCandidates("lee");
+        assertEquals(2, (int) scores.get("Holes"));
+        assertEquals(1, (int) scores.get("The Giver"));
+        assertFalse(scores.containsKey("The Lorax"));
+
+        assertEquals(List.of("The Lorax", "Holes", "The Giver"), recommender.getBorrowedTitles("kim"));
+        assertTrue(recommender.scoreCandidates("nobody").isEmpty());
+    }
+
+    @Test
+    void testRecommendForBreaksTiesByGenre() throws InterruptedException {
+        LibraryManager library = TestLibraries.unlimited("recommend");
+        library.addBook("seed", "some author", "mystery", 5);
+        library.addBook("alpha", "some author", "fiction", 5);
+        library.addBook("another", "some author", "mystery", 5);
+        library.addBook("beta", "some author", "mystery, fiction", 5);
+        library.addBook("zed", "some author", "fiction", 5);
+
+        User first = library.signUp("First", "password");
+        User second = library.signUp("Second", "password");
+        User third = library.signUp("Third", "password");
+        User reader = library.signUp("Reader", "password");
+
+        for (String title : List.of("seed", "alpha", "another", "beta"))
+            library.checkOutBook(first, title);
+
+        library.checkOutBook(second, "seed");
+        library.checkOutBook(second, "zed");
+        library.checkOutBook(third, "seed");
+        library.checkOutBook(third, "zed");
+        library.checkOutBook(reader, "seed");
+        assertTrue(library.awaitLoansRecorded(10000));
+
+        // Zed was borrowed with Seed twice. Alpha, Another and Beta once each: the reader's Seed is a
+        // mystery, so Another and Beta (mysteries, by title) come before Alpha even though Alpha sorts first
+        assertEquals("Zed, Another, Beta, Alpha", library.recommendFor(reader));
+        assertEquals("Zed, Another", library.recommendFor(reader, 2));
+
+        // Another isn't recommended once borrowed, and its co-checkouts tie Alpha and Beta with Zed at 2
+        library.checkOutBook(reader, "another");
+        assertTrue(library.awaitLoansRecorded(10000));
+        assertEquals("Beta, Alpha, Zed", library.recommendFor(reader));
+    }
+}
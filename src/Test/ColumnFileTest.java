@@ -0,0 +1,117 @@
+package Test;
+
+import Helpers.ColumnFile;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ColumnFileTest {
+    Path file;
+
+    ColumnFileTest() throws IOException {
+        file = Files.createTempFile("column", ".col");
+        file.toFile().deleteOnExit();
+    }
+
+    @Test
+    void testRunLengthInts() throws IOException {
+        try (ColumnFile.Writer out = new ColumnFile.Writer(file, ColumnFile.Encoding.INT_RLE)) {
+            for (int i = 0; i < 1000000; i++)
+                out.writeInt(i / 1000 - 10);
+        }
+
+        // 1000 runs of small numbers, a few bytes each
+        assertTrue(Files.size(file) < 5000, "size: " + Files.size(file));
+
+        try (ColumnFile.Reader in = new ColumnFile.Reader(file)) {
+            assertEquals(ColumnFile.Encoding.INT_RLE, in.getEncoding());
+            assertEquals(1000000, in.getRowCount());
+
+            for (int i = 0; i < 1000000; i++)
+                assertEquals(i / 1000 - 10, in.readInt());
+
+            assertFalse(in.hasNext());
+            assertThrows(IllegalStateException.class, in::readInt);
+        }
+    }
+
+    @Test
+    void testIntsSpanningChunks() throws IOException {
+        try (ColumnFile.Writer out = new ColumnFile.Writer(file, ColumnFile.Encoding.INT_RLE)) {
+            for (int i = 0; i < 100000; i++)
+                out.writeInt(i * 31 + Integer.MIN_VALUE / 2);
+        }
+
+        try (ColumnFile.Reader in = new ColumnFile.Reader(file)) {
+            for (int i = 0; i < 100000; i++)
+                assertEquals(i * 31 + Integer.MIN_VALUE / 2, in.readInt());
+        }
+    }
+
+    @Test
+    void testDictionaryStrings() throws IOException {
+        String[] genres = {"Fiction", "Children", "Fantasy", "Sci-Fi", "Caf\u00e9 \u00dcber"};
+
+        try (ColumnFile.Writer out = new ColumnFile.Writer(file, ColumnFile.Encoding.DICTIONARY)) {
+            for (int i = 0; i < 200000; i++)
+                out.writeString(genres[(i / 7) % genres.length]);
+
+            assertEquals(200000, out.getRowCount());
+        }
+
+        assertTrue(Files.size(file) < 200000, "size: " + Files.size(file));
+
+        try (ColumnFile.Reader in = new ColumnFile.Reader(file)) {
+            for (int i = 0; i < 200000; i++)
+                assertEquals(genres[(i / 7) % genres.length], in.readString());
+        }
+    }
+
+    @Test
+    void testPlainStrings() throws IOException {
+        String huge = "x".repeat(200000);
+
+        try (ColumnFile.Writer out = new ColumnFile.Writer(file, ColumnFile.Encoding.STRING)) {
+            for (int i = 0; i < 50000; i++)
+                out.writeString("Title " + i);
+
+            out.writeString(huge);
+            out.writeString("");
+            out.writeString("Last");
+            assertThrows(IllegalArgumentException.class, () -> out.writeString(null));
+            assertThrows(IllegalStateException.class, () -> out.writeInt(1));
+        }
+
+        try (ColumnFile.Reader in = new ColumnFile.Reader(file)) {
+            assertEquals(50003, in.getRowCount());
+
+            for (int i = 0; i < 50000; i++)
+                assertEquals("Title " + i, in.readString());
+
+            assertEquals(huge, in.readString());
+            assertEquals("", in.readString());
+            assertEquals("Last", in.readString());
+            assertFalse(in.hasNext());
+        }
+    }
+
+    @Test
+    void testEmptyColumn() throws IOException {
+        new ColumnFile.Writer(file, ColumnFile.Encoding.DICTIONARY).close();
+
+        try (ColumnFile.Reader in = new ColumnFile.Reader(file)) {
+            assertEquals(0, in.getRowCount());
+            assertFalse(in.hasNext());
+        }
+    }
+
+    @Test
+    void testNotAColumnFile() throws IOException {
+        Files.writeString(file, "Title, Author, Genre, Copies, Copies Available, bla bla");
+        assertThrows(IOException.class, () -> new ColumnFile.Reader(file));
+    }
+}
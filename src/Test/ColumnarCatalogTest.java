@@ -0,0 +1,133 @@
+package Test;
+
+import Models.*;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ColumnarCatalogTest {
+    Book cat = new Book("The Cat In The Hat", "Dr. Suess", "Children, Fiction, Picture", 10);
+    Book frog = new Book("Frog And Toad", "Arnold Lobel, Dr. Suess", "Children, Fiction", 3);
+    Book redFern = new Book("Where The Red Fern Grows", "Wilson Rawls", "Adventure, Fiction", 6);
+
+    Author suess = new Author("Dr. Suess", "03/02/1904");
+    Author lobel = new Author("Arnold Lobel", "05/22/1933");
+    Author unknown = new Author("Jeff Kinney", null);
+
+    User sam = new User("Sam", "password");
+    User alice = new User("Alice", "secret123");
+
+    CatalogSnapshot roundTrip(CatalogSnapshot snapshot) throws IOException {
+        Path directory = Files.createTempDirectory("catalog");
+
+        try {
+            ColumnarCatalogWriter.write(snapshot, directory);
+            return ColumnarCatalogReader.read(directory);
+        } finally {
+            try (Stream<Path> files = Files.list(directory)) {
+                for (Path file : (Iterable<Path>) files::iterator)
+                    Files.delete(file);
+            }
+
+            Files.delete(directory);
+        }
+    }
+
+    @Test
+    void testRoundTrip() throws IOException {
+        cat.checkOutBook();
+        sam.checkOutBook("the cat in the hat", cat.checkOutBook());
+        sam.checkOutBook("frog and toad", frog.checkOutBook());
+        alice.checkOutBook("where the red fern grows", redFern.checkOutBook());
+        alice.setCheckOutLimit(8);
+
+        CatalogSnapshot snapshot = roundTrip(CatalogSnapshot.of(List.of(cat, frog, redFern),
+                List.of(suess, lobel, unknown), List.of(sam, alice)));
+
+        assertEquals(3, snapshot.getBooks().size());
+        CatalogSnapshot.BookInfo frogInfo = snapshot.getBooks().get(1);
+        assertEquals("Frog And Toad", frogInfo.getTitle());
+        assertEquals(List.of("Arnold Lobel", "Dr. Suess"), frogInfo.getAuthors());
+        assertEquals(List.of("Children", "Fiction"), frogInfo.getGenres());
+        assertEquals(3, frogInfo.getTotalCopies());
+        assertEquals(2, frogInfo.getCopiesAvailable());
+        // Copies checked out without a user (cat's first copy) aren't loans, so they aren't exported
+        assertEquals(1, snapshot.getBooks().get(0).getCopiesInUse());
+
+        assertEquals(3, snapshot.getAuthors().size());
+        assertEquals("03/02/1904", snapshot.getAuthors().get(0).getBirthDate());
+        assertEquals("Unknown", snapshot.getAuthors().get(2).getBirthDate());
+
+        CatalogSnapshot.UserInfo samInfo = snapshot.getUsers().get(0);
+        assertEquals(sam.getId(), samInfo.getId());
+        assertEquals("Sam", samInfo.getName());
+        assertEquals(List.of("The Cat In The Hat", "Frog And Toad"), samInfo.getBooksCheckedOut());
+        assertEquals(List.of(1, 0), samInfo.getCopyNumbers());
+
+        CatalogSnapshot.UserInfo aliceInfo = snapshot.getUsers().get(1);
+        assertEquals(8, aliceInfo.getCheckOutLimit());
+        assertEquals(List.of("Where The Red Fern Grows"), aliceInfo.getBooksCheckedOut());
+    }
+
+    @Test
+    void testEmptyCatalog() throws IOException {
+        CatalogSnapshot snapshot = roundTrip(CatalogSnapshot.of(List.of(), List.of(), List.of()));
+
+        assertTrue(snapshot.getBooks().isEmpty());
+        assertTrue(snapshot.getAuthors().isEmpty());
+        assertTrue(snapshot.getUsers().isEmpty());
+    }
+
+    @Test
+    void testMissingColumn() throws IOException {
+        Path directory = Files.createTempDirectory("catalog");
+        directory.toFile().deleteOnExit();
+
+        assertThrows(IOException.class, () -> ColumnarCatalogReader.read(directory));
+    }
+
+    @Test
+    void testCredentialsOnlyInBackups() throws IOException {
+        LibraryTenants tenants = new LibraryTenants();
+        LibraryManager library = tenants.getOrCreate("source");
+        library.addBook("Holes", "Louis Sachar", "Fiction", 2);
+        User reader = library.signUp("Reader", "password");
+        library.checkOutBook(reader, "holes");
+
+        Path directory = Files.createTempDirectory("catalog");
+        directory.toFile().deleteOnExit();
+        library.exportSnapshot(directory.toString());
+        assertTrue(Files.exists(directory.resolve("user.password.col")));
+
+        // Exporting for analysis into the same directory drops the backup's passwords
+        library.exportColumnar(directory.toString());
+        assertFalse(Files.exists(directory.resolve("user.password.col")));
+
+        for (File file : directory.toFile().listFiles())
+            file.deleteOnExit();
+
+        CatalogSnapshot snapshot = ColumnarCatalogReader.read(directory);
+        assertEquals("Reader", snapshot.getUsers().get(0).getName());
+        assertEquals(List.of("Holes"), snapshot.getUsers().get(0).getBooksCheckedOut());
+
+        // Books come back, users can't without a password
+        LibraryManager analysis = tenants.getOrCreate("analysis");
+        analysis.importColumnar(directory.toString());
+        assertEquals(1, analysis.getUniqueBookCount());
+        assertNull(analysis.logIn(reader.getId(), "Reader", "password"));
+
+        library.exportSnapshot(directory.toString());
+        LibraryManager restored = tenants.getOrCreate("restored");
+        restored.importColumnar(directory.toString());
+        User restoredReader = restored.logIn(reader.getId(), "Reader", "password");
+        assertNotNull(restoredReader);
+        assertEquals("[Holes]", restoredReader.getBooksCheckedOut());
+    }
+}
@@ -0,0 +1,201 @@
+package Test;
+
+import Models.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Races a few actors against each other many times, each round starting them together on a barrier,
+ * then checks an invariant on the result of the round (like a jcstress test).
+ **/
+class ConcurrencyTest {
+    static final int rounds = 2000;
+
+    /**
+     * Runs the actors at the same time, waits for all of them and rethrows the first failure
+     **/
+    static void race(ExecutorService threads, Runnable... actors) throws Exception {
+        CyclicBarrier start = new CyclicBarrier(actors.length);
+        List<Future<?>> running = new ArrayList<>();
+
+        for (Runnable actor : actors) {
+            running.add(threads.submit(() -> {
+                start.await();
+                actor.run();
+                return null;
+            }));
+        }
+
+        for (Future<?> actor : running)
+            actor.get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void testUserLimitUnderRace() throws Exception {
+        ExecutorService threads = Executors.newFixedThreadPool(4);
+        int limit = 50;
+
+        try {
+            for (int round = 0; round < rounds / 10; round++) {
+                User user = new User("Kiosk And Web", "password");
+                user.setCheckOutLimit(limit);
+                Runnable[] actors = new Runnable[4];
+
+                // Every actor tries to go over the limit on its own, with titles no other actor uses
+                for (int i = 0; i < actors.length; i++) {
+                    String prefix = "Actor " + i + " Book ";
+                    actors[i] = () -> {
+                        for (int book = 0; book < limit; book++) {
+                            user.checkOutBook(prefix + book, prefix + book + "-1");
+                            user.getBooksCheckedOut();
+                        }
+                    };
+                }
+
+                race(threads, actors);
+                assertEquals(limit, user.getNumbBooksCheckedOut());
+                assertEquals(limit, user.getBooksCheckedOut().split(", ").length);
+                assertFalse(user.canCheckOutMoreBooks());
+            }
+        } finally {
+            threads.shutdown();
+        }
+    }
+
+    @Test
+    void testLimitAndCopyClaimAreOneStep() throws Exception {
+        ExecutorService threads = Executors.newFixedThreadPool(3);
+        LibraryManager library = TestLibraries.unlimited("one-step");
+
+        try {
+            for (int round = 0; round < rounds / 4; round++) {
+                String first = "First " + round, second = "Second " + round, third = "Third " + round;
+                library.addBook(first, "Louis Sachar", "Fiction", 1);
+                library.addBook(second, "Louis Sachar", "Fiction", 1);
+                library.addBook(third, "Louis Sachar", "Fiction", 1);
+                User user = library.signUp("Kiosk And Web", "password");
+                user.setCheckOutLimit(2);
+                ConcurrentLinkedQueue<LoanStatus> results = new ConcurrentLinkedQueue<>();
+
+                race(threads, () -> results.add(library.checkOutBook(user, first)),
+                        () -> results.add(library.checkOutBook(user, second)),
+                        () -> results.add(library.checkOutBook(user, third)));
+
+                // Exactly 2 loans, and a copy is claimed only for a loan that went through
+                assertEquals(2, results.stream().filter(status -> status == LoanStatus.SUCCESS).count());
+                assertEquals(2, user.getNumbBooksCheckedOut());
+                int copiesOut = 0;
+
+                for (CatalogSnapshot.BookInfo book : library.takeSnapshot().getBooks()) {
+                    if (book.getTitle().endsWith(" " + round))
+                        copiesOut += book.getTotalCopies() - book.getCopiesAvailable();
+                }
+
+                assertEquals(2, copiesOut);
+            }
+        } finally {
+            threads.shutdown();
+        }
+    }
+
+    @Test
+    void testLastCopyGoesToOneUser() throws Exception {
+        ExecutorService threads = Executors.newFixedThreadPool(4);
+        LibraryManager library = TestLibraries.unlimited("last-copy");
+        User[] users = new User[4];
+
+        for (int i = 0; i < users.length; i++)
+            users[i] = library.signUp("User " + i, "password");
+
+        try {
+            for (int round = 0; round < rounds / 4; round++) {
+                String title = "Holes " + round;
+                library.addBook(title, "Louis Sachar", "Fiction", 1);
+                AtomicInteger successes = new AtomicInteger();
+                Runnable[] actors = new Runnable[users.length];
+
+                for (int i = 0; i < users.length; i++) {
+                    User user = users[i];
+                    actors[i] = () -> {
+                        if (library.checkOutBook(user, title) == LoanStatus.SUCCESS)
+                            successes.incrementAndGet();
+                    };
+                }
+
+                race(threads, actors);
+                assertEquals(1, successes.get());
+
+                for (User user : users)
+                    library.returnBook(user, title);
+            }
+        } finally {
+            threads.shutdown();
+        }
+    }
+
+    @Test
+    void testLoansMatchCopiesWhileSnapshotting() throws Exception {
+        ExecutorService threads = Executors.newFixedThreadPool(5);
+        LibraryManager library = TestLibraries.unlimited("snapshots");
+        String[] titles = {"Holes", "The Lorax", "Frog And Toad", "Where The Red Fern Grows"};
+        List<User> users = new ArrayList<>();
+
+        for (String title : titles)
+            library.addBook(title, "Louis Sachar", "Fiction", 2);
+
+        for (int i = 0; i < 4; i++)
+            users.add(library.signUp("User " + i, "password"));
+
+        Runnable[] actors = new Runnable[users.size() + 1];
+
+        for (int i = 0; i < users.size(); i++) {
+            User user = users.get(i);
+            Random random = new Random(i);
+            actors[i] = () -> {
+                for (int op = 0; op < rounds; op++) {
+                    String title = titles[random.nextInt(titles.length)];
+
+                    if (library.checkOutBook(user, title) != LoanStatus.SUCCESS)
+                        library.returnBook(user, title);
+                }
+            };
+        }
+
+        actors[users.size()] = () -> {
+            for (int op = 0; op < rounds / 10; op++)
+                assertConsistent(library.takeSnapshot());
+        };
+
+        try {
+            race(threads, actors);
+        } finally {
+            threads.shutdown();
+        }
+
+        assertConsistent(library.takeSnapshot());
+    }
+
+    /**
+     * Every copy checked out is held by exactly one user
+     **/
+    static void assertConsistent(CatalogSnapshot snapshot) {
+        int copiesOut = 0, loans = 0;
+
+        for (CatalogSnapshot.BookInfo book : snapshot.getBooks())
+            copiesOut += book.getTotalCopies() - book.getCopiesAvailable();
+
+        for (CatalogSnapshot.UserInfo user : snapshot.getUsers()) {
+            loans += user.getBooksCheckedOut().size();
+            assertTrue(user.getBooksCheckedOut().size() <= user.getCheckOutLimit());
+        }
+
+        assertEquals(copiesOut, loans);
+    }
+}
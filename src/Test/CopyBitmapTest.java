@@ -0,0 +1,103 @@
+package Test;
+
+import Helpers.CopyBitmap;
+import Models.LibraryManager;
+import Models.LoanStatus;
+import Models.User;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CopyBitmapTest {
+    CopyBitmap copies = new CopyBitmap();
+
+    @Test
+    void testClaimAndRelease() {
+        assertEquals(-1, copies.claimAny());
+        assertEquals(0, copies.grow(3));
+        assertEquals(3, copies.getFreeCount());
+
+        assertEquals(0, copies.claimAny());
+        assertTrue(copies.claim(2));
+        assertFalse(copies.claim(2));
+        assertEquals(1, copies.claimAny());
+        assertEquals(-1, copies.claimAny());
+        assertEquals(0, copies.getFreeCount());
+
+        assertTrue(copies.release(1));
+        assertFalse(copies.release(1));
+        assertFalse(copies.release(3));
+        assertTrue(copies.isFree(1));
+        assertEquals(1, copies.claimAny());
+    }
+
+    @Test
+    void testGrowAcrossSegments() {
+        assertEquals(0, copies.grow(5000));
+        assertEquals(5000, copies.grow(100));
+        assertEquals(5100, copies.size());
+        assertEquals(-1, copies.grow(CopyBitmap.maxCopies));
+
+        for (int i = 0; i < 5099; i++)
+            copies.claimAny();
+
+        // Only the last copy is left, in the second segment
+        assertEquals(5099, copies.claimAny());
+        assertEquals(-1, copies.claimAny());
+
+        assertTrue(copies.release(4097));
+        assertTrue(copies.release(10));
+        assertEquals(10, copies.claimAny());
+        assertEquals(4097, copies.claimAny());
+    }
+
+    @Test
+    void testConcurrentClaimsAreUnique() throws InterruptedException {
+        int threads = 8, total = 20000;
+        copies.grow(total);
+        Set<Integer> claimed = ConcurrentHashMap.newKeySet();
+        List<Thread> workers = new ArrayList<>();
+
+        for (int i = 0; i < threads; i++) {
+            Thread worker = new Thread(() -> {
+                // Claim, release and claim again so summaries are cleared and set while others scan them
+                for (int copy; (copy = copies.claimAny()) >= 0; ) {
+                    if (copy % 3 == 0 && copies.release(copy))
+                        copy = copies.claimAny();
+
+                    if (copy >= 0)
+                        assertTrue(claimed.add(copy));
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+
+        for (Thread worker : workers)
+            worker.join();
+
+        assertEquals(total, claimed.size());
+        assertEquals(0, copies.getFreeCount());
+    }
+
+    @Test
+    void testLibraryRemovesBookOnceCopiesReturned() {
+        LibraryManager library = TestLibraries.basicCatalog("retired-copies");
+        User admin = new User("sam", "password");
+
+        // A book with copies checked out is removed once they're all returned
+        assertEquals(LoanStatus.SUCCESS, library.checkOutBook(admin, "where the red fern grows"));
+        assertNotNull(admin.getBarcode("Where The Red Fern Grows"));
+        library.removeBook(admin, "where the red fern grows");
+        assertEquals(LoanStatus.UNAVAILABLE, library.checkOutBook(new User("kim", "password"), "where the red fern grows"));
+        assertTrue(library.getAllBookTitles().contains("Where The Red Fern Grows"));
+
+        assertEquals(LoanStatus.SUCCESS, library.returnBook(admin, "where the red fern grows"));
+        assertFalse(library.getAllBookTitles().contains("Where The Red Fern Grows"));
+    }
+}
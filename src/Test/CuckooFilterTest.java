@@ -0,0 +1,125 @@
+package Test;
+
+import Helpers.CuckooFilter;
+import org.junit.jupiter.api.Test;
+import Models.LibraryManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CuckooFilterTest {
+    CuckooFilter filter = new CuckooFilter(10000, 0.01);
+
+    @Test
+    void testNoFalseNegatives() {
+        for (int i = 0; i < 10000; i++)
+            assertTrue(filter.add("Title " + i));
+
+        for (int i = 0; i < 10000; i++)
+            assertTrue(filter.mightContain("Title " + i));
+
+        assertEquals(10000, filter.getStats().getSize());
+        assertFalse(filter.isFull());
+    }
+
+    @Test
+    void testFalsePositiveRate() {
+        for (int i = 0; i < 10000; i++)
+            filter.add("Title " + i);
+
+        int falsePositives = 0;
+
+        for (int i = 0; i < 100000; i++) {
+            if (filter.mightContain("Missing " + i)) {
+                falsePositives++;
+                filter.recordFalsePositive();
+            }
+        }
+
+        CuckooFilter.Stats stats = filter.getStats();
+        assertEquals(10, stats.getFingerprintBits());
+        assertTrue(falsePositives < 1000, "false positives: " + falsePositives);
+        assertEquals(100000 - falsePositives, stats.getNegativeCount());
+        assertEquals((double) falsePositives / 100000, stats.getObservedFalsePositiveRate(), 1e-9);
+        // 16384 slots of 10 bits
+        assertEquals(16384 * 10 / 8, stats.getMemoryBytes());
+    }
+
+    @Test
+    void testMemoryFollowsFalsePositiveRate() {
+        assertEquals(6, new CuckooFilter(10000, 0.2).getStats().getFingerprintBits());
+        assertEquals(16384 * 6 / 8, new CuckooFilter(10000, 0.2).getStats().getMemoryBytes());
+        assertEquals(16384 * 16 / 8, new CuckooFilter(10000, 0.0001).getStats().getMemoryBytes());
+
+        // Fingerprints that run over a word boundary are read back whole
+        CuckooFilter coarse = new CuckooFilter(10000, 0.2);
+
+        for (int i = 0; i < 10000; i++)
+            assertTrue(coarse.add("Title " + i));
+
+        for (int i = 0; i < 10000; i++)
+            assertTrue(coarse.mightContain("Title " + i));
+
+        for (int i = 0; i < 10000; i += 2)
+            assertTrue(coarse.remove("Title " + i));
+
+        for (int i = 1; i < 10000; i += 2)
+            assertTrue(coarse.mightContain("Title " + i));
+
+        assertEquals(5000, coarse.getStats().getSize());
+    }
+
+    @Test
+    void testRemove() {
+        filter.add("The Lorax");
+        filter.add("Holes");
+
+        assertTrue(filter.remove("The Lorax"));
+        assertFalse(filter.mightContain("The Lorax"));
+        assertTrue(filter.mightContain("Holes"));
+        assertFalse(filter.remove("The Lorax"));
+        assertEquals(1, filter.getStats().getSize());
+    }
+
+    @Test
+    void testFull() {
+        CuckooFilter small = new CuckooFilter(4, 0.01);
+        int added = 0;
+
+        while (!small.isFull())
+            assertTrue(small.add("Title " + added++));
+
+        // The add that filled it kept its key and the fingerprint it kicked out, every key tests as present
+        assertTrue(added >= small.getCapacity());
+
+        for (int i = 0; i < added; i++)
+            assertTrue(small.mightContain("Title " + i));
+
+        // Full: later keys are only stored if their buckets have room, and say so
+        int late = 0;
+
+        for (int i = 0; i < 100; i++) {
+            String key = "Late " + i;
+
+            if (small.add(key)) {
+                late++;
+                assertTrue(small.mightContain(key));
+            }
+        }
+
+        assertEquals(added + late, small.getStats().getSize());
+        assertTrue(late < 100);
+
+        assertTrue(small.remove("Title 0"));
+        assertFalse(small.isFull());
+        assertTrue(small.mightContain("Title " + (added - 1)));
+    }
+
+    @Test
+    void testLibraryAuthorFilter() {
+        LibraryManager library = TestLibraries.basicCatalog("author-filter");
+        assertEquals("Sorry invalid search for sam\n", library.getAuthorByName("sam"));
+
+        assertEquals(6, library.getAuthorFilterStats().getSize());
+        assertEquals(1, library.getAuthorFilterStats().getNegativeCount() + library.getAuthorFilterStats().getFalsePositiveCount());
+    }
+}
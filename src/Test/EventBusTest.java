@@ -0,0 +1,98 @@
+package Test;
+
+import Helpers.RingBuffer;
+import Models.EventBus;
+import Models.LibraryEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventBusTest {
+    @Test
+    void testRingBufferOrderAndCapacity() {
+        RingBuffer<Integer> ringBuffer = new RingBuffer<>(4);
+        RingBuffer.Reader<Integer> reader = ringBuffer.addReader();
+
+        for (int i = 0; i < 4; i++)
+            assertTrue(ringBuffer.tryPublish(i));
+
+        // Full until the reader catches up
+        assertFalse(ringBuffer.tryPublish(4));
+
+        List<Integer> batch = new ArrayList<>();
+        assertEquals(3, reader.poll(batch, 3));
+        assertEquals(List.of(0, 1, 2), batch);
+
+        assertTrue(ringBuffer.tryPublish(4));
+        assertEquals(2, reader.poll(batch, 10));
+        assertEquals(List.of(0, 1, 2, 3, 4), batch);
+        assertEquals(0, reader.getBacklog());
+    }
+
+    @Test
+    void testSubscribersGetEveryEventInOrder() throws InterruptedException {
+        EventBus eventBus = new EventBus(64, EventBus.OverflowPolicy.BLOCK, 0);
+        ConcurrentLinkedQueue<LibraryEvent> received = new ConcurrentLinkedQueue<>();
+        EventBus.Subscription subscription = eventBus.subscribe("test", received::addAll, 16);
+
+        List<Thread> publishers = new ArrayList<>();
+
+        for (int i = 0; i < 4; i++) {
+            String userId = "user" + i;
+            Thread publisher = new Thread(() -> {
+                for (int j = 0; j < 500; j++)
+                    eventBus.publish(LibraryEvent.bookCheckedOut(userId, "Title " + j));
+            });
+            publishers.add(publisher);
+            publisher.start();
+        }
+
+        for (Thread publisher : publishers)
+            publisher.join();
+
+        subscription.close();
+        assertEquals(2000, received.size());
+        assertEquals(2000, subscription.getHandledCount());
+        assertEquals(0, eventBus.getDroppedCount());
+
+        // Each publisher's events arrive in the order they were published
+        int next = 0;
+
+        for (LibraryEvent event : received) {
+            if (event.getUserId().equals("user0"))
+                assertEquals("Title " + next++, event.getTitle());
+        }
+
+        assertEquals(500, next);
+    }
+
+    @Test
+    void testDropPolicy() {
+        EventBus eventBus = new EventBus(8, EventBus.OverflowPolicy.DROP, 0);
+
+        // Nothing is buffered without subscribers
+        eventBus.publish(LibraryEvent.bookRemoved("The Lorax"));
+        assertEquals(0, eventBus.getPublishedCount());
+
+        EventBus.Subscription subscription = eventBus.subscribe("slow", batch -> {
+            try {
+                Thread.sleep(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, 1);
+
+        for (int i = 0; i < 100; i++)
+            eventBus.publish(LibraryEvent.userCreated("id" + i, "Sam"));
+
+        assertTrue(eventBus.getDroppedCount() > 0);
+        assertEquals(100, eventBus.getPublishedCount() + eventBus.getDroppedCount());
+        assertEquals("USER_CREATED, User: id0, Name: Sam", LibraryEvent.userCreated("id0", "Sam").toString());
+        eventBus.setOverflowPolicy(EventBus.OverflowPolicy.BLOCK_WITH_TIMEOUT, 1);
+        assertEquals(EventBus.OverflowPolicy.BLOCK_WITH_TIMEOUT, eventBus.getOverflowPolicy());
+    }
+}
@@ -0,0 +1,83 @@
+package Test;
+
+import Models.*;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndexBuilderTest {
+    LibraryTenants tenants = new LibraryTenants();
+
+    Path exportCatalog() throws IOException {
+        LibraryManager library = tenants.getOrCreate("source");
+        library.addAuthor("Wilson Rawls", "09/24/1913");
+        library.addBook("Where The Red Fern Grows", "Wilson Rawls", "Fiction, Adventure", 2);
+        library.addBook("Summer Of The Monkeys", "Wilson Rawls", "Fiction", 1);
+        library.addBook("Frog And Toad", "Arnold Lobel, Wilson Rawls", "Children", 3);
+
+        Path directory = Files.createTempDirectory("snapshot");
+        directory.toFile().deleteOnExit();
+        library.exportColumnar(directory.toString());
+
+        for (File file : directory.toFile().listFiles())
+            file.deleteOnExit();
+
+        return directory;
+    }
+
+    @Test
+    void testIndexesBuiltOnFirstUse() throws IOException {
+        LibraryManager library = tenants.getOrCreate("lazy");
+        library.fastStartUpManager(exportCatalog().toString(), false);
+        IndexBuilder indexes = library.getIndexBuilder();
+
+        assertEquals(IndexBuilder.State.NOT_BUILT, indexes.getState(IndexBuilder.Index.GENRE));
+        assertEquals(IndexBuilder.State.NOT_BUILT, indexes.getState(IndexBuilder.Index.AUTHOR));
+        assertEquals(IndexBuilder.State.NOT_BUILT, indexes.getState(IndexBuilder.Index.SEARCH));
+        assertFalse(indexes.isAllReady());
+        assertFalse(library.getBookByTitle("Frog And Toad").startsWith("Sorry"));
+        assertEquals(3, library.getUniqueBookCount());
+
+        // Changed before the index is built, still found once it is
+        library.addBook("Holes", "Louis Sachar", "Fiction", 1);
+        library.removeBook(null, "Summer Of The Monkeys");
+
+        assertEquals("Holes", library.searchBooks("holes", 5));
+        assertTrue(indexes.isReady(IndexBuilder.Index.SEARCH));
+        assertFalse(indexes.isReady(IndexBuilder.Index.GENRE));
+        assertEquals("Arnold Lobel", library.getCoAuthors("wilson rawls"));
+        assertTrue(indexes.isReady(IndexBuilder.Index.AUTHOR));
+        assertEquals("Frog And Toad, Holes, Where The Red Fern Grows", library.getAllBookTitles());
+        assertTrue(indexes.isAllReady());
+    }
+
+    @Test
+    void testIndexesBuiltInBackground() throws IOException, InterruptedException {
+        LibraryManager library = tenants.getOrCreate("background");
+        library.fastStartUpManager(exportCatalog().toString(), true);
+
+        assertTrue(library.getIndexBuilder().awaitReady(10000));
+        assertTrue(library.getIndexBuilder().isAllReady());
+        assertEquals("Frog And Toad", library.searchBooks("toad", 5));
+        assertEquals("Where The Red Fern Grows", library.getAvailableBooksByAuthor("wilson rawls").split(", ")[2]);
+
+        CatalogQuery query = new CatalogQuery();
+        query.setGenre("fiction");
+        assertEquals(2, library.query(query).getBooks().size());
+    }
+
+    @Test
+    void testEagerLibraryIsAlwaysReady() throws InterruptedException {
+        LibraryManager library = tenants.getOrCreate("eager");
+        library.addBook("Holes", "Louis Sachar", "Fiction", 1);
+
+        assertTrue(library.getIndexBuilder().isAllReady());
+        assertTrue(library.getIndexBuilder().awaitReady(0));
+        assertEquals(0, library.getIndexBuilder().getBuildMillis(IndexBuilder.Index.SEARCH));
+    }
+}
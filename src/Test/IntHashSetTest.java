@@ -0,0 +1,67 @@
+package Test;
+
+import Helpers.IntHashSet;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntHashSetTest {
+    IntHashSet set = new IntHashSet();
+
+    @Test
+    void testAddAndRemove() {
+        assertTrue(set.isEmpty());
+        assertTrue(set.add(7));
+        assertFalse(set.add(7));
+        assertTrue(set.add(0));
+        assertTrue(set.add(-3));
+        assertEquals(3, set.size());
+        assertTrue(set.contains(0));
+        assertTrue(set.contains(-3));
+        assertFalse(set.contains(8));
+
+        assertTrue(set.remove(0));
+        assertFalse(set.remove(0));
+        assertFalse(set.contains(0));
+        assertTrue(set.remove(7));
+        assertEquals(1, set.size());
+
+        int[] values = set.toArray();
+        assertArrayEquals(new int[]{-3}, values);
+    }
+
+    @Test
+    void testMatchesHashSet() {
+        Set<Integer> expected = new HashSet<>();
+        Random random = new Random(42);
+
+        // Small range so adds and removes keep colliding and shifting entries back
+        for (int i = 0; i < 200000; i++) {
+            int value = random.nextInt(2000) - 100;
+
+            if (random.nextInt(3) == 0)
+                assertEquals(expected.remove(value), set.remove(value));
+            else
+                assertEquals(expected.add(value), set.add(value));
+
+            if (i % 1000 == 0) {
+                for (int check = -100; check < 1900; check++)
+                    assertEquals(expected.contains(check), set.contains(check));
+            }
+        }
+
+        assertEquals(expected.size(), set.size());
+        int[] values = set.toArray();
+        Arrays.sort(values);
+        assertArrayEquals(expected.stream().sorted().mapToInt(Integer::intValue).toArray(), values);
+
+        set.clear();
+        assertTrue(set.isEmpty());
+        assertFalse(set.contains(5));
+    }
+}
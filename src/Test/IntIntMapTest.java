@@ -0,0 +1,48 @@
+package Test;
+
+import Helpers.IntIntMap;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntIntMapTest {
+    IntIntMap map = new IntIntMap();
+
+    @Test
+    void testAddAndGet() {
+        assertEquals(0, map.get(5));
+        assertFalse(map.containsKey(5));
+        assertEquals(1, map.add(5, 1));
+        assertEquals(3, map.add(5, 2));
+        assertEquals(-1, map.add(0, -1));
+        assertTrue(map.containsKey(0));
+        assertEquals(2, map.size());
+        assertEquals(3, map.get(5));
+        assertEquals(-1, map.get(0));
+
+        Map<Integer, Integer> seen = new HashMap<>();
+        map.forEach(seen::put);
+        assertEquals(Map.of(0, -1, 5, 3), seen);
+    }
+
+    @Test
+    void testMatchesHashMap() {
+        Map<Integer, Integer> expected = new HashMap<>();
+        Random random = new Random(7);
+
+        for (int i = 0; i < 200000; i++) {
+            int key = random.nextInt(5000) - 100;
+            int delta = random.nextInt(10);
+            assertEquals((int) expected.merge(key, delta, Integer::sum), map.add(key, delta));
+        }
+
+        assertEquals(expected.size(), map.size());
+
+        for (int key : map.keys())
+            assertEquals((int) expected.get(key), map.get(key));
+    }
+}
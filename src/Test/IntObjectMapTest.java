@@ -0,0 +1,55 @@
+package Test;
+
+import Helpers.IntObjectMap;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntObjectMapTest {
+    IntObjectMap<String> map = new IntObjectMap<>();
+
+    @Test
+    void testPutGetRemove() {
+        assertNull(map.get(1));
+        assertNull(map.put(1, "one"));
+        assertNull(map.put(0, "zero"));
+        assertEquals("one", map.put(1, "uno"));
+        assertEquals(2, map.size());
+        assertEquals("uno", map.get(1));
+        assertEquals("zero", map.get(0));
+        assertTrue(map.containsKey(0));
+
+        assertEquals("zero", map.remove(0));
+        assertNull(map.remove(0));
+        assertFalse(map.containsKey(0));
+        assertEquals(List.of("uno"), map.values());
+        assertArrayEquals(new int[]{1}, map.keys());
+        assertThrows(NullPointerException.class, () -> map.put(2, null));
+    }
+
+    @Test
+    void testMatchesHashMap() {
+        Map<Integer, String> expected = new HashMap<>();
+        Random random = new Random(7);
+
+        for (int i = 0; i < 200000; i++) {
+            int key = random.nextInt(3000);
+
+            if (random.nextInt(3) == 0)
+                assertEquals(expected.remove(key), map.remove(key));
+            else
+                assertEquals(expected.put(key, "v" + i), map.put(key, "v" + i));
+
+            assertEquals(expected.get(key), map.get(key));
+        }
+
+        assertEquals(expected.size(), map.size());
+
+        for (int key : map.keys())
+            assertEquals(expected.get(key), map.get(key));
+
+        assertEquals(new HashSet<>(expected.values()), new HashSet<>(map.values()));
+    }
+}
@@ -0,0 +1,104 @@
+package Test;
+
+import Helpers.KeyedSerialExecutor;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeyedSerialExecutorTest {
+    ExecutorService pool = Executors.newFixedThreadPool(4);
+    KeyedSerialExecutor<String> executor = new KeyedSerialExecutor<>(pool);
+
+    @Test
+    void testSameKeyRunsInOrder() throws Exception {
+        List<Integer> ran = Collections.synchronizedList(new ArrayList<>());
+        List<CompletableFuture<Integer>> results = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < 2000; i++) {
+                int task = i;
+                results.add(executor.submit("holes", () -> {
+                    ran.add(task);
+                    return task;
+                }));
+            }
+
+            for (int i = 0; i < results.size(); i++)
+                assertEquals(i, (int) results.get(i).get(10, TimeUnit.SECONDS));
+
+            for (int i = 0; i < ran.size(); i++)
+                assertEquals(i, (int) ran.get(i));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testSameKeyWaitsDifferentKeyDoesnt() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean secondStarted = new AtomicBoolean();
+
+        try {
+            CompletableFuture<Boolean> first = executor.submit("holes", () -> await(release));
+            CompletableFuture<Boolean> second = executor.submit("holes", () -> secondStarted.getAndSet(true));
+
+            // Another title isn't held up by the first one, and is what lets it finish
+            CompletableFuture<String> other = executor.submit("the lorax", () -> {
+                release.countDown();
+                return "done";
+            });
+
+            assertEquals("done", other.get(10, TimeUnit.SECONDS));
+            assertTrue(first.get(10, TimeUnit.SECONDS));
+            assertFalse(second.get(10, TimeUnit.SECONDS));
+            assertTrue(secondStarted.get());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testFailureDoesntStopTheKey() throws Exception {
+        try {
+            CompletableFuture<String> failed = executor.submit("holes", () -> {
+                throw new IllegalStateException("broken");
+            });
+            CompletableFuture<String> next = executor.submit("holes", () -> "still runs");
+
+            ExecutionException error = assertThrows(ExecutionException.class, () -> failed.get(10, TimeUnit.SECONDS));
+            assertTrue(error.getCause() instanceof IllegalStateException);
+            assertEquals("still runs", next.get(10, TimeUnit.SECONDS));
+
+            // Cancelling a caller's future doesn't cancel the queue
+            CountDownLatch release = new CountDownLatch(1);
+            CompletableFuture<Boolean> blocked = executor.submit("holes", () -> await(release));
+            CompletableFuture<String> after = executor.submit("holes", () -> "after");
+            blocked.cancel(true);
+            release.countDown();
+            assertEquals("after", after.get(10, TimeUnit.SECONDS));
+
+            long deadline = System.currentTimeMillis() + 10000;
+
+            while (executor.getPendingKeyCount() > 0 && System.currentTimeMillis() < deadline)
+                Thread.sleep(5);
+
+            assertEquals(0, executor.getPendingKeyCount());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    static boolean await(CountDownLatch latch) {
+        try {
+            return latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            return false;
+        }
+    }
+}
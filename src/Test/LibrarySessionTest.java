@@ -0,0 +1,128 @@
+package Test;
+
+import Main.LibrarySession;
+import Main.QueueIO;
+import Models.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LibrarySessionTest {
+    LibraryManager library = TestLibraries.unlimited("sessions");
+    User reader = library.signUp("Reader", "password");
+    QueueIO io = new QueueIO(true);
+    LibrarySession session = new LibrarySession(library, io);
+
+    LibrarySessionTest() {
+        library.addBook("holes", "louis sachar", "fiction", 1);
+    }
+
+    /**
+     * Runs the session on this thread over the input lines, returns what it printed
+     **/
+    List<String> runScript(String... lines) {
+        for (String line : lines)
+            io.send(line);
+
+        io.close();
+        session.run();
+        return io.getOutput();
+    }
+
+    @Test
+    void testLoginFailureAndRetry() {
+        List<String> output = runScript("n", "Reader", reader.getId(), "wrong password",
+                "maybe", "n", "Reader", reader.getId(), "password");
+
+        assertEquals(List.of(
+                "Would you like to create a new user? (y/n)",
+                "Please enter your name.",
+                "Please enter your id.",
+                "Please enter your password.",
+                "Invalid login information!\n",
+                "Would you like to create a new user? (y/n)",
+                "Would you like to create a new user? (y/n)",
+                "Please enter your name.",
+                "Please enter your id.",
+                "Please enter your password.",
+                library.getSystemCommands()), output);
+        assertSame(reader, session.getCurrentUser());
+        assertFalse(session.isDone());
+    }
+
+    @Test
+    void testSignUp() {
+        List<String> output = runScript("y", "New Reader", "secret");
+        String created = output.get(4);
+
+        assertTrue(created.startsWith("Successfully Created new user. Your id is: "));
+        assertEquals("Would you like to create a new user? (y/n)", output.get(5));
+        assertNull(session.getCurrentUser());
+    }
+
+    @Test
+    void testCheckOutReturnAndQuit() {
+        List<String> output = runScript("n", "Reader", reader.getId(), "password",
+                "c", "holes",
+                "i", "b",
+                "r", "holes",
+                "r", "holes",
+                "q",
+                "ignored after quit");
+        String commands = library.getSystemCommands();
+
+        assertEquals(List.of(
+                "Would you like to create a new user? (y/n)",
+                "Please enter your name.",
+                "Please enter your id.",
+                "Please enter your password.",
+                commands,
+                "What book would you like to check out? (enter the book title)",
+                "Done: Holes\n",
+                commands,
+                "What would you like to look up? (i: info, b: books checked out, r: recommended books)",
+                "[Holes]",
+                commands,
+                "What is the title of the book you would like to return?",
+                "Done: Holes\n",
+                commands,
+                "What is the title of the book you would like to return?",
+                "You didn't check out the book: Holes!\n",
+                commands), output);
+        assertTrue(session.isDone());
+        assertEquals("[]", reader.getBooksCheckedOut());
+    }
+
+    @Test
+    void testCheckOutLimitAndLogout() {
+        reader.setCheckOutLimit(1);
+        List<String> output = runScript("n", "Reader", reader.getId(), "password", "c", "holes", "c", "l");
+        String commands = library.getSystemCommands();
+
+        assertEquals(List.of(
+                "You've reached your check out limit please return a book to check out another.",
+                commands,
+                "Would you like to create a new user? (y/n)"), output.subList(8, 11));
+        assertNull(session.getCurrentUser());
+        assertFalse(session.isDone());
+    }
+
+    @Test
+    void testSearchesAreRateLimitedPerUser() {
+        library.getAdmissionControl().setRateLimit(AdmissionControl.Operation.SEARCH, 0.001, 1);
+        List<String> output = runScript("n", "Reader", reader.getId(), "password",
+                "s", "b", "t", "holes",
+                "s", "b", "t", "holes");
+        String tooMany = "Too many searches, please wait a moment and try again.\n";
+
+        assertEquals(1, output.stream().filter(line -> line.startsWith("Title: Holes")).count());
+        assertTrue(output.contains(tooMany));
+
+        // Limited in the library itself, per user, and the library's own lookups aren't
+        assertEquals(tooMany, library.searchBooks(reader, "holes", 10));
+        assertEquals("Holes", library.searchBooks(library.signUp("Other", "password"), "holes", 10));
+        assertTrue(library.getBookByTitle("holes").startsWith("Title: Holes"));
+    }
+}
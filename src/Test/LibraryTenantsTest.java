@@ -0,0 +1,161 @@
+package Test;
+
+import Helpers.NameDictionary;
+import Models.*;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LibraryTenantsTest {
+    LibraryTenants tenants = new LibraryTenants();
+
+    @Test
+    void testTenantsAreIsolated() {
+        LibraryManager north = tenants.getOrCreate("north");
+        LibraryManager south = tenants.getOrCreate("south");
+
+        assertSame(north, tenants.getOrCreate("north"));
+        assertEquals("north", north.getTenantId());
+        assertSame(TenantQuota.defaultQuota, north.getQuota());
+        assertEquals(2, tenants.size());
+
+        north.addBook("Holes", "Louis Sachar", "Fiction", 2);
+        User user = south.signUp("Mary Poppins", "password");
+
+        assertEquals(1, north.getUniqueBookCount());
+        assertEquals(0, south.getUniqueBookCount());
+        assertEquals(0, north.getTotalUsers());
+        assertEquals(1, south.getTotalUsers());
+        assertEquals(LoanStatus.UNAVAILABLE, south.checkOutBook(user, "Holes"));
+
+        assertTrue(tenants.remove("south"));
+        assertFalse(tenants.remove("south"));
+        assertNull(tenants.get("south"));
+        assertEquals(1, tenants.size());
+    }
+
+    @Test
+    void testQuotas() {
+        LibraryManager small = tenants.getOrCreate("small", new TenantQuota(2, 3, 1, 64L << 20, 100, 100));
+
+        small.addBook("Holes", "Louis Sachar", "Fiction", 1);
+        small.addBook("The Lorax", "Dr. Suess", "Children", 1);
+        small.addBook("Frog And Toad", "Arnold Lobel", "Children", 1);
+        assertEquals(2, small.getUniqueBookCount());
+
+        small.addAuthor("Wilson Rawls", "09/24/1913");
+        small.addAuthor("Arnold Lobel", "05/22/1933");
+        assertEquals(3, small.getUniqueAuthorCount());
+
+        assertNotNull(small.signUp("Mary Poppins", "password"));
+        assertNull(small.signUp("Bert Alfred", "password"));
+        assertEquals(1, small.getTotalUsers());
+    }
+
+    @Test
+    void testMemoryQuota() {
+        LibraryManager small = tenants.getOrCreate("small", new TenantQuota(1000, 1000, 1000, 1, 100, 100));
+
+        small.addBook("Holes", "Louis Sachar", "Fiction", 1);
+        assertEquals(0, small.getUniqueBookCount());
+        assertTrue(small.getEstimatedMemoryBytes() > 0);
+        assertTrue(tenants.getEstimatedMemoryBytes() >= small.getEstimatedMemoryBytes());
+    }
+
+    LibraryManager holesLibrary(String tenantId, long maxMemoryBytes) {
+        LibraryManager library = tenants.getOrCreate(tenantId, new TenantQuota(100, 100, 100, maxMemoryBytes, 1e9,
+                1000000000));
+        library.addBook("Holes", "Louis Sachar", "Fiction", 5);
+        library.signUp("Mary Poppins", "password");
+        library.getAdmissionControl().setRateLimit(AdmissionControl.Operation.CHECKOUT, 1e9, 1000000000);
+        return library;
+    }
+
+    @Test
+    void testMemoryCountsCopiesAndLoans() {
+        LibraryManager library = holesLibrary("big", 1L << 40);
+        long before = library.getEstimatedMemoryBytes();
+
+        // 100k more copies take at least a bit each
+        library.addBook("Holes", "Louis Sachar", "Fiction", 100000);
+        long withCopies = library.getEstimatedMemoryBytes();
+        assertTrue(withCopies - before >= 100000 / 8, (withCopies - before) + " bytes");
+
+        // Each title borrowed by each user is a loan in the history and a co-checkout pair
+        for (int i = 0; i < 50; i++)
+            library.addBook("Title " + i, "Louis Sachar", "Fiction", 10);
+
+        long withBooks = library.getEstimatedMemoryBytes();
+
+        for (int u = 0; u < 10; u++) {
+            User user = library.signUp("Reader " + u, "password");
+            user.setCheckOutLimit(50);
+
+            for (int i = 0; i < 50; i++)
+                assertEquals(LoanStatus.SUCCESS, library.checkOutBook(user, "Title " + i));
+        }
+
+        long withLoans = library.getEstimatedMemoryBytes();
+        assertTrue(withLoans - withBooks >= 10 * 350 + 500 * 16 + 50 * 49 * 4, (withLoans - withBooks) + " bytes");
+    }
+
+    @Test
+    void testMemoryQuotaOnCopiesAndCheckouts() {
+        long used = holesLibrary("measured", 1L << 40).getEstimatedMemoryBytes();
+
+        // Room for a few bytes more: no more copies, no more loans
+        LibraryManager full = holesLibrary("full", used + 15);
+        full.addBook("Holes", "Louis Sachar", "Fiction", 100000);
+        assertEquals(5, full.takeSnapshot().getBooks().get(0).getTotalCopies());
+
+        User user = full.logIn(full.takeSnapshot().getUsers().get(0).getId(), "Mary Poppins", "password");
+        assertEquals(LoanStatus.LIBRARY_FULL, full.checkOutBook(user, "Holes"));
+        assertEquals(5, full.takeSnapshot().getBooks().get(0).getCopiesAvailable());
+
+        // A few copies still fit in the bitmap's first segment, a loan fits once there's room for its entry
+        LibraryManager roomy = holesLibrary("roomy", used + 16);
+        roomy.addBook("Holes", "Louis Sachar", "Fiction", 10);
+        assertEquals(15, roomy.takeSnapshot().getBooks().get(0).getTotalCopies());
+        user = roomy.logIn(roomy.takeSnapshot().getUsers().get(0).getId(), "Mary Poppins", "password");
+        assertEquals(LoanStatus.SUCCESS, roomy.checkOutBook(user, "Holes"));
+    }
+
+    @Test
+    void testOperationQuota() {
+        LibraryManager small = tenants.getOrCreate("small", new TenantQuota(100, 100, 100, 64L << 20, 1, 2));
+        small.addBook("Holes", "Louis Sachar", "Fiction", 5);
+        User user = small.signUp("Mary Poppins", "password");
+
+        assertEquals(LoanStatus.SUCCESS, small.checkOutBook(user, "Holes"));
+        assertEquals(LoanStatus.ALREADY_CHECKED_OUT, small.checkOutBook(user, "Holes"));
+        assertEquals(LoanStatus.RATE_LIMITED, small.checkOutBook(user, "Holes"));
+
+        // Other tenants have their own budget
+        LibraryManager other = tenants.getOrCreate("other", new TenantQuota(100, 100, 100, 64L << 20, 1, 2));
+        other.addBook("Holes", "Louis Sachar", "Fiction", 5);
+        assertEquals(LoanStatus.SUCCESS, other.checkOutBook(other.signUp("Bert Alfred",
+                "password"), "Holes"));
+    }
+
+    @Test
+    void testNamesStayWithTheLibrary() {
+        LibraryManager north = tenants.getOrCreate("north");
+        north.addBook("Holes", "Louis Sachar", "Desertpunk", 1);
+
+        // The library's books keep their genres in its own dictionary, not the JVM-wide one
+        assertEquals(-1, NameDictionary.shared().lookup("Desertpunk"));
+        assertEquals("[Desertpunk]", north.takeSnapshot().getBooks().get(0).getGenres().toString());
+        assertTrue(north.findBooksByGenre("desertpunk").contains("Holes"));
+    }
+
+    @Test
+    void testSharedStrings() {
+        LibraryManager north = tenants.getOrCreate("north");
+        LibraryManager south = tenants.getOrCreate("south");
+        north.addBook(new String("Where The Red Fern Grows"), "Wilson Rawls", "Fiction", 1);
+        south.addBook(new String("Where The Red Fern Grows"), "Wilson Rawls", "Fiction", 1);
+
+        assertSame(north.takeSnapshot().getBooks().get(0).getTitle(), south.takeSnapshot().getBooks().get(0).getTitle());
+        assertSame(north.takeSnapshot().getAuthors().get(0).getName(), south.takeSnapshot().getAuthors().get(0).getName());
+    }
+}
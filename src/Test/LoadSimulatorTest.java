@@ -0,0 +1,62 @@
+package Test;
+
+import Benchmarks.LoadSimulator;
+import Models.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoadSimulatorTest {
+    LoadSimulator newSimulator(long seed, int threads) {
+        LoadSimulator simulator = new LoadSimulator(seed, threads, 3000);
+        simulator.setTitles(300);
+        simulator.setPatronsPerThread(10);
+        return simulator;
+    }
+
+    /**
+     * Copies available of every title in the library
+     **/
+    static Map<String, Integer> availability(LibraryManager library) {
+        Map<String, Integer> copies = new TreeMap<>();
+
+        for (CatalogSnapshot.BookInfo book : library.takeSnapshot().getBooks())
+            copies.put(book.getTitle(), book.getCopiesAvailable());
+
+        return copies;
+    }
+
+    @Test
+    void testSameSeedSameRun() throws InterruptedException {
+        LibraryManager first = TestLibraries.unlimited("first");
+        LibraryManager second = TestLibraries.unlimited("second");
+        LoadSimulator.Report firstReport = newSimulator(7, 1).run(first);
+        LoadSimulator.Report secondReport = newSimulator(7, 1).run(second);
+
+        assertEquals(0, firstReport.getViolationCount(), firstReport.toString());
+        assertEquals(availability(first), availability(second));
+
+        for (LoadSimulator.Operation operation : LoadSimulator.Operation.values()) {
+            assertEquals(firstReport.getCount(operation, false), secondReport.getCount(operation, false));
+            assertEquals(firstReport.getCount(operation, true), secondReport.getCount(operation, true));
+        }
+
+        LoadSimulator.Report otherSeed = newSimulator(8, 1).run(TestLibraries.unlimited("third"));
+        assertNotEquals(firstReport.getCount(LoadSimulator.Operation.CHECKOUT, true),
+                otherSeed.getCount(LoadSimulator.Operation.CHECKOUT, true));
+    }
+
+    @Test
+    void testInvariantsHoldWithManyThreads() throws InterruptedException {
+        LoadSimulator.Report report = newSimulator(42, 4).run(TestLibraries.unlimited("threads"));
+
+        assertEquals(0, report.getViolationCount(), report.toString());
+        assertEquals(12000, report.getOperationCount());
+        assertTrue(report.getCount(LoadSimulator.Operation.CHECKOUT, true) > 0);
+        assertTrue(report.getLatencyPercentile(null, 50) <= report.getLatencyPercentile(null, 99));
+        assertTrue(report.getThroughput() > 0);
+    }
+}
@@ -0,0 +1,102 @@
+package Test;
+
+import Helpers.NameDictionary;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NameDictionaryTest {
+    NameDictionary names = new NameDictionary();
+
+    @Test
+    void testIdsAreDenseAndReused() {
+        assertEquals(0, names.idOf("Dr. Suess"));
+        assertEquals(1, names.idOf("Louis Sachar"));
+        assertEquals(0, names.idOf(new String("Dr. Suess")));
+        assertEquals(1, names.lookup("Louis Sachar"));
+        assertEquals(-1, names.lookup("Arnold Lobel"));
+        assertEquals(-1, names.lookup(null));
+        assertEquals("Louis Sachar", names.nameOf(1));
+        assertNull(names.nameOf(2));
+        assertNull(names.nameOf(-1));
+
+        assertEquals(0, names.remove("Dr. Suess"));
+        assertEquals(-1, names.remove("Dr. Suess"));
+        assertNull(names.nameOf(0));
+        assertEquals(1, names.size());
+
+        // The free id goes to the next new name
+        assertEquals(0, names.idOf("Arnold Lobel"));
+        assertEquals(1, names.lookup("Louis Sachar"));
+    }
+
+    @Test
+    void testMatchesHashMap() {
+        Map<String, Integer> expected = new HashMap<>();
+        Random random = new Random(3);
+
+        for (int i = 0; i < 100000; i++) {
+            String name = "Author " + random.nextInt(2000);
+
+            if (random.nextInt(3) == 0) {
+                Integer id = expected.remove(name);
+                assertEquals((id == null) ? -1 : id, names.remove(name));
+            } else {
+                int id = names.idOf(name);
+                assertEquals((int) expected.computeIfAbsent(name, n -> id), id);
+                assertEquals(name, names.nameOf(id));
+            }
+        }
+
+        assertEquals(expected.size(), names.size());
+
+        for (Map.Entry<String, Integer> entry : expected.entrySet())
+            assertEquals((int) entry.getValue(), names.lookup(entry.getKey()));
+    }
+
+    @Test
+    void testLookupsWhileChanging() throws InterruptedException {
+        int[] ids = new int[100];
+
+        for (int i = 0; i < ids.length; i++)
+            ids[i] = names.idOf("Genre " + i);
+
+        // Lookups don't lock, they must still find every name kept while others come and go (and the table grows)
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicInteger misses = new AtomicInteger();
+        Thread reader = new Thread(() -> {
+            while (!done.get()) {
+                for (int i = 0; i < ids.length; i++) {
+                    if (names.lookup("Genre " + i) != ids[i] || !("Genre " + i).equals(names.nameOf(ids[i])))
+                        misses.incrementAndGet();
+                }
+            }
+        });
+        reader.start();
+
+        for (int i = 0; i < 200000; i++) {
+            names.idOf("Temp " + i);
+
+            if (i % 2 == 1)
+                names.remove("Temp " + (i - 1));
+        }
+
+        done.set(true);
+        reader.join();
+        assertEquals(0, misses.get());
+        assertEquals(100 + 100000, names.size());
+    }
+
+    @Test
+    void testSharedDictionary() {
+        assertSame(NameDictionary.shared(), NameDictionary.shared());
+        int id = NameDictionary.shared().idOf("Fiction");
+        assertEquals("Fiction", NameDictionary.shared().nameOf(id));
+    }
+}
@@ -0,0 +1,69 @@
+package Test;
+
+import Models.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PopularityTrackerTest {
+    Book holes = new Book("Holes", "Louis Sachar", "Fiction, Adventure", 5);
+    Book lorax = new Book("The Lorax", "Dr. Suess", "Children, Picture", 5);
+    Book giver = new Book("The Giver", "Lois Lowry", "Fiction, Dystopian", 5);
+
+    @Test
+    void testCountsFadeWithTheHalfLife() {
+        AtomicLong clock = new AtomicLong();
+        // Counts halve every second
+        PopularityTracker tracker = new PopularityTracker(8, 1000, clock::get);
+
+        for (int i = 0; i < 50; i++)
+            tracker.recordCheckout(holes);
+
+        tracker.recordLookup(lorax);
+        assertEquals(List.of("Holes", "The Lorax"), tracker.getTrendingTitles(2));
+
+        // 4 half lives later Holes' 100 is down to ~6, so a burst of newer lookups passes it
+        clock.addAndGet(4_000_000_000L);
+
+        for (int i = 0; i < 20; i++)
+            tracker.recordLookup(giver);
+
+        assertEquals(List.of("The Giver", "Holes"), tracker.getTrendingTitles(2));
+        assertEquals(List.of("Fiction", "Dystopian"), tracker.getTrendingGenres(2));
+    }
+
+    @Test
+    void testCheckoutsMoveTitlesAndGenresUp() {
+        LibraryManager library = TestLibraries.unlimited("trending");
+        library.addBook("holes", "louis sachar", "fiction, adventure", 5);
+        library.addBook("the lorax", "dr. suess", "children, picture", 5);
+        library.addBook("the giver", "lois lowry", "fiction, dystopian", 5);
+
+        String none = "There is no information currently available.";
+        assertEquals(none, library.getTrendingTitles(3));
+        assertEquals(none, library.getTrendingGenres(3));
+
+        // 3 lookups of The Lorax vs. 2 checkouts of The Giver (a checkout counts as 2 lookups)
+        for (int i = 0; i < 3; i++)
+            library.getBookByTitle("the lorax");
+
+        assertEquals("The Lorax", library.getTrendingTitles(3));
+        assertEquals("Children, Picture", library.getTrendingGenres(3));
+
+        for (int i = 0; i < 2; i++)
+            library.checkOutBook(library.signUp("Reader " + i, "password"), "the giver");
+
+        library.getBookByTitle("holes");
+        assertEquals("The Giver, The Lorax, Holes", library.getTrendingTitles(3));
+        assertEquals("The Giver, The Lorax", library.getTrendingTitles(2));
+        // Fiction: The Giver's 4 + Holes' 1
+        assertEquals("Fiction, Dystopian, Children, Picture, Adventure", library.getTrendingGenres(5));
+
+        // Titles that left the library aren't trending anymore
+        library.removeBook(null, "the lorax");
+        assertEquals("The Giver, Holes", library.getTrendingTitles(3));
+    }
+}
@@ -0,0 +1,173 @@
+package Test;
+
+import Models.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueryPlannerTest {
+    HashMap<String, Book> books = new HashMap<>();
+    HashMap<String, Author> authors = new HashMap<>();
+    TitleIndex titleIndex = new TitleIndex();
+    CatalogGraph catalogGraph = new CatalogGraph();
+    AuthorDateIndex authorDateIndex = new AuthorDateIndex();
+    QueryPlanner planner = new QueryPlanner(books, authors, titleIndex, catalogGraph, authorDateIndex);
+
+    void addAuthor(String name, String birthDate) {
+        Author author = new Author(name, birthDate);
+        authors.put(name, author);
+        authorDateIndex.add(name, author.getBirthEpochDay());
+    }
+
+    Book addBook(String title, String author, String genres, int copies) {
+        Book book = new Book(title, author, genres, copies);
+        books.put(title, book);
+        titleIndex.add(book);
+        catalogGraph.link(author, title);
+        return book;
+    }
+
+    void buildCatalog() {
+        addAuthor("Dr. Suess", "03/02/1904");
+        addAuthor("Wilson Rawls", "09/24/1913");
+        addAuthor("Arnold Lobel", "05/22/1933");
+
+        for (int i = 0; i < 100; i++)
+            addBook(String.format("Fiction Book %03d", i), "Wilson Rawls", "Fiction", 1 + i % 2);
+
+        addBook("The Cat In The Hat", "Dr. Suess", "Children, Fiction", 2);
+        addBook("The Lorax", "Dr. Suess", "Children", 1).checkOutBook();
+        addBook("Green Eggs And Ham", "Dr. Suess", "Children", 1);
+        addBook("Frog And Toad", "Arnold Lobel", "Children", 3);
+    }
+
+    List<String> titles(CatalogPage page) {
+        List<String> titles = new ArrayList<>();
+
+        for (CatalogSnapshot.BookInfo book : page.getBooks())
+            titles.add(book.getTitle());
+
+        return titles;
+    }
+
+    @Test
+    void testPicksMostSelectiveIndex() {
+        buildCatalog();
+
+        CatalogQuery query = new CatalogQuery();
+        query.setGenre("fiction");
+        query.setAuthor("dr. suess");
+        CatalogPage page = planner.run(query);
+
+        assertEquals(List.of("The Cat In The Hat"), titles(page));
+        assertEquals(QueryPlanner.Index.AUTHOR, page.getIndexUsed());
+        assertEquals(3, page.getCandidatesScanned());
+        assertFalse(page.hasMore());
+
+        query = new CatalogQuery();
+        query.setGenre("children");
+        query.setTitlePrefix("the");
+        assertEquals(QueryPlanner.Index.TITLE_PREFIX, planner.run(query).getIndexUsed());
+
+        query = new CatalogQuery();
+        query.setGenre("children");
+        assertEquals(QueryPlanner.Index.GENRE, planner.run(query).getIndexUsed());
+
+        query = new CatalogQuery();
+        query.setAvailableOnly(true);
+        assertEquals(QueryPlanner.Index.ALL_TITLES, planner.run(query).getIndexUsed());
+    }
+
+    @Test
+    void testCombinedFilters() {
+        buildCatalog();
+
+        CatalogQuery query = new CatalogQuery();
+        query.setGenre("Children");
+        query.setAvailableOnly(true);
+        assertEquals(List.of("Frog And Toad", "Green Eggs And Ham", "The Cat In The Hat"), titles(planner.run(query)));
+
+        query = new CatalogQuery();
+        assertTrue(query.setAuthorBornBetween("01/01/1900", "12/31/1910"));
+        assertFalse(query.setAuthorBornBetween("01/01/1900", "02/31/1910"));
+        query.setSortOrder(CatalogQuery.SortOrder.TITLE_DESCENDING);
+        CatalogPage page = planner.run(query);
+        assertEquals(List.of("The Lorax", "The Cat In The Hat", "Green Eggs And Ham"), titles(page));
+        assertEquals(QueryPlanner.Index.AUTHOR_BIRTH_DATE, page.getIndexUsed());
+
+        query.setTitlePrefix("the c");
+        assertEquals(List.of("The Cat In The Hat"), titles(planner.run(query)));
+
+        query = new CatalogQuery();
+        query.setGenre("Horror");
+        assertTrue(planner.run(query).getBooks().isEmpty());
+    }
+
+    @Test
+    void testCursorPagination() {
+        buildCatalog();
+
+        CatalogQuery query = new CatalogQuery();
+        query.setGenre("fiction");
+        query.setAvailableOnly(true);
+        query.setPageSize(30);
+
+        List<String> all = new ArrayList<>();
+        int pages = 0;
+        CatalogPage page;
+
+        do {
+            page = planner.run(query);
+            all.addAll(titles(page));
+            query.setCursor(page.getNextCursor());
+            pages++;
+            // A page never scans much more than it returns plus what the filters reject
+            assertTrue(page.getCandidatesScanned() <= 31, "scanned: " + page.getCandidatesScanned());
+        } while (page.hasMore());
+
+        assertEquals(4, pages);
+        assertEquals(101, all.size());
+        assertEquals("Fiction Book 000", all.get(0));
+        assertEquals("The Cat In The Hat", all.get(100));
+
+        List<String> sorted = new ArrayList<>(all);
+        sorted.sort(null);
+        assertEquals(sorted, all);
+        assertThrows(IllegalArgumentException.class, () -> query.setCursor("not a cursor!"));
+    }
+
+    @Test
+    void testIndexFollowsGenreChanges() {
+        Book book = addBook("Holes", "Louis Sachar", "Adventure", 1);
+
+        titleIndex.remove(book);
+        book.removeGenre("Adventure");
+        book.addGenre("Mystery");
+        titleIndex.add(book);
+
+        assertTrue(titleIndex.getTitlesInGenre("Adventure").isEmpty());
+        assertEquals(List.of("Holes"), List.copyOf(titleIndex.getTitlesInGenre("Mystery")));
+        assertEquals(List.of("Holes"), List.copyOf(titleIndex.getTitlesStartingWith("Ho")));
+    }
+
+    @Test
+    void testLibraryQueryPages() {
+        LibraryManager library = TestLibraries.basicCatalog("query-pages");
+        CatalogQuery query = new CatalogQuery();
+        query.setGenre("fiction");
+        query.setPageSize(3);
+
+        CatalogPage page = library.query(query);
+        assertEquals(3, page.getBooks().size());
+        assertEquals("Frog And Toad Are Friends", page.getBooks().get(0).getTitle());
+
+        query.setCursor(page.getNextCursor());
+        page = library.query(query);
+        assertEquals("Where The Red Fern Grows", page.getBooks().get(0).getTitle());
+        assertFalse(page.hasMore());
+    }
+}
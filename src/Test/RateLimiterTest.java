@@ -0,0 +1,117 @@
+package Test;
+
+import Helpers.ConcurrencyLimiter;
+import Helpers.RateLimiter;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimiterTest {
+    AtomicLong clock = new AtomicLong(1000);
+    // 10 tokens per second, bursts of 3
+    RateLimiter limiter = new RateLimiter(10, 3, 2, clock::get);
+
+    @Test
+    void testBurstAndRefill() {
+        assertEquals(3, limiter.getAvailableTokens("sam"));
+        assertTrue(limiter.tryAcquire("sam"));
+        assertTrue(limiter.tryAcquire("sam"));
+        assertTrue(limiter.tryAcquire("sam"));
+        assertFalse(limiter.tryAcquire("sam"));
+        assertEquals(0, limiter.getAvailableTokens("sam"));
+
+        // Other keys have their own bucket
+        assertTrue(limiter.tryAcquire("kim"));
+
+        // One token every 100 ms, never more than the burst
+        clock.addAndGet(100_000_000);
+        assertTrue(limiter.tryAcquire("sam"));
+        assertFalse(limiter.tryAcquire("sam"));
+
+        clock.addAndGet(10_000_000_000L);
+        assertEquals(3, limiter.getAvailableTokens("sam"));
+
+        assertEquals(5, limiter.getAllowedCount());
+        assertEquals(2, limiter.getRejectedCount());
+    }
+
+    @Test
+    void testFullBucketsAreDropped() {
+        limiter.tryAcquire("sam");
+        limiter.tryAcquire("kim");
+        assertEquals(2, limiter.getKeyCount());
+
+        // Both buckets are full again, so one is dropped to make room
+        clock.addAndGet(1_000_000_000);
+        limiter.tryAcquire("lee");
+        assertEquals(2, limiter.getKeyCount());
+        assertEquals(2, limiter.getAvailableTokens("lee"));
+        assertEquals(0, limiter.getOverflowCount());
+    }
+
+    @Test
+    void testKeyCountNeverPassesMaxKeys() {
+        for (int i = 0; i < 3; i++)
+            limiter.tryAcquire("sam");
+
+        // Nobody's bucket is full, so new keys share the overflow bucket (3 tokens) instead of adding buckets
+        int allowed = 0;
+
+        for (int i = 0; i < 100000; i++) {
+            if (limiter.tryAcquire("key " + i))
+                allowed++;
+
+            assertTrue(limiter.getKeyCount() <= 2);
+        }
+
+        // "key 0" got the free bucket, the rest shared the overflow bucket's 3 tokens
+        assertEquals(1 + 3, allowed);
+        assertEquals(99999, limiter.getOverflowCount());
+        // Sam's bucket was kept, the flood didn't refill it
+        assertFalse(limiter.tryAcquire("sam"));
+    }
+
+    @Test
+    void testConcurrencyLimiterQueue() throws InterruptedException {
+        ConcurrencyLimiter concurrency = new ConcurrencyLimiter(1, 1, 5000);
+        assertTrue(concurrency.tryEnter());
+
+        CountDownLatch waiting = new CountDownLatch(1);
+        boolean[] queuedEntered = new boolean[1];
+        Thread queued = new Thread(() -> {
+            waiting.countDown();
+            queuedEntered[0] = concurrency.tryEnter();
+
+            if (queuedEntered[0])
+                concurrency.exit();
+        });
+        queued.start();
+        waiting.await();
+
+        while (concurrency.getQueued() == 0)
+            Thread.onSpinWait();
+
+        // One running and one queued, the next caller is turned away right away
+        assertFalse(concurrency.tryEnter());
+        assertEquals(1, concurrency.getRejectedCount());
+
+        concurrency.exit();
+        queued.join();
+        assertTrue(queuedEntered[0]);
+        assertEquals(0, concurrency.getRunning());
+    }
+
+    @Test
+    void testConcurrencyLimiterTimeout() {
+        ConcurrencyLimiter concurrency = new ConcurrencyLimiter(1, 4, 10);
+        assertTrue(concurrency.tryEnter());
+        assertFalse(concurrency.tryEnter());
+        assertEquals(1, concurrency.getTimedOutCount());
+
+        concurrency.exit();
+        assertTrue(concurrency.tryEnter());
+    }
+}
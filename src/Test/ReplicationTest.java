@@ -0,0 +1,125 @@
+package Test;
+
+import Models.*;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplicationTest {
+
+    /**
+     * Waits until the follower has applied every change the leader made
+     **/
+    static void awaitCaughtUp(ReplicationLeader leader, ReplicationFollower follower) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+
+        while (leader.getMaxLagEvents() > 0 || follower.getAppliedSequence() < leader.getLastSequence()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Follower didn't catch up");
+            Thread.sleep(5);
+        }
+    }
+
+    @Test
+    void testFollowerStartsFromSnapshot() throws IOException, InterruptedException {
+        LibraryManager leaderLibrary = TestLibraries.unlimited("leader");
+        leaderLibrary.addAuthor("Wilson Rawls", "09/24/1913");
+        leaderLibrary.addBook("Where The Red Fern Grows", "Wilson Rawls", "Fiction, Adventure", 2);
+        User user = leaderLibrary.signUp("Kiosk User", "password");
+        leaderLibrary.checkOutBook(user, "Where The Red Fern Grows");
+
+        try (ReplicationLeader leader = new ReplicationLeader(leaderLibrary, 0)) {
+            LibraryManager followerLibrary = TestLibraries.unlimited("follower");
+            ReplicationFollower follower = new ReplicationFollower(followerLibrary, "localhost", leader.getPort());
+
+            assertTrue(follower.start());
+            assertEquals(leaderLibrary.getBookByTitle("where the red fern grows"),
+                    followerLibrary.getBookByTitle("where the red fern grows"));
+            assertEquals(leaderLibrary.getAuthorByName("wilson rawls"), followerLibrary.getAuthorByName("wilson rawls"));
+            assertNotNull(followerLibrary.logIn(user.getId(), "Kiosk User", "password"));
+            ConcurrencyTest.assertConsistent(followerLibrary.takeSnapshot());
+            follower.close();
+        }
+    }
+
+    @Test
+    void testFollowerMakesEveryChange() throws IOException, InterruptedException {
+        LibraryManager leaderLibrary = TestLibraries.unlimited("leader");
+
+        try (ReplicationLeader leader = new ReplicationLeader(leaderLibrary, 0)) {
+            LibraryManager followerLibrary = TestLibraries.unlimited("follower");
+            ReplicationFollower follower = new ReplicationFollower(followerLibrary, "localhost", leader.getPort());
+            assertTrue(follower.start());
+
+            leaderLibrary.addAuthor("Louis Sachar", "03/20/1954");
+            leaderLibrary.addAuthor("Arnold Lobel", "05/22/1933");
+            leaderLibrary.addBook("Holes", "Louis Sachar", "Fiction", 2);
+            leaderLibrary.addBook("Holes", "Louis Sachar", "Fiction", 1);
+            leaderLibrary.addBook("Frog And Toad", "Arnold Lobel", "Children", 1);
+            leaderLibrary.addBook("Wayside School", "Louis Sachar", "Children, Fiction", 1);
+            User user = leaderLibrary.signUp("Kiosk User", "password");
+            assertEquals(LoanStatus.SUCCESS, leaderLibrary.checkOutBook(user, "Holes"));
+            assertEquals(LoanStatus.SUCCESS, leaderLibrary.checkOutBook(user, "Frog And Toad"));
+            assertEquals(LoanStatus.SUCCESS, leaderLibrary.checkOutBook(user, "Wayside School"));
+            leaderLibrary.returnBook(user, "Holes");
+            leaderLibrary.removeBook(null, "Frog And Toad");
+            leaderLibrary.removeAuthor(null, "Arnold Lobel");
+            awaitCaughtUp(leader, follower);
+
+            for (String title : new String[]{"holes", "frog and toad", "wayside school"})
+                assertEquals(leaderLibrary.getBookByTitle(title), followerLibrary.getBookByTitle(title));
+
+            assertEquals(leaderLibrary.findBooksByGenre("children"), followerLibrary.findBooksByGenre("children"));
+            assertEquals(leaderLibrary.getAuthorByName("louis sachar"), followerLibrary.getAuthorByName("louis sachar"));
+            assertEquals(leaderLibrary.getAuthorByName("arnold lobel"), followerLibrary.getAuthorByName("arnold lobel"));
+            assertNotNull(followerLibrary.logIn(user.getId(), "Kiosk User", "password"));
+
+            // The retired book goes away on both once its last copy is returned
+            leaderLibrary.returnBook(user, "Frog And Toad");
+            awaitCaughtUp(leader, follower);
+            assertTrue(followerLibrary.getBookByTitle("frog and toad").startsWith("Sorry"));
+            assertEquals(leaderLibrary.getUniqueBookCount(), followerLibrary.getUniqueBookCount());
+            ConcurrencyTest.assertConsistent(followerLibrary.takeSnapshot());
+            follower.close();
+        }
+    }
+
+    @Test
+    void testLagIsReported() throws IOException, InterruptedException {
+        LibraryManager leaderLibrary = TestLibraries.unlimited("leader");
+
+        // Closed halfway through, so not a try-with-resources
+        ReplicationLeader leader = new ReplicationLeader(leaderLibrary, 0);
+
+        try {
+            LibraryManager followerLibrary = TestLibraries.unlimited("follower");
+            ReplicationFollower follower = new ReplicationFollower(followerLibrary, "localhost", leader.getPort());
+            assertTrue(follower.start());
+            assertEquals(1, leader.getFollowerCount());
+
+            for (int i = 0; i < 2000; i++)
+                leaderLibrary.addBook("Title " + i, "Author " + (i % 50), "Fiction", 1);
+
+            awaitCaughtUp(leader, follower);
+            assertEquals(0, leader.getMaxLagEvents());
+            assertEquals(0, follower.getLagEvents());
+            assertEquals(leader.getLastSequence(), follower.getAppliedSequence());
+            assertTrue(follower.getLagMillis() >= 0);
+            assertEquals(2000, followerLibrary.getUniqueBookCount());
+
+            // The follower keeps its library once the leader is gone
+            leader.close();
+            long deadline = System.currentTimeMillis() + 10000;
+
+            while (follower.isConnected() && System.currentTimeMillis() < deadline)
+                Thread.sleep(5);
+
+            assertFalse(follower.isConnected());
+            assertEquals(2000, followerLibrary.getUniqueBookCount());
+            assertEquals(0, leader.getFollowerCount());
+        } finally {
+            leader.close();
+        }
+    }
+}
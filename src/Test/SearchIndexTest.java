@@ -0,0 +1,80 @@
+package Test;
+
+import Models.Book;
+import Models.SearchIndex;
+import org.junit.jupiter.api.Test;
+import Models.LibraryManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchIndexTest {
+    Book redFern = new Book("Where The Red Fern Grows", "Wilson Rawls", "Adventure, Fiction", 6);
+    Book mountain = new Book("My Side Of The Mountain", "Jean Craighed George", "Adventure, Fiction", 4);
+    Book cat = new Book("The Cat In The Hat", "Dr. Suess", "Children, Fiction, Picture", 10);
+    Book lorax = new Book("The Lorax", "Dr. Suess", "Children, Fiction, Picture", 5);
+    Book gatsby = new Book("The Great Gatsby", "F. Scott Fitzgerald", "Historical Fiction, American, Romance", 4);
+
+    SearchIndex index = new SearchIndex();
+
+    void indexAll() {
+        for (Book aBook : new Book[]{redFern, mountain, cat, lorax, gatsby})
+            index.index(aBook);
+    }
+
+    @Test
+    void testSearchByTitleAuthorAndGenre() {
+        indexAll();
+        assertEquals(5, index.size());
+
+        assertEquals(List.of("The Great Gatsby"), index.search("gatsby", 10));
+        assertEquals(List.of("The Lorax"), index.search("suess lorax", 10));
+        assertEquals(2, index.search("Suess", 10).size());
+        assertEquals(2, index.search("adventure", 10).size());
+        assertTrue(index.search("suess adventure", 10).isEmpty());
+        assertTrue(index.search("nothing", 10).isEmpty());
+        assertTrue(index.search(null, 10).isEmpty());
+    }
+
+    @Test
+    void testRankingAndLimit() {
+        indexAll();
+
+        // "the" shows up in every title except one, "fern" in only one
+        assertEquals("Where The Red Fern Grows", index.search("the fern", 10).get(0));
+        assertEquals(1, index.search("fiction", 1).size());
+        assertEquals(5, index.search("fiction", 10).size());
+    }
+
+    @Test
+    void testPhraseQueries() {
+        indexAll();
+
+        assertEquals(List.of("Where The Red Fern Grows"), index.search("\"red fern\"", 10));
+        assertTrue(index.search("\"fern red\"", 10).isEmpty());
+
+        // Phrases don't cross from the title into the authors
+        assertTrue(index.search("\"hat dr\"", 10).isEmpty());
+    }
+
+    @Test
+    void testIncrementalUpdates() {
+        indexAll();
+
+        index.remove("The Lorax");
+        assertEquals(List.of("The Cat In The Hat"), index.search("suess", 10));
+        assertEquals(4, index.size());
+
+        index.index(lorax);
+        index.index(lorax);
+        assertEquals(5, index.size());
+        assertEquals(List.of("The Lorax"), index.search("lorax", 10));
+    }
+
+    @Test
+    void testLibrarySearch() {
+        LibraryManager library = TestLibraries.basicCatalog("search");
+        assertEquals("Where The Red Fern Grows", library.searchBooks("\"red fern\" rawls", 5));
+    }
+}
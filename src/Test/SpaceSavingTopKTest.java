@@ -0,0 +1,68 @@
+package Test;
+
+import Helpers.SpaceSavingTopK;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpaceSavingTopKTest {
+    AtomicLong clock = new AtomicLong();
+    // 4 candidates, counts halve every second
+    SpaceSavingTopK<String> topK = new SpaceSavingTopK<>(4, 1000, clock::get);
+
+    @Test
+    void testHeavyHittersWin() {
+        for (int i = 0; i < 1000; i++) {
+            topK.add("The Lorax", 3);
+            topK.add("Holes", 2);
+            // A long tail of titles seen once each
+            topK.increment("Title " + i);
+        }
+
+        assertEquals(List.of("The Lorax", "Holes"), topK.getTop(2));
+        assertTrue(topK.estimate("The Lorax") >= 3000);
+        assertTrue(topK.getTop(10).size() <= 4);
+    }
+
+    @Test
+    void testCountsDecay() {
+        for (int i = 0; i < 100; i++)
+            topK.increment("Holes");
+
+        // Old activity fades, so a newer title overtakes it
+        clock.addAndGet(3_000_000_000L);
+
+        for (int i = 0; i < 60; i++)
+            topK.increment("The Giver");
+
+        assertEquals(List.of("The Giver", "Holes"), topK.getTop(2));
+        assertTrue(topK.estimate("Holes") <= 100 / 8);
+    }
+
+    @Test
+    void testConcurrentAdds() throws InterruptedException {
+        List<Thread> workers = new ArrayList<>();
+
+        for (int t = 0; t < 8; t++) {
+            int thread = t;
+            Thread worker = new Thread(() -> {
+                for (int i = 0; i < 10000; i++) {
+                    topK.increment("The Lorax");
+                    topK.increment("Thread " + thread + " title " + i);
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+
+        for (Thread worker : workers)
+            worker.join();
+
+        assertEquals("The Lorax", topK.getTop(1).get(0));
+        assertTrue(topK.estimate("The Lorax") >= 80000);
+    }
+}
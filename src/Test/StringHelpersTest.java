@@ -3,7 +3,10 @@ package Test;
 import org.junit.jupiter.api.Test;
 import Helpers.StringHelpers;
 
+import java.io.IOException;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -29,6 +32,8 @@ class StringHelpersTest {
         assertFalse(StringHelpers.isTitleCase("-no"));
         assertTrue(StringHelpers.isTitleCase("This Should Be In Title Case"));
         assertTrue(StringHelpers.isTitleCase("THIS SHOULD STILL BE TITLE CASE"));
+        assertTrue(StringHelpers.isTitleCase("Two  Spaces"));
+        assertFalse(StringHelpers.isTitleCase("Two  spaces"));
     }
 
     @Test
@@ -46,7 +51,7 @@ class StringHelpersTest {
     @Test
     void testIsValidDateFormat() {
         assertTrue(StringHelpers.isValidDateFormat("10/12/1991"));
-        assertTrue(StringHelpers.isValidDateFormat("02/31/1000"));
+        assertFalse(StringHelpers.isValidDateFormat("02/31/1000"));
         assertTrue(StringHelpers.isValidDateFormat("05/12/1300"));
         assertFalse(StringHelpers.isValidDateFormat(""));
         assertFalse(StringHelpers.isValidDateFormat(null));
@@ -55,6 +60,33 @@ class StringHelpersTest {
         assertFalse(StringHelpers.isValidDateFormat("04/11/3000"));
     }
 
+    @Test
+    void testCalendarDatesAndParsing() {
+        assertEquals(0, StringHelpers.parseDate("01/01/1970"));
+        assertEquals(-1, StringHelpers.parseDate("12/31/1969"));
+        assertEquals(StringHelpers.unknownDate, StringHelpers.parseDate("02/30/1970"));
+
+        assertEquals("03/02/1904", StringHelpers.formatDate(StringHelpers.parseDate("03/02/1904")));
+        assertEquals("Unknown", StringHelpers.formatDate(StringHelpers.unknownDate));
+        assertEquals(1904, StringHelpers.getYear(StringHelpers.parseDate("03/02/1904")));
+    }
+
+    @Test
+    void testParseDateMatchesLocalDate() {
+        for (LocalDate date = LocalDate.of(1000, 1, 1); date.getYear() < 3000; date = date.plusDays(1)) {
+            String text = String.format("%02d/%02d/%04d", date.getMonthValue(), date.getDayOfMonth(), date.getYear());
+            int epochDay = (int) date.toEpochDay();
+
+            assertEquals(epochDay, StringHelpers.parseDate(text));
+            assertEquals(text, StringHelpers.formatDate(epochDay));
+        }
+
+        assertFalse(StringHelpers.isValidDateFormat("1/01/2000"));
+        assertFalse(StringHelpers.isValidDateFormat("01-01-2000"));
+        assertFalse(StringHelpers.isValidDateFormat("0a/01/2000"));
+        assertFalse(StringHelpers.isValidDateFormat("01/01/0999"));
+    }
+
     @Test
     void testIdGenerator() {
         int iterations = 3000;
@@ -80,4 +112,14 @@ class StringHelpersTest {
         assertFalse(StringHelpers.isAllLetters("afaf-1adf sdfsf"));
         assertFalse(StringHelpers.isAllLetters("asd/-asdf=sdf'fasdf\""));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testListStrings() throws IOException {
+        assertEquals("[]", StringHelpers.toListString(List.of()));
+        assertEquals(List.of("a", "b", "c").toString(), StringHelpers.toListString(List.of("a", "b", "c")));
+
+        StringBuilder out = new StringBuilder();
+        assertEquals(2, StringHelpers.appendJoined(out, List.of("Holes", "The Lorax").iterator()));
+        assertEquals("Holes, The Lorax", out.toString());
+    }
+}
@@ -0,0 +1,42 @@
+package Test;
+
+import Models.AdmissionControl;
+import Models.LibraryManager;
+import Models.LibraryTenants;
+import Models.TenantQuota;
+
+/**
+ * Libraries for tests that need one of their own instead of the LibraryManager singleton
+ **/
+class TestLibraries {
+    // More room and operations than any test uses
+    static final TenantQuota unlimitedQuota = new TenantQuota(100000, 100000, 100000, 1L << 40, 1e9, 1000000000);
+
+    /**
+     * New empty library (a tenant of its own LibraryTenants) whose quota and rate limits tests never reach
+     **/
+    static LibraryManager unlimited(String id) {
+        LibraryManager library = new LibraryTenants().getOrCreate(id, unlimitedQuota);
+
+        for (AdmissionControl.Operation operation : AdmissionControl.Operation.values())
+            library.getAdmissionControl().setRateLimit(operation, 1e9, 1000000000);
+
+        return library;
+    }
+
+    /**
+     * New library holding the five books and three dated authors LibraryManagerTest starts from
+     **/
+    static LibraryManager basicCatalog(String id) {
+        LibraryManager library = unlimited(id);
+        library.addBook("the cat in the hat", "dr. suess", "picture, children, fiction", 5);
+        library.addBook("my side of the mountain", "jean craighed george", "adventure, fiction", 3);
+        library.addBook("the great gatsby", "F. Scott Fitzgerald", "Historical Fiction, American, Romance", 4);
+        library.addBook("Where the Red Fern Grows", "Wilson rawls", "adventure, fiction", 2);
+        library.addBook("Frog and Toad are Friends", "Arnold Lobel", "Fiction, Picture, Children", 4);
+        library.addAuthor("F. Scott Fitzgerald", "09/24/1996");
+        library.addAuthor("Robert C. Martin", "12/05/1952");
+        library.addAuthor("Dr. Suess", "03/02/1904");
+        return library;
+    }
+}
@@ -0,0 +1,74 @@
+package Test;
+
+import Helpers.TinyLfuCache;
+import Models.LibraryManager;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TinyLfuCacheTest {
+    TinyLfuCache<String, String> cache = new TinyLfuCache<>(100);
+
+    @Test
+    void testGetAndPut() {
+        assertNull(cache.get("the lorax"));
+
+        cache.put("the lorax", "Title: The Lorax");
+        assertEquals("Title: The Lorax", cache.get("the lorax"));
+
+        cache.put("the lorax", "Title: The Lorax, Total Copies: 2");
+        assertEquals("Title: The Lorax, Total Copies: 2", cache.get("the lorax"));
+        assertEquals(1, cache.size());
+
+        TinyLfuCache.Stats stats = cache.getStats();
+        assertEquals(2, stats.getHitCount());
+        assertEquals(1, stats.getMissCount());
+    }
+
+    @Test
+    void testInvalidation() {
+        cache.put("gatsby", "v1");
+
+        assertNull(cache.get("gatsby", value -> value.equals("v2")));
+        assertNull(cache.get("gatsby"));
+
+        cache.put("gatsby", "v2");
+        cache.invalidate("gatsby");
+        assertNull(cache.get("gatsby"));
+        assertEquals(2, cache.getStats().getInvalidationCount());
+    }
+
+    @Test
+    void testStaysBoundedAndKeepsPopularEntries() {
+        for (int i = 0; i < 20; i++) {
+            cache.put("popular", "hot");
+            cache.get("popular");
+        }
+
+        for (int i = 0; i < 1000; i++) {
+            cache.put("one hit " + i, "cold");
+            cache.get("popular");
+        }
+
+        assertTrue(cache.size() <= 100);
+        assertEquals("hot", cache.get("popular"));
+        assertTrue(cache.getStats().getEvictionCount() >= 900);
+        assertTrue(cache.getStats().getHitRate() > 0.5);
+    }
+
+    @Test
+    void testLibraryResponsesInvalidated() {
+        LibraryManager library = TestLibraries.unlimited("cached-responses");
+        library.addBook("diary of the wimpy kid", "jeff kinney", "life, Fiction", 9);
+
+        String jeff = "Name: Jeff Kinney, Birth Date: Unknown, Books Written: [Diary Of The Wimpy Kid]";
+        assertEquals(jeff, library.getAuthorByName("jeff kinney"));
+        assertEquals(jeff, library.getAuthorByName("jeff kinney"));
+
+        // Cached response is replaced once the author changes
+        library.addBook("the long haul", "jeff kinney", "life, Fiction", 2);
+        jeff = "Name: Jeff Kinney, Birth Date: Unknown, Books Written: [Diary Of The Wimpy Kid, The Long Haul]";
+        assertEquals(jeff, library.getAuthorByName("jeff kinney"));
+        assertTrue(library.getResponseCacheStats().getInvalidationCount() > 0);
+    }
+}
@@ -0,0 +1,71 @@
+package Test;
+
+import Helpers.StringHelpers;
+import Models.User;
+import Models.UserRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserRegistryTest {
+    UserRegistry registry = new UserRegistry();
+
+    @Test
+    void testRegisterAndGet() {
+        User sam = new User("Sam", "password");
+        User copy = new User("Copy", "password");
+        copy.setId(sam.getId());
+
+        assertTrue(registry.register(sam));
+        assertFalse(registry.register(copy));
+        assertFalse(registry.register(null));
+        assertEquals(sam, registry.get(sam.getId()));
+        assertNull(registry.get("random id"));
+        assertNull(registry.get(null));
+        assertEquals(1, registry.size());
+
+        assertEquals(sam, registry.remove(sam.getId()));
+        assertFalse(registry.contains(sam.getId()));
+        assertEquals(0, registry.size());
+    }
+
+    @Test
+    void testConcurrentSignUps() throws InterruptedException {
+        int threads = 8, perThread = 2000;
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        List<Thread> workers = new ArrayList<>();
+
+        for (int i = 0; i < threads; i++) {
+            Thread worker = new Thread(() -> {
+                for (int j = 0; j < perThread; j++) {
+                    User newUser = new User("Sam", "password");
+                    assertTrue(registry.register(newUser));
+                    ids.add(newUser.getId());
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+
+        for (Thread worker : workers)
+            worker.join();
+
+        assertEquals(threads * perThread, registry.size());
+        assertEquals(threads * perThread, ids.size());
+        assertEquals(threads * perThread, registry.getUsers().size());
+    }
+
+    @Test
+    void testIdFormat() {
+        for (int i = 0; i < 100; i++) {
+            String id = StringHelpers.generateRandomId();
+            assertEquals(12, id.length());
+            assertTrue(id.chars().allMatch(c -> Character.isDigit(c) || (c >= 'a' && c <= 'z')));
+        }
+    }
+}